@@ -49,14 +49,15 @@ interface TransactionClient : BaseClient {
         @Param("granularity") granularity: DateTruncGranularity = DateTruncGranularity.DAY
     ): List<TxHistoryChartData>
 
-    @RequestLine("GET ${TransactionRoutes.RECENT}?$PAGE_PARAMETERS&fromDate={fromDate}&toDate={toDate}&txStatus={txStatus}&msgType={msgType}")
+    @RequestLine("GET ${TransactionRoutes.RECENT}?$PAGE_PARAMETERS&fromDate={fromDate}&toDate={toDate}&txStatus={txStatus}&msgType={msgType}&cursor={cursor}")
     fun recentTxs(
         @Param("count") count: Int = 10,
         @Param("page") page: Int = 1,
         @Param("msgType") msgType: String? = null,
         @Param("txStatus") txStatus: TxStatus? = null,
         @Param("fromDate") fromDate: LocalDate? = null,
-        @Param("toDate") toDate: LocalDate? = null
+        @Param("toDate") toDate: LocalDate? = null,
+        @Param("cursor") cursor: String? = null
     ): PagedResults<TxSummary>
 
     @RequestLine("GET ${TransactionRoutes.TX}?blockHeight={blockHeight}")
@@ -86,11 +87,12 @@ interface TransactionClient : BaseClient {
         @Param("blockHeight") blockHeight: Int? = null
     ): List<TxType>
 
-    @RequestLine("GET ${TransactionRoutes.TXS_AT_HEIGHT}?$PAGE_PARAMETERS&blockHeight={blockHeight}")
+    @RequestLine("GET ${TransactionRoutes.TXS_AT_HEIGHT}?$PAGE_PARAMETERS&blockHeight={blockHeight}&cursor={cursor}")
     fun txsAtHeight(
         @Param("blockHeight") blockHeight: Int,
         @Param("count") count: Int = 10,
-        @Param("page") page: Int = 1
+        @Param("page") page: Int = 1,
+        @Param("cursor") cursor: String? = null
     ): PagedResults<TxSummary>
 
     @RequestLine("GET ${TransactionRoutes.HEATMAP}?fromDate={fromDate}&toDate={toDate}&timeframe={timeframe}")
@@ -106,7 +108,7 @@ interface TransactionClient : BaseClient {
     @RequestLine("GET ${TransactionRoutes.TYPES_BY_MODULE}")
     fun typesByModule(@Param("module") module: MsgTypeSet): List<TxType>
 
-    @RequestLine("GET ${TransactionRoutes.TXS_BY_MODULE}?$PAGE_PARAMETERS&msgType={msgType}&txStatus={txStatus}&address={address}&denom={denom}&nftAddr={nftAddr}&ibcChain={ibcChain}&ibcSrcPort={ibcSrcPort}&ibcSrcChannel={ibcSrcChannel}&fromDate={fromDate}&toDate={toDate}")
+    @RequestLine("GET ${TransactionRoutes.TXS_BY_MODULE}?$PAGE_PARAMETERS&msgType={msgType}&txStatus={txStatus}&address={address}&denom={denom}&nftAddr={nftAddr}&ibcChain={ibcChain}&ibcSrcPort={ibcSrcPort}&ibcSrcChannel={ibcSrcChannel}&fromDate={fromDate}&toDate={toDate}&cursor={cursor}")
     fun txsByModule(
         @Param("module") module: MsgTypeSet,
         @Param("count") count: Int = 10,
@@ -120,10 +122,11 @@ interface TransactionClient : BaseClient {
         @Param("ibcSrcPort") ibcSrcPort: String? = null,
         @Param("ibcSrcChannel") ibcSrcChannel: String? = null,
         @Param("fromDate") fromDate: LocalDate? = null,
-        @Param("toDate") toDate: LocalDate? = null
+        @Param("toDate") toDate: LocalDate? = null,
+        @Param("cursor") cursor: String? = null
     ): PagedResults<TxSummary>
 
-    @RequestLine("GET ${TransactionRoutes.TXS_BY_ADDRESS}?$PAGE_PARAMETERS&msgType={msgType}&txStatus={txStatus}&fromDate={fromDate}&toDate={toDate}")
+    @RequestLine("GET ${TransactionRoutes.TXS_BY_ADDRESS}?$PAGE_PARAMETERS&msgType={msgType}&txStatus={txStatus}&fromDate={fromDate}&toDate={toDate}&cursor={cursor}")
     fun txsByAddress(
         @Param("address") address: String,
         @Param("count") count: Int = 10,
@@ -131,10 +134,11 @@ interface TransactionClient : BaseClient {
         @Param("msgType") msgType: String? = null,
         @Param("txStatus") txStatus: TxStatus? = null,
         @Param("fromDate") fromDate: LocalDate? = null,
-        @Param("toDate") toDate: LocalDate? = null
+        @Param("toDate") toDate: LocalDate? = null,
+        @Param("cursor") cursor: String? = null
     ): PagedResults<TxSummary>
 
-    @RequestLine("GET ${TransactionRoutes.TXS_BY_NFT}?$PAGE_PARAMETERS&msgType={msgType}&txStatus={txStatus}&fromDate={fromDate}&toDate={toDate}")
+    @RequestLine("GET ${TransactionRoutes.TXS_BY_NFT}?$PAGE_PARAMETERS&msgType={msgType}&txStatus={txStatus}&fromDate={fromDate}&toDate={toDate}&cursor={cursor}")
     fun txsByNft(
         @Param("nftAddr") nftAddr: String,
         @Param("count") count: Int = 10,
@@ -142,7 +146,8 @@ interface TransactionClient : BaseClient {
         @Param("msgType") msgType: String? = null,
         @Param("txStatus") txStatus: TxStatus? = null,
         @Param("fromDate") fromDate: LocalDate? = null,
-        @Param("toDate") toDate: LocalDate? = null
+        @Param("toDate") toDate: LocalDate? = null,
+        @Param("cursor") cursor: String? = null
     ): PagedResults<TxSummary>
 
     @RequestLine("GET ${TransactionRoutes.TXS_BY_MODULE_GOV}?$PAGE_PARAMETERS&address={address}&msgType={msgType}&txStatus={txStatus}&fromDate={fromDate}&toDate={toDate}")
@@ -168,7 +173,7 @@ interface TransactionClient : BaseClient {
         @Param("toDate") toDate: LocalDate? = null
     ): PagedResults<TxGov>
 
-    @RequestLine("GET ${TransactionRoutes.TXS_BY_IBC_CHAIN}?$PAGE_PARAMETERS&msgType={msgType}&txStatus={txStatus}&ibcSrcPort={ibcSrcPort}&ibcSrcChannel={ibcSrcChannel}&fromDate={fromDate}&toDate={toDate}")
+    @RequestLine("GET ${TransactionRoutes.TXS_BY_IBC_CHAIN}?$PAGE_PARAMETERS&msgType={msgType}&txStatus={txStatus}&ibcSrcPort={ibcSrcPort}&ibcSrcChannel={ibcSrcChannel}&fromDate={fromDate}&toDate={toDate}&cursor={cursor}")
     fun txsByIbcChain(
         @Param("ibcChain") ibcChain: String,
         @Param("count") count: Int = 10,
@@ -178,6 +183,7 @@ interface TransactionClient : BaseClient {
         @Param("ibcSrcPort") ibcSrcPort: String? = null,
         @Param("ibcSrcChannel") ibcSrcChannel: String? = null,
         @Param("fromDate") fromDate: LocalDate? = null,
-        @Param("toDate") toDate: LocalDate? = null
+        @Param("toDate") toDate: LocalDate? = null,
+        @Param("cursor") cursor: String? = null
     ): PagedResults<TxSummary>
 }
@@ -1,5 +1,6 @@
 package io.provenance.explorer.model.base
 
+import com.fasterxml.jackson.annotation.JsonInclude
 import java.math.BigInteger
 
 const val USD_UPPER = "USD"
@@ -9,7 +10,11 @@ data class PagedResults<T>(
     val pages: Int,
     val results: List<T>,
     val total: Long,
-    val rollupTotals: Map<String, CoinStr> = emptyMap()
+    val rollupTotals: Map<String, CoinStr> = emptyMap(),
+    // Pass back as `cursor` to fetch the next page on listings that support it; null on the last page. Pages fetched
+    // with a cursor aren't counted and report -1 for `pages` and `total`.
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    val nextCursor: String? = null
 )
 
 enum class DateTruncGranularity { MONTH, DAY, HOUR, MINUTE }
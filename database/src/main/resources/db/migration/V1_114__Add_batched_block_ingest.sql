@@ -0,0 +1,15 @@
+SELECT 'Add batched block ingest procedure' AS comment;
+
+CREATE OR REPLACE PROCEDURE add_blocks(bds block_update[])
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    bd block_update;
+BEGIN
+    FOREACH bd IN ARRAY bds
+        LOOP
+            CALL add_block(bd);
+        END LOOP;
+END;
+$$;
@@ -0,0 +1,11 @@
+SELECT 'Add block backfill partition checkpoints' AS comment;
+
+CREATE TABLE IF NOT EXISTS block_backfill_partition
+(
+    id           SERIAL PRIMARY KEY,
+    upper_height INT       NOT NULL,
+    lower_height INT       NOT NULL,
+    next_height  INT       NOT NULL,
+    completed    BOOLEAN   NOT NULL DEFAULT FALSE,
+    last_update  TIMESTAMP NOT NULL
+);
@@ -0,0 +1,87 @@
+SELECT 'Add protobuf payload columns to block_cache and tx_cache' AS comment;
+
+ALTER TABLE block_cache
+    ADD COLUMN IF NOT EXISTS block_proto BYTEA NULL,
+    ALTER COLUMN block DROP NOT NULL;
+
+ALTER TABLE tx_cache
+    ADD COLUMN IF NOT EXISTS tx_proto BYTEA NULL,
+    ALTER COLUMN tx_v2 DROP NOT NULL;
+
+-- Supports the payload migrator, which walks the rows still stored as json
+CREATE INDEX IF NOT EXISTS block_cache_json_payload_idx ON block_cache (height) WHERE block_proto IS NULL;
+CREATE INDEX IF NOT EXISTS tx_cache_json_payload_idx ON tx_cache (id) WHERE tx_proto IS NULL;
+
+SELECT 'Update add_block for protobuf payloads' AS comment;
+CREATE OR REPLACE PROCEDURE add_block(bd block_update)
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    tx_height INT; --block height
+    timez     TIMESTAMP; -- block timestamp
+    tu        tx_update;
+BEGIN
+    SELECT (bd).blocks.height INTO tx_height;
+    SELECT (bd).blocks.block_timestamp INTO timez;
+    -- insert block
+    INSERT INTO block_cache(height, tx_count, block_timestamp, block, last_hit, hit_count, block_proto)
+    VALUES (tx_height,
+            (bd).blocks.tx_count,
+            timez,
+            (bd).blocks.block,
+            (bd).blocks.last_hit,
+            (bd).blocks.hit_count,
+            (bd).blocks.block_proto)
+    ON CONFLICT (height) DO NOTHING;
+    -- insert block tx count
+    INSERT INTO block_tx_count_cache(block_height, block_timestamp, tx_count)
+    VALUES (tx_height, timez, (bd).blocks.tx_count)
+    ON CONFLICT (block_height) DO NOTHING;
+    -- insert block proposer fee
+    INSERT INTO block_proposer(block_height, block_timestamp, proposer_operator_address, block_latency)
+    VALUES (tx_height,
+            timez,
+            (bd).proposer.proposer_operator_address,
+            (bd).proposer.block_latency)
+    ON CONFLICT (block_height) DO NOTHING;
+    -- insert validator cache
+    INSERT INTO validators_cache(height, validators, last_hit, hit_count)
+    VALUES (tx_height, (bd).validatorCache.validators, (bd).validatorCache.last_hit, (bd).validatorCache.hit_count)
+    ON CONFLICT (height) DO NOTHING;
+    -- for each tx
+    FOREACH tu IN ARRAY (bd).txs
+        LOOP
+            CALL add_tx(tu, tx_height, timez);
+        END LOOP;
+    RAISE INFO 'UPDATED block';
+EXCEPTION
+    WHEN others THEN
+        RAISE EXCEPTION 'Error saving block %. Error Code: %, Message: %.', (bd).blocks.height, SQLSTATE, SQLERRM;
+END;
+$$;
+
+SELECT 'Update insert_tx_cache_returning_id for protobuf payloads' AS comment;
+CREATE OR REPLACE FUNCTION insert_tx_cache_returning_id(tx tx_cache, tx_height integer, timez timestamp without time zone, OUT txid integer) RETURNS integer
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    WITH t AS (
+        INSERT INTO tx_cache (hash, height, gas_wanted, gas_used, tx_timestamp, error_code, codespace, tx_v2, tx_proto)
+            VALUES (tx.hash,
+                    tx_height,
+                    tx.gas_wanted,
+                    tx.gas_used,
+                    timez,
+                    tx.error_code,
+                    tx.codespace,
+                    tx.tx_v2,
+                    tx.tx_proto)
+            ON CONFLICT (height, hash) DO NOTHING
+            RETURNING id
+    )
+    SELECT * FROM t
+    UNION SELECT id FROM tx_cache WHERE hash = tx.hash and height = tx_height
+    INTO txId;
+END
+$$;
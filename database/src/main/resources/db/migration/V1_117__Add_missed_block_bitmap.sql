@@ -0,0 +1,48 @@
+SELECT 'Add missed block bitmaps' AS comment;
+
+-- One row per validator per 65536 heights; bit n marks height chunk_start + n as missed
+CREATE TABLE IF NOT EXISTS missed_block_bitmap
+(
+    val_cons_address VARCHAR(128) NOT NULL,
+    chunk_start      INT          NOT NULL,
+    bits             BYTEA        NOT NULL,
+    PRIMARY KEY (val_cons_address, chunk_start)
+);
+
+CREATE OR REPLACE FUNCTION set_missed_block_bit(address VARCHAR(128), height INT) RETURNS VOID
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    chunk INT := (height / 65536) * 65536;
+BEGIN
+    INSERT INTO missed_block_bitmap (val_cons_address, chunk_start, bits)
+    VALUES (address, chunk, set_bit(decode(repeat('00', 8192), 'hex'), height - chunk, 1))
+    ON CONFLICT (val_cons_address, chunk_start)
+        DO UPDATE SET bits = set_bit(missed_block_bitmap.bits, height - chunk, 1);
+END
+$$;
+
+SELECT 'Seed missed block bitmaps from missed_blocks' AS comment;
+DO
+$$
+DECLARE
+    grp  RECORD;
+    bits BYTEA;
+    h    INT;
+BEGIN
+    FOR grp IN
+        SELECT val_cons_address, (block_height / 65536) * 65536 AS chunk_start, array_agg(block_height) AS heights
+        FROM missed_blocks
+        GROUP BY val_cons_address, (block_height / 65536) * 65536
+        LOOP
+            bits := decode(repeat('00', 8192), 'hex');
+            FOREACH h IN ARRAY grp.heights
+                LOOP
+                    bits := set_bit(bits, h - grp.chunk_start, 1);
+                END LOOP;
+            INSERT INTO missed_block_bitmap (val_cons_address, chunk_start, bits)
+            VALUES (grp.val_cons_address, grp.chunk_start, bits)
+            ON CONFLICT (val_cons_address, chunk_start) DO NOTHING;
+        END LOOP;
+END
+$$;
@@ -0,0 +1,66 @@
+SELECT 'Add maintained tx counts' AS comment;
+
+-- Tx counts per scope: ALL (scope_id 0) for every tx, ACCOUNT / OPERATOR for each address in tx_address_join.
+-- Ingest only appends delta rows so concurrent writers never contend on a counter; `compact_tx_counts` folds them.
+CREATE TABLE IF NOT EXISTS tx_count
+(
+    scope    VARCHAR(16) NOT NULL,
+    scope_id INT         NOT NULL,
+    tx_count BIGINT      NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS tx_count_scope_idx ON tx_count (scope, scope_id);
+
+CREATE OR REPLACE FUNCTION insert_tx_count_all()
+    RETURNS TRIGGER AS
+$$
+BEGIN
+    INSERT INTO tx_count (scope, scope_id, tx_count) VALUES ('ALL', 0, 1);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION insert_tx_count_address()
+    RETURNS TRIGGER AS
+$$
+BEGIN
+    INSERT INTO tx_count (scope, scope_id, tx_count) VALUES (new.address_type, new.address_id, 1);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION compact_tx_counts() RETURNS VOID
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    WITH dup AS (
+        SELECT scope, scope_id FROM tx_count GROUP BY scope, scope_id HAVING count(*) > 1
+    ),
+    moved AS (
+        DELETE FROM tx_count c USING dup
+        WHERE c.scope = dup.scope AND c.scope_id = dup.scope_id
+        RETURNING c.scope, c.scope_id, c.tx_count
+    )
+    INSERT INTO tx_count (scope, scope_id, tx_count)
+    SELECT scope, scope_id, sum(tx_count) FROM moved GROUP BY scope, scope_id;
+END
+$$;
+
+SELECT 'Seed tx counts' AS comment;
+INSERT INTO tx_count (scope, scope_id, tx_count)
+SELECT 'ALL', 0, count(*) FROM tx_cache;
+
+INSERT INTO tx_count (scope, scope_id, tx_count)
+SELECT address_type, address_id, count(*) FROM tx_address_join GROUP BY address_type, address_id;
+
+CREATE TRIGGER trigger_tx_cache_insert_to_count
+    AFTER INSERT
+    ON tx_cache
+    FOR EACH ROW
+EXECUTE PROCEDURE insert_tx_count_all();
+
+CREATE TRIGGER trigger_tx_address_join_insert_to_count
+    AFTER INSERT
+    ON tx_address_join
+    FOR EACH ROW
+EXECUTE PROCEDURE insert_tx_count_address();
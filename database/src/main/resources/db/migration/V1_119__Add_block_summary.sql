@@ -0,0 +1,17 @@
+SELECT 'Add block summary' AS comment;
+
+-- Everything a block listing needs, written at ingest so listings never decode block or validator payloads.
+-- A block's signed count and power come from the next block's last commit, so each row carries the figures
+-- for the height below it in `prev_signed_count` / `prev_signed_power`.
+CREATE TABLE IF NOT EXISTS block_summary
+(
+    height            INT PRIMARY KEY,
+    hash              VARCHAR(64) NOT NULL,
+    block_time        VARCHAR(40) NOT NULL,
+    proposer_address  VARCHAR(96) NOT NULL,
+    tx_count          INT         NOT NULL,
+    validator_count   INT         NOT NULL,
+    voting_power      BIGINT      NOT NULL,
+    prev_signed_count INT,
+    prev_signed_power BIGINT
+);
@@ -0,0 +1,30 @@
+SELECT 'Add pulse backfill jobs' AS comment;
+
+-- A requested pulse backfill. Its work lives in `pulse_backfill_item`, one row per (date, type), so a backfill
+-- survives restarts and can be spread across workers.
+CREATE TABLE IF NOT EXISTS pulse_backfill_job
+(
+    id           SERIAL PRIMARY KEY,
+    from_date    DATE      NOT NULL,
+    to_date      DATE      NOT NULL,
+    types        TEXT      NOT NULL,
+    denom        TEXT,
+    created_at   TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    completed_at TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS pulse_backfill_item
+(
+    id           SERIAL PRIMARY KEY,
+    job_id       INT       NOT NULL REFERENCES pulse_backfill_job (id) ON DELETE CASCADE,
+    item_date    DATE      NOT NULL,
+    type         TEXT      NOT NULL,
+    status       TEXT      NOT NULL DEFAULT 'PENDING',
+    attempts     INT       NOT NULL DEFAULT 0,
+    last_error   TEXT,
+    started_at   TIMESTAMP,
+    completed_at TIMESTAMP
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_pulse_backfill_item_job_date_type ON pulse_backfill_item (job_id, item_date, type);
+CREATE INDEX IF NOT EXISTS idx_pulse_backfill_item_status_date ON pulse_backfill_item (status, item_date);
@@ -0,0 +1,55 @@
+SELECT 'Add daily tx counts' AS comment;
+
+-- Tx counts per day, kept up to date alongside the hourly counts as blocks are processed, so Pulse can read daily
+-- and running totals without scanning `tx_cache`.
+CREATE TABLE IF NOT EXISTS block_cache_daily_tx_counts
+(
+    block_date DATE PRIMARY KEY,
+    tx_count   BIGINT NOT NULL DEFAULT 0
+);
+
+INSERT INTO block_cache_daily_tx_counts (block_date, tx_count)
+SELECT block_timestamp::date, SUM(tx_count)
+FROM block_cache_hourly_tx_counts
+GROUP BY block_timestamp::date
+ON CONFLICT (block_date) DO NOTHING;
+
+-- Recalculate tx counts for unprocessed blocks
+CREATE OR REPLACE PROCEDURE update_block_cache_hourly_tx_counts()
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    unprocessed INT[];
+BEGIN
+    SELECT array_agg(block_height) from block_tx_count_cache WHERE processed = false INTO unprocessed;
+
+    INSERT
+    INTO block_cache_hourly_tx_counts (block_timestamp, tx_count)
+    SELECT date_trunc('HOUR', block_tx_count_cache.block_timestamp) AS block_timestamp,
+           SUM(block_tx_count_cache.tx_count)                       AS tx_count
+    FROM block_tx_count_cache
+    WHERE block_tx_count_cache.block_height = ANY (unprocessed)
+    GROUP BY date_trunc('HOUR', block_tx_count_cache.block_timestamp)
+    ON CONFLICT (block_timestamp)
+        DO UPDATE
+        SET tx_count = block_cache_hourly_tx_counts.tx_count + excluded.tx_count;
+
+    INSERT
+    INTO block_cache_daily_tx_counts (block_date, tx_count)
+    SELECT block_tx_count_cache.block_timestamp::date AS block_date,
+           SUM(block_tx_count_cache.tx_count)         AS tx_count
+    FROM block_tx_count_cache
+    WHERE block_tx_count_cache.block_height = ANY (unprocessed)
+    GROUP BY block_tx_count_cache.block_timestamp::date
+    ON CONFLICT (block_date)
+        DO UPDATE
+        SET tx_count = block_cache_daily_tx_counts.tx_count + excluded.tx_count;
+
+    UPDATE block_tx_count_cache
+    SET processed = true
+    WHERE block_height = ANY (unprocessed);
+
+    RAISE INFO 'UPDATED Tx history';
+END;
+$$;
@@ -0,0 +1,44 @@
+SELECT 'Add latest nav table' AS comment;
+
+-- The most recent nav event per marker denom or scope, price denom and source. Upserted alongside `nav_events` as
+-- navs are saved, so latest-price lookups don't have to sort the whole event history.
+CREATE TABLE IF NOT EXISTS latest_nav
+(
+    nav_key      TEXT      NOT NULL, -- denom for marker navs, scope id for scope navs
+    price_denom  TEXT      NOT NULL,
+    source       TEXT      NOT NULL,
+    block_height INT       NOT NULL,
+    block_time   TIMESTAMP NOT NULL,
+    tx_hash      TEXT,
+    event_order  INT       NOT NULL,
+    event_type   TEXT,
+    scope_id     TEXT,
+    denom        TEXT,
+    price_amount BIGINT    NOT NULL,
+    volume       BIGINT,
+    PRIMARY KEY (nav_key, price_denom, source)
+);
+
+CREATE INDEX IF NOT EXISTS idx_latest_nav_price_denom ON latest_nav (price_denom);
+
+INSERT INTO latest_nav (nav_key, price_denom, source, block_height, block_time, tx_hash, event_order, event_type,
+                        scope_id, denom, price_amount, volume)
+SELECT DISTINCT ON (COALESCE(denom, scope_id), price_denom, COALESCE(source, ''))
+    COALESCE(denom, scope_id),
+    price_denom,
+    COALESCE(source, ''),
+    block_height,
+    block_time,
+    tx_hash,
+    COALESCE(event_order, 0),
+    event_type,
+    scope_id,
+    denom,
+    price_amount,
+    volume
+FROM nav_events
+WHERE (denom IS NOT NULL OR scope_id IS NOT NULL)
+  AND price_amount IS NOT NULL
+  AND price_denom IS NOT NULL
+ORDER BY COALESCE(denom, scope_id), price_denom, COALESCE(source, ''), block_height DESC, event_order DESC
+ON CONFLICT (nav_key, price_denom, source) DO NOTHING;
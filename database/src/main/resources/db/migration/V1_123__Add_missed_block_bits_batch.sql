@@ -0,0 +1,38 @@
+SELECT 'Set missed block bits in batches' AS comment;
+
+-- Sets the given bit offsets in a bitmap
+CREATE OR REPLACE FUNCTION set_missed_bits(bits BYTEA, offsets INT[]) RETURNS BYTEA
+    LANGUAGE plpgsql IMMUTABLE AS
+$$
+DECLARE
+    o INT;
+BEGIN
+    FOREACH o IN ARRAY offsets
+        LOOP
+            bits := set_bit(bits, o, 1);
+        END LOOP;
+    RETURN bits;
+END
+$$;
+
+-- Marks every (address, height) pair of one chunk as missed, writing each validator's bitmap once. The UPDATE reads
+-- the current bits under the row lock, so concurrent writers to the same bitmap don't lose each other's bits.
+CREATE OR REPLACE FUNCTION set_missed_block_bits(chunk INT, addresses TEXT[], heights INT[]) RETURNS VOID
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    INSERT INTO missed_block_bitmap (val_cons_address, chunk_start, bits)
+    SELECT DISTINCT a.address, chunk, decode(repeat('00', 8192), 'hex')
+    FROM unnest(addresses) AS a(address)
+    ORDER BY a.address
+    ON CONFLICT (val_cons_address, chunk_start) DO NOTHING;
+
+    UPDATE missed_block_bitmap b
+    SET bits = set_missed_bits(b.bits, m.offsets)
+    FROM (SELECT u.address, array_agg(u.height - chunk) AS offsets
+          FROM unnest(addresses, heights) AS u(address, height)
+          GROUP BY u.address) m
+    WHERE b.val_cons_address = m.address
+      AND b.chunk_start = chunk;
+END
+$$;
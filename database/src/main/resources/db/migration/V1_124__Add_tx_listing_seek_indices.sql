@@ -0,0 +1,17 @@
+SELECT 'Add tx listing seek indices' AS comment;
+
+-- Tx listings page by (height, id) descending; these let a cursor seek start at its position with a range scan
+CREATE INDEX IF NOT EXISTS tx_cache_height_id_idx ON tx_cache (height DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS tx_address_join_address_id_type_height_idx
+    ON tx_address_join (address_id, address_type, block_height DESC, tx_hash_id DESC);
+CREATE INDEX IF NOT EXISTS tx_address_join_address_height_idx
+    ON tx_address_join (address, block_height DESC, tx_hash_id DESC);
+CREATE INDEX IF NOT EXISTS tx_marker_join_marker_id_height_idx
+    ON tx_marker_join (marker_id, block_height DESC, tx_hash_id DESC);
+CREATE INDEX IF NOT EXISTS tx_marker_join_denom_height_idx
+    ON tx_marker_join (denom, block_height DESC, tx_hash_id DESC);
+CREATE INDEX IF NOT EXISTS tx_nft_join_metadata_id_type_height_idx
+    ON tx_nft_join (metadata_id, metadata_type, block_height DESC, tx_hash_id DESC);
+CREATE INDEX IF NOT EXISTS tx_ibc_channel_id_height_idx
+    ON tx_ibc (channel_id, block_height DESC, tx_hash_id DESC);
@@ -0,0 +1,4 @@
+SELECT 'Add cache_update row for the spotlight' AS comment;
+
+INSERT INTO cache_update(cache_key, description, cache_value, last_updated)
+VALUES ('spotlight', 'Latest spotlight, read by the live feed on every instance', null, now());
@@ -0,0 +1,4 @@
+SELECT 'Add pulse backfill item heartbeat' AS comment;
+
+-- Refreshed by the worker holding a running item; an item whose heartbeat stops is taken back for another worker
+ALTER TABLE pulse_backfill_item ADD COLUMN IF NOT EXISTS heartbeat_at TIMESTAMP;
@@ -0,0 +1,45 @@
+SELECT 'Add nav daily rollups' AS comment;
+
+-- Exchange trade counts and usd trade value per day. Added to in the same transaction as each new `nav_events` row,
+-- so Pulse can read the day's trade metrics without loading the day's events.
+CREATE TABLE IF NOT EXISTS nav_daily_trade_totals
+(
+    block_date  DATE PRIMARY KEY,
+    trade_count BIGINT  NOT NULL DEFAULT 0,
+    trade_value NUMERIC NOT NULL DEFAULT 0 -- micro usd
+);
+
+INSERT INTO nav_daily_trade_totals (block_date, trade_count, trade_value)
+SELECT block_time::date,
+       COUNT(*),
+       COALESCE(SUM(price_amount) FILTER (WHERE price_denom LIKE 'uusd%' OR price_denom = 'uylds.fcc'), 0)
+FROM nav_events
+WHERE source LIKE 'x/exchange%'
+GROUP BY block_time::date
+ON CONFLICT (block_date) DO NOTHING;
+
+-- The last metadata usd nav per scope per day, kept the same way, for the day's scope navs.
+CREATE TABLE IF NOT EXISTS nav_daily_scope_navs
+(
+    block_date   DATE   NOT NULL,
+    scope_id     TEXT   NOT NULL,
+    block_height INT    NOT NULL,
+    event_order  INT    NOT NULL,
+    price_amount BIGINT NOT NULL,
+    PRIMARY KEY (block_date, scope_id)
+);
+
+INSERT INTO nav_daily_scope_navs (block_date, scope_id, block_height, event_order, price_amount)
+SELECT DISTINCT ON (block_time::date, scope_id)
+    block_time::date,
+    scope_id,
+    block_height,
+    COALESCE(event_order, 0),
+    price_amount
+FROM nav_events
+WHERE source = 'metadata'
+  AND price_denom = 'usd'
+  AND scope_id IS NOT NULL
+  AND price_amount IS NOT NULL
+ORDER BY block_time::date, scope_id, block_height DESC, event_order DESC
+ON CONFLICT (block_date, scope_id) DO NOTHING;
@@ -0,0 +1,4 @@
+SELECT 'Add latest nav key height index' AS comment;
+
+-- Newest row per nav key in index order, for the DISTINCT ON in latest nav lookups
+CREATE INDEX IF NOT EXISTS idx_latest_nav_key_height ON latest_nav (nav_key, block_height DESC, event_order DESC);
@@ -0,0 +1,181 @@
+SELECT 'Update update_tx_fees() for protobuf payloads' AS comment;
+
+-- Fee amounts are only in the json payload, which isn't kept for txs stored as protobuf. Fees are only rebuilt for
+-- txs that still have it; the rest keep the rows written at ingest. Gas now comes from the typed columns.
+CREATE OR REPLACE PROCEDURE update_tx_fees(updateFromHeight int)
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+
+    DELETE
+    FROM tx_fee tf
+        USING tx_cache tc
+    WHERE tf.tx_hash_id = tc.id
+      AND tf.block_height >= updateFromHeight
+      AND tc.tx_v2 IS NOT NULL;
+
+    WITH baseVars (baseDenom, height) AS ( VALUES ('nhash', updateFromHeight) ),
+         msgFees (protoType, additionalFee) AS (
+             values ('/provenance.attribute.v1.MsgAddAttributeRequest', 10000000000),
+                    ('/provenance.metadata.v1.MsgWriteScopeRequest', 10000000000),
+                    ('/provenance.metadata.v1.MsgP8eMemorializeContractRequest', 10000000000),
+                    ('/provenance.name.v1.MsgBindNameRequest', 10000000000),
+                    ('/cosmos.gov.v1beta1.MsgSubmitProposal', 100000000000),
+                    ('/provenance.marker.v1.MsgAddMarkerRequest', 100000000000)
+         ),
+         msgEvents (protoType, event, field) AS (
+             values ('/provenance.attribute.v1.MsgAddAttributeRequest', 'provenance.attribute.v1.EventAttributeAdd', 'account'),
+                    ('/provenance.metadata.v1.MsgWriteScopeRequest', 'provenance.metadata.v1.EventScopeCreated', 'scope_addr'),
+                    ('/provenance.metadata.v1.MsgWriteScopeRequest', 'provenance.metadata.v1.EventScopeUpdated', 'scope_addr'),
+                    ('/provenance.name.v1.MsgBindNameRequest', 'provenance.name.v1.EventNameBound', 'address'),
+                    ('/cosmos.gov.v1beta1.MsgSubmitProposal', 'submit_proposal', 'proposal_id'),
+                    ('/provenance.marker.v1.MsgAddMarkerRequest', 'provenance.marker.v1.EventMarkerAdd', 'denom')
+         ),
+         msgFeeMsg AS (
+             SELECT tm.tx_hash_id,
+                    tmt.proto_type,
+                    tmt.type,
+                    mf.additionalFee,
+                    count(*) count,
+                    count(*) * mf.additionalFee typedFees
+             FROM baseVars, tx_message tm
+                                JOIN tx_message_type tmt ON tm.tx_message_type_id = tmt.id
+                                JOIN msgFees mf ON mf.protoType = tmt.proto_type
+             WHERE tm.block_height >= baseVars.height
+               AND tmt.proto_type = ANY (SELECT protoType FROM msgFees)
+             GROUP BY tm.tx_hash_id, tmt.proto_type, tmt.type, mf.additionalFee
+         ),
+         msgFeeEvent AS (
+             SELECT tm.tx_hash_id,
+                    mf.protoType,
+                    tmt.type,
+                    mf.additionalFee,
+                    count(*) count,
+                    count(*) * mf.additionalFee typedFees
+             FROM baseVars, tx_message tm
+                                JOIN tx_message_type tmt ON tm.tx_message_type_id = tmt.id
+                                JOIN tx_msg_event tme ON tm.id = tme.tx_message_id
+                                JOIN tx_msg_event_attr tmea ON tme.id = tmea.tx_msg_event_id
+                                JOIN msgEvents me ON me.event = tme.event_type
+                                JOIN msgFees mf ON me.protoType = mf.protoType
+             WHERE tm.block_height >= baseVars.height
+               AND tmt.proto_type IN ('/cosmwasm.wasm.v1.MsgExecuteContract')
+               AND tme.event_type = ANY (SELECT event FROM msgEvents)
+               AND tmea.attr_key = ANY (SELECT field FROM msgEvents)
+             GROUP BY tm.tx_hash_id, mf.protoType, tmt.type, tme.event_type, tmea.attr_key, mf.additionalFee
+         ),
+         msgFeesByType AS (
+             SELECT
+                 tx_hash_id,
+                 proto_type,
+                 type,
+                 baseVars.baseDenom denom,
+                 additionalFee,
+                 sum(count) count,
+                 sum(typedFees) typedFees
+             FROM (
+                      SELECT *
+                      FROM msgFeeMsg mfm
+                      UNION ALL
+                      SELECT *
+                      FROM msgFeeEvent mfe
+                  ) AS combined, baseVars
+             GROUP BY tx_hash_id, proto_type, type, baseVars.baseDenom, additionalFee
+         ),
+         msgFeesByTx AS (
+             SELECT
+                 tx_hash_id,
+                 sum(typedFees) txMsgFees
+             FROM msgFeesByType
+             GROUP BY tx_hash_id
+         ),
+         base AS (
+             SELECT tc.height,
+                    tc.id,
+                    tc.hash,
+                    tc.error_code is null                                 success,
+                    amounts.denom                                         denom,
+                    amounts.amount::numeric                               amount,
+                    tc.gas_wanted::numeric                                wanted,
+                    tc.gas_used::numeric                                  used
+             FROM baseVars, tx_cache tc,
+                  jsonb_to_recordset(tc.tx_v2 -> 'tx' -> 'auth_info' -> 'fee' -> 'amount') amounts("denom" text, "amount" text)
+             WHERE tc.height >= baseVars.height
+               AND tc.tx_v2 IS NOT NULL
+         ),
+         marketRate AS (
+             SELECT
+                 base.id tx_hash_id,
+                 (base.amount - COALESCE(mfbt.txMsgFees, 0)) / base.wanted marketRate
+             FROM base
+                      LEFT JOIN msgFeesByTx mfbt ON mfbt.tx_hash_id = base.id
+         ),
+         feeAmount AS (
+             SELECT base.id                                                         txId,
+                    mc.id                                                           denomId,
+                    base.denom,
+                    MAX(amount) feeAmount,
+                    MAX(CASE
+                            WHEN base.denom = baseVars.baseDenom AND used > wanted
+                                THEN round(amount) - COALESCE(mfbt.txMsgFees, 0)
+                            WHEN base.denom = baseVars.baseDenom AND used <= wanted
+                                THEN round(used * marketRate)
+                        END)                                                        baseFeeUsed,
+                    MAX(CASE
+                            WHEN base.denom = baseVars.baseDenom AND used > wanted
+                                THEN 0
+                            WHEN base.denom = baseVars.baseDenom AND used <= wanted
+                                THEN round(amount) - COALESCE(mfbt.txMsgFees, 0) - round(used * marketRate)
+                        END)                                                        baseFeeOverage,
+                    MAX(CASE WHEN base.denom = baseVars.baseDenom THEN mfbt.txMsgFees END) txMsgFees
+             FROM baseVars,
+                  base
+                      JOIN marker_cache mc ON base.denom = mc.denom
+                      JOIN marketRate mr ON mr.tx_hash_id = base.id
+                      LEFT JOIN msgFeesByTx mfbt ON mfbt.tx_hash_id = base.id
+             GROUP BY base.id, mc.id, base.denom
+         ),
+         arrays AS (
+             SELECT txId,
+                    denomId,
+                    denom,
+                    ARRAY [baseFeeUsed, baseFeeOverage]             feeArray,
+                    ARRAY ['BASE_FEE_USED', 'BASE_FEE_OVERAGE'] typeArray
+             FROM feeAmount
+         ),
+         matched AS (
+             SELECT arrays.txId              txId,
+                    arrays.denomId           denomId,
+                    arrays.denom             denom,
+                    unnest(arrays.feeArray)  fee,
+                    unnest(arrays.typeArray) typed,
+                    null                     msgType
+             FROM arrays
+         ),
+         unioned AS (
+             SELECT *
+             FROM matched
+             UNION ALL
+             (
+                 SELECT tx_hash_id      txId,
+                        mc.id           denomId,
+                        mfbt.denom      denom,
+                        mfbt.typedFees  fee,
+                        'MSG_BASED_FEE' typed,
+                        mfbt.type       msgType
+                 FROM msgFeesByType mfbt
+                          JOIN marker_cache mc ON mfbt.denom = mc.denom
+                          JOIN base ON base.id = mfbt.tx_hash_id
+                 WHERE base.success
+             )
+         )
+    INSERT INTO tx_fee (block_height, tx_hash_id, tx_hash, fee_type, marker_id, marker, amount, msg_type)
+    SELECT base.height, base.id, base.hash, unioned.typed, unioned.denomId, unioned.denom, unioned.fee, unioned.msgType
+    FROM base
+             JOIN unioned ON base.id = unioned.txId
+    WHERE fee IS NOT NULL AND fee != 0
+    ON CONFLICT (tx_hash_id, fee_type, COALESCE(msg_type,''), marker_id) DO NOTHING;
+
+END;
+$$;
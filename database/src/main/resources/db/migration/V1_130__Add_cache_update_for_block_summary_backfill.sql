@@ -0,0 +1,4 @@
+SELECT 'Add cache_update row for the block summary backfill' AS comment;
+
+INSERT INTO cache_update(cache_key, description, cache_value, last_updated)
+VALUES ('block_summary_backfill_before', 'Lowest height scanned by the block summary backfill, or DONE', null, now());
@@ -0,0 +1,11 @@
+SELECT 'Drop set_missed_block_bit, add missed block popcount' AS comment;
+
+-- Replaced by set_missed_block_bits, which writes a whole chunk per call
+DROP FUNCTION IF EXISTS set_missed_block_bit(VARCHAR, INT);
+
+-- Number of set bits in a bitmap. bit_count(bytea) needs Postgres 14, so this counts the ones in its bit string.
+CREATE OR REPLACE FUNCTION missed_bits_count(bits BYTEA) RETURNS INT
+    LANGUAGE sql IMMUTABLE AS
+$$
+SELECT length(replace(('x' || encode(bits, 'hex'))::VARBIT::TEXT, '0', ''))
+$$;
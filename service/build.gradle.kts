@@ -9,6 +9,7 @@ plugins {
     alias(libs.plugins.kotlin.spring)
     alias(libs.plugins.gradle.gitprops)
     alias(libs.plugins.spring.boot)
+    alias(libs.plugins.spring.dependency.management)
     alias(libs.plugins.testlogger).apply(false)
 }
 
@@ -56,6 +57,7 @@ dependencies {
     implementation(libs.kase.change)
     implementation(libs.kotlin.reflect)
     implementation(libs.kotlinx.coroutines.core)
+    implementation(libs.micrometer.registry.prometheus)
     implementation(libs.postgresql)
     implementation(libs.protobuf.kotlin)
     implementation(libs.provenance.proto)
@@ -1,21 +1,122 @@
 package io.provenance.explorer.config
 
+import com.github.benmanes.caffeine.cache.Caffeine
+import io.provenance.explorer.domain.entities.BlockCacheRecord
+import org.springframework.cache.CacheManager
 import org.springframework.cache.caffeine.CaffeineCacheManager
+import org.springframework.cache.interceptor.KeyGenerator
 import org.springframework.context.annotation.Bean
 import org.springframework.context.annotation.Configuration
+import org.springframework.scheduling.annotation.Scheduled
+import org.springframework.stereotype.Component
+import java.lang.reflect.Method
+import java.time.temporal.Temporal
 import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+// Size and lifetime of a named response cache. Height-aware caches are also cleared whenever a new height is committed.
+data class ResponseCacheSpec(
+    val maxSize: Long = 1000,
+    val ttlSeconds: Long = 60,
+    val heightAware: Boolean = true
+)
 
 @Configuration
 class CacheConfig {
 
+    companion object {
+        const val RESPONSES = "responses"
+        const val BLOCKS = "blocks"
+        const val TXS = "txs"
+        const val TX_DETAILS = "txDetails"
+        const val TX_TYPES = "txTypes"
+        const val VALIDATORS = "validators"
+        const val CHAIN = "chain"
+
+        // Key generator for the named caches, see `NormalizedKeyGenerator`
+        const val NORMALIZED_KEY = "normalizedKeyGenerator"
+
+        // Used for any cache not overridden by `explorer.response-caches`
+        val DEFAULT_SPECS = mapOf(
+            RESPONSES to ResponseCacheSpec(maxSize = 100, ttlSeconds = 30),
+            BLOCKS to ResponseCacheSpec(maxSize = 500, ttlSeconds = 30),
+            TXS to ResponseCacheSpec(maxSize = 2000, ttlSeconds = 30),
+            // Fees, names and other state can be attached to a tx after it's first read, so these clear with the rest
+            TX_DETAILS to ResponseCacheSpec(maxSize = 5000, ttlSeconds = 60),
+            TX_TYPES to ResponseCacheSpec(maxSize = 100, ttlSeconds = 300, heightAware = false),
+            VALIDATORS to ResponseCacheSpec(maxSize = 200, ttlSeconds = 60),
+            CHAIN to ResponseCacheSpec(maxSize = 100, ttlSeconds = 300, heightAware = false)
+        )
+    }
+
     @Bean
-    fun cacheManager() =
-        CaffeineCacheManager("responses").apply {
-            setCaffeine(caffeineConfig())
+    fun cacheManager(props: ExplorerProperties) =
+        CaffeineCacheManager().apply {
+            setCaffeine(caffeineConfig(DEFAULT_SPECS.getValue(RESPONSES)))
+            (DEFAULT_SPECS + props.responseCaches).forEach { (name, spec) ->
+                registerCustomCache(name, caffeineConfig(spec).build())
+            }
         }
 
-    fun caffeineConfig() =
-        com.github.benmanes.caffeine.cache.Caffeine.newBuilder()
-            .expireAfterWrite(30, TimeUnit.SECONDS)
-            .maximumSize(100)
+    // Stats feed the actuator `cache.gets` hit/miss metrics
+    fun caffeineConfig(spec: ResponseCacheSpec) =
+        Caffeine.newBuilder()
+            .expireAfterWrite(spec.ttlSeconds, TimeUnit.SECONDS)
+            .maximumSize(spec.maxSize)
+            .recordStats()
+
+    @Bean(NORMALIZED_KEY)
+    fun normalizedKeyGenerator(): KeyGenerator = NormalizedKeyGenerator()
+}
+
+/**
+ * Keys a cached call by its controller, method and arguments, normalized so equivalent requests share an entry:
+ * strings are trimmed, enums and dates are reduced to their text and collections to a sorted list.
+ */
+class NormalizedKeyGenerator : KeyGenerator {
+
+    override fun generate(target: Any, method: Method, vararg params: Any?): Any =
+        listOf(target.javaClass.simpleName, method.name) + params.map { normalize(it) }
+
+    private fun normalize(value: Any?): Any? =
+        when (value) {
+            is String -> value.trim()
+            is Enum<*> -> value.name
+            is Temporal -> value.toString()
+            is Collection<*> -> value.map { normalize(it).toString() }.sorted()
+            else -> value
+        }
+}
+
+/**
+ * Clears the height-aware response caches once a height above the last one seen is committed, so cached answers
+ * live as long as the chain state they were computed from. The ingester reports its commits directly; instances
+ * that don't ingest pick up new heights by polling, and the TTL bounds staleness in between.
+ */
+@Component
+class ResponseCacheInvalidator(
+    private val cacheManager: CacheManager,
+    private val props: ExplorerProperties
+) {
+
+    private val lastHeight = AtomicInteger(0)
+
+    private val heightAwareCaches by lazy {
+        (CacheConfig.DEFAULT_SPECS + props.responseCaches).filterValues { it.heightAware }.keys
+    }
+
+    // Highest committed height seen so far, or 0 before the first one
+    fun latestHeight() = lastHeight.get()
+
+    fun heightCommitted(height: Int) {
+        // The first height seen only sets the baseline; nothing cached yet predates it
+        if (lastHeight.compareAndSet(0, height)) return
+        if (lastHeight.getAndAccumulate(height) { last, new -> maxOf(last, new) } >= height) return
+        heightAwareCaches.forEach { cacheManager.getCache(it)?.clear() }
+    }
+
+    @Scheduled(initialDelay = 5000L, fixedDelay = 2000L)
+    fun pollCommittedHeight() {
+        BlockCacheRecord.getMaxBlockHeightOrNull()?.let { heightCommitted(it) }
+    }
 }
@@ -17,9 +17,10 @@ class DataConfig {
 
     protected val logger = logger(DataConfig::class)
 
+    // Connections are routed to the read replica inside `readReplica {}`, see `ReplicaRoutingDataSource`
     @Bean("databaseConnect")
-    fun dataConnect(dataSource: DataSource): Database =
-        Database.connect(dataSource)
+    fun dataConnect(dataSource: DataSource, replicaMonitor: ReplicaMonitor): Database =
+        Database.connect(ReplicaRoutingDataSource(dataSource, replicaMonitor))
             .also { TransactionManager.manager.defaultIsolationLevel = Connection.TRANSACTION_READ_COMMITTED }
 
     @Bean
@@ -1,5 +1,6 @@
 package io.provenance.explorer.config
 
+import io.provenance.explorer.domain.core.sql.PayloadStorageMode
 import io.provenance.explorer.model.base.Bech32
 import org.springframework.beans.factory.annotation.Value
 import org.springframework.boot.context.properties.ConfigurationProperties
@@ -24,7 +25,52 @@ class ExplorerProperties(
     val feeBugRangeOneEleven: List<Int>,
     val blockRetryMaxAttempts: Int = 10,
     val blockRetryInitialBackoffSeconds: Long = 30,
-    val blockRetryMaxBackoffSeconds: Long = 3600
+    val blockRetryMaxBackoffSeconds: Long = 3600,
+    // Number of heights fetched ahead of the block currently being processed during ingest
+    val ingestFetchWindowSize: Int = 10,
+    // Number of blocks saved per database transaction during ingest; 1 commits every block on its own
+    val ingestCommitBatchSize: Int = 10,
+    // Number of partitions the historical block backfill is split into, each processed by its own worker
+    val backfillWorkerCount: Int = 4,
+    // Txs requested per page when fetching the txs of a block
+    val txPageSize: Int = 10,
+    // Tx pages in flight at once across all blocks being fetched
+    val txPageConcurrency: Int = 10,
+    // Attempts made at each tx page before the block fetch fails
+    val txPageMaxAttempts: Int = 3,
+    // Encoding used when writing block and tx payloads; rows in the other encodings stay readable
+    val payloadStorageMode: PayloadStorageMode = PayloadStorageMode.JSONB,
+    // Number of json payload rows converted per transaction by the payload migrator
+    val payloadMigrationBatchSize: Int = 500,
+    // Max batches of each payload type converted per payload migrator run
+    val payloadMigrationBatchesPerRun: Int = 20,
+    // Upper bound, in serialized bytes, on decoded blocks kept in memory for block lookups
+    val hotBlockCacheMaxBytes: Long = 256L * 1024 * 1024,
+    // Committed blocks are only put in the hot block cache when within this many heights of the chain head
+    val hotBlockHeadWindow: Int = 1000,
+    // Max entries in each of the ingest address, denom and proposer resolution caches
+    val ingestResolutionCacheSize: Long = 100000,
+    // Seconds a filtered tx listing count is reused before it is counted again
+    val txCountCacheTtlSeconds: Long = 60,
+    // Max filtered tx listing counts kept in memory
+    val txCountCacheSize: Long = 10000,
+    // Planner estimates at or above this many rows are returned instead of an exact count; 0 always counts exactly
+    val txCountEstimateThreshold: Long = 0,
+    // Number of older blocks given a `block_summary` row per pass of the summary backfill
+    val blockSummaryBackfillBatchSize: Int = 500,
+    // Live feed events queued per subscriber before a subscriber that can't keep up is disconnected
+    val liveFeedBufferSize: Int = 64,
+    // Minutes a live feed connection stays open before the client has to reconnect
+    val liveFeedTimeoutMinutes: Long = 30,
+    // Live feed connections held open at once by each instance; new subscribers past this get a 503
+    val liveFeedMaxSubscribers: Int = 500,
+    // JDBC url of a read replica for `readReplica {}` queries; unset sends everything to the primary
+    val replicaUrl: String? = null,
+    val replicaPoolSize: Int = 10,
+    // Replica reads fall back to the primary while the replica's replay lag is above this
+    val replicaMaxLagSeconds: Long = 10,
+    // Overrides for the named response caches in `CacheConfig`, by cache name
+    val responseCaches: Map<String, ResponseCacheSpec> = emptyMap()
 ) {
 
     fun initialHistoricalDays() = initialHistoricalDayCount.toInt()
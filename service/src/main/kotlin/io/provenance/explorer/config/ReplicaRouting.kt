@@ -0,0 +1,110 @@
+package io.provenance.explorer.config
+
+import com.zaxxer.hikari.HikariConfig
+import com.zaxxer.hikari.HikariDataSource
+import io.provenance.explorer.domain.core.logger
+import jakarta.annotation.PreDestroy
+import org.springframework.scheduling.annotation.Scheduled
+import org.springframework.stereotype.Component
+import java.sql.Connection
+import javax.sql.DataSource
+
+private val replicaDepth = ThreadLocal.withInitial { 0 }
+
+/**
+ * Runs [block] with any transaction it opens on the read replica, when one is configured and caught up. Only for
+ * code that never writes: a transaction already open on this thread is reused as is, and transactions started on
+ * other threads stay on the primary.
+ */
+fun <T> readReplica(block: () -> T): T {
+    replicaDepth.set(replicaDepth.get() + 1)
+    try {
+        return block()
+    } finally {
+        replicaDepth.set(replicaDepth.get() - 1)
+    }
+}
+
+/**
+ * Hands out replica connections inside [readReplica] while [ReplicaMonitor] reports the replica usable, and primary
+ * connections otherwise.
+ */
+class ReplicaRoutingDataSource(
+    private val primary: DataSource,
+    private val monitor: ReplicaMonitor
+) : DataSource by primary {
+
+    override fun getConnection(): Connection = target().connection
+
+    override fun getConnection(username: String?, password: String?): Connection =
+        target().getConnection(username, password)
+
+    private fun target() = if (replicaDepth.get() > 0) monitor.usableReplica() ?: primary else primary
+}
+
+/**
+ * Owns the replica pool and tracks its replay lag. The replica is only used while its lag is within
+ * `replicaMaxLagSeconds`; a failed check counts as lagging.
+ */
+@Component
+class ReplicaMonitor(
+    private val props: ExplorerProperties,
+    private val dataSource: DataSource
+) {
+
+    protected val logger = logger(ReplicaMonitor::class)
+
+    // Credentials and schema come from the primary pool
+    private val replica: HikariDataSource? by lazy {
+        val url = props.replicaUrl?.takeIf { it.isNotBlank() } ?: return@lazy null
+        val primary = dataSource as? HikariDataSource
+        HikariDataSource(
+            HikariConfig().apply {
+                poolName = "replica"
+                jdbcUrl = url
+                username = primary?.username
+                password = primary?.password
+                schema = primary?.schema
+                primary?.driverClassName?.let { driverClassName = it }
+                maximumPoolSize = props.replicaPoolSize
+                isReadOnly = true
+                // Don't hold up startup on an unreachable replica; the lag check keeps it unused until it answers
+                initializationFailTimeout = -1
+            }
+        )
+    }
+
+    @Volatile
+    private var caughtUp = false
+
+    fun usableReplica(): DataSource? = replica?.takeIf { caughtUp }
+
+    @Scheduled(initialDelay = 0L, fixedDelay = 5000L)
+    fun checkLag() {
+        val pool = replica ?: return
+        val lagSeconds = try {
+            pool.connection.use { conn ->
+                conn.createStatement().use { stmt ->
+                    stmt.executeQuery(
+                        "SELECT CASE WHEN pg_is_in_recovery() " +
+                            "THEN COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) " +
+                            "ELSE 0 END"
+                    ).use { rs -> rs.next(); rs.getDouble(1) }
+                }
+            }
+        } catch (e: Exception) {
+            logger.warn("Replica lag check failed, reading from the primary: ${e.message}")
+            null
+        }
+        val usable = lagSeconds != null && lagSeconds <= props.replicaMaxLagSeconds
+        if (usable != caughtUp) {
+            logger.info("Replica ${if (usable) "caught up" else "lagging"} (lag: ${lagSeconds ?: "unknown"}s)")
+        }
+        caughtUp = usable
+    }
+
+    @PreDestroy
+    fun close() {
+        if (props.replicaUrl?.isNotBlank() == true) replica?.close()
+    }
+}
@@ -2,6 +2,7 @@ package io.provenance.explorer.config
 
 import com.google.protobuf.Descriptors
 import com.google.protobuf.util.JsonFormat
+import io.provenance.explorer.config.interceptor.ConditionalGetInterceptor
 import org.reflections.Reflections
 import org.springframework.context.annotation.Bean
 import org.springframework.context.annotation.Configuration
@@ -10,6 +11,7 @@ import org.springframework.http.converter.protobuf.ProtobufHttpMessageConverter
 import org.springframework.http.converter.protobuf.ProtobufJsonFormatHttpMessageConverter
 import org.springframework.web.client.RestTemplate
 import org.springframework.web.servlet.config.annotation.CorsRegistry
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer
 
 @Configuration
@@ -43,7 +45,7 @@ class RestConfig {
     }
 
     @Bean
-    fun corsConfigurer(): WebMvcConfigurer {
+    fun corsConfigurer(conditionalGetInterceptor: ConditionalGetInterceptor): WebMvcConfigurer {
         return object : WebMvcConfigurer {
             @Override
             override fun addCorsMappings(registry: CorsRegistry) {
@@ -53,6 +55,10 @@ class RestConfig {
                     .allowCredentials(true)
                     .maxAge(3600)
             }
+
+            override fun addInterceptors(registry: InterceptorRegistry) {
+                registry.addInterceptor(conditionalGetInterceptor).addPathPatterns("/api/**")
+            }
         }
     }
 }
@@ -0,0 +1,137 @@
+package io.provenance.explorer.config.interceptor
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.google.common.hash.Hashing
+import io.provenance.explorer.config.ResponseCacheInvalidator
+import io.provenance.explorer.domain.annotation.ConditionalGet
+import jakarta.servlet.http.HttpServletRequest
+import jakarta.servlet.http.HttpServletResponse
+import org.springframework.core.MethodParameter
+import org.springframework.http.CacheControl
+import org.springframework.http.HttpHeaders
+import org.springframework.http.HttpStatus
+import org.springframework.http.MediaType
+import org.springframework.http.converter.HttpMessageConverter
+import org.springframework.http.server.ServerHttpRequest
+import org.springframework.http.server.ServerHttpResponse
+import org.springframework.http.server.ServletServerHttpRequest
+import org.springframework.stereotype.Component
+import org.springframework.web.bind.annotation.ControllerAdvice
+import org.springframework.web.method.HandlerMethod
+import org.springframework.web.servlet.HandlerInterceptor
+import org.springframework.web.servlet.HandlerMapping
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice
+import java.time.LocalDate
+import java.time.ZoneOffset
+
+/**
+ * Validator computed for a request before the handler runs; only written to the response once the handler succeeds.
+ * A null [etag] means the response is settled and its ETag is hashed from the body once the handler has run.
+ */
+data class ConditionalGetValidator(val etag: String?, val cacheControl: CacheControl)
+
+/**
+ * Answers `If-None-Match` for [ConditionalGet] endpoints with a 304 before the handler, and so the service, runs.
+ * Settled responses are matched against the ETag of their body by [ConditionalGetResponseAdvice] instead.
+ */
+@Component
+class ConditionalGetInterceptor(private val cacheInvalidator: ResponseCacheInvalidator) : HandlerInterceptor {
+
+    companion object {
+        const val VALIDATOR_ATTR = "io.provenance.explorer.conditionalGetValidator"
+
+        fun etagOf(value: ByteArray) = "\"${Hashing.sha256().hashBytes(value)}\""
+
+        fun ifNoneMatch(request: HttpServletRequest) = request.getHeaders(HttpHeaders.IF_NONE_MATCH).toList()
+            .flatMap { it.split(",") }
+            .map { it.trim().removePrefix("W/") }
+
+        /**
+         * Whether the height or date the resource depends on can no longer move. A block's signed count and power
+         * come from the block after it, so a height is only settled once the next height has been committed.
+         */
+        fun isSettled(spec: ConditionalGet, param: (String) -> String?, latestHeight: Int, today: LocalDate): Boolean {
+            if (spec.heightParam.isNotEmpty()) {
+                val height = param(spec.heightParam)?.toIntOrNull() ?: return false
+                if (height + 1 > latestHeight) return false
+            }
+            if (spec.dateParam.isNotEmpty()) {
+                val date = param(spec.dateParam)?.let { runCatching { LocalDate.parse(it) }.getOrNull() }
+                    ?: return false
+                if (!date.isBefore(today)) return false
+            }
+            return true
+        }
+    }
+
+    override fun preHandle(request: HttpServletRequest, response: HttpServletResponse, handler: Any): Boolean {
+        if (request.method != "GET") return true
+        val spec = (handler as? HandlerMethod)?.getMethodAnnotation(ConditionalGet::class.java) ?: return true
+        val validator = validatorFor(spec, request) ?: return true
+        request.setAttribute(VALIDATOR_ATTR, validator)
+
+        if (validator.etag != null && validator.etag in ifNoneMatch(request)) {
+            response.status = HttpStatus.NOT_MODIFIED.value()
+            response.setHeader(HttpHeaders.ETAG, validator.etag)
+            response.setHeader(HttpHeaders.CACHE_CONTROL, validator.cacheControl.headerValue)
+            return false
+        }
+        return true
+    }
+
+    private fun validatorFor(spec: ConditionalGet, request: HttpServletRequest): ConditionalGetValidator? {
+        val resource = request.requestURI + "?" + request.parameterMap.toSortedMap()
+            .entries.joinToString("&") { (k, v) -> "$k=${v.joinToString(",")}" }
+        val latestHeight = cacheInvalidator.latestHeight()
+        val settled = spec.immutable &&
+            isSettled(spec, { paramValue(request, it) }, latestHeight, LocalDate.now(ZoneOffset.UTC))
+
+        return if (settled) {
+            ConditionalGetValidator(null, CacheControl.noCache().cachePublic())
+        } else if (latestHeight > 0) {
+            ConditionalGetValidator(etagOf("$resource@$latestHeight".toByteArray()), CacheControl.noCache().cachePublic())
+        } else {
+            null
+        }
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    private fun paramValue(request: HttpServletRequest, name: String) =
+        (request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE) as? Map<String, String>)?.get(name)
+            ?: request.getParameter(name)
+}
+
+/**
+ * Writes the ETag and `Cache-Control` computed by [ConditionalGetInterceptor] onto successful [ConditionalGet]
+ * responses, hashing the body with the mapper that writes it for settled ones. Error bodies come from exception
+ * handlers, so they never carry them.
+ */
+@ControllerAdvice
+class ConditionalGetResponseAdvice(private val objectMapper: ObjectMapper) : ResponseBodyAdvice<Any> {
+
+    override fun supports(returnType: MethodParameter, converterType: Class<out HttpMessageConverter<*>>) =
+        returnType.hasMethodAnnotation(ConditionalGet::class.java)
+
+    override fun beforeBodyWrite(
+        body: Any?,
+        returnType: MethodParameter,
+        selectedContentType: MediaType,
+        selectedConverterType: Class<out HttpMessageConverter<*>>,
+        request: ServerHttpRequest,
+        response: ServerHttpResponse
+    ): Any? {
+        val servletRequest = (request as? ServletServerHttpRequest)?.servletRequest ?: return body
+        val validator = servletRequest.getAttribute(ConditionalGetInterceptor.VALIDATOR_ATTR) as? ConditionalGetValidator
+            ?: return body
+        // Settled responses are tagged by their content, so anything rewritten since (backfills, validator
+        // metadata, late heights) gets a new ETag
+        val etag = validator.etag ?: ConditionalGetInterceptor.etagOf(objectMapper.writeValueAsBytes(body))
+        response.headers.eTag = etag
+        response.headers.cacheControl = validator.cacheControl.headerValue
+        if (validator.etag == null && etag in ConditionalGetInterceptor.ifNoneMatch(servletRequest)) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED)
+            return null
+        }
+        return body
+    }
+}
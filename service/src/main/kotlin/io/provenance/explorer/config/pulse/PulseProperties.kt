@@ -16,5 +16,9 @@ class PulseProperties(
     val hashHoldersExcludedFromCirculatingSupply: Set<String>,
     // denoms to include as private equity in TVL calc
     val privateEquityTvlDenoms: List<String>,
-    val hftExchangeApi: String
+    val hftExchangeApi: String,
+    // Metrics the scheduled pulse cache refresh builds at once; capped at a quarter of the connection pool
+    val refreshParallelism: Int = 4,
+    // Backfill items worked on at once by each instance; capped at a quarter of the connection pool
+    val backfillParallelism: Int = 4
 )
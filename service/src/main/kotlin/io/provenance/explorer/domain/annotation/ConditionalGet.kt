@@ -0,0 +1,17 @@
+package io.provenance.explorer.domain.annotation
+
+/**
+ * Marks a GET endpoint for ETag / `If-None-Match` handling. Immutable resources that have settled get a strong ETag
+ * hashed from the response body, so they only change when their content does; everything else gets an ETag tied to
+ * the latest ingested height. Both must be revalidated.
+ *
+ * [heightParam] and [dateParam] name a path variable or request param that can still be moving: the resource is only
+ * treated as settled once the height after it has been ingested, or that date is before today (UTC).
+ */
+@Retention(AnnotationRetention.RUNTIME)
+@Target(AnnotationTarget.FUNCTION)
+annotation class ConditionalGet(
+    val immutable: Boolean = false,
+    val heightParam: String = "",
+    val dateParam: String = ""
+)
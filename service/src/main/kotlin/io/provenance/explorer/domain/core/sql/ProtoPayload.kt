@@ -0,0 +1,89 @@
+package io.provenance.explorer.domain.core.sql
+
+import com.google.protobuf.GeneratedMessageV3
+import com.google.protobuf.Parser
+import org.jetbrains.exposed.sql.IColumnType
+import java.io.ByteArrayOutputStream
+import java.util.zip.Deflater
+import java.util.zip.Inflater
+
+/**
+ * How block and tx payloads are written to `block_cache` and `tx_cache`. Reads always accept both forms, so the
+ * mode can be changed at any time; the payload migrator converts older rows in the background.
+ */
+enum class PayloadStorageMode {
+    // Jackson json in the `jsonb` column
+    JSONB,
+    // Protobuf wire bytes in the `bytea` column
+    PROTO,
+    // Deflate-compressed protobuf wire bytes in the `bytea` column
+    PROTO_DEFLATE;
+
+    fun isProto() = this != JSONB
+
+    fun encode(value: GeneratedMessageV3) = ProtoPayloadCodec.encode(value, this == PROTO_DEFLATE)
+
+    // Parameters for a `JsonbParam` followed by a `BytesParam`; exactly one of the two is bound
+    fun params(value: GeneratedMessageV3): List<Pair<IColumnType, Any?>> =
+        if (isProto()) {
+            listOf(JsonbParam.of(null), BytesParam.of(encode(value)))
+        } else {
+            listOf(JsonbParam.of(value), BytesParam.of(null))
+        }
+}
+
+/**
+ * Encodes protobuf payloads for the `bytea` payload columns. The first byte records the encoding so compressed and
+ * uncompressed rows can live side by side.
+ */
+object ProtoPayloadCodec {
+    private const val RAW: Byte = 0
+    private const val DEFLATE: Byte = 1
+
+    fun encode(value: GeneratedMessageV3, compress: Boolean): ByteArray {
+        val bytes = value.toByteArray()
+        return if (compress) byteArrayOf(DEFLATE) + deflate(bytes) else byteArrayOf(RAW) + bytes
+    }
+
+    fun <T> decode(value: ByteArray, parser: Parser<T>): T =
+        when (value.first()) {
+            RAW -> parser.parseFrom(value, 1, value.size - 1)
+            DEFLATE -> parser.parseFrom(inflate(value.copyOfRange(1, value.size)))
+            else -> throw IllegalArgumentException("Unknown payload encoding: ${value.first()}")
+        }
+
+    private fun deflate(bytes: ByteArray): ByteArray {
+        val deflater = Deflater(Deflater.BEST_SPEED)
+        return try {
+            deflater.setInput(bytes)
+            deflater.finish()
+            val out = ByteArrayOutputStream(bytes.size / 2 + 64)
+            val buffer = ByteArray(8192)
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer))
+            }
+            out.toByteArray()
+        } finally {
+            deflater.end()
+        }
+    }
+
+    private fun inflate(bytes: ByteArray): ByteArray {
+        val inflater = Inflater()
+        return try {
+            inflater.setInput(bytes)
+            val out = ByteArrayOutputStream(bytes.size * 4)
+            val buffer = ByteArray(8192)
+            while (!inflater.finished()) {
+                val read = inflater.inflate(buffer)
+                if (read == 0 && inflater.needsInput()) {
+                    throw IllegalArgumentException("Truncated deflate payload")
+                }
+                out.write(buffer, 0, read)
+            }
+            out.toByteArray()
+        } finally {
+            inflater.end()
+        }
+    }
+}
@@ -8,6 +8,7 @@ import org.jetbrains.exposed.sql.Expression
 import org.jetbrains.exposed.sql.Function
 import org.jetbrains.exposed.sql.IColumnType
 import org.jetbrains.exposed.sql.IntegerColumnType
+import org.jetbrains.exposed.sql.Op
 import org.jetbrains.exposed.sql.QueryBuilder
 import org.jetbrains.exposed.sql.TextColumnType
 import org.jetbrains.exposed.sql.VarCharColumnType
@@ -81,3 +82,14 @@ class ArrayAgg(val expr: Expression<Array<String>>) : Function<Array<Array<Strin
 }
 
 fun <C1 : IdTable<Int>> List<Int>.toEntities(table: C1) = this.map { EntityID(it, table) }
+
+// Row comparison `(a, b) < (x, y)`, which Postgres can serve with a range scan on an index over the same columns
+class RowLessOp(private val left: List<Expression<*>>, private val right: List<Expression<*>>) : Op<Boolean>() {
+    override fun toQueryBuilder(queryBuilder: QueryBuilder) = queryBuilder {
+        append("(")
+        left.forEachIndexed { idx, expr -> if (idx > 0) append(", "); append(expr) }
+        append(") < (")
+        right.forEachIndexed { idx, expr -> if (idx > 0) append(", "); append(expr) }
+        append(")")
+    }
+}
@@ -4,6 +4,9 @@ import com.fasterxml.jackson.databind.node.ObjectNode
 import com.google.protobuf.GeneratedMessageV3
 import io.provenance.explorer.OBJECT_MAPPER
 import io.provenance.explorer.domain.extensions.execAndMap
+import org.jetbrains.exposed.sql.BasicBinaryColumnType
+import org.jetbrains.exposed.sql.IColumnType
+import org.jetbrains.exposed.sql.TextColumnType
 import org.jetbrains.exposed.sql.transactions.transaction
 import java.math.BigDecimal
 import java.time.LocalDateTime
@@ -19,6 +22,17 @@ fun LocalDateTime.toProcedureObject() = java.sql.Timestamp(this.toInstant(ZoneOf
 
 fun GeneratedMessageV3.toProcedureObject() = OBJECT_MAPPER.writeValueAsString(this).replaceSingleQuotes()
 
+// Placeholder for a large jsonb payload that is bound as a statement parameter instead of being inlined and escaped
+object JsonbParam {
+    fun of(value: GeneratedMessageV3?): Pair<IColumnType, Any?> =
+        Pair(TextColumnType(), value?.let { OBJECT_MAPPER.writeValueAsString(it) })
+}
+
+// Placeholder for an encoded protobuf payload that is bound as a statement parameter
+object BytesParam {
+    fun of(value: ByteArray?): Pair<IColumnType, Any?> = Pair(BasicBinaryColumnType(), value)
+}
+
 // Creates String from list = value,value
 fun List<Any?>.toProcedureObject() =
     this.joinToString(",", "(", ")") { value ->
@@ -27,6 +41,8 @@ fun List<Any?>.toProcedureObject() =
         } else {
             try {
                 when (value) {
+                    is JsonbParam -> "?::jsonb"
+                    is BytesParam -> "?::bytea"
                     is LocalDateTime -> "'${value.toProcedureObject()}'"
                     is GeneratedMessageV3 -> "'${value.toProcedureObject()}'"
                     is Int, is Double, is BigDecimal, is Long -> value.toString()
@@ -1,11 +1,14 @@
 package io.provenance.explorer.domain.entities
 
+import io.provenance.explorer.domain.core.sql.toProcedureObject
 import org.jetbrains.exposed.dao.Entity
 import org.jetbrains.exposed.dao.EntityClass
 import org.jetbrains.exposed.dao.id.EntityID
 import org.jetbrains.exposed.dao.id.IdTable
 import org.jetbrains.exposed.sql.javatime.datetime
+import org.jetbrains.exposed.sql.transactions.transaction
 import java.time.LocalDateTime
+import java.util.concurrent.ConcurrentHashMap
 
 // Allows for last_hit and hit_count to be a common thing
 abstract class CacheIdTable<T : Comparable<T>>(name: String = "") : IdTable<T>(name) {
@@ -20,8 +23,40 @@ abstract class CacheEntity<T : Comparable<T>>(id: EntityID<T>) : Entity<T>(id) {
     abstract var hitCount: Int
 }
 
-fun <T : Comparable<T>> CacheEntityClass<T, CacheEntity<T>>.updateHitCount(id: T) =
-    findById(id)?.apply {
-        this.hitCount++
-        this.lastHit = LocalDateTime.now()
+/**
+ * Accumulates `hit_count`/`last_hit` updates for a cache table in memory, so that reads never write. [flush] applies
+ * everything collected so far in a single statement. Once [maxPending] distinct ids are waiting, further new ids are
+ * dropped until the next flush; the counts are informational only.
+ */
+class HitCountAccumulator(private val table: CacheIdTable<Int>, private val maxPending: Int = 10000) {
+
+    private data class Hits(val count: Int, val lastHit: LocalDateTime)
+
+    private val pending = ConcurrentHashMap<Int, Hits>()
+
+    fun record(id: Int) {
+        if (pending.size >= maxPending && !pending.containsKey(id)) return
+        val now = LocalDateTime.now()
+        pending.merge(id, Hits(1, now)) { old, _ -> Hits(old.count + 1, now) }
     }
+
+    fun flush() {
+        if (pending.isEmpty()) return
+        val batch = pending.keys.toList().mapNotNull { id -> pending.remove(id)?.let { id to it } }
+        if (batch.isEmpty()) return
+        val values = batch.joinToString(",") { (id, hits) ->
+            "($id, ${hits.count}, '${hits.lastHit.toProcedureObject()}'::timestamp)"
+        }
+        val idCol = table.id.name
+        transaction {
+            exec(
+                """
+                UPDATE ${table.tableName} t
+                SET hit_count = t.hit_count + v.hits, last_hit = GREATEST(t.last_hit, v.last_hit)
+                FROM (VALUES $values) AS v(id, hits, last_hit)
+                WHERE t.$idCol = v.id
+                """.trimIndent()
+            )
+        }
+    }
+}
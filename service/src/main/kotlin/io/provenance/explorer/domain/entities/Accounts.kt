@@ -32,6 +32,7 @@ import org.jetbrains.exposed.sql.and
 import org.jetbrains.exposed.sql.insert
 import org.jetbrains.exposed.sql.insertAndGetId
 import org.jetbrains.exposed.sql.insertIgnore
+import org.jetbrains.exposed.sql.select
 import org.jetbrains.exposed.sql.transactions.transaction
 
 object AccountTable : IntIdTable(name = "account") {
@@ -83,6 +84,12 @@ class AccountRecord(id: EntityID<Int>) : IntEntity(id) {
 
         fun findByAddress(addr: String) = AccountRecord.find { AccountTable.accountAddress eq addr }.firstOrNull()
 
+        fun findIdsByAddresses(addrs: Collection<String>) = transaction {
+            AccountTable.slice(AccountTable.id, AccountTable.accountAddress)
+                .select { AccountTable.accountAddress inList addrs }
+                .associate { it[AccountTable.accountAddress] to it[AccountTable.id].value }
+        }
+
         fun saveAccount(address: String, accPrefix: String, accountData: Any?, isContract: Boolean = false, isGroupPolicy: Boolean = false) =
             transaction {
                 accountData?.let { insertIgnore(it, isContract) }
@@ -2,27 +2,31 @@ package io.provenance.explorer.domain.entities
 
 import cosmos.base.tendermint.v1beta1.Query
 import io.provenance.explorer.OBJECT_MAPPER
+import io.provenance.explorer.domain.core.sql.BytesParam
 import io.provenance.explorer.domain.core.sql.DateTrunc
 import io.provenance.explorer.domain.core.sql.ExtractDOW
 import io.provenance.explorer.domain.core.sql.ExtractDay
 import io.provenance.explorer.domain.core.sql.ExtractHour
+import io.provenance.explorer.domain.core.sql.JsonbParam
+import io.provenance.explorer.domain.core.sql.PayloadStorageMode
+import io.provenance.explorer.domain.core.sql.ProtoPayloadCodec
 import io.provenance.explorer.domain.core.sql.jsonb
+import io.provenance.explorer.domain.core.sql.toArray
 import io.provenance.explorer.domain.core.sql.toProcedureObject
-import io.provenance.explorer.domain.extensions.exec
 import io.provenance.explorer.domain.extensions.execAndMap
 import io.provenance.explorer.domain.extensions.map
 import io.provenance.explorer.domain.extensions.startOfDay
 import io.provenance.explorer.domain.models.explorer.BlockProposer
+import io.provenance.explorer.domain.models.explorer.BlockSummaryRow
 import io.provenance.explorer.domain.models.explorer.BlockTimeSpread
 import io.provenance.explorer.domain.models.explorer.BlockUpdate
-import io.provenance.explorer.domain.models.explorer.MissedBlockPeriod
+import io.provenance.explorer.domain.models.explorer.MissedBlock
 import io.provenance.explorer.domain.models.explorer.TxHeatmapRaw
 import io.provenance.explorer.model.TxHeatmap
 import io.provenance.explorer.model.TxHeatmapDay
 import io.provenance.explorer.model.TxHeatmapHour
 import io.provenance.explorer.model.TxHeatmapRes
 import io.provenance.explorer.model.TxHistory
-import io.provenance.explorer.model.ValidatorMoniker
 import io.provenance.explorer.model.base.DateTruncGranularity
 import io.provenance.explorer.model.base.DateTruncGranularity.DAY
 import io.provenance.explorer.model.base.DateTruncGranularity.HOUR
@@ -36,6 +40,7 @@ import org.jetbrains.exposed.dao.id.EntityID
 import org.jetbrains.exposed.dao.id.IdTable
 import org.jetbrains.exposed.dao.id.IntIdTable
 import org.jetbrains.exposed.sql.ColumnType
+import org.jetbrains.exposed.sql.IColumnType
 import org.jetbrains.exposed.sql.IntegerColumnType
 import org.jetbrains.exposed.sql.Max
 import org.jetbrains.exposed.sql.Op
@@ -44,12 +49,17 @@ import org.jetbrains.exposed.sql.SqlExpressionBuilder.eq
 import org.jetbrains.exposed.sql.SqlExpressionBuilder.inList
 import org.jetbrains.exposed.sql.SqlExpressionBuilder.less
 import org.jetbrains.exposed.sql.Sum
-import org.jetbrains.exposed.sql.VarCharColumnType
+import org.jetbrains.exposed.sql.Table
 import org.jetbrains.exposed.sql.and
 import org.jetbrains.exposed.sql.andWhere
+import org.jetbrains.exposed.sql.batchInsert
+import org.jetbrains.exposed.sql.batchUpsert
+import org.jetbrains.exposed.sql.deleteAll
 import org.jetbrains.exposed.sql.deleteWhere
 import org.jetbrains.exposed.sql.insertIgnore
+import org.jetbrains.exposed.sql.javatime.JavaLocalDateColumnType
 import org.jetbrains.exposed.sql.javatime.JavaLocalDateTimeColumnType
+import org.jetbrains.exposed.sql.javatime.date
 import org.jetbrains.exposed.sql.javatime.datetime
 import org.jetbrains.exposed.sql.or
 import org.jetbrains.exposed.sql.select
@@ -59,6 +69,7 @@ import org.jetbrains.exposed.sql.transactions.transaction
 import org.jetbrains.exposed.sql.update
 import java.math.BigDecimal
 import java.sql.ResultSet
+import java.time.LocalDate
 import java.time.LocalDateTime
 import java.time.format.DateTimeFormatter
 import java.time.temporal.ChronoUnit
@@ -66,27 +77,61 @@ import java.time.temporal.ChronoUnit
 object BlockCacheTable : CacheIdTable<Int>(name = "block_cache") {
     val height = integer("height")
     override val id = height.entityId()
-    val block = jsonb<BlockCacheTable, Query.GetBlockByHeightResponse>("block", OBJECT_MAPPER)
+    val block = jsonb<BlockCacheTable, Query.GetBlockByHeightResponse>("block", OBJECT_MAPPER).nullable()
     val blockTimestamp = datetime("block_timestamp")
     val txCount = integer("tx_count")
+    val blockProto = binary("block_proto").nullable()
 }
 
 class BlockCacheRecord(id: EntityID<Int>) : CacheEntity<Int>(id) {
     companion object : CacheEntityClass<Int, BlockCacheRecord>(BlockCacheTable) {
 
-        fun insertToProcedure(blockUpdate: BlockUpdate) = transaction {
-            val blockStr = blockUpdate.toProcedureObject()
-            val query = "CALL add_block($blockStr)"
-            this.exec(query)
+        // Postgres caps a single statement at 65535 bind parameters; stay well under it
+        private const val MAX_PROCEDURE_PARAMS = 30000
+
+        // One `add_blocks` statement and its parameters per chunk of the given blocks
+        fun buildProcedureCalls(blockUpdates: List<BlockUpdate>) =
+            blockUpdates.chunkedByParams().map { chunk ->
+                val blocksStr = chunk.map { it.toProcedureObject() }.toArray("block_update")
+                "CALL add_blocks($blocksStr)" to chunk.flatMap { it.procedureParams() }
+            }
+
+        // Saves the statements from `buildProcedureCalls` in a single transaction
+        fun insertToProcedure(calls: List<Pair<String, List<Pair<IColumnType, Any?>>>>) = transaction {
+            calls.forEach { (query, params) -> this.exec(query, params) }
         }
 
-        fun buildInsert(
-            blockHeight: Int,
-            transactionCount: Int,
-            timestamp: LocalDateTime,
-            blockMeta: Query.GetBlockByHeightResponse
-        ) =
-            listOf(blockHeight, transactionCount, timestamp, blockMeta, LocalDateTime.now(), 0).toProcedureObject()
+        private fun List<BlockUpdate>.chunkedByParams(): List<List<BlockUpdate>> {
+            val chunks = mutableListOf<MutableList<BlockUpdate>>()
+            var paramCount = 0
+            this.forEach { update ->
+                val params = update.procedureParamCount()
+                if (chunks.isEmpty() || paramCount + params > MAX_PROCEDURE_PARAMS) {
+                    chunks.add(mutableListOf())
+                    paramCount = 0
+                }
+                chunks.last().add(update)
+                paramCount += params
+            }
+            return chunks
+        }
+
+        // The block payload itself is bound at execution time, see BlockUpdate.procedureParams()
+        fun buildInsert(blockHeight: Int, transactionCount: Int, timestamp: LocalDateTime) =
+            listOf(blockHeight, transactionCount, timestamp, JsonbParam, LocalDateTime.now(), 0, BytesParam)
+                .toProcedureObject()
+
+        // Rewrites up to `limit` json-only rows in the given proto mode, returning the number converted
+        fun migratePayloads(mode: PayloadStorageMode, limit: Int) = transaction {
+            BlockCacheRecord.find { BlockCacheTable.blockProto.isNull() and BlockCacheTable.block.isNotNull() }
+                .orderBy(Pair(BlockCacheTable.height, SortOrder.DESC))
+                .limit(limit)
+                .onEach {
+                    it.blockProto = mode.encode(it.blockJson!!)
+                    it.blockJson = null
+                }
+                .count()
+        }
 
         fun getDaysBetweenHeights(minHeight: Int, maxHeight: Int) = transaction {
             val min = BlockCacheRecord.find { BlockCacheTable.height eq minHeight }
@@ -129,7 +174,12 @@ class BlockCacheRecord(id: EntityID<Int>) : CacheEntity<Int>(id) {
     }
 
     var height by BlockCacheTable.height
-    var block by BlockCacheTable.block
+    var blockJson by BlockCacheTable.block
+    var blockProto by BlockCacheTable.blockProto
+    // Decoded once per record; the payload columns aren't rewritten after a record is read
+    val block: Query.GetBlockByHeightResponse by lazy {
+        blockProto?.let { ProtoPayloadCodec.decode(it, Query.GetBlockByHeightResponse.parser()) } ?: blockJson!!
+    }
     var blockTimestamp by BlockCacheTable.blockTimestamp
     var txCount by BlockCacheTable.txCount
     override var lastHit by BlockCacheTable.lastHit
@@ -162,6 +212,54 @@ class BlockIndexRecord(id: EntityID<Int>) : IntEntity(id) {
     var lastUpdate by BlockIndexTable.lastUpdate
 }
 
+object BlockBackfillPartitionTable : IntIdTable(name = "block_backfill_partition") {
+    val upperHeight = integer("upper_height")
+    val lowerHeight = integer("lower_height")
+    val nextHeight = integer("next_height")
+    val completed = bool("completed").default(false)
+    val lastUpdate = datetime("last_update")
+}
+
+class BlockBackfillPartitionRecord(id: EntityID<Int>) : IntEntity(id) {
+    companion object : IntEntityClass<BlockBackfillPartitionRecord>(BlockBackfillPartitionTable) {
+        fun getIncomplete() = transaction {
+            BlockBackfillPartitionRecord.find { BlockBackfillPartitionTable.completed eq false }
+                .orderBy(Pair(BlockBackfillPartitionTable.upperHeight, SortOrder.DESC))
+                .toList()
+        }
+
+        fun getAll() = transaction { BlockBackfillPartitionRecord.all().toList() }
+
+        // Replaces any previous plan with partitions walking each range from its top down
+        fun plan(ranges: List<IntRange>) = transaction {
+            BlockBackfillPartitionTable.deleteAll()
+            ranges.forEach { range ->
+                new {
+                    this.upperHeight = range.last
+                    this.lowerHeight = range.first
+                    this.nextHeight = range.last
+                    this.completed = false
+                    this.lastUpdate = LocalDateTime.now()
+                }
+            }
+        }
+
+        fun checkpoint(id: Int, nextHeight: Int, completed: Boolean) = transaction {
+            findById(id)?.apply {
+                this.nextHeight = nextHeight
+                this.completed = completed
+                this.lastUpdate = LocalDateTime.now()
+            }
+        }
+    }
+
+    var upperHeight by BlockBackfillPartitionTable.upperHeight
+    var lowerHeight by BlockBackfillPartitionTable.lowerHeight
+    var nextHeight by BlockBackfillPartitionTable.nextHeight
+    var completed by BlockBackfillPartitionTable.completed
+    var lastUpdate by BlockBackfillPartitionTable.lastUpdate
+}
+
 object BlockProposerTable : IdTable<Int>(name = "block_proposer") {
     val blockHeight = integer("block_height")
     override val id = blockHeight.entityId()
@@ -211,6 +309,70 @@ class BlockProposerRecord(id: EntityID<Int>) : IntEntity(id) {
     var blockTimestamp by BlockProposerTable.blockTimestamp
 }
 
+object BlockSummaryTable : Table(name = "block_summary") {
+    val height = integer("height")
+    val hash = varchar("hash", 64)
+    val blockTime = varchar("block_time", 40)
+    val proposerAddress = varchar("proposer_address", 96)
+    val txCount = integer("tx_count")
+    val validatorCount = integer("validator_count")
+    val votingPower = long("voting_power")
+    val prevSignedCount = integer("prev_signed_count").nullable()
+    val prevSignedPower = long("prev_signed_power").nullable()
+    override val primaryKey = PrimaryKey(height)
+}
+
+object BlockSummaries {
+
+    fun upsert(rows: List<BlockSummaryRow>) = transaction {
+        if (rows.isEmpty()) return@transaction
+        BlockSummaryTable.batchUpsert(rows, BlockSummaryTable.height, shouldReturnGeneratedValues = false) { row ->
+            this[BlockSummaryTable.height] = row.height
+            this[BlockSummaryTable.hash] = row.hash
+            this[BlockSummaryTable.blockTime] = row.time
+            this[BlockSummaryTable.proposerAddress] = row.proposerAddress
+            this[BlockSummaryTable.txCount] = row.txCount
+            this[BlockSummaryTable.validatorCount] = row.validatorCount
+            this[BlockSummaryTable.votingPower] = row.votingPower
+            this[BlockSummaryTable.prevSignedCount] = row.prevSignedCount
+            this[BlockSummaryTable.prevSignedPower] = row.prevSignedPower
+        }
+    }
+
+    fun findByHeights(fromHeight: Int, toHeight: Int) = transaction {
+        BlockSummaryTable.select { BlockSummaryTable.height.between(fromHeight, toHeight) }
+            .associate { row ->
+                row[BlockSummaryTable.height] to BlockSummaryRow(
+                    row[BlockSummaryTable.height],
+                    row[BlockSummaryTable.hash],
+                    row[BlockSummaryTable.blockTime],
+                    row[BlockSummaryTable.proposerAddress],
+                    row[BlockSummaryTable.txCount],
+                    row[BlockSummaryTable.validatorCount],
+                    row[BlockSummaryTable.votingPower],
+                    row[BlockSummaryTable.prevSignedCount],
+                    row[BlockSummaryTable.prevSignedPower]
+                )
+            }
+    }
+
+    // Cached block heights below `before` with no summary, newest first
+    fun findHeightsToBackfill(before: Int, limit: Int) = transaction {
+        val query = """
+            SELECT bc.height FROM block_cache bc
+            WHERE bc.height < ?
+              AND NOT EXISTS (SELECT 1 FROM block_summary bs WHERE bs.height = bc.height)
+            ORDER BY bc.height DESC
+            LIMIT ?
+        """.trimIndent()
+        val arguments = listOf<Pair<IColumnType, Any?>>(
+            Pair(IntegerColumnType(), before),
+            Pair(IntegerColumnType(), limit)
+        )
+        query.execAndMap(arguments) { it.getInt("height") }
+    }
+}
+
 object MissedBlocksTable : IntIdTable(name = "missed_blocks") {
     val blockHeight = integer("block_height")
     val valConsAddr = varchar("val_cons_address", 128)
@@ -220,37 +382,21 @@ class MissedBlocksRecord(id: EntityID<Int>) : IntEntity(id) {
     companion object : IntEntityClass<MissedBlocksRecord>(MissedBlocksTable) {
 
         fun findValidatorsWithMissedBlocksForPeriod(fromHeight: Int, toHeight: Int, valConsAddr: String?) =
-            transaction {
-                val query = "SELECT * FROM missed_block_periods(?, ?, ?) "
-                val arguments = mutableListOf<Pair<ColumnType, *>>(
-                    Pair(IntegerColumnType(), fromHeight),
-                    Pair(IntegerColumnType(), toHeight),
-                    Pair(VarCharColumnType(128), valConsAddr)
-                )
-                query.exec(arguments).map {
-                    if (it.getString("val_cons_address") != null) {
-                        MissedBlockPeriod(
-                            ValidatorMoniker(it.getString("val_cons_address"), null, null, null),
-                            (it.getArray("blocks").array as Array<out Int>).toList()
-                        )
-                    } else {
-                        null
-                    }
-                }.toMutableList().mapNotNull { it }
-            }
+            MissedBlockBitmaps.findPeriods(fromHeight, toHeight, valConsAddr)
 
-        fun findDistinctValidatorsWithMissedBlocksForPeriod(fromHeight: Int, toHeight: Int) = transaction {
-            val query = "SELECT distinct val_cons_address FROM missed_block_periods(?, ?, NULL);"
-            val arguments = listOf(Pair(IntegerColumnType(), fromHeight), Pair(IntegerColumnType(), toHeight))
+        fun findDistinctValidatorsWithMissedBlocksForPeriod(fromHeight: Int, toHeight: Int) =
+            MissedBlockBitmaps.findValidators(fromHeight, toHeight)
 
-            query.exec(arguments).map { it.getString("val_cons_address") }
-        }
+        fun countMissedBlocksForPeriod(fromHeight: Int, toHeight: Int, valConsAddr: String) =
+            MissedBlockBitmaps.countMissed(fromHeight, toHeight, valConsAddr)
 
-        fun insert(height: Int, valconsAddr: String) = transaction {
-            MissedBlocksTable.insertIgnore {
-                it[this.blockHeight] = height
-                it[this.valConsAddr] = valconsAddr
+        fun insert(missed: List<MissedBlock>) = transaction {
+            if (missed.isEmpty()) return@transaction
+            MissedBlocksTable.batchInsert(missed, ignore = true, shouldReturnGeneratedValues = false) {
+                this[MissedBlocksTable.blockHeight] = it.height
+                this[MissedBlocksTable.valConsAddr] = it.valConsAddr
             }
+            MissedBlockBitmaps.setMissed(missed)
         }
     }
 
@@ -357,6 +503,67 @@ class BlockCacheHourlyTxCountsRecord(id: EntityID<LocalDateTime>) : Entity<Local
     var txCount by BlockCacheHourlyTxCountsTable.txCount
 }
 
+object BlockCacheDailyTxCountsTable : IdTable<LocalDate>(name = "block_cache_daily_tx_counts") {
+    val blockDate = date("block_date")
+    val txCount = long("tx_count")
+    override val id = blockDate.entityId()
+}
+
+/**
+ * Daily tx counts, rolled up by `update_block_cache_hourly_tx_counts()` as blocks are processed. Blocks not yet rolled
+ * up are still in `block_tx_count_cache` as unprocessed, so reads add those in within the same statement to stay
+ * current for the partial day.
+ */
+class BlockCacheDailyTxCountsRecord(id: EntityID<LocalDate>) : Entity<LocalDate>(id) {
+    companion object : EntityClass<LocalDate, BlockCacheDailyTxCountsRecord>(BlockCacheDailyTxCountsTable) {
+
+        fun countsForDates(fromDate: LocalDate, toDate: LocalDate) = transaction {
+            val query = """
+                SELECT day, SUM(cnt) AS count
+                FROM (SELECT block_date AS day, tx_count AS cnt
+                      FROM block_cache_daily_tx_counts
+                      WHERE block_date BETWEEN ? AND ?
+                      UNION ALL
+                      SELECT block_timestamp::date, tx_count
+                      FROM block_tx_count_cache
+                      WHERE processed = false
+                        AND block_timestamp >= ?
+                        AND block_timestamp < ?) AS daily
+                GROUP BY day
+                ORDER BY day
+            """.trimIndent()
+            val arguments = listOf<Pair<IColumnType, Any?>>(
+                Pair(JavaLocalDateColumnType(), fromDate),
+                Pair(JavaLocalDateColumnType(), toDate),
+                Pair(JavaLocalDateTimeColumnType(), fromDate.atStartOfDay()),
+                Pair(JavaLocalDateTimeColumnType(), toDate.plusDays(1).atStartOfDay())
+            )
+            query.execAndMap(arguments) { Pair(it.getDate("day").toLocalDate(), it.getLong("count")) }
+        }
+
+        // Total txs through the end of [date], or through now when null
+        fun totalToDate(date: LocalDate? = null) = transaction {
+            val dailyFilter = date?.let { "WHERE block_date <= ?" } ?: ""
+            val unprocessedFilter = date?.let { "AND block_timestamp < ?" } ?: ""
+            val query = """
+                SELECT COALESCE((SELECT SUM(tx_count) FROM block_cache_daily_tx_counts $dailyFilter), 0)
+                     + COALESCE((SELECT SUM(tx_count) FROM block_tx_count_cache
+                                 WHERE processed = false $unprocessedFilter), 0) AS total
+            """.trimIndent()
+            val arguments = date?.let {
+                listOf<Pair<IColumnType, Any?>>(
+                    Pair(JavaLocalDateColumnType(), it),
+                    Pair(JavaLocalDateTimeColumnType(), it.plusDays(1).atStartOfDay())
+                )
+            } ?: emptyList()
+            query.execAndMap(arguments) { it.getLong("total") }.first()
+        }
+    }
+
+    var blockDate by BlockCacheDailyTxCountsTable.blockDate
+    var txCount by BlockCacheDailyTxCountsTable.txCount
+}
+
 object BlockTxCountsCacheTable : IdTable<Int>(name = "block_tx_count_cache") {
     val blockHeight = integer("block_height")
     val blockTimestamp = datetime("block_timestamp")
@@ -158,7 +158,9 @@ enum class CacheKeys(val key: String) {
     STANDARD_BLOCK_TIME("standard_block_time"),
     UTILITY_TOKEN_LATEST("utility_token_latest"),
     FEE_BUG_ONE_ELEVEN_START_BLOCK("fee_bug_one_eleven_start_block"),
-    AUTHZ_PROCESSING("authz_processing")
+    AUTHZ_PROCESSING("authz_processing"),
+    SPOTLIGHT("spotlight"),
+    BLOCK_SUMMARY_BACKFILL_BEFORE("block_summary_backfill_before")
 }
 
 class CacheUpdateRecord(id: EntityID<Int>) : IntEntity(id) {
@@ -80,6 +80,12 @@ class MarkerCacheRecord(id: EntityID<Int>) : IntEntity(id) {
             MarkerCacheRecord.find { MarkerCacheTable.markerAddress eq addr }.firstOrNull()
         }
 
+        fun findIdsByDenoms(denoms: Collection<String>) = transaction {
+            MarkerCacheTable.slice(MarkerCacheTable.id, MarkerCacheTable.denom)
+                .select { MarkerCacheTable.denom inList denoms }
+                .associate { it[MarkerCacheTable.denom] to it[MarkerCacheTable.id] }
+        }
+
         fun findByStatusPaginated(status: List<MarkerStatus>, offset: Int, limit: Int) = transaction {
             MarkerCacheTable.select { MarkerCacheTable.status inList status.map { it.name } }
                 .andWhere { notIbcExpr }
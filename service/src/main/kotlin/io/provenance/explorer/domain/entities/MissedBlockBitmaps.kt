@@ -0,0 +1,218 @@
+package io.provenance.explorer.domain.entities
+
+import com.github.benmanes.caffeine.cache.Caffeine
+import com.github.benmanes.caffeine.cache.LoadingCache
+import io.provenance.explorer.domain.core.sql.ArrayColumnType
+import io.provenance.explorer.domain.extensions.execAndMap
+import io.provenance.explorer.domain.models.explorer.MissedBlock
+import io.provenance.explorer.domain.models.explorer.MissedBlockPeriod
+import io.provenance.explorer.model.ValidatorMoniker
+import org.jetbrains.exposed.sql.IColumnType
+import org.jetbrains.exposed.sql.IntegerColumnType
+import org.jetbrains.exposed.sql.Table
+import org.jetbrains.exposed.sql.TextColumnType
+import org.jetbrains.exposed.sql.Transaction
+import org.jetbrains.exposed.sql.and
+import org.jetbrains.exposed.sql.select
+import org.jetbrains.exposed.sql.statements.StatementInterceptor
+import org.jetbrains.exposed.sql.transactions.TransactionManager
+import org.jetbrains.exposed.sql.transactions.transaction
+import java.util.BitSet
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+// Heights covered by one bitmap row; must match the chunk size used by `set_missed_block_bits`
+const val MISSED_BLOCK_CHUNK_SIZE = 65536
+
+// Chunks below the head kept in memory, about a quarter of heights at current block times
+const val MISSED_BLOCK_ACTIVE_CHUNKS = 24
+
+object MissedBlockBitmapTable : Table(name = "missed_block_bitmap") {
+    val valConsAddr = varchar("val_cons_address", 128)
+    val chunkStart = integer("chunk_start")
+    val bits = binary("bits")
+    override val primaryKey = PrimaryKey(valConsAddr, chunkStart)
+}
+
+/**
+ * Missed blocks kept as one bitmap per validator per chunk of heights. The chunks of the active window, the last
+ * [MISSED_BLOCK_ACTIVE_CHUNKS] chunks up to the highest height seen, are held in memory; older chunks are read from
+ * the table one at a time when a range reaches back past the window and aren't kept.
+ */
+object MissedBlockBitmaps {
+
+    // chunk start -> validator -> missed offsets within the chunk. Refresh keeps writes from other instances visible.
+    private val activeChunks: LoadingCache<Int, ConcurrentHashMap<String, BitSet>> =
+        Caffeine.newBuilder()
+            .refreshAfterWrite(1, TimeUnit.MINUTES)
+            .build { chunkStart -> loadChunk(chunkStart) }
+
+    private val head = AtomicInteger(0)
+
+    private fun chunkStartOf(height: Int) = Math.floorDiv(height, MISSED_BLOCK_CHUNK_SIZE) * MISSED_BLOCK_CHUNK_SIZE
+
+    private fun windowStart() =
+        chunkStartOf(head.get()) - (MISSED_BLOCK_ACTIVE_CHUNKS - 1) * MISSED_BLOCK_CHUNK_SIZE
+
+    // Moves the window up to `height`, dropping chunks that fall out of it
+    private fun advanceHead(height: Int) {
+        val previous = head.getAndAccumulate(height, ::maxOf)
+        if (chunkStartOf(height) > chunkStartOf(previous)) {
+            val start = windowStart()
+            activeChunks.asMap().keys.removeIf { it < start }
+        }
+    }
+
+    private fun loadChunk(chunkStart: Int, valConsAddr: String? = null) = transaction {
+        MissedBlockBitmapTable
+            .select {
+                (MissedBlockBitmapTable.chunkStart eq chunkStart).let { op ->
+                    valConsAddr?.let { op and (MissedBlockBitmapTable.valConsAddr eq it) } ?: op
+                }
+            }
+            .associateTo(ConcurrentHashMap()) {
+                it[MissedBlockBitmapTable.valConsAddr] to BitSet.valueOf(it[MissedBlockBitmapTable.bits])
+            }
+    }
+
+    /**
+     * Writes the missed blocks in the current transaction with one call per chunk. The in-memory chunks are only
+     * updated once that transaction commits, so a rolled back ingest leaves them untouched.
+     */
+    fun setMissed(missed: Collection<MissedBlock>) {
+        if (missed.isEmpty()) return
+        val byChunk = missed.groupBy { chunkStartOf(it.height) }
+        transaction {
+            val query = "SELECT set_missed_block_bits(?, CAST(? AS TEXT[]), CAST(? AS INT[]))"
+            byChunk.toSortedMap().forEach { (chunkStart, blocks) ->
+                val args = listOf<Pair<IColumnType, Any?>>(
+                    Pair(IntegerColumnType(), chunkStart),
+                    Pair(ArrayColumnType(TextColumnType()), ArrayList(blocks.map { it.valConsAddr })),
+                    Pair(ArrayColumnType(TextColumnType()), ArrayList(blocks.map { it.height.toString() }))
+                )
+                query.execAndMap(args) { }
+            }
+            TransactionManager.current().registerInterceptor(object : StatementInterceptor {
+                override fun afterCommit(transaction: Transaction) = applyCommitted(byChunk)
+            })
+        }
+    }
+
+    private fun applyCommitted(byChunk: Map<Int, List<MissedBlock>>) {
+        advanceHead(byChunk.values.maxOf { blocks -> blocks.maxOf { it.height } })
+        byChunk.forEach { (chunkStart, blocks) ->
+            val bitmaps = activeChunks.getIfPresent(chunkStart) ?: return@forEach
+            blocks.forEach { block ->
+                val bits = bitmaps.computeIfAbsent(block.valConsAddr) { BitSet() }
+                synchronized(bits) { bits.set(block.height - chunkStart) }
+            }
+        }
+    }
+
+    /**
+     * Calls `action` with each chunk overlapping [fromHeight, toHeight], other than those in [skipFrom, skipTo), and
+     * the offsets of the range within it. Chunks before the active window are read for `valConsAddr` only, when given.
+     */
+    private fun forEachChunk(
+        fromHeight: Int,
+        toHeight: Int,
+        valConsAddr: String?,
+        skipFrom: Int = 0,
+        skipTo: Int = 0,
+        action: (Int, Map<String, BitSet>, Int, Int) -> Unit
+    ) {
+        val from = fromHeight.coerceAtLeast(0)
+        if (from > toHeight) return
+        advanceHead(toHeight)
+        val activeStart = windowStart()
+        var chunkStart = chunkStartOf(from)
+        while (chunkStart <= toHeight) {
+            // Chunks in [skipFrom, skipTo) were already handled by the caller
+            if (chunkStart in skipFrom until skipTo) {
+                chunkStart = skipTo
+                continue
+            }
+            val lo = maxOf(from, chunkStart) - chunkStart
+            val hi = minOf(toHeight, chunkStart + MISSED_BLOCK_CHUNK_SIZE - 1) - chunkStart
+            val bitmaps = if (chunkStart >= activeStart) activeChunks.get(chunkStart) else loadChunk(chunkStart, valConsAddr)
+            action(chunkStart, bitmaps, lo, hi)
+            chunkStart += MISSED_BLOCK_CHUNK_SIZE
+        }
+    }
+
+    /**
+     * Chunks before the active window that the range fully covers are counted in the database, so long ranges don't
+     * read every one of the validator's bitmaps.
+     */
+    fun countMissed(fromHeight: Int, toHeight: Int, valConsAddr: String): Int {
+        val from = fromHeight.coerceAtLeast(0)
+        if (from > toHeight) return 0
+        advanceHead(toHeight)
+        // Whole chunks in [from, min(toHeight, window start)), counted with one query
+        val firstWhole = chunkStartOf(from + MISSED_BLOCK_CHUNK_SIZE - 1)
+        val endWhole = minOf(chunkStartOf(toHeight + 1), windowStart())
+        var count = if (firstWhole < endWhole) countStoredChunks(valConsAddr, firstWhole, endWhole) else 0
+        forEachChunk(from, toHeight, valConsAddr, skipFrom = firstWhole, skipTo = endWhole) { _, bitmaps, lo, hi ->
+            bitmaps[valConsAddr]?.let { bits -> count += synchronized(bits) { bits.get(lo, hi + 1).cardinality() } }
+        }
+        return count
+    }
+
+    private fun countStoredChunks(valConsAddr: String, fromChunk: Int, toChunk: Int) = transaction {
+        val query = """
+            SELECT COALESCE(SUM(missed_bits_count(bits)), 0) AS missed
+            FROM missed_block_bitmap
+            WHERE val_cons_address = ?
+              AND chunk_start >= ?
+              AND chunk_start < ?
+        """.trimIndent()
+        val args = listOf<Pair<IColumnType, Any?>>(
+            Pair(TextColumnType(), valConsAddr),
+            Pair(IntegerColumnType(), fromChunk),
+            Pair(IntegerColumnType(), toChunk)
+        )
+        query.execAndMap(args) { it.getInt("missed") }.first()
+    }
+
+    fun findValidators(fromHeight: Int, toHeight: Int): Set<String> {
+        val validators = mutableSetOf<String>()
+        forEachChunk(fromHeight, toHeight, null) { _, bitmaps, lo, hi ->
+            bitmaps.forEach { (addr, bits) ->
+                if (addr !in validators && synchronized(bits) { bits.nextSetBit(lo).let { it in 0..hi } }) {
+                    validators.add(addr)
+                }
+            }
+        }
+        return validators
+    }
+
+    // Missed heights in [fromHeight, toHeight] as runs of consecutive heights, ordered by validator and height. Runs
+    // are built as the chunks are read, so only the runs are held, not every missed height.
+    fun findPeriods(fromHeight: Int, toHeight: Int, valConsAddr: String?): List<MissedBlockPeriod> {
+        val runs = sortedMapOf<String, MutableList<IntArray>>()
+        forEachChunk(fromHeight, toHeight, valConsAddr) { chunkStart, bitmaps, lo, hi ->
+            bitmaps.filterKeys { valConsAddr == null || it == valConsAddr }.forEach { (addr, bits) ->
+                val list = runs.getOrPut(addr) { mutableListOf() }
+                synchronized(bits) {
+                    var idx = bits.nextSetBit(lo)
+                    while (idx in 0..hi) {
+                        val height = chunkStart + idx
+                        // [first, last, count]
+                        val last = list.lastOrNull()
+                        if (last != null && last[1] + 1 == height) {
+                            last[1] = height
+                            last[2]++
+                        } else {
+                            list.add(intArrayOf(height, height, 1))
+                        }
+                        idx = bits.nextSetBit(idx + 1)
+                    }
+                }
+            }
+        }
+        return runs.flatMap { (addr, list) ->
+            list.map { MissedBlockPeriod(ValidatorMoniker(addr, null, null, null), it[0], it[1], it[2]) }
+        }
+    }
+}
@@ -2,20 +2,31 @@ package io.provenance.explorer.domain.entities
 
 import io.provenance.explorer.domain.core.sql.toDbQueryList
 import io.provenance.explorer.domain.extensions.execAndMap
+import io.provenance.explorer.model.base.USD_LOWER
 import org.jetbrains.exposed.dao.IntEntity
 import org.jetbrains.exposed.dao.IntEntityClass
 import org.jetbrains.exposed.dao.id.EntityID
 import org.jetbrains.exposed.dao.id.IntIdTable
 import org.jetbrains.exposed.sql.ColumnType
+import org.jetbrains.exposed.sql.IColumnType
+import org.jetbrains.exposed.sql.IntegerColumnType
+import org.jetbrains.exposed.sql.LongColumnType
+import org.jetbrains.exposed.sql.TextColumnType
 import org.jetbrains.exposed.sql.VarCharColumnType
 import org.jetbrains.exposed.sql.insertIgnore
+import org.jetbrains.exposed.sql.javatime.JavaLocalDateColumnType
 import org.jetbrains.exposed.sql.javatime.JavaLocalDateTimeColumnType
 import org.jetbrains.exposed.sql.javatime.datetime
+import org.jetbrains.exposed.sql.statements.StatementType
 import org.jetbrains.exposed.sql.transactions.transaction
 import java.math.BigDecimal
 import java.sql.ResultSet
+import java.time.LocalDate
 import java.time.LocalDateTime
 
+// Rows per `latest_nav` upsert statement, keeping the bind parameters well under the driver limit
+const val LATEST_NAV_BATCH_SIZE = 1000
+
 object NavEventsTable : IntIdTable(name = "nav_events") {
     val blockHeight = integer("block_height")
     val blockTime = datetime("block_time")
@@ -49,7 +60,7 @@ class NavEventsRecord(id: EntityID<Int>) : IntEntity(id) {
             volume: Long,
             source: String
         ) = transaction {
-            NavEventsTable.insertIgnore {
+            val inserted = NavEventsTable.insertIgnore {
                 it[this.blockHeight] = blockHeight
                 it[this.blockTime] = blockTime
                 it[this.txHash] = txHash
@@ -61,9 +72,130 @@ class NavEventsRecord(id: EntityID<Int>) : IntEntity(id) {
                 it[this.priceDenom] = priceDenom
                 it[this.volume] = volume
                 it[this.dataSource] = source
+            }.insertedCount > 0
+            // Only a new event is rolled up, so re-ingesting a block doesn't count it twice
+            if (inserted) {
+                addToDailyRollups(blockHeight, blockTime, eventOrder, scopeId, priceAmount, priceDenom, source)
             }
         }
 
+        /**
+         * Keeps `latest_nav` on the newest event per (denom or scope, price denom, source). Only a later block, or a
+         * later event in the same block, replaces the current row, so re-ingested or backfilled blocks don't roll a
+         * price back. Called once per committed batch with the rows sorted by key, so concurrent batches lock the
+         * shared rows in the same order.
+         */
+        fun upsertLatest(navs: List<NavEvent>) = transaction {
+            val latest = navs
+                .filter { it.priceAmount != null && it.priceDenom != null && (it.denom != null || it.scopeId != null) }
+                .groupBy { Triple(it.denom ?: it.scopeId!!, it.priceDenom!!, it.source) }
+                .mapValues { (_, events) ->
+                    events.maxWith(compareBy<NavEvent>({ it.blockHeight }, { it.eventOrder }))
+                }
+                .toSortedMap(compareBy<Triple<String, String, String>>({ it.first }, { it.second }, { it.third }))
+            latest.entries.chunked(LATEST_NAV_BATCH_SIZE).forEach { batch ->
+                val query = """
+                    INSERT INTO latest_nav (nav_key, price_denom, source, block_height, block_time, tx_hash, event_order,
+                                            event_type, scope_id, denom, price_amount, volume)
+                    VALUES ${batch.joinToString(", ") { "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)" }}
+                    ON CONFLICT (nav_key, price_denom, source) DO UPDATE
+                    SET block_height = excluded.block_height,
+                        block_time   = excluded.block_time,
+                        tx_hash      = excluded.tx_hash,
+                        event_order  = excluded.event_order,
+                        event_type   = excluded.event_type,
+                        scope_id     = excluded.scope_id,
+                        denom        = excluded.denom,
+                        price_amount = excluded.price_amount,
+                        volume       = excluded.volume
+                    WHERE (excluded.block_height, excluded.event_order) > (latest_nav.block_height, latest_nav.event_order)
+                """.trimIndent()
+                val args = batch.flatMap { (key, nav) ->
+                    listOf<Pair<IColumnType, Any?>>(
+                        Pair(TextColumnType(), key.first),
+                        Pair(TextColumnType(), key.second),
+                        Pair(TextColumnType(), key.third),
+                        Pair(IntegerColumnType(), nav.blockHeight),
+                        Pair(JavaLocalDateTimeColumnType(), nav.blockTime),
+                        Pair(TextColumnType(), nav.txHash),
+                        Pair(IntegerColumnType(), nav.eventOrder),
+                        Pair(TextColumnType(), nav.eventType),
+                        Pair(TextColumnType(), nav.scopeId),
+                        Pair(TextColumnType(), nav.denom),
+                        Pair(LongColumnType(), nav.priceAmount),
+                        Pair(LongColumnType(), nav.volume)
+                    )
+                }
+                exec(query, args, StatementType.INSERT)
+            }
+        }
+
+        /**
+         * Adds the event to `nav_daily_trade_totals` when it comes from the exchange module, and to
+         * `nav_daily_scope_navs` when it's a metadata usd scope nav later than the one held for its day.
+         */
+        private fun addToDailyRollups(
+            blockHeight: Int,
+            blockTime: LocalDateTime,
+            eventOrder: Int,
+            scopeId: String?,
+            priceAmount: Long?,
+            priceDenom: String?,
+            source: String
+        ) = transaction {
+            if (source.startsWith("x/exchange")) {
+                // gross, but all uusd is micro
+                val value = priceAmount
+                    ?.takeIf { priceDenom?.startsWith("u$USD_LOWER") == true || priceDenom == "uylds.fcc" }
+                val query = """
+                    INSERT INTO nav_daily_trade_totals (block_date, trade_count, trade_value)
+                    VALUES (?, 1, ?)
+                    ON CONFLICT (block_date) DO UPDATE
+                    SET trade_count = nav_daily_trade_totals.trade_count + 1,
+                        trade_value = nav_daily_trade_totals.trade_value + excluded.trade_value
+                """.trimIndent()
+                val args = listOf<Pair<IColumnType, Any?>>(
+                    Pair(JavaLocalDateColumnType(), blockTime.toLocalDate()),
+                    Pair(LongColumnType(), value ?: 0L)
+                )
+                exec(query, args, StatementType.INSERT)
+            }
+            if (source == "metadata" && priceDenom == USD_LOWER && scopeId != null && priceAmount != null) {
+                val query = """
+                    INSERT INTO nav_daily_scope_navs (block_date, scope_id, block_height, event_order, price_amount)
+                    VALUES (?, ?, ?, ?, ?)
+                    ON CONFLICT (block_date, scope_id) DO UPDATE
+                    SET block_height = excluded.block_height,
+                        event_order  = excluded.event_order,
+                        price_amount = excluded.price_amount
+                    WHERE (excluded.block_height, excluded.event_order)
+                              > (nav_daily_scope_navs.block_height, nav_daily_scope_navs.event_order)
+                """.trimIndent()
+                val args = listOf<Pair<IColumnType, Any?>>(
+                    Pair(JavaLocalDateColumnType(), blockTime.toLocalDate()),
+                    Pair(TextColumnType(), scopeId),
+                    Pair(IntegerColumnType(), blockHeight),
+                    Pair(IntegerColumnType(), eventOrder),
+                    Pair(LongColumnType(), priceAmount)
+                )
+                exec(query, args, StatementType.INSERT)
+            }
+        }
+
+        // Exchange trade count and micro usd trade value for the day
+        fun dailyTradeTotals(date: LocalDate) = transaction {
+            val query = "SELECT trade_count, trade_value FROM nav_daily_trade_totals WHERE block_date = ?"
+            query.execAndMap(listOf(Pair(JavaLocalDateColumnType(), date))) {
+                Pair(it.getLong("trade_count"), it.getBigDecimal("trade_value"))
+            }.firstOrNull() ?: Pair(0L, BigDecimal.ZERO)
+        }
+
+        // Sum of each scope's last metadata usd nav for the day
+        fun dailyScopeNavTotal(date: LocalDate) = transaction {
+            val query = "SELECT COALESCE(SUM(price_amount), 0) AS total FROM nav_daily_scope_navs WHERE block_date = ?"
+            query.execAndMap(listOf(Pair(JavaLocalDateColumnType(), date))) { it.getBigDecimal("total") }.first()
+        }
+
         fun getNavEvents(
             denom: String? = null,
             scopeId: String? = null,
@@ -132,10 +264,10 @@ class NavEventsRecord(id: EntityID<Int>) : IntEntity(id) {
             require(includeMarkers || includeScopes) { "Either includeMarkers or includeScope must be true" }
 
             var query = """
-            SELECT DISTINCT ON (denom, scope_id)
-                block_height, block_time, tx_hash, event_order, event_type, 
+            SELECT DISTINCT ON (nav_key)
+                block_height, block_time, tx_hash, event_order, event_type,
                 scope_id, denom, price_amount, price_denom, volume, source
-            FROM nav_events
+            FROM latest_nav
             WHERE price_denom in (${priceDenoms.toSet().toDbQueryList()})
             """.trimIndent()
 
@@ -152,7 +284,8 @@ class NavEventsRecord(id: EntityID<Int>) : IntEntity(id) {
                 includeScopes -> query += " AND scope_id IS NOT NULL"
             }
 
-            query += " ORDER BY denom, scope_id, block_height DESC, event_order DESC"
+            // Matches idx_latest_nav_key_height, so the newest row per key is read in index order
+            query += " ORDER BY nav_key, block_height DESC, event_order DESC"
 
             query.execAndMap(args) { it.toNavEvent() }
         }
@@ -228,20 +361,15 @@ class NavEventsRecord(id: EntityID<Int>) : IntEntity(id) {
 
             val fromDateQuery = fromDate?.let { "AND ne.block_time >= ?" } ?: ""
             var query = """
-                SELECT DISTINCT ON (ne.scope_id)
-                    ne.scope_id, ne.price_amount, ne.price_denom, ne.volume,
+                SELECT ne.scope_id, ne.price_amount, ne.price_denom, ne.volume,
                     ns.scope->>'value_owner_address' as value_owner, mc.denom as marker_denom
                 FROM nft_scope ns
-                JOIN LATERAL (
-                    SELECT *
-                    FROM nav_events ne
-                    WHERE ne.scope_id = ns.address::text AND ne.price_amount IS NOT NULL
-                      AND ne.source = '${entity.dataSource}' AND ne.price_denom = 'usd' $fromDateQuery
-                    ORDER BY ne.block_height DESC, ne.event_order DESC LIMIT 1
-                ) ne ON true
+                JOIN latest_nav ne
+                  ON ne.nav_key = ns.address::text AND ne.price_denom = 'usd'
+                  AND ne.source = '${entity.dataSource}' $fromDateQuery
                 LEFT JOIN marker_cache mc ON mc.marker_address::text = ns.scope ->> 'value_owner_address'
                 WHERE ns.scope ->> 'specification_id' IN (${specificationIds.toSet().toDbQueryList()})
-                ORDER BY ne.scope_id, ne.block_height DESC, ne.event_order DESC
+                ORDER BY ne.scope_id
             """.trimIndent()
 
             limit?.let { query += " LIMIT $it" }
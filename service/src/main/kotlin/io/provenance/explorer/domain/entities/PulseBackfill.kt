@@ -0,0 +1,271 @@
+package io.provenance.explorer.domain.entities
+
+import io.provenance.explorer.domain.extensions.execAndMap
+import io.provenance.explorer.domain.models.explorer.pulse.BackfillItemStatus
+import io.provenance.explorer.domain.models.explorer.pulse.PulseCacheType
+import org.jetbrains.exposed.dao.IntEntity
+import org.jetbrains.exposed.dao.IntEntityClass
+import org.jetbrains.exposed.dao.id.EntityID
+import org.jetbrains.exposed.dao.id.IntIdTable
+import org.jetbrains.exposed.sql.Column
+import org.jetbrains.exposed.sql.IColumnType
+import org.jetbrains.exposed.sql.IntegerColumnType
+import org.jetbrains.exposed.sql.SortOrder
+import org.jetbrains.exposed.sql.and
+import org.jetbrains.exposed.sql.batchInsert
+import org.jetbrains.exposed.sql.javatime.JavaLocalDateTimeColumnType
+import org.jetbrains.exposed.sql.javatime.date
+import org.jetbrains.exposed.sql.javatime.datetime
+import org.jetbrains.exposed.sql.statements.StatementType
+import org.jetbrains.exposed.sql.transactions.transaction
+import org.jetbrains.exposed.sql.update
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.time.ZoneOffset
+import java.time.temporal.ChronoUnit
+
+object PulseBackfillJobTable : IntIdTable(name = "pulse_backfill_job") {
+    val fromDate = date("from_date")
+    val toDate = date("to_date")
+    val types = text("types")
+    val denom = text("denom").nullable()
+    val createdAt = datetime("created_at")
+    val completedAt = datetime("completed_at").nullable()
+}
+
+class PulseBackfillJobRecord(id: EntityID<Int>) : IntEntity(id) {
+    companion object : IntEntityClass<PulseBackfillJobRecord>(
+        PulseBackfillJobTable
+    ) {
+        // Creates the job with a pending item for every date in the range and every type
+        fun create(fromDate: LocalDate, toDate: LocalDate, types: List<PulseCacheType>, denom: String?) = transaction {
+            val job = PulseBackfillJobRecord.new {
+                this.fromDate = fromDate
+                this.toDate = toDate
+                this.types = types.joinToString(",")
+                this.denom = denom
+                this.createdAt = LocalDateTime.now(ZoneOffset.UTC)
+            }
+            val items = (0..fromDate.until(toDate, ChronoUnit.DAYS)).flatMap { day ->
+                types.map { type -> fromDate.plusDays(day) to type }
+            }
+            PulseBackfillItemTable.batchInsert(items, shouldReturnGeneratedValues = false) { (date, type) ->
+                this[PulseBackfillItemTable.jobId] = job.id
+                this[PulseBackfillItemTable.itemDate] = date
+                this[PulseBackfillItemTable.type] = type
+            }
+            job
+        }
+
+        fun findRecent(limit: Int) = transaction {
+            PulseBackfillJobRecord.all()
+                .orderBy(Pair(PulseBackfillJobTable.id, SortOrder.DESC))
+                .limit(limit)
+                .toList()
+        }
+
+        // Marks open jobs complete once none of their items are waiting or running
+        fun completeFinished() = transaction {
+            val query = """
+                UPDATE pulse_backfill_job j SET completed_at = ?
+                WHERE j.completed_at IS NULL
+                  AND NOT EXISTS (
+                    SELECT 1 FROM pulse_backfill_item i
+                    WHERE i.job_id = j.id AND i.status IN ('PENDING', 'RUNNING')
+                  )
+            """.trimIndent()
+            val arguments = listOf<Pair<IColumnType, Any?>>(
+                Pair(JavaLocalDateTimeColumnType(), LocalDateTime.now(ZoneOffset.UTC))
+            )
+            exec(query, arguments, StatementType.UPDATE)
+        }
+
+        fun reopen(jobId: Int) = transaction {
+            PulseBackfillJobTable.update({ PulseBackfillJobTable.id eq jobId }) {
+                it[this.completedAt] = null
+            }
+        }
+    }
+
+    var fromDate by PulseBackfillJobTable.fromDate
+    var toDate by PulseBackfillJobTable.toDate
+    var types by PulseBackfillJobTable.types
+    var denom by PulseBackfillJobTable.denom
+    var createdAt by PulseBackfillJobTable.createdAt
+    var completedAt by PulseBackfillJobTable.completedAt
+
+    fun typeList() = types.split(",").filter { it.isNotBlank() }.map { PulseCacheType.valueOf(it) }
+}
+
+object PulseBackfillItemTable : IntIdTable(name = "pulse_backfill_item") {
+    val jobId = reference("job_id", PulseBackfillJobTable)
+    val itemDate = date("item_date")
+    val type: Column<PulseCacheType> = enumerationByName("type", 128, PulseCacheType::class)
+    val status: Column<BackfillItemStatus> = enumerationByName("status", 16, BackfillItemStatus::class)
+        .default(BackfillItemStatus.PENDING)
+    val attempts = integer("attempts").default(0)
+    val lastError = text("last_error").nullable()
+    val startedAt = datetime("started_at").nullable()
+    val completedAt = datetime("completed_at").nullable()
+    val heartbeatAt = datetime("heartbeat_at").nullable()
+}
+
+// A claimed backfill item along with what's needed to run it
+data class PulseBackfillWork(
+    val id: Int,
+    val jobId: Int,
+    val date: LocalDate,
+    val type: PulseCacheType,
+    val attempts: Int,
+    val denom: String?
+)
+
+data class PulseBackfillCounts(
+    val completed: Long,
+    val pending: Long,
+    val running: Long,
+    val failed: Long,
+    val firstStarted: LocalDateTime?,
+    val lastCompleted: LocalDateTime?
+)
+
+class PulseBackfillItemRecord(id: EntityID<Int>) : IntEntity(id) {
+    companion object : IntEntityClass<PulseBackfillItemRecord>(
+        PulseBackfillItemTable
+    ) {
+        fun hasPending() = transaction {
+            !PulseBackfillItemRecord.find { PulseBackfillItemTable.status eq BackfillItemStatus.PENDING }
+                .limit(1)
+                .empty()
+        }
+
+        /**
+         * Claims up to [limit] pending items, earliest dates first, and marks them running. SKIP LOCKED lets workers
+         * on several instances claim at the same time without taking the same item.
+         */
+        fun claim(limit: Int) = transaction {
+            val query = """
+                WITH claimed AS (
+                    UPDATE pulse_backfill_item
+                    SET status = 'RUNNING', attempts = attempts + 1, started_at = ?, heartbeat_at = ?
+                    WHERE id IN (
+                        SELECT id FROM pulse_backfill_item
+                        WHERE status = 'PENDING'
+                        ORDER BY item_date, id
+                        LIMIT ?
+                        FOR UPDATE SKIP LOCKED
+                    )
+                    RETURNING id, job_id, item_date, type, attempts
+                )
+                SELECT c.*, j.denom FROM claimed c JOIN pulse_backfill_job j ON j.id = c.job_id
+            """.trimIndent()
+            val now = LocalDateTime.now(ZoneOffset.UTC)
+            val arguments = listOf<Pair<IColumnType, Any?>>(
+                Pair(JavaLocalDateTimeColumnType(), now),
+                Pair(JavaLocalDateTimeColumnType(), now),
+                Pair(IntegerColumnType(), limit)
+            )
+            query.execAndMap(arguments) {
+                PulseBackfillWork(
+                    it.getInt("id"),
+                    it.getInt("job_id"),
+                    it.getDate("item_date").toLocalDate(),
+                    PulseCacheType.valueOf(it.getString("type")),
+                    it.getInt("attempts"),
+                    it.getString("denom")
+                )
+            }
+        }
+
+        fun complete(id: Int) = transaction {
+            PulseBackfillItemTable.update({ PulseBackfillItemTable.id eq id }) {
+                it[this.status] = BackfillItemStatus.COMPLETE
+                it[this.completedAt] = LocalDateTime.now(ZoneOffset.UTC)
+                it[this.lastError] = null
+            }
+        }
+
+        // Goes back to pending for another try until it has used up [maxAttempts]
+        fun fail(work: PulseBackfillWork, error: String?, maxAttempts: Int) = transaction {
+            PulseBackfillItemTable.update({ PulseBackfillItemTable.id eq work.id }) {
+                it[this.status] =
+                    if (work.attempts >= maxAttempts) BackfillItemStatus.FAILED else BackfillItemStatus.PENDING
+                it[this.lastError] = error
+            }
+        }
+
+        // Keeps the lease on items a worker is still running
+        fun heartbeat(ids: Collection<Int>) = transaction {
+            if (ids.isEmpty()) return@transaction
+            PulseBackfillItemTable.update({
+                (PulseBackfillItemTable.id inList ids) and
+                    (PulseBackfillItemTable.status eq BackfillItemStatus.RUNNING)
+            }) {
+                it[this.heartbeatAt] = LocalDateTime.now(ZoneOffset.UTC)
+            }
+        }
+
+        /**
+         * Running items with no heartbeat since [heartbeatBefore] were held by a worker that went away. Each went
+         * through a claim, so it counts as an attempt: the item is failed once it has used up [maxAttempts] and
+         * requeued otherwise.
+         */
+        fun requeueStale(heartbeatBefore: LocalDateTime, maxAttempts: Int) = transaction {
+            val query = """
+                UPDATE pulse_backfill_item
+                SET status = CASE WHEN attempts >= ? THEN 'FAILED' ELSE 'PENDING' END,
+                    last_error = 'Worker stopped before finishing'
+                WHERE status = 'RUNNING' AND coalesce(heartbeat_at, started_at) < ?
+            """.trimIndent()
+            val arguments = listOf<Pair<IColumnType, Any?>>(
+                Pair(IntegerColumnType(), maxAttempts),
+                Pair(JavaLocalDateTimeColumnType(), heartbeatBefore)
+            )
+            exec(query, arguments, StatementType.UPDATE)
+        }
+
+        fun retryFailed(jobId: Int) = transaction {
+            PulseBackfillItemTable.update({
+                (PulseBackfillItemTable.jobId eq jobId) and
+                    (PulseBackfillItemTable.status eq BackfillItemStatus.FAILED)
+            }) {
+                it[this.status] = BackfillItemStatus.PENDING
+                it[this.attempts] = 0
+            }
+        }
+
+        fun countsForJob(jobId: Int) = transaction {
+            val query = """
+                SELECT count(*) FILTER (WHERE status = 'COMPLETE') AS completed,
+                       count(*) FILTER (WHERE status = 'PENDING')  AS pending,
+                       count(*) FILTER (WHERE status = 'RUNNING')  AS running,
+                       count(*) FILTER (WHERE status = 'FAILED')   AS failed,
+                       min(started_at) FILTER (WHERE status = 'COMPLETE') AS first_started,
+                       max(completed_at) AS last_completed
+                FROM pulse_backfill_item
+                WHERE job_id = ?
+            """.trimIndent()
+            val arguments = listOf<Pair<IColumnType, Any?>>(Pair(IntegerColumnType(), jobId))
+            query.execAndMap(arguments) {
+                PulseBackfillCounts(
+                    it.getLong("completed"),
+                    it.getLong("pending"),
+                    it.getLong("running"),
+                    it.getLong("failed"),
+                    it.getTimestamp("first_started")?.toLocalDateTime(),
+                    it.getTimestamp("last_completed")?.toLocalDateTime()
+                )
+            }.first()
+        }
+    }
+
+    var jobId by PulseBackfillItemTable.jobId
+    var itemDate by PulseBackfillItemTable.itemDate
+    var type by PulseBackfillItemTable.type
+    var status by PulseBackfillItemTable.status
+    var attempts by PulseBackfillItemTable.attempts
+    var lastError by PulseBackfillItemTable.lastError
+    var startedAt by PulseBackfillItemTable.startedAt
+    var completedAt by PulseBackfillItemTable.completedAt
+    var heartbeatAt by PulseBackfillItemTable.heartbeatAt
+}
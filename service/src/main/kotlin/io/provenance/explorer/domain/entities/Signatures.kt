@@ -179,6 +179,33 @@ class SignatureTxRecord(id: EntityID<Int>) : IntEntity(id) {
                 }
         }
 
+        // Signatures for a page of txs in one query, keyed by tx id
+        fun findByTxHashIds(txHashIds: List<Int>): Map<Int, List<TxSignature>> = transaction {
+            if (txHashIds.isEmpty()) return@transaction emptyMap()
+            SignatureTxTable
+                .innerJoin(SignatureTable, { SignatureTxTable.sigId }, { SignatureTable.id })
+                .slice(
+                    SignatureTxTable.txHashId,
+                    SignatureTxTable.sigIdx,
+                    SignatureTxTable.sequence,
+                    SignatureTable.pubkeyType,
+                    SignatureTable.address
+                )
+                .select { SignatureTxTable.txHashId inList txHashIds.map { EntityID(it, TxCacheTable) } }
+                .orderBy(Pair(SignatureTxTable.sigIdx, SortOrder.ASC))
+                .groupBy(
+                    { it[SignatureTxTable.txHashId].value },
+                    {
+                        TxSignature(
+                            it[SignatureTxTable.sigIdx],
+                            it[SignatureTable.pubkeyType].typeToLabel(),
+                            it[SignatureTable.address],
+                            it[SignatureTxTable.sequence]
+                        )
+                    }
+                )
+        }
+
         fun buildInsert(pubkey: Any, sigIdx: Int, txInfo: TxData, sequence: Int) = transaction {
             SignatureRecord.insertAndGet(pubkey, pubkey.sigToAddress(PROV_ACC_PREFIX)!!)
                 ?.let { sigId ->
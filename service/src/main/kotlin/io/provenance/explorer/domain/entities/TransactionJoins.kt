@@ -57,6 +57,32 @@ class TxAddressJoinRecord(id: EntityID<Int>) : IntEntity(id) {
             ).toList()
         }
 
+        // Validators for a page of txs in one pass, keyed by tx id
+        fun findValidatorsByTxHashIds(activeSet: Int, txHashIds: List<Int>) = transaction {
+            val valIdsByTx = TxAddressJoinTable
+                .slice(TxAddressJoinTable.txHashId, TxAddressJoinTable.addressId)
+                .select {
+                    (TxAddressJoinTable.txHashId inList txHashIds.map { EntityID(it, TxCacheTable) }) and
+                        (TxAddressJoinTable.addressType eq TxAddressJoinType.OPERATOR.name)
+                }
+                .groupBy({ it[TxAddressJoinTable.txHashId].value }, { it[TxAddressJoinTable.addressId] })
+            val states = ValidatorStateRecord.findByListValId(activeSet, valIdsByTx.values.flatten().distinct())
+                .associateBy { it.operatorAddrId }
+
+            valIdsByTx.mapValues { (_, valIds) -> valIds.mapNotNull { states[it] } }
+        }
+
+        // Accounts for a page of txs in one query, keyed by tx id
+        fun findAccountsByTxHashIds(txHashIds: List<Int>) = transaction {
+            TxAddressJoinTable
+                .innerJoin(AccountTable, { TxAddressJoinTable.addressId }, { AccountTable.id })
+                .select {
+                    (TxAddressJoinTable.txHashId inList txHashIds.map { EntityID(it, TxCacheTable) }) and
+                        (TxAddressJoinTable.addressType eq TxAddressJoinType.ACCOUNT.name)
+                }
+                .groupBy({ it[TxAddressJoinTable.txHashId].value }, { AccountRecord.wrapRow(it) })
+        }
+
         fun buildInsert(txInfo: TxData, addrPair: Pair<String, Int?>, address: String) =
             listOf(
                 0,
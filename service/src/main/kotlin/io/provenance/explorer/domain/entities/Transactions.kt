@@ -7,6 +7,11 @@ import io.provenance.explorer.OBJECT_MAPPER
 import io.provenance.explorer.VANILLA_MAPPER
 import io.provenance.explorer.config.ExplorerProperties
 import io.provenance.explorer.domain.core.logger
+import io.provenance.explorer.domain.core.sql.BytesParam
+import io.provenance.explorer.domain.core.sql.JsonbParam
+import io.provenance.explorer.domain.core.sql.PayloadStorageMode
+import io.provenance.explorer.domain.core.sql.ProtoPayloadCodec
+import io.provenance.explorer.domain.core.sql.RowLessOp
 import io.provenance.explorer.domain.core.sql.jsonb
 import io.provenance.explorer.domain.core.sql.toProcedureObject
 import io.provenance.explorer.domain.extensions.CUSTOM_FEE_MSG_TYPE
@@ -50,27 +55,32 @@ import org.jetbrains.exposed.dao.LongEntityClass
 import org.jetbrains.exposed.dao.id.EntityID
 import org.jetbrains.exposed.dao.id.IntIdTable
 import org.jetbrains.exposed.dao.id.LongIdTable
+import org.jetbrains.exposed.dao.with
+import org.jetbrains.exposed.sql.Column
 import org.jetbrains.exposed.sql.ColumnSet
 import org.jetbrains.exposed.sql.ColumnType
 import org.jetbrains.exposed.sql.Expression
 import org.jetbrains.exposed.sql.IntegerColumnType
-import org.jetbrains.exposed.sql.SizedIterable
+import org.jetbrains.exposed.sql.QueryBuilder
 import org.jetbrains.exposed.sql.SortOrder
+import org.jetbrains.exposed.sql.Table
 import org.jetbrains.exposed.sql.TextColumnType
 import org.jetbrains.exposed.sql.VarCharColumnType
 import org.jetbrains.exposed.sql.and
 import org.jetbrains.exposed.sql.andWhere
+import org.jetbrains.exposed.sql.count
 import org.jetbrains.exposed.sql.countDistinct
 import org.jetbrains.exposed.sql.innerJoin
 import org.jetbrains.exposed.sql.insertAndGetId
+import org.jetbrains.exposed.sql.intParam
 import org.jetbrains.exposed.sql.javatime.JavaLocalDateTimeColumnType
 import org.jetbrains.exposed.sql.javatime.datetime
 import org.jetbrains.exposed.sql.select
 import org.jetbrains.exposed.sql.selectAll
+import org.jetbrains.exposed.sql.sum
 import org.jetbrains.exposed.sql.transactions.TransactionManager
 import org.jetbrains.exposed.sql.transactions.transaction
 import java.math.BigDecimal
-import java.time.LocalDate
 import java.time.LocalDateTime
 import java.time.format.DateTimeFormatter
 
@@ -82,7 +92,8 @@ object TxCacheTable : IntIdTable(name = "tx_cache") {
     val txTimestamp = datetime("tx_timestamp")
     val errorCode = integer("error_code").nullable()
     val codespace = varchar("codespace", 16).nullable()
-    val txV2 = jsonb<TxCacheTable, ServiceOuterClass.GetTxResponse>("tx_v2", OBJECT_MAPPER)
+    val txV2 = jsonb<TxCacheTable, ServiceOuterClass.GetTxResponse>("tx_v2", OBJECT_MAPPER).nullable()
+    val txProto = binary("tx_proto").nullable()
 }
 
 class TxCacheRecord(id: EntityID<Int>) : IntEntity(id) {
@@ -91,7 +102,7 @@ class TxCacheRecord(id: EntityID<Int>) : IntEntity(id) {
         fun insertToProcedure(txUpdate: TxUpdate, height: Int, timestamp: LocalDateTime) = transaction {
             val txStr = txUpdate.toProcedureObject()
             val query = "CALL add_tx($txStr, $height, '${timestamp.toProcedureObject()}')"
-            this.exec(query)
+            this.exec(query, txUpdate.procedureParams())
         }
 
         fun getAssociatedValues(txHash: String, txHeight: Int) = transaction {
@@ -103,6 +114,7 @@ class TxCacheRecord(id: EntityID<Int>) : IntEntity(id) {
             query.execAndMap(arguments) { TxAssociatedValues(it.getString("value"), it.getString("type")) }
         }
 
+        // The tx payload itself is bound at execution time, see TxUpdate.procedureParams()
         fun buildInsert(tx: ServiceOuterClass.GetTxResponse, txTime: LocalDateTime) =
             listOf(
                 tx.txResponse.txhash,
@@ -112,38 +124,65 @@ class TxCacheRecord(id: EntityID<Int>) : IntEntity(id) {
                 txTime,
                 if (tx.txResponse.code > 0) tx.txResponse.code else null,
                 tx.txResponse.codespace.ifBlank { null },
-                tx,
-                0
+                JsonbParam,
+                0,
+                BytesParam
             ).toProcedureObject()
 
         fun findByHeight(height: Int) =
             TxCacheRecord.find { TxCacheTable.height eq height }
 
+        // Rewrites up to `limit` json-only rows in the given proto mode, returning the number converted
+        fun migratePayloads(mode: PayloadStorageMode, limit: Int) = transaction {
+            TxCacheRecord.find { TxCacheTable.txProto.isNull() and TxCacheTable.txV2.isNotNull() }
+                .orderBy(Pair(TxCacheTable.id, SortOrder.DESC))
+                .limit(limit)
+                .onEach {
+                    it.txProto = mode.encode(it.txJson!!)
+                    it.txJson = null
+                }
+                .count()
+        }
+
         fun findByHash(hash: String) = transaction {
             TxCacheRecord.find { TxCacheTable.hash eq hash }
                 .orderBy(Pair(TxCacheTable.height, SortOrder.DESC))
                 .toList()
         }
 
-        fun getTotalTxCount() = transaction {
-            TxCacheTable.selectAll().count().toBigInteger()
-        }
-
-        fun getTotalTxCountToDate(toDate: LocalDateTime) = transaction {
-            TxCacheTable.select { TxCacheTable.txTimestamp lessEq toDate }.count().toBigInteger()
-        }
-
         fun findByQueryForResults(txQueryParams: TxQueryParams) = transaction {
             val columns = TxCacheTable.columns.toMutableList()
             val query = findByQueryParams(txQueryParams, columns)
             if (!txQueryParams.onlyTxQuery()) {
                 query.groupBy(*TxCacheTable.columns.toTypedArray())
             }
-            query.orderBy(Pair(TxCacheTable.height, SortOrder.DESC))
-                .limit(txQueryParams.count, txQueryParams.offset.toLong())
+            // A join row carries its tx's height and id, so ordering on the join table that drives the filter gives
+            // the same order while letting its (filter, block_height, tx_hash_id) index serve the page
+            val (heightCol, idCol) = seekColumns(txQueryParams)
+            if (!txQueryParams.onlyTxQuery()) {
+                query.groupBy(heightCol, idCol)
+            }
+            query.orderBy(Pair(heightCol, SortOrder.DESC), Pair(idCol, SortOrder.DESC))
+            if (txQueryParams.cursor != null) {
+                // Seek past the cursor instead of scanning and discarding every row before the offset
+                val (height, id) = txQueryParams.cursor
+                query.andWhere { RowLessOp(listOf(heightCol, idCol), listOf(intParam(height), intParam(id))) }
+                    .limit(txQueryParams.count)
+            } else {
+                query.limit(txQueryParams.count, txQueryParams.offset.toLong())
+            }
             TxCacheRecord.wrapRows(query).toSet()
         }
 
+        private fun seekColumns(tqp: TxQueryParams): Pair<Column<Int>, Column<EntityID<Int>>> = when {
+            (tqp.addressId != null && tqp.addressType != null) || tqp.address != null ->
+                TxAddressJoinTable.blockHeight to TxAddressJoinTable.txHashId
+            tqp.markerId != null || tqp.denom != null -> TxMarkerJoinTable.blockHeight to TxMarkerJoinTable.txHashId
+            tqp.nftId != null -> TxNftJoinTable.blockHeight to TxNftJoinTable.txHashId
+            tqp.ibcChannelIds.isNotEmpty() -> TxIbcTable.blockHeight to TxIbcTable.txHashId
+            else -> TxCacheTable.height to TxCacheTable.id
+        }
+
         fun findByQueryParamsForCount(txQueryParams: TxQueryParams) = transaction {
             if (txQueryParams.onlyTxQuery()) {
                 findByQueryParams(txQueryParams, null).count().toBigInteger()
@@ -153,6 +192,16 @@ class TxCacheRecord(id: EntityID<Int>) : IntEntity(id) {
             }
         }
 
+        // Planner row estimate for the same query, which costs nothing next to counting a large result set
+        fun estimateByQueryParams(txQueryParams: TxQueryParams) = transaction {
+            val query = findByQueryParams(txQueryParams, listOf(TxCacheTable.id))
+            if (!txQueryParams.onlyTxQuery()) {
+                query.withDistinct()
+            }
+            val plan = "EXPLAIN (FORMAT JSON) ${query.prepareSQL(QueryBuilder(false))}".execAndMap { it.getString(1) }.first()
+            OBJECT_MAPPER.readTree(plan)[0]["Plan"]["Plan Rows"].asLong()
+        }
+
         private fun findByQueryParams(tqp: TxQueryParams, distinctQuery: List<Expression<*>>?) = transaction {
             var join: ColumnSet = TxCacheTable
 
@@ -213,28 +262,6 @@ class TxCacheRecord(id: EntityID<Int>) : IntEntity(id) {
             query
         }
 
-        fun countForDates(daysPrior: Int, atDateTime: LocalDateTime? = null): List<Pair<LocalDate, Long>> = transaction {
-            val atDateQuery = atDateTime?.let {
-                "tx_timestamp between '${atDateTime.minusDays(daysPrior.toLong()).toLocalDate()}' and '${atDateTime.toLocalDate()}'"
-            } ?: "tx_timestamp > current_timestamp - interval '$daysPrior days'"
-
-            val query = """
-                select sum(daily_tx_cnt.cnt) as count, ds
-                from (select count(*) cnt, tx_timestamp ts, date_trunc('day', tx_timestamp) ds
-                      from tx_cache
-                      where $atDateQuery
-                      group by ts, ds) as daily_tx_cnt
-                group by ds
-                order by ds;
-            """.trimIndent()
-            query.execAndMap {
-                Pair(
-                    it.getTimestamp("ds").toLocalDateTime().toLocalDate(),
-                     it.getLong("count")
-                )
-            }
-        }
-
         fun pulseTransactionsWithValue(
             denom: String, afterDateTime: LocalDateTime,
                                        page: Int, count: Int,
@@ -304,12 +331,42 @@ class TxCacheRecord(id: EntityID<Int>) : IntEntity(id) {
     var txTimestamp by TxCacheTable.txTimestamp
     var errorCode by TxCacheTable.errorCode
     var codespace by TxCacheTable.codespace
-    var txV2 by TxCacheTable.txV2
+    var txJson by TxCacheTable.txV2
+    var txProto by TxCacheTable.txProto
+    // Decoded once per record; the payload columns aren't rewritten after a record is read
+    val txV2: ServiceOuterClass.GetTxResponse by lazy {
+        txProto?.let { ProtoPayloadCodec.decode(it, ServiceOuterClass.GetTxResponse.parser()) } ?: txJson!!
+    }
     val txMessages by TxMessageRecord referrersOn TxMessageTable.txHashId
     val txFees by TxFeeRecord referrersOn TxFeeTable.txHashId
     val txFeepayer by TxFeepayerRecord referrersOn TxFeepayerTable.txHashId
 }
 
+object TxCountTable : Table(name = "tx_count") {
+    val scope = varchar("scope", 16)
+    val scopeId = integer("scope_id")
+    val txCount = long("tx_count")
+}
+
+// Count for every tx; address counts use the `TxAddressJoinType` names as their scope
+const val TX_COUNT_SCOPE_ALL = "ALL"
+
+/**
+ * Tx counts maintained at ingest. Inserts only append +1 rows for their scope, so a count is the sum of its rows
+ * until [compact] folds them back into one.
+ */
+object TxCounts {
+
+    fun get(scope: String, scopeId: Int): Long = transaction {
+        val total = TxCountTable.txCount.sum()
+        TxCountTable.slice(total)
+            .select { (TxCountTable.scope eq scope) and (TxCountTable.scopeId eq scopeId) }
+            .first()[total] ?: 0L
+    }
+
+    fun compact() = transaction { exec("SELECT compact_tx_counts()") }
+}
+
 object TxMessageTypeTable : IntIdTable(name = "tx_message_type") {
     val type = varchar("type", 128)
     val module = varchar("module", 128)
@@ -405,6 +462,20 @@ class TxMsgTypeSubtypeRecord(id: EntityID<Int>) : IntEntity(id) {
                 }
             primId to recs
         }
+
+        // Message types for a page of txs in one query, with their type records eagerly loaded, keyed by tx id
+        fun findByTxHashIds(txHashIds: List<Int>) = transaction {
+            TxMsgTypeSubtypeRecord.wrapRows(
+                TxMsgTypeSubtypeTable
+                    .select { TxMsgTypeSubtypeTable.txHashId inList txHashIds.map { EntityID(it, TxCacheTable) } }
+                    .orderBy(
+                        Pair(TxMsgTypeSubtypeTable.txMsgId, SortOrder.ASC),
+                        Pair(TxMsgTypeSubtypeTable.id, SortOrder.ASC)
+                    )
+            ).toList()
+                .with(TxMsgTypeSubtypeRecord::primaryType, TxMsgTypeSubtypeRecord::secondaryType)
+                .groupBy { it.readValues[TxMsgTypeSubtypeTable.txHashId].value }
+        }
     }
 
     var txMsgId by TxMsgTypeSubtypeTable.txMsgId
@@ -544,6 +615,16 @@ class TxMessageRecord(id: EntityID<Int>) : IntEntity(id) {
             query
         }
 
+        // Message counts for a page of txs in one query, keyed by tx id
+        fun countByTxHashIds(txHashIds: List<Int>) = transaction {
+            val msgCount = TxMessageTable.id.count()
+            TxMessageTable
+                .slice(TxMessageTable.txHashId, msgCount)
+                .select { TxMessageTable.txHashId inList txHashIds.map { EntityID(it, TxCacheTable) } }
+                .groupBy(TxMessageTable.txHashId)
+                .associate { it[TxMessageTable.txHashId].value to it[msgCount].toInt() }
+        }
+
         fun buildInsert(txInfo: TxData, message: Any, msgIdx: Int) = transaction {
             listOf(
                 0,
@@ -809,12 +890,19 @@ object TxFeepayerTable : IntIdTable(name = "tx_feepayer") {
 
 enum class FeePayer { GRANTER, PAYER, FIRST_SIGNER }
 
-fun SizedIterable<TxFeepayerRecord>.getFeepayer() = this.map { TxFeepayer(it.payerType, it.address) }
+fun Iterable<TxFeepayerRecord>.getFeepayer() = this.map { TxFeepayer(it.payerType, it.address) }
     .minByOrNull { FeePayer.valueOf(it.type).ordinal }!!
 
 class TxFeepayerRecord(id: EntityID<Int>) : IntEntity(id) {
     companion object : IntEntityClass<TxFeepayerRecord>(TxFeepayerTable) {
 
+        // Fee payers for a page of txs in one query, keyed by tx id
+        fun findByTxHashIds(txHashIds: List<Int>) = transaction {
+            TxFeepayerTable
+                .select { TxFeepayerTable.txHashId inList txHashIds.map { EntityID(it, TxCacheTable) } }
+                .groupBy({ it[TxFeepayerTable.txHashId].value }, { TxFeepayerRecord.wrapRow(it) })
+        }
+
         fun buildInsert(txInfo: TxData, type: String, addrId: Int, address: String) =
             listOf(
                 0,
@@ -856,6 +944,17 @@ enum class FeeType { BASE_FEE_USED, BASE_FEE_OVERAGE, MSG_BASED_FEE, CUSTOM_FEE
 class TxFeeRecord(id: EntityID<Int>) : IntEntity(id) {
     companion object : IntEntityClass<TxFeeRecord>(TxFeeTable) {
 
+        // Fees in the given denom for a page of txs in one query, keyed by tx id
+        fun findByTxHashIds(txHashIds: List<Int>, denom: String) = transaction {
+            TxFeeTable
+                .select {
+                    (TxFeeTable.txHashId inList txHashIds.map { EntityID(it, TxCacheTable) }) and
+                        (TxFeeTable.marker eq denom)
+                }
+                .groupBy({ it[TxFeeTable.txHashId].value }, { TxFeeRecord.wrapRow(it) })
+        }
+
+        // Only rebuilds fees for txs that still have a json payload; protobuf-only txs keep their ingest-time rows
         fun updateTxFees(updateFromHeight: Int) = transaction {
             val query = "CALL update_tx_fees($updateFromHeight)"
             this.exec(query)
@@ -2,10 +2,14 @@ package io.provenance.explorer.domain.entities
 
 import io.provenance.explorer.config.ExplorerProperties.Companion.UTILITY_TOKEN_BASE_MULTIPLIER
 import io.provenance.explorer.domain.extensions.execAndMap
+import io.provenance.explorer.domain.extensions.execAndStream
 import io.provenance.explorer.domain.models.explorer.download.toFeeTypeData
 import io.provenance.explorer.domain.models.explorer.download.toTxHistoryChartData
 import io.provenance.explorer.domain.models.explorer.download.toTxTypeData
 import io.provenance.explorer.model.base.DateTruncGranularity
+import io.provenance.explorer.model.download.FeeTypeData
+import io.provenance.explorer.model.download.TxHistoryChartData
+import io.provenance.explorer.model.download.TxTypeData
 import org.jetbrains.exposed.sql.ColumnType
 import org.jetbrains.exposed.sql.IntegerColumnType
 import org.jetbrains.exposed.sql.VarCharColumnType
@@ -30,57 +34,99 @@ class TxHistoryDataViews {
             fromDate: LocalDateTime? = null,
             toDate: LocalDateTime? = null,
             feepayer: String? = null
-        ) =
-            transaction {
-                val dateWhere =
-                    if (fromDate != null && toDate != null) {
-                        " hourly between ? and ? "
-                    } else if (fromDate != null) {
-                        " hourly >= ? "
-                    } else {
-                        " true "
-                    }
-                val feepayerWhere = if (feepayer != null) " and feepayer = ? " else " and true "
-                val query = "Select " +
-                    "date_trunc(?, hourly) as date, " +
-                    (if (feepayer != null) "feepayer, " else "") +
-                    "sum(tx_count) as tx_count, " +
-                    "sum(fee_amount_in_base_token) as fee_amount_in_base_token, " +
-                    "sum(gas_wanted) as gas_wanted, " +
-                    "sum(gas_used) as gas_used, " +
-                    "sum(fee_amount_in_base_token/?::numeric) as fee_amount_in_token, " +
-                    "sum((fee_amount_in_base_token/?::numeric) * token_price_usd) fees_paid_in_usd, " +
-                    "max(token_price_usd) as max_token_price_usd, " +
-                    "min(token_price_usd) as min_token_price_usd, " +
-                    "avg(token_price_usd) as avg_token_price_usd " +
-                    "from tx_history_chart_data_hourly " +
-                    "where " + dateWhere + feepayerWhere +
-                    "group by date" + (if (feepayer != null) ", feepayer " else " ") +
-                    "order by date;"
-                        .trimIndent()
-                val arguments = mutableListOf<Pair<ColumnType, *>>(
-                    Pair(VarCharColumnType(64), granularity.name),
-                    Pair(IntegerColumnType(), UTILITY_TOKEN_BASE_MULTIPLIER),
-                    Pair(IntegerColumnType(), UTILITY_TOKEN_BASE_MULTIPLIER)
-                )
-                if (fromDate != null) {
-                    arguments.add(Pair(JavaLocalDateTimeColumnType(), fromDate))
-                    if (toDate != null) {
-                        arguments.add(Pair(JavaLocalDateTimeColumnType(), toDate.plusDays(1).minusMinutes(1)))
-                    }
+        ) = transaction {
+            val (query, arguments) = txHistoryChartQuery(granularity, fromDate, toDate, feepayer)
+            query.execAndMap(arguments) { it.toTxHistoryChartData(feepayer != null) }
+        }
+
+        fun streamTxHistoryChartData(
+            granularity: DateTruncGranularity,
+            fromDate: LocalDateTime?,
+            toDate: LocalDateTime?,
+            feepayer: String?,
+            consume: (TxHistoryChartData) -> Unit
+        ) = transaction {
+            val (query, arguments) = txHistoryChartQuery(granularity, fromDate, toDate, feepayer)
+            query.execAndStream(arguments) { consume(it.toTxHistoryChartData(feepayer != null)) }
+        }
+
+        fun streamTxTypeData(
+            granularity: DateTruncGranularity,
+            fromDate: LocalDateTime?,
+            toDate: LocalDateTime?,
+            feepayer: String?,
+            consume: (TxTypeData) -> Unit
+        ) = transaction {
+            val (query, arguments) = txTypeQuery(granularity, fromDate, toDate, feepayer)
+            query.execAndStream(arguments) { consume(it.toTxTypeData(feepayer != null)) }
+        }
+
+        fun streamFeeTypeData(
+            granularity: DateTruncGranularity,
+            fromDate: LocalDateTime?,
+            toDate: LocalDateTime?,
+            feepayer: String?,
+            consume: (FeeTypeData) -> Unit
+        ) = transaction {
+            val (query, arguments) = feeTypeQuery(granularity, fromDate, toDate, feepayer)
+            query.execAndStream(arguments) { consume(it.toFeeTypeData(feepayer != null)) }
+        }
+
+        private fun txHistoryChartQuery(
+            granularity: DateTruncGranularity,
+            fromDate: LocalDateTime?,
+            toDate: LocalDateTime?,
+            feepayer: String?
+        ): Pair<String, List<Pair<ColumnType, *>>> {
+            val dateWhere =
+                if (fromDate != null && toDate != null) {
+                    " hourly between ? and ? "
+                } else if (fromDate != null) {
+                    " hourly >= ? "
+                } else {
+                    " true "
                 }
-                if (feepayer != null) {
-                    arguments.add(Pair(VarCharColumnType(128), feepayer))
+            val feepayerWhere = if (feepayer != null) " and feepayer = ? " else " and true "
+            val query = "Select " +
+                "date_trunc(?, hourly) as date, " +
+                (if (feepayer != null) "feepayer, " else "") +
+                "sum(tx_count) as tx_count, " +
+                "sum(fee_amount_in_base_token) as fee_amount_in_base_token, " +
+                "sum(gas_wanted) as gas_wanted, " +
+                "sum(gas_used) as gas_used, " +
+                "sum(fee_amount_in_base_token/?::numeric) as fee_amount_in_token, " +
+                "sum((fee_amount_in_base_token/?::numeric) * token_price_usd) fees_paid_in_usd, " +
+                "max(token_price_usd) as max_token_price_usd, " +
+                "min(token_price_usd) as min_token_price_usd, " +
+                "avg(token_price_usd) as avg_token_price_usd " +
+                "from tx_history_chart_data_hourly " +
+                "where " + dateWhere + feepayerWhere +
+                "group by date" + (if (feepayer != null) ", feepayer " else " ") +
+                "order by date;"
+                    .trimIndent()
+            val arguments = mutableListOf<Pair<ColumnType, *>>(
+                Pair(VarCharColumnType(64), granularity.name),
+                Pair(IntegerColumnType(), UTILITY_TOKEN_BASE_MULTIPLIER),
+                Pair(IntegerColumnType(), UTILITY_TOKEN_BASE_MULTIPLIER)
+            )
+            if (fromDate != null) {
+                arguments.add(Pair(JavaLocalDateTimeColumnType(), fromDate))
+                if (toDate != null) {
+                    arguments.add(Pair(JavaLocalDateTimeColumnType(), toDate.plusDays(1).minusMinutes(1)))
                 }
-                query.execAndMap(arguments) { it.toTxHistoryChartData(feepayer != null) }
             }
+            if (feepayer != null) {
+                arguments.add(Pair(VarCharColumnType(128), feepayer))
+            }
+            return query to arguments
+        }
 
-        fun getTxTypeData(
+        private fun txTypeQuery(
             granularity: DateTruncGranularity,
-            fromDate: LocalDateTime? = null,
-            toDate: LocalDateTime? = null,
-            feepayer: String? = null
-        ) = transaction {
+            fromDate: LocalDateTime?,
+            toDate: LocalDateTime?,
+            feepayer: String?
+        ): Pair<String, List<Pair<ColumnType, *>>> {
             val dateWhere =
                 if (fromDate != null && toDate != null) {
                     " hourly between ? and ? "
@@ -110,15 +156,15 @@ class TxHistoryDataViews {
             if (feepayer != null) {
                 arguments.add(Pair(VarCharColumnType(128), feepayer))
             }
-            query.execAndMap(arguments) { it.toTxTypeData(feepayer != null) }
+            return query to arguments
         }
 
-        fun getFeeTypeData(
+        private fun feeTypeQuery(
             granularity: DateTruncGranularity,
-            fromDate: LocalDateTime? = null,
-            toDate: LocalDateTime? = null,
-            feepayer: String? = null
-        ) = transaction {
+            fromDate: LocalDateTime?,
+            toDate: LocalDateTime?,
+            feepayer: String?
+        ): Pair<String, List<Pair<ColumnType, *>>> {
             val dateWhere =
                 if (fromDate != null && toDate != null) {
                     " hourly between ? and ? "
@@ -158,7 +204,7 @@ class TxHistoryDataViews {
             if (feepayer != null) {
                 arguments.add(Pair(VarCharColumnType(128), feepayer))
             }
-            query.execAndMap(arguments) { it.toFeeTypeData(feepayer != null) }
+            return query to arguments
         }
     }
 }
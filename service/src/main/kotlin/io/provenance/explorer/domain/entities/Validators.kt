@@ -6,6 +6,7 @@ import cosmos.tx.v1beta1.ServiceOuterClass
 import io.provenance.explorer.OBJECT_MAPPER
 import io.provenance.explorer.domain.core.logger
 import io.provenance.explorer.domain.core.sql.ArrayColumnType
+import io.provenance.explorer.domain.core.sql.JsonbParam
 import io.provenance.explorer.domain.core.sql.jsonb
 import io.provenance.explorer.domain.core.sql.toProcedureObject
 import io.provenance.explorer.domain.extensions.execAndMap
@@ -54,8 +55,8 @@ object ValidatorsCacheTable : CacheIdTable<Int>(name = "validators_cache") {
 class ValidatorsCacheRecord(id: EntityID<Int>) : CacheEntity<Int>(id) {
     companion object : CacheEntityClass<Int, ValidatorsCacheRecord>(ValidatorsCacheTable) {
 
-        fun buildInsert(blockHeight: Int, json: Query.GetValidatorSetByHeightResponse) =
-            listOf(blockHeight, json, LocalDateTime.now(), 0).toProcedureObject()
+        // The validator set json is bound at execution time, see BlockUpdate.procedureParams()
+        fun buildInsert(blockHeight: Int) = listOf(blockHeight, JsonbParam, LocalDateTime.now(), 0).toProcedureObject()
 
         fun getMissingBlocks() = transaction {
             BlockCacheTable.leftJoin(ValidatorsCacheTable, { BlockCacheTable.height }, { ValidatorsCacheTable.height })
@@ -204,6 +205,16 @@ class ValidatorStateRecord(id: EntityID<Int>) : IntEntity(id) {
             query.execAndMap(arguments) { it.toCurrentValidatorState() }.firstOrNull()
         }
 
+        fun findByOperatorIn(activeSet: Int, addresses: List<String>) = transaction {
+            val query = "SELECT * FROM get_all_validator_state(?, ?, NULL) WHERE operator_address = ANY(?)".trimIndent()
+            val arguments = mutableListOf<Pair<ColumnType, *>>(
+                Pair(IntegerColumnType(), activeSet),
+                Pair(VarCharColumnType(64), Staking.BondStatus.BOND_STATUS_BONDED.name),
+                Pair(ArrayColumnType(TextColumnType()), addresses)
+            )
+            query.execAndMap(arguments) { it.toCurrentValidatorState() }
+        }
+
         fun findByConsensusAddress(activeSet: Int, address: String) = transaction {
             val query = "SELECT * FROM get_all_validator_state(?, ?, NULL) WHERE consensus_address = ?".trimIndent()
             val arguments = mutableListOf<Pair<ColumnType, *>>(
@@ -5,7 +5,10 @@ import org.apache.commons.csv.CSVFormat
 import org.apache.commons.csv.CSVPrinter
 import java.io.ByteArrayOutputStream
 import java.io.IOException
+import java.io.OutputStream
 import java.io.OutputStreamWriter
+import java.util.zip.ZipEntry
+import java.util.zip.ZipOutputStream
 
 data class CsvData(
     val fileName: String,
@@ -25,3 +28,37 @@ data class CsvData(
         throw CsvWriteException("Failed to export data to CSV: " + e.message)
     }
 }
+
+/**
+ * A CSV file whose rows are produced on demand: [writeRows] is handed a row sink and pushes each row into it as it
+ * is read, so the file is never held in memory.
+ */
+class CsvStream(
+    val fileName: String,
+    val headers: List<String>,
+    val writeRows: ((List<Any>) -> Unit) -> Unit
+)
+
+// Writes each CSV and a filters note into a zip on `this`, streaming rows through as they are produced
+fun OutputStream.writeCsvZip(baseFileName: String, files: List<CsvStream>, filters: ByteArray): ZipOutputStream {
+    val zos = ZipOutputStream(this)
+    files.forEach { file ->
+        zos.putNextEntry(ZipEntry("$baseFileName - ${file.fileName}.csv"))
+        try {
+            // Not closed, as that would close the zip; flushed before the entry is
+            val csvPrinter = CSVPrinter(OutputStreamWriter(zos), CSVFormat.DEFAULT)
+            csvPrinter.printRecord(file.headers)
+            file.writeRows { csvPrinter.printRecord(it) }
+            csvPrinter.flush()
+        } catch (e: IOException) {
+            throw CsvWriteException("Failed to export data to CSV: " + e.message)
+        }
+        zos.closeEntry()
+    }
+    // Adding in a txt file with the applied filters
+    zos.putNextEntry(ZipEntry("$baseFileName - FILTERS.txt"))
+    zos.write(filters)
+    zos.closeEntry()
+    zos.close()
+    return zos
+}
@@ -28,6 +28,26 @@ fun <T : Any> String.execAndMap(args: Iterable<Pair<IColumnType, Any?>> = emptyL
     return result
 }
 
+// Rows for large exports: the driver pages through the result `fetchSize` rows at a time instead of loading it all
+fun String.execAndStream(
+    args: Iterable<Pair<IColumnType, Any?>> = emptyList(),
+    fetchSize: Int = 1000,
+    consume: (ResultSet) -> Unit
+) {
+    val statement = TransactionManager.current().connection.prepareStatement(this, false)
+    try {
+        statement.fetchSize = fetchSize
+        statement.fillParameters(args)
+        statement.executeQuery().use { rs ->
+            while (rs.next()) {
+                consume(rs)
+            }
+        }
+    } finally {
+        statement.closeIfPossible()
+    }
+}
+
 fun <R> ResultSet?.map(transform: (ResultSet) -> R): ArrayList<R> {
     val result = arrayListOf<R>()
     this?.use {
@@ -123,16 +123,12 @@ fun String.validatorUptime(blockWindow: BigInteger, currentHeight: BigInteger) =
     }
 
 fun String.validatorMissedBlocks(blockWindow: BigInteger, currentHeight: BigInteger) =
-    (
-        MissedBlocksRecord
-            .findValidatorsWithMissedBlocksForPeriod((currentHeight - blockWindow).toInt(), currentHeight.toInt(), this)
-            .sumOf { it.blocks.count() }
-        ).let { mbCount -> Pair(mbCount, blockWindow) }
+    MissedBlocksRecord
+        .countMissedBlocksForPeriod((currentHeight - blockWindow).toInt(), currentHeight.toInt(), this)
+        .let { mbCount -> Pair(mbCount, blockWindow) }
 
 fun String.validatorMissedBlocksSpecific(fromHeight: Int, toHeight: Int) =
-    MissedBlocksRecord
-        .findValidatorsWithMissedBlocksForPeriod(fromHeight, toHeight, this)
-        .sumOf { it.blocks.count() }
+    MissedBlocksRecord.countMissedBlocksForPeriod(fromHeight, toHeight, this)
 
 fun Long.isPastDue(currentMillis: Long) = Instant.now().toEpochMilli() - this > currentMillis
 
@@ -81,3 +81,45 @@ private fun List<Types.Event>.eventToProvenanceEvents() = this.map {
 
     ProvenanceEvent(it.type, attrs.toMap())
 }
+
+/**
+ * The events of a single tx decoded once and bucketed by message index and event type, so the save steps of the
+ * ingester can share one pass over the tx instead of each re-walking the logs and events.
+ */
+class TxEventIndex(txResponse: Abci.TxResponse) {
+
+    // Decoded log events, one list per message
+    private val logEvents: List<List<ProvenanceEvent>> =
+        txResponse.logsList.map { it.eventsList.stringEventToProvenanceEvents() }
+
+    // Decoded tx events, in the same order as `eventsList`
+    private val txEvents: List<ProvenanceEvent> = txResponse.eventsList.eventToProvenanceEvents()
+
+    // Raw tx events with their position in `eventsList`, by event type
+    private val rawByType: Map<String, List<IndexedValue<Types.Event>>> =
+        txResponse.eventsList.withIndex().groupBy { it.value.type }
+
+    // Decoded tx events by the value of their first `msg_index` attribute
+    private val txEventsByMsgIndex: Map<String, List<ProvenanceEvent>> =
+        txResponse.eventsList.withIndex()
+            .mapNotNull { (idx, e) ->
+                e.attributesList.firstOrNull { it.key == "msg_index" }?.let { it.value to txEvents[idx] }
+            }
+            .groupBy({ it.first }) { it.second }
+
+    /** Equivalent to [getProvenanceEventsAll] */
+    val all: List<ProvenanceEvent> = logEvents.flatten() + txEvents
+
+    /** Equivalent to [getProvenanceEvents] for the message at [index] */
+    fun forMsg(index: Int): List<ProvenanceEvent> =
+        (if (logEvents.isEmpty()) emptyList() else logEvents[index]) + txEventsByMsgIndex[index.toString()].orEmpty()
+
+    /** Raw tx events of the given types, in `eventsList` order */
+    fun raw(types: Collection<String>): List<Types.Event> = rawIndexed(types).map { it.value }
+
+    /** Raw tx events of the given types paired with their position in `eventsList`, in `eventsList` order */
+    fun rawIndexed(types: Collection<String>): List<IndexedValue<Types.Event>> =
+        types.toSet().flatMap { rawByType[it].orEmpty() }.sortedBy { it.index }
+
+    fun raw(type: String): List<Types.Event> = rawByType[type].orEmpty().map { it.value }
+}
@@ -10,6 +10,19 @@ data class BlockProposer(
     var blockLatency: BigDecimal? = null
 )
 
+// Stored block listing entry; `prevSigned*` describe this block's last commit, i.e. the signers of `height - 1`
+data class BlockSummaryRow(
+    val height: Int,
+    val hash: String,
+    val time: String,
+    val proposerAddress: String,
+    val txCount: Int,
+    val validatorCount: Int,
+    val votingPower: Long,
+    val prevSignedCount: Int?,
+    val prevSignedPower: Long?
+)
+
 data class GithubReleaseData(
     val releaseVersion: String,
     val createdAt: String,
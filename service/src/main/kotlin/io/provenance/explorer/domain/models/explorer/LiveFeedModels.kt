@@ -0,0 +1,38 @@
+package io.provenance.explorer.domain.models.explorer
+
+import com.fasterxml.jackson.annotation.JsonIgnore
+import cosmos.tx.v1beta1.ServiceOuterClass
+import io.provenance.explorer.grpc.extensions.getAssociatedAddresses
+import io.provenance.explorer.grpc.extensions.getMsgType
+
+data class LiveFeedTx(
+    val hash: String,
+    val msgTypes: List<String>,
+    // Only used to match address filters; not sent
+    @get:JsonIgnore
+    val addresses: Set<String>
+)
+
+data class LiveFeedBlock(
+    val block: BlockSummaryRow,
+    val txs: List<LiveFeedTx>
+)
+
+// What a subscriber asked to see; blank filters match everything
+data class LiveFeedFilter(
+    val address: String? = null,
+    val msgType: String? = null,
+    val spotlight: Boolean = true
+) {
+    fun matches(tx: LiveFeedTx) =
+        (address == null || address in tx.addresses) && (msgType == null || msgType in tx.msgTypes)
+
+    fun isFiltered() = address != null || msgType != null
+}
+
+fun ServiceOuterClass.GetTxResponse.toLiveFeedTx() =
+    LiveFeedTx(
+        txResponse.txhash,
+        tx.body.messagesList.map { it.typeUrl.getMsgType().type }.distinct(),
+        tx.body.messagesList.flatMap { it.getAssociatedAddresses() }.toSet()
+    )
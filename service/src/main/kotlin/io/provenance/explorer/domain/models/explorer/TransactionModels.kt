@@ -1,5 +1,9 @@
 package io.provenance.explorer.domain.models.explorer
 
+import cosmos.base.tendermint.v1beta1.Query
+import cosmos.tx.v1beta1.ServiceOuterClass
+import io.provenance.explorer.domain.core.sql.JsonbParam
+import io.provenance.explorer.domain.core.sql.PayloadStorageMode
 import io.provenance.explorer.domain.core.sql.toArray
 import io.provenance.explorer.domain.core.sql.toObject
 import io.provenance.explorer.domain.entities.GovDepositTable
@@ -10,6 +14,7 @@ import io.provenance.explorer.domain.entities.GroupsTable
 import io.provenance.explorer.domain.entities.GroupsVoteTable
 import io.provenance.explorer.domain.entities.IbcLedgerAckTable
 import io.provenance.explorer.domain.entities.IbcLedgerTable
+import io.provenance.explorer.domain.entities.NavEvent
 import io.provenance.explorer.domain.entities.ProposalMonitorTable
 import io.provenance.explorer.domain.entities.SignatureTxTable
 import io.provenance.explorer.domain.entities.TxAddressJoinTable
@@ -23,11 +28,14 @@ import io.provenance.explorer.domain.entities.TxNftJoinTable
 import io.provenance.explorer.domain.entities.TxSingleMessageCacheTable
 import io.provenance.explorer.domain.entities.TxSmCodeTable
 import io.provenance.explorer.domain.entities.TxSmContractTable
+import io.provenance.explorer.domain.exceptions.InvalidArgumentException
+import io.provenance.explorer.domain.extensions.height
 import io.provenance.explorer.model.CustomFee
 import io.provenance.explorer.model.MsgTypeSet
 import io.provenance.explorer.model.TxStatus
 import java.math.BigDecimal
 import java.time.LocalDateTime
+import java.util.Base64
 
 data class TxData(
     val blockHeight: Int,
@@ -55,7 +63,9 @@ data class TxQueryParams(
     val nftUuid: String? = null,
     val smCodeId: Int? = null,
     val smContractAddrId: Int? = null,
-    val ibcChannelIds: List<Int> = emptyList()
+    val ibcChannelIds: List<Int> = emptyList(),
+    // When set, results start after this position instead of at `offset`
+    val cursor: TxCursor? = null
 ) {
 
     fun onlyTxQuery() =
@@ -66,6 +76,25 @@ data class TxQueryParams(
             ibcChannelIds.isEmpty()
 }
 
+/**
+ * Position in a tx listing ordered by height and tx id, both descending. Encoded as an opaque token so clients
+ * only ever pass back what they were given.
+ */
+data class TxCursor(val height: Int, val id: Int) {
+
+    fun encode(): String = Base64.getUrlEncoder().withoutPadding().encodeToString("$height:$id".toByteArray())
+
+    companion object {
+        fun decode(cursor: String): TxCursor =
+            try {
+                String(Base64.getUrlDecoder().decode(cursor)).split(":")
+                    .let { (height, id) -> TxCursor(height.toInt(), id.toInt()) }
+            } catch (e: Exception) {
+                throw InvalidArgumentException("Invalid cursor: $cursor")
+            }
+    }
+}
+
 data class TxFeeData(
     val msgType: String,
     val amount: BigDecimal,
@@ -101,6 +130,9 @@ data class MsgProtoBreakout(
 
 data class TxUpdate(
     var tx: String,
+    // Bound in place of the JsonbParam and BytesParam in `tx`
+    var txPayload: ServiceOuterClass.GetTxResponse? = null,
+    var storage: PayloadStorageMode = PayloadStorageMode.JSONB,
     var txGasFee: String? = null,
     var txFees: MutableList<String> = mutableListOf(),
     var txMsgs: MutableList<String> = mutableListOf(),
@@ -125,7 +157,9 @@ data class TxUpdate(
     var groupPolicies: MutableList<String> = mutableListOf(),
     var policyJoinAlt: MutableList<String> = mutableListOf(),
     var groupProposals: MutableList<String> = mutableListOf(),
-    var groupVotes: MutableList<String> = mutableListOf()
+    var groupVotes: MutableList<String> = mutableListOf(),
+    // Upserted into `latest_nav` at the end of the block commit rather than through the procedure
+    var navs: MutableList<NavEvent> = mutableListOf()
 ) {
     fun toProcedureObject() =
         listOf(
@@ -156,13 +190,34 @@ data class TxUpdate(
             this.groupProposals.toArray(GroupsProposalTable.tableName),
             this.groupVotes.toArray(GroupsVoteTable.tableName)
         ).toObject()
+
+    fun procedureParams() = this.storage.params(this.txPayload!!)
 }
+
 data class BlockUpdate(
     var block: String,
     var proposer: String,
     var cache: String,
-    var txs: List<String>
+    var txs: List<TxUpdate>,
+    val blockPayload: Query.GetBlockByHeightResponse,
+    val validatorsPayload: Query.GetValidatorSetByHeightResponse,
+    val storage: PayloadStorageMode = PayloadStorageMode.JSONB,
+    // Written to `block_summary` alongside the block
+    val summary: BlockSummaryRow? = null,
+    // Missed blocks for the block's last commit, written in the same transaction as the block
+    val missedBlocks: List<MissedBlock> = emptyList()
 ) {
+    val height get() = this.blockPayload.block.height()
+
     fun toProcedureObject() =
-        listOf(this.block, this.proposer, this.cache, this.txs.toArray("tx_update")).toObject()
+        listOf(this.block, this.proposer, this.cache, this.txs.map { it.toProcedureObject() }.toArray("tx_update"))
+            .toObject()
+
+    // Parameters in the order their placeholders appear in `toProcedureObject()`
+    fun procedureParams() =
+        this.storage.params(this.blockPayload) + JsonbParam.of(this.validatorsPayload) +
+            this.txs.flatMap { it.procedureParams() }
+
+    // Same as `procedureParams().size`, without encoding the payloads
+    fun procedureParamCount() = 3 + 2 * this.txs.size
 }
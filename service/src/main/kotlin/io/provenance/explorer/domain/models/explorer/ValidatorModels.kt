@@ -30,7 +30,12 @@ data class CurrentValidatorState(
     val imageUrl: String?
 )
 
+// A run of consecutive missed heights
 data class MissedBlockPeriod(
     val validator: ValidatorMoniker,
-    val blocks: List<Int>
+    val firstHeight: Int,
+    val lastHeight: Int,
+    val count: Int
 )
+
+data class MissedBlock(val height: Int, val valConsAddr: String)
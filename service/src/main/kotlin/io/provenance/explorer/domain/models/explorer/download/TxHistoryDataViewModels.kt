@@ -2,7 +2,7 @@ package io.provenance.explorer.domain.models.explorer.download
 
 import io.provenance.explorer.domain.entities.TxHistoryDataViews
 import io.provenance.explorer.domain.exceptions.requireToMessage
-import io.provenance.explorer.domain.extensions.CsvData
+import io.provenance.explorer.domain.extensions.CsvStream
 import io.provenance.explorer.model.base.DateTruncGranularity
 import io.provenance.explorer.model.download.FeeTypeData
 import io.provenance.explorer.model.download.TxHistoryChartData
@@ -101,32 +101,29 @@ data class TxHistoryDataRequest(
             null
         }
 
-    fun getFileList(feepayer: String?): MutableList<CsvData> {
+    fun getFileList(feepayer: String?): MutableList<CsvStream> {
         val hasFeepayer = feepayer != null
         val fileList = mutableListOf(
-            CsvData(
-                "TxHistoryChartData",
-                txHistoryDataCsvBaseHeaders(advancedMetrics, hasFeepayer),
-                TxHistoryDataViews.getTxHistoryChartData(granularity, fromDate, toDate, feepayer)
-                    .map { it.toCsv(advancedMetrics, hasFeepayer, granularity) }
-            )
+            CsvStream("TxHistoryChartData", txHistoryDataCsvBaseHeaders(advancedMetrics, hasFeepayer)) { write ->
+                TxHistoryDataViews.streamTxHistoryChartData(granularity, fromDate, toDate, feepayer) {
+                    write(it.toCsv(advancedMetrics, hasFeepayer, granularity))
+                }
+            }
         )
         if (advancedMetrics) {
             fileList.add(
-                CsvData(
-                    "TxTypeData",
-                    txTypeDataCsvBaseHeaders(hasFeepayer),
-                    TxHistoryDataViews.getTxTypeData(granularity, fromDate, toDate, feepayer)
-                        .map { it.toCsv(hasFeepayer, granularity) }
-                )
+                CsvStream("TxTypeData", txTypeDataCsvBaseHeaders(hasFeepayer)) { write ->
+                    TxHistoryDataViews.streamTxTypeData(granularity, fromDate, toDate, feepayer) {
+                        write(it.toCsv(hasFeepayer, granularity))
+                    }
+                }
             )
             fileList.add(
-                CsvData(
-                    "FeeTypeData",
-                    feeTypeDataCsvBaseHeaders(hasFeepayer),
-                    TxHistoryDataViews.getFeeTypeData(granularity, fromDate, toDate, feepayer)
-                        .map { it.toCsv(hasFeepayer, granularity) }
-                )
+                CsvStream("FeeTypeData", feeTypeDataCsvBaseHeaders(hasFeepayer)) { write ->
+                    TxHistoryDataViews.streamFeeTypeData(granularity, fromDate, toDate, feepayer) {
+                        write(it.toCsv(hasFeepayer, granularity))
+                    }
+                }
             )
         }
         return fileList
@@ -71,3 +71,10 @@ enum class EntityType(val displayText: String) {
     EXCHANGE("Exchange"),
     CBL("Crypto-Backed Loans")
 }
+
+enum class BackfillItemStatus {
+    PENDING,
+    RUNNING,
+    COMPLETE,
+    FAILED
+}
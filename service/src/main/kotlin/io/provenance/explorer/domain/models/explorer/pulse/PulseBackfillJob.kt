@@ -0,0 +1,20 @@
+package io.provenance.explorer.domain.models.explorer.pulse
+
+import java.time.LocalDate
+import java.time.LocalDateTime
+
+data class PulseBackfillJob(
+    val id: Int,
+    val fromDate: LocalDate,
+    val toDate: LocalDate,
+    val types: List<PulseCacheType>,
+    val denom: String?,
+    val createdAt: LocalDateTime,
+    val completedAt: LocalDateTime?,
+    val completed: Long,
+    val pending: Long,
+    val running: Long,
+    val failed: Long,
+    // Estimated seconds left at the rate items have completed so far; null before the first completes or once done
+    val etaSeconds: Long?
+)
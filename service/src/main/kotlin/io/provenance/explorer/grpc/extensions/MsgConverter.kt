@@ -851,7 +851,11 @@ enum class SmContractEventKeys(val eventType: String, val eventKey: Map<String,
     EXECUTE_V1("execute", mapOf("_contract_address" to SmContractValue.CONTRACT))
 }
 
-fun getSmContractEventByEvent(event: String) = SmContractEventKeys.values().firstOrNull { it.eventType == event }
+private val smContractEventsByType = SmContractEventKeys.values().associateBy { it.eventType }
+
+fun getSmContractEventByEvent(event: String) = smContractEventsByType[event]
+
+fun getSmContractEventTypes() = smContractEventsByType.keys
 
 //endregion
 
@@ -864,7 +868,9 @@ enum class NameEvents(val msg: String, val event: String) {
 
 fun getNameMsgTypes() = NameEvents.values().map { it.msg }
 
-fun getNameEventTypes() = NameEvents.values().map { it.event }
+private val nameEventTypes = NameEvents.values().map { it.event }
+
+fun getNameEventTypes() = nameEventTypes
 
 fun Any.getNameMsgs() =
     when {
@@ -892,7 +898,11 @@ enum class GroupEvents(val event: String, vararg val idField: String) {
     GROUP_LEAVE("cosmos.group.v1.EventLeaveGroup", "group_id")
 }
 
-fun getGroupEventByEvent(event: String) = GroupEvents.values().firstOrNull { it.event == event }
+private val groupEventsByType = GroupEvents.values().associateBy { it.event }
+
+fun getGroupEventByEvent(event: String) = groupEventsByType[event]
+
+fun getGroupEventTypes() = groupEventsByType.keys
 
 fun Any.getAssociatedGroupPolicies() =
     when {
@@ -907,7 +917,11 @@ enum class GroupPolicyEvents(val event: String, vararg val idField: String) {
     GROUP_POLICY_UPDATE("cosmos.group.v1.EventUpdateGroupPolicy", "address")
 }
 
-fun getGroupPolicyEventByEvent(event: String) = GroupPolicyEvents.values().firstOrNull { it.event == event }
+private val groupPolicyEventsByType = GroupPolicyEvents.values().associateBy { it.event }
+
+fun getGroupPolicyEventByEvent(event: String) = groupPolicyEventsByType[event]
+
+fun getGroupPolicyEventTypes() = groupPolicyEventsByType.keys
 
 enum class GroupGovMsgType { PROPOSAL, VOTE, EXEC, WITHDRAW }
 
@@ -952,7 +966,9 @@ enum class DenomEvents(val event: String, val idField: String, val parse: Boolea
     IBC_RECV_PACKET("denomination_trace", "denom")
 }
 
-fun getDenomEventByEvent(event: String) = DenomEvents.values().firstOrNull { it.event == event }
+private val denomEventsByType = DenomEvents.values().associateBy { it.event }
+
+fun getDenomEventByEvent(event: String) = denomEventsByType[event]
 
 fun String.denomEventRegexParse() =
     if (this.isNotBlank()) {
@@ -998,7 +1014,9 @@ enum class AddressEvents(val event: String, vararg val idField: String) {
     GROUP_LEAVE("cosmos.group.v1.EventLeaveGroup", "address")
 }
 
-fun getAddressEventByEvent(event: String) = AddressEvents.values().firstOrNull { it.event == event }
+private val addressEventsByType = AddressEvents.values().associateBy { it.event }
+
+fun getAddressEventByEvent(event: String) = addressEventsByType[event]
 
 fun String.scrubQuotes() = this.removeSurrounding("\"")
 
@@ -5,19 +5,47 @@ import cosmos.tx.v1beta1.ServiceOuterClass
 import cosmos.tx.v1beta1.getTxResponse
 import cosmos.tx.v1beta1.getTxsEventRequest
 import io.grpc.ManagedChannelBuilder
+import io.micrometer.core.instrument.Counter
+import io.micrometer.core.instrument.DistributionSummary
+import io.micrometer.core.instrument.MeterRegistry
+import io.provenance.explorer.config.ExplorerProperties
 import io.provenance.explorer.config.interceptor.GrpcLoggingInterceptor
 import io.provenance.explorer.domain.core.logger
 import io.provenance.explorer.domain.exceptions.TendermintApiException
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.sync.Semaphore
+import kotlinx.coroutines.sync.withPermit
 import org.springframework.stereotype.Component
 import java.net.URI
 import java.util.concurrent.TimeUnit
 
 @Component
-class TransactionGrpcClient(channelUri: URI) {
+class TransactionGrpcClient(
+    channelUri: URI,
+    private val props: ExplorerProperties,
+    meterRegistry: MeterRegistry
+) {
 
     private val txClient: ServiceGrpcKt.ServiceCoroutineStub
     protected val logger = logger(TransactionGrpcClient::class)
 
+    // Shared by every block being fetched, so the prefetch window can't multiply the number of in-flight pages
+    private val pagePermits = Semaphore(props.txPageConcurrency.coerceAtLeast(1))
+    private val pagesPerBlock = DistributionSummary.builder("explorer.ingest.tx.pages")
+        .description("Tx pages fetched per successfully fetched block")
+        .register(meterRegistry)
+    private val pageRetries = Counter.builder("explorer.ingest.tx.page.retries")
+        .description("Tx page fetches retried")
+        .register(meterRegistry)
+
+    companion object {
+        private const val PAGE_RETRY_BACKOFF_MS = 500L
+    }
+
     init {
         val channel =
             ManagedChannelBuilder.forAddress(channelUri.host, channelUri.port)
@@ -38,34 +66,29 @@ class TransactionGrpcClient(channelUri: URI) {
         txClient = ServiceGrpcKt.ServiceCoroutineStub(channel)
     }
 
-    suspend fun getTxsByHeight(height: Int, total: Int): List<ServiceOuterClass.GetTxResponse> {
-        var page = 1
-        val limit = 10
+    /**
+     * Fetches all txs at the given height. The page count is derived from the known tx [total], pages are requested
+     * concurrently under a client-wide permit, and each page is retried on its own before failing the block.
+     */
+    suspend fun getTxsByHeight(height: Int, total: Int): List<ServiceOuterClass.GetTxResponse> = coroutineScope {
+        val limit = props.txPageSize.coerceAtLeast(1)
+        val pageCount = ((total + limit - 1) / limit).coerceAtLeast(1)
 
-        val txResps = mutableListOf<ServiceOuterClass.GetTxsEventResponse>()
-        var txRespCount = 0
+        val txResps = (1..pageCount)
+            .map { page -> async { pagePermits.withPermit { getTxPage(height, page, limit, total) } } }
+            .awaitAll()
 
-        do {
-            txClient.getTxsEvent(
-                getTxsEventRequest {
-                    this.query = "tx.height=$height"
-                    this.limit = limit.toLong()
-                    this.page = page.toLong()
-                }
-            ).let {
-                if (it.txResponsesList.isEmpty()) {
-                    throw TendermintApiException(
-                        "Blockchain failed to retrieve txs for height $height. Expected $total, " +
-                            "Returned 0. This happens sometimes. The block will retry."
-                    )
-                }
-                txResps.add(it)
-                txRespCount += it.txResponsesList.size
-            }
-            page++
-        } while (txRespCount < total)
+        val txRespCount = txResps.sumOf { it.txResponsesList.size }
+        if (txRespCount < total) {
+            throw TendermintApiException(
+                "Blockchain failed to retrieve txs for height $height. Expected $total, " +
+                    "Returned $txRespCount. This happens sometimes. The block will retry."
+            )
+        }
+        // Only blocks fetched in full, so retried blocks aren't counted once per attempt
+        pagesPerBlock.record(pageCount.toDouble())
 
-        return txResps.flatMap {
+        txResps.flatMap {
             it.txsList.zip(it.txResponsesList) { tx, res ->
                 getTxResponse {
                     this.tx = tx
@@ -74,4 +97,34 @@ class TransactionGrpcClient(channelUri: URI) {
             }
         }
     }
+
+    private suspend fun getTxPage(height: Int, page: Int, limit: Int, total: Int): ServiceOuterClass.GetTxsEventResponse {
+        var attempt = 1
+        while (true) {
+            try {
+                return txClient.getTxsEvent(
+                    getTxsEventRequest {
+                        this.query = "tx.height=$height"
+                        this.limit = limit.toLong()
+                        this.page = page.toLong()
+                    }
+                ).also {
+                    if (it.txResponsesList.isEmpty()) {
+                        throw TendermintApiException(
+                            "Blockchain failed to retrieve txs for height $height page $page. Expected $total, " +
+                                "Returned 0. This happens sometimes. The block will retry."
+                        )
+                    }
+                }
+            } catch (e: CancellationException) {
+                throw e
+            } catch (e: Exception) {
+                if (attempt >= props.txPageMaxAttempts) throw e
+                logger.warn("Retrying tx page $page for height $height after attempt $attempt: ${e.message}")
+                pageRetries.increment()
+                delay(PAGE_RETRY_BACKOFF_MS * attempt)
+                attempt++
+            }
+        }
+    }
 }
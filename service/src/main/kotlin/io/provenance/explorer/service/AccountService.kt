@@ -6,6 +6,7 @@ import io.provenance.attribute.v1.Attribute
 import io.provenance.explorer.config.ExplorerProperties.Companion.PROV_ACC_PREFIX
 import io.provenance.explorer.config.ExplorerProperties.Companion.UTILITY_TOKEN
 import io.provenance.explorer.config.ResourceNotFoundException
+import io.provenance.explorer.config.readReplica
 import io.provenance.explorer.domain.core.logger
 import io.provenance.explorer.domain.entities.AccountRecord
 import io.provenance.explorer.domain.entities.AccountTokenCountRecord
@@ -29,6 +30,7 @@ import io.provenance.explorer.domain.extensions.toNormalCase
 import io.provenance.explorer.domain.extensions.toOffset
 import io.provenance.explorer.domain.extensions.toProtoCoin
 import io.provenance.explorer.domain.extensions.typeToLabel
+import io.provenance.explorer.domain.extensions.writeCsvZip
 import io.provenance.explorer.domain.models.explorer.AddrData
 import io.provenance.explorer.domain.models.explorer.download.TxHistoryDataRequest
 import io.provenance.explorer.domain.models.explorer.toCoinStr
@@ -64,7 +66,6 @@ import kotlinx.coroutines.runBlocking
 import org.jetbrains.exposed.sql.transactions.transaction
 import org.springframework.stereotype.Service
 import java.math.BigDecimal
-import java.util.zip.ZipEntry
 import java.util.zip.ZipOutputStream
 
 @Service
@@ -165,9 +166,10 @@ class AccountService(
     }
 
     fun getAccountBalancesDetailed(address: String, page: Int, limit: Int) = runBlocking {
+        val spendableRes = async { getSpendableBalances(address) }
         getBalancesAll(address).let { res ->
             val pricing = pricingService.getPricingInfoIn(res.map { it.denom }, "accountBalances")
-            val spendable = getSpendableBalances(address).associateBy { it.denom }
+            val spendable = spendableRes.await().associateBy { it.denom }
             val bals = res.map {
                 DenomBalanceBreakdown(
                     it.toCoinStrWithPrice(pricing[it.denom]),
@@ -187,9 +189,10 @@ class AccountService(
 
     fun getAccountBalanceForDenomDetailed(address: String, denom: String) = runBlocking {
         val unit = MarkerUnitRecord.findByUnit(denom)?.marker ?: denom
+        val spendableRes = async { accountClient.getSpendableBalanceDenom(address, unit) }
         accountClient.getAccountBalanceForDenom(address, unit).let { res ->
             val pricing = pricingService.getPricingInfoSingle(unit) ?: BigDecimal.ZERO
-            val spendable = accountClient.getSpendableBalanceDenom(address, unit) ?: BigDecimal.ZERO.toProtoCoin(unit)
+            val spendable = spendableRes.await() ?: BigDecimal.ZERO.toProtoCoin(unit)
             DenomBalanceBreakdown(
                 res.toCoinStrWithPrice(pricing),
                 spendable.toCoinStrWithPrice(pricing),
@@ -339,7 +342,9 @@ class AccountService(
             filters.granularityValidation(),
             filters.datesValidation()
         )
-        return TxHistoryDataViews.getTxHistoryChartData(filters.granularity, filters.fromDate, filters.toDate, feepayer)
+        return readReplica {
+            TxHistoryDataViews.getTxHistoryChartData(filters.granularity, filters.fromDate, filters.toDate, feepayer)
+        }
     }
 
     fun getAccountTxHistoryChartDataDownload(
@@ -352,22 +357,13 @@ class AccountService(
             filters.datesValidation(),
             validateAddress(feepayer)
         )
-        val baseFileName = filters.getFileNameBase(feepayer)
-        val fileList = filters.getFileList(feepayer)
-
-        val zos = ZipOutputStream(outputStream)
-        fileList.forEach { file ->
-            zos.putNextEntry(ZipEntry("$baseFileName - ${file.fileName}.csv"))
-            zos.write(file.writeCsvEntry())
-            zos.closeEntry()
+        return readReplica {
+            outputStream.writeCsvZip(
+                filters.getFileNameBase(feepayer),
+                filters.getFileList(feepayer),
+                filters.writeFilters(feepayer)
+            )
         }
-        // Adding in a txt file with the applied filters
-        zos.putNextEntry(ZipEntry("$baseFileName - FILTERS.txt"))
-        zos.write(filters.writeFilters(feepayer))
-        zos.closeEntry()
-
-        zos.close()
-        return zos
     }
 
     suspend fun updateTokenCounts(addr: String) {
@@ -5,12 +5,13 @@ import io.provenance.explorer.domain.entities.BlockCacheRecord
 import io.provenance.explorer.domain.entities.BlockIndexRecord
 import io.provenance.explorer.domain.extensions.height
 import io.provenance.explorer.grpc.v1.BlockGrpcClient
+import io.provenance.explorer.service.async.IngestMetrics
 import kotlinx.coroutines.runBlocking
 import org.jetbrains.exposed.sql.transactions.transaction
 import org.springframework.stereotype.Service
 
 @Service
-class BlockService(private val blockClient: BlockGrpcClient) {
+class BlockService(private val blockClient: BlockGrpcClient, private val ingestMetrics: IngestMetrics) {
     protected val logger = logger(BlockService::class)
 
     fun getMaxBlockCacheHeight() = BlockCacheRecord.getMaxBlockHeight()
@@ -21,15 +22,21 @@ class BlockService(private val blockClient: BlockGrpcClient) {
 
     fun getLatestBlockHeightIndexOrFromChain() = getBlockIndexFromCache()?.maxHeightRead ?: getLatestBlockHeight()
 
-    fun getBlockAtHeightFromChain(height: Int) = runBlocking { blockClient.getBlockAtHeight(height) }
+    fun getBlockAtHeightFromChain(height: Int) = runBlocking { fetchBlockAtHeightFromChain(height) }
+
+    suspend fun fetchBlockAtHeightFromChain(height: Int) = blockClient.getBlockAtHeight(height)
 
     fun getBlockAtHeight(height: Int) = transaction { BlockCacheRecord.findById(height) }
 
     fun getLatestBlockHeight(): Int = runBlocking { blockClient.getLatestBlock().block.height() }
 
-    fun updateBlockMaxHeightIndex(maxHeightRead: Int) = BlockIndexRecord.save(maxHeightRead, null)
+    fun updateBlockMaxHeightIndex(maxHeightRead: Int) =
+        BlockIndexRecord.save(maxHeightRead, null).also { ingestMetrics.recordMaxHeightRead(maxHeightRead) }
 
     fun updateBlockMinHeightIndex(minHeightRead: Int) = BlockIndexRecord.save(null, minHeightRead)
+
+    fun initBlockIndex(maxHeightRead: Int, minHeightRead: Int) =
+        BlockIndexRecord.save(maxHeightRead, minHeightRead).also { ingestMetrics.recordMaxHeightRead(maxHeightRead) }
 }
 
 fun Int.getBlock() = BlockCacheRecord.findById(this)!!
@@ -1,5 +1,6 @@
 package io.provenance.explorer.service
 
+import io.provenance.explorer.OBJECT_MAPPER
 import io.provenance.explorer.domain.core.logger
 import io.provenance.explorer.domain.entities.CacheKeys
 import io.provenance.explorer.domain.entities.CacheUpdateRecord
@@ -14,8 +15,10 @@ class CacheService {
 
     protected val logger = logger(CacheService::class)
 
+    // Also stored in `cache_update` so every instance's live feed can pick it up
     fun updateSpotlight(spotlightResponse: Spotlight) {
         cachedSpotlight = spotlightResponse
+        updateCacheValue(CacheKeys.SPOTLIGHT.key, OBJECT_MAPPER.writeValueAsString(spotlightResponse))
     }
 
     fun getSpotlight(): Spotlight? {
@@ -18,6 +18,7 @@ import io.provenance.explorer.config.ExplorerProperties.Companion.UTILITY_TOKEN
 import io.provenance.explorer.domain.core.logger
 import io.provenance.explorer.domain.entities.BlockCacheHourlyTxCountsRecord
 import io.provenance.explorer.domain.entities.BlockProposerRecord
+import io.provenance.explorer.domain.entities.BlockSummaries
 import io.provenance.explorer.domain.entities.CacheKeys
 import io.provenance.explorer.domain.entities.CacheUpdateRecord
 import io.provenance.explorer.domain.entities.ChainAumHourlyRecord
@@ -37,6 +38,7 @@ import io.provenance.explorer.domain.extensions.toHash
 import io.provenance.explorer.domain.extensions.toObjectNodePrint
 import io.provenance.explorer.domain.extensions.toOffset
 import io.provenance.explorer.domain.extensions.translateByteArray
+import io.provenance.explorer.domain.models.explorer.BlockSummaryRow
 import io.provenance.explorer.domain.models.explorer.GithubReleaseData
 import io.provenance.explorer.domain.models.explorer.GovParamType
 import io.provenance.explorer.grpc.extensions.toDto
@@ -72,6 +74,7 @@ import io.provenance.explorer.model.base.USD_UPPER
 import io.provenance.explorer.service.async.BlockAndTxProcessor
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
 import kotlinx.coroutines.runBlocking
 import org.jetbrains.exposed.sql.transactions.transaction
 import org.json.JSONArray
@@ -79,6 +82,7 @@ import org.json.JSONObject
 import org.springframework.stereotype.Service
 import tendermint.types.ValidatorOuterClass
 import java.math.BigDecimal
+import java.math.BigInteger
 import java.time.LocalDateTime
 import java.time.temporal.ChronoUnit
 
@@ -108,27 +112,68 @@ class ExplorerService(
 
     fun getBlockAtHeight(height: Int?) = runBlocking(Dispatchers.IO) {
         val queryHeight = height ?: (blockService.getMaxBlockCacheHeight() - 1)
-        val blockResponse = asyncV2.getBlock(queryHeight)!!
-        val nextBlock = asyncV2.getBlock(queryHeight + 1)
-        val validatorsResponse = validatorService.getValidatorsByHeight(queryHeight)
-        hydrateBlock(blockResponse, nextBlock, validatorsResponse)
+        getBlockSummaries(queryHeight, queryHeight).first()
     }
 
     fun getRecentBlocks(count: Int, page: Int) = let {
         val currentHeight = blockService.getLatestBlockHeightIndex() - 1
-        var blockHeight = if (page < 0) currentHeight else currentHeight - (count * page)
-        val result = mutableListOf<BlockSummary>()
-        while (result.size < count) {
-            val block = asyncV2.getBlock(blockHeight)!!
-            val nextBlock = asyncV2.getBlock(blockHeight + 1)
-            val validators = validatorService.getValidatorsByHeight(blockHeight)
-            result.add(hydrateBlock(block, nextBlock, validators))
-            blockHeight = block.block.height()
-            blockHeight--
-        }
+        val blockHeight = if (page < 0) currentHeight else currentHeight - (count * page)
+        val result = getBlockSummaries((blockHeight - count + 1).coerceAtLeast(1), blockHeight)
         PagedResults((currentHeight / count) + 1, result, count.toLong())
     }
 
+    // Summaries for the heights, newest first, read from `block_summary`; unsummarized blocks fall back to payloads
+    private fun getBlockSummaries(fromHeight: Int, toHeight: Int): List<BlockSummary> {
+        val rows = BlockSummaries.findByHeights(fromHeight, toHeight + 1)
+        val proposers = rows.values.map { it.proposerAddress }.distinct()
+            .associateWith { validatorService.getStakingValidator(it) }
+        return (toHeight downTo fromHeight).map { height ->
+            val row = rows[height] ?: return@map hydrateBlock(
+                asyncV2.getBlock(height)!!,
+                asyncV2.getBlock(height + 1),
+                validatorService.getValidatorsByHeight(height)
+            )
+            // Signed power and count come from the next block; read its payload when it has no summary yet
+            val (signedPower, signedCount) = rows[height + 1]?.takeIf { it.prevSignedPower != null }
+                ?.let { it.prevSignedPower?.toBigInteger() to it.prevSignedCount?.toBigInteger() }
+                ?: asyncV2.getBlock(height + 1)?.let { signedAt(validatorService.getValidatorsByHeight(height), it) }
+                ?: (null to null)
+            val stakingValidator = proposers.getValue(row.proposerAddress)
+            BlockSummary(
+                height = row.height,
+                hash = row.hash,
+                time = row.time,
+                proposerAddress = row.proposerAddress,
+                moniker = stakingValidator.moniker,
+                icon = stakingValidator.imageUrl,
+                votingPower = CountTotal(signedPower, row.votingPower.toBigInteger()),
+                validatorCount = CountTotal(signedCount, row.validatorCount.toBigInteger()),
+                txNum = row.txCount
+            )
+        }
+    }
+
+    /**
+     * Summarizes up to [limit] unsummarized blocks below [before], returning the heights looked at and the number of
+     * summaries written. Blocks that can't be summarized (no proposer record) are skipped; reads fall back to their
+     * payloads.
+     */
+    fun backfillBlockSummaries(before: Int, limit: Int): Pair<List<Int>, Int> {
+        val heights = BlockSummaries.findHeightsToBackfill(before, limit)
+        val rows = heights.mapNotNull { height ->
+            val block = asyncV2.getBlock(height) ?: return@mapNotNull null
+            val proposer = transaction { BlockProposerRecord.findById(height)?.proposerOperatorAddress }
+                ?: return@mapNotNull null
+            block.toSummaryRow(
+                proposer,
+                validatorService.getValidatorsByHeight(height),
+                validatorService.getLastCommitValidators(block)
+            )
+        }
+        BlockSummaries.upsert(rows)
+        return heights to rows.size
+    }
+
     private fun hydrateBlock(
         blockResponse: Query.GetBlockByHeightResponse,
         nextBlock: Query.GetBlockByHeightResponse?,
@@ -136,7 +181,7 @@ class ExplorerService(
     ) = let {
         val proposer = transaction { BlockProposerRecord.findById(blockResponse.block.height())!! }
         val stakingValidator = validatorService.getStakingValidator(proposer.proposerOperatorAddress)
-        val votingVals = nextBlock?.getVotingSet(ValidatorOuterClass.BlockIDFlag.BLOCK_ID_FLAG_ABSENT_VALUE)?.keys
+        val (signedPower, signedCount) = signedAt(validatorsResponse, nextBlock)
         BlockSummary(
             height = blockResponse.block.height(),
             hash = blockResponse.blockId.hash.toHash(),
@@ -145,26 +190,25 @@ class ExplorerService(
             moniker = stakingValidator.moniker,
             icon = stakingValidator.imageUrl,
             votingPower = CountTotal(
-                if (votingVals != null) {
-                    validatorsResponse.validatorsList.filter { it.address in votingVals }
-                        .sumOf { v -> v.votingPower.toBigInteger() }
-                } else {
-                    null
-                },
+                signedPower,
                 validatorsResponse.validatorsList.sumOf { v -> v.votingPower.toBigInteger() }
             ),
-            validatorCount = CountTotal(
-                if (votingVals != null) {
-                    validatorsResponse.validatorsList.filter { it.address in votingVals }.size.toBigInteger()
-                } else {
-                    null
-                },
-                validatorsResponse.validatorsCount.toBigInteger()
-            ),
+            validatorCount = CountTotal(signedCount, validatorsResponse.validatorsCount.toBigInteger()),
             txNum = blockResponse.block.data.txsCount
         )
     }
 
+    // Power and count of the validators that signed a block, from the next block's last commit; null until it exists
+    private fun signedAt(
+        validatorsResponse: Query.GetValidatorSetByHeightResponse,
+        nextBlock: Query.GetBlockByHeightResponse?
+    ): Pair<BigInteger?, BigInteger?> {
+        val votingVals = nextBlock?.getVotingSet(ValidatorOuterClass.BlockIDFlag.BLOCK_ID_FLAG_ABSENT_VALUE)?.keys
+            ?: return null to null
+        val signed = validatorsResponse.validatorsList.filter { it.address in votingVals }
+        return signed.sumOf { v -> v.votingPower.toBigInteger() } to signed.size.toBigInteger()
+    }
+
     fun getSpotlightStatistics() = cacheService.getSpotlight()
 
     fun createSpotlight() = getBondedTokenRatio().let {
@@ -202,11 +246,17 @@ class ExplorerService(
 
     fun getChainUpgrades(): List<ChainUpgrade> {
         val typeUrl = govService.getUpgradeProtoType()
-        val scheduledName = runBlocking { govClient.getIfUpgradeScheduled()?.plan?.name }
         val proposals = GovProposalRecord.findByProposalType(typeUrl)
             .filter {
                 it.status == Gov.ProposalStatus.PROPOSAL_STATUS_PASSED.name && it.getUpgradePlan() != null
             }
+        // One node lookup per upgrade, all in flight together
+        val (scheduledName, appliedHeights) = runBlocking {
+            val scheduled = async { govClient.getIfUpgradeScheduled()?.plan?.name }
+            val applied = proposals.map { it.getUpgradePlan()!!.name }.distinct()
+                .map { name -> async { name to govClient.getIfUpgradeApplied(name).height.toInt() } }
+            scheduled.await() to applied.awaitAll().toMap()
+        }
         val knownReleases =
             CacheUpdateRecord.fetchCacheByKey(CacheKeys.CHAIN_RELEASES.key)?.cacheValue?.let {
                 VANILLA_MAPPER.readValue<List<GithubReleaseData>>(it)
@@ -236,7 +286,7 @@ class ExplorerService(
                     one.getUpgradePlan()!!.name,
                     one.getUpgradePlan()!!.info.getChainVersionFromUrl(props.upgradeVersionRegex),
                     version,
-                    runBlocking { govClient.getIfUpgradeApplied(one.getUpgradePlan()!!.name) }.height.toInt() != one.getUpgradePlan()!!.height.toInt(),
+                    appliedHeights[one.getUpgradePlan()!!.name] != one.getUpgradePlan()!!.height.toInt(),
                     scheduledName?.let { name -> name == one.getUpgradePlan()!!.name } ?: false,
                     url
                 )
@@ -427,4 +477,27 @@ fun Query.GetBlockByHeightResponse.getVotingSet(filter: Int? = null) =
         .filter { if (filter != null) it.blockIdFlagValue != filter else true }
         .associate { it.validatorAddress.translateByteArray().consensusAccountAddr to it.blockIdFlag }
 
+// The block as stored in `block_summary`; `lastCommitVals` is the validator set at the height below
+fun Query.GetBlockByHeightResponse.toSummaryRow(
+    proposerAddress: String,
+    vals: Query.GetValidatorSetByHeightResponse,
+    lastCommitVals: Query.GetValidatorSetByHeightResponse?
+): BlockSummaryRow {
+    val signed = lastCommitVals?.let { lastVals ->
+        val signers = this.getVotingSet(ValidatorOuterClass.BlockIDFlag.BLOCK_ID_FLAG_ABSENT_VALUE).keys
+        lastVals.validatorsList.filter { it.address in signers }
+    }
+    return BlockSummaryRow(
+        height = this.block.height(),
+        hash = this.blockId.hash.toHash(),
+        time = this.block.header.time.formattedString(),
+        proposerAddress = proposerAddress,
+        txCount = this.block.data.txsCount,
+        validatorCount = vals.validatorsCount,
+        votingPower = vals.validatorsList.sumOf { it.votingPower },
+        prevSignedCount = signed?.size,
+        prevSignedPower = signed?.sumOf { it.votingPower }
+    )
+}
+
 fun String.getChainVersionFromUrl(regex: String) = Regex(regex).find(this)?.value!!
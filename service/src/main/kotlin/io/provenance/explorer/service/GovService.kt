@@ -116,7 +116,8 @@ import io.provenance.explorer.model.VotingDetails
 import io.provenance.explorer.model.base.CoinStr
 import io.provenance.explorer.model.base.PagedResults
 import io.provenance.explorer.model.base.stringfy
-import kotlinx.coroutines.flow.asFlow
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
 import kotlinx.coroutines.runBlocking
 import org.jetbrains.exposed.sql.transactions.transaction
 import org.springframework.stereotype.Service
@@ -430,16 +431,16 @@ class GovService(
                 runBlocking {
                     val filtered = list.filter { it.dataV1 == null }
                     if (filtered.isNotEmpty()) {
-                        filtered.asFlow().collect { prop ->
-                            govClient.getProposal(prop.proposalId).let {
+                        filtered.map { prop -> async { prop to govClient.getProposal(prop.proposalId) } }
+                            .awaitAll()
+                            .forEach { (prop, res) ->
                                 transaction {
                                     prop.apply {
-                                        this.dataV1 = it?.proposal
-                                        this.contentV1 = it?.proposal?.toProposalContent()
+                                        this.dataV1 = res?.proposal
+                                        this.contentV1 = res?.proposal?.toProposalContent()
                                     }
                                 }
                             }
-                        }
                         GovProposalRecord.getAllPaginated(page.toOffset(count), count)
                     } else {
                         list
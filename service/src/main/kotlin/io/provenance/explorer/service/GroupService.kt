@@ -23,16 +23,17 @@ import io.provenance.explorer.domain.models.explorer.GroupMembers
 import io.provenance.explorer.domain.models.explorer.GroupsProposalData
 import io.provenance.explorer.domain.models.explorer.GroupsProposalInsertData
 import io.provenance.explorer.domain.models.explorer.TxData
+import io.provenance.explorer.domain.models.explorer.TxEventIndex
 import io.provenance.explorer.domain.models.explorer.TxUpdate
-import io.provenance.explorer.grpc.extensions.GroupEvents
 import io.provenance.explorer.grpc.extensions.GroupGovMsgType
-import io.provenance.explorer.grpc.extensions.GroupPolicyEvents
 import io.provenance.explorer.grpc.extensions.GroupProposalEvents
 import io.provenance.explorer.grpc.extensions.getAssociatedGroupPolicies
 import io.provenance.explorer.grpc.extensions.getAssociatedGroupProposals
 import io.provenance.explorer.grpc.extensions.getAssociatedGroups
 import io.provenance.explorer.grpc.extensions.getGroupEventByEvent
+import io.provenance.explorer.grpc.extensions.getGroupEventTypes
 import io.provenance.explorer.grpc.extensions.getGroupPolicyEventByEvent
+import io.provenance.explorer.grpc.extensions.getGroupPolicyEventTypes
 import io.provenance.explorer.grpc.extensions.getGroupsExecutorResult
 import io.provenance.explorer.grpc.extensions.getGroupsProposalStatus
 import io.provenance.explorer.grpc.extensions.mapEventAttrValues
@@ -137,11 +138,15 @@ class GroupService(
         }
     }
 
-    fun saveGroups(tx: ServiceOuterClass.GetTxResponse, txInfo: TxData, txUpdate: TxUpdate) = transaction {
+    fun saveGroups(
+        tx: ServiceOuterClass.GetTxResponse,
+        txInfo: TxData,
+        txUpdate: TxUpdate,
+        events: TxEventIndex = TxEventIndex(tx.txResponse)
+    ) = transaction {
         // get groups, save
         val msgGroups = tx.tx.body.messagesList.mapNotNull { it.getAssociatedGroups() }
-        val gEvents = tx.txResponse.eventsList
-            .filter { it.type in GroupEvents.values().map { grp -> grp.event } }
+        val gEvents = events.raw(getGroupEventTypes())
 
         val eventGroups = gEvents.flatMap { e ->
             getGroupEventByEvent(e.type)!!.let {
@@ -163,8 +168,7 @@ class GroupService(
 
         // get policies, save
         val msgPolicies = tx.tx.body.messagesList.mapNotNull { it.getAssociatedGroupPolicies() }
-        val eventPolicies = tx.txResponse.eventsList
-            .filter { it.type in GroupPolicyEvents.values().map { pol -> pol.event } }
+        val eventPolicies = events.raw(getGroupPolicyEventTypes())
             .flatMap { e ->
                 getGroupPolicyEventByEvent(e.type)!!.let {
                     e.attributesList
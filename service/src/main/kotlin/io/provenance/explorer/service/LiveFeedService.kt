@@ -0,0 +1,213 @@
+package io.provenance.explorer.service
+
+import com.fasterxml.jackson.module.kotlin.readValue
+import io.provenance.explorer.OBJECT_MAPPER
+import io.provenance.explorer.config.ExplorerProperties
+import io.provenance.explorer.domain.core.logger
+import io.provenance.explorer.domain.entities.BlockCacheRecord
+import io.provenance.explorer.domain.entities.BlockSummaries
+import io.provenance.explorer.domain.entities.CacheKeys
+import io.provenance.explorer.domain.entities.CacheUpdateRecord
+import io.provenance.explorer.domain.entities.TxCacheRecord
+import io.provenance.explorer.domain.models.explorer.BlockUpdate
+import io.provenance.explorer.domain.models.explorer.LiveFeedBlock
+import io.provenance.explorer.domain.models.explorer.LiveFeedFilter
+import io.provenance.explorer.domain.models.explorer.toLiveFeedTx
+import io.provenance.explorer.model.Spotlight
+import jakarta.annotation.PreDestroy
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.cancel
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.launch
+import org.jetbrains.exposed.sql.transactions.transaction
+import org.springframework.http.HttpStatus
+import org.springframework.http.MediaType
+import org.springframework.scheduling.annotation.Scheduled
+import org.springframework.stereotype.Service
+import org.springframework.web.server.ResponseStatusException
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter
+import java.time.LocalDateTime
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentSkipListMap
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Pushes committed blocks, their tx hashes and the refreshed spotlight to live feed subscribers over SSE.
+ *
+ * Every event fans out from here: the ingester queues the blocks it commits, and a poll picks up new heights and
+ * sends them, loading any height it wasn't handed, eg one committed by another instance. Each subscriber tracks the
+ * last height sent to it and is sent the heights after that in order, stopping at the first one not committed yet,
+ * so batches committed out of order are still delivered in full. The spotlight is read from `cache_update` on every
+ * instance the same way. Each subscriber has its own bounded queue; one that falls `liveFeedBufferSize` events
+ * behind is disconnected rather than buffered, and can reconnect.
+ */
+@Service
+class LiveFeedService(private val props: ExplorerProperties) {
+
+    protected val logger = logger(LiveFeedService::class)
+
+    companion object {
+        const val BLOCK_EVENT = "block"
+        const val SPOTLIGHT_EVENT = "spotlight"
+
+        // Most heights behind the head a subscriber is caught up on; anything older is skipped
+        const val MAX_POLL_CATCH_UP = 10
+    }
+
+    private data class FeedEvent(val name: String?, val data: Any)
+
+    private class Subscriber(
+        val emitter: SseEmitter,
+        val filter: LiveFeedFilter,
+        val events: Channel<FeedEvent>,
+        val lastSent: AtomicInteger
+    )
+
+    private val scope = CoroutineScope(SupervisorJob() + Dispatchers.IO)
+    private val subscribers = ConcurrentHashMap.newKeySet<Subscriber>()
+
+    // Highest committed height seen, and the blocks at or below it that a subscriber may still need
+    private val head = AtomicInteger(0)
+    private val recentBlocks = ConcurrentSkipListMap<Int, LiveFeedBlock>()
+
+    @Volatile
+    private var spotlightUpdated: LocalDateTime? = null
+
+    fun subscribe(filter: LiveFeedFilter): SseEmitter {
+        if (subscribers.size >= props.liveFeedMaxSubscribers) {
+            throw ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many live feed subscribers, try again later")
+        }
+        val emitter = SseEmitter(TimeUnit.MINUTES.toMillis(props.liveFeedTimeoutMinutes))
+        val start = head.get().takeIf { it > 0 } ?: BlockCacheRecord.getMaxBlockHeightOrNull() ?: 0
+        val subscriber = Subscriber(emitter, filter, Channel(props.liveFeedBufferSize), AtomicInteger(start))
+        emitter.onCompletion { drop(subscriber) }
+        emitter.onTimeout { drop(subscriber) }
+        emitter.onError { drop(subscriber) }
+        subscribers.add(subscriber)
+
+        scope.launch {
+            try {
+                for (event in subscriber.events) {
+                    val sse = SseEmitter.event()
+                    if (event.name == null) {
+                        sse.comment(event.data.toString())
+                    } else {
+                        sse.name(event.name).data(event.data, MediaType.APPLICATION_JSON)
+                    }
+                    emitter.send(sse)
+                }
+            } catch (e: Exception) {
+                logger.debug("Live feed subscriber disconnected: ${e.message}")
+                emitter.completeWithError(e)
+            } finally {
+                drop(subscriber)
+            }
+        }
+        return emitter
+    }
+
+    // Called by the ingester once the blocks are committed. Only queues them; the poll sends them, so database reads
+    // for missing heights and slow subscribers never hold up a commit.
+    fun publishBlocks(blockUpdates: List<BlockUpdate>) {
+        val maxHeight = blockUpdates.maxOfOrNull { it.height } ?: return
+        head.accumulateAndGet(maxHeight, ::maxOf)
+        if (subscribers.isEmpty()) return
+        blockUpdates.forEach { update ->
+            val summary = update.summary ?: return@forEach
+            recentBlocks[update.height] = LiveFeedBlock(summary, update.txs.mapNotNull { it.txPayload?.toLiveFeedTx() })
+        }
+    }
+
+    // Sends queued and newly committed heights; the only caller of `sendBlocks`
+    @Scheduled(initialDelay = 5000L, fixedDelay = 1000L)
+    fun pollCommittedBlocks() {
+        val latest = BlockCacheRecord.getMaxBlockHeightOrNull() ?: return
+        head.accumulateAndGet(latest, ::maxOf)
+        if (subscribers.isEmpty()) {
+            recentBlocks.clear()
+            return
+        }
+        sendBlocks()
+    }
+
+    @Scheduled(initialDelay = 5000L, fixedDelay = 5000L)
+    fun pollSpotlight() {
+        if (subscribers.none { it.filter.spotlight }) return
+        val cached = CacheUpdateRecord.fetchCacheByKey(CacheKeys.SPOTLIGHT.key) ?: return
+        val json = cached.cacheValue ?: return
+        if (cached.lastUpdated == spotlightUpdated) return
+        spotlightUpdated = cached.lastUpdated
+        val spotlight = OBJECT_MAPPER.readValue<Spotlight>(json)
+        subscribers.filter { it.filter.spotlight }.forEach { offer(it, FeedEvent(SPOTLIGHT_EVENT, spotlight)) }
+    }
+
+    // Keeps idle connections from being closed by proxies
+    @Scheduled(initialDelay = 15000L, fixedDelay = 15000L)
+    fun heartbeat() = subscribers.forEach { offer(it, FeedEvent(null, "ping")) }
+
+    @PreDestroy
+    fun shutdown() {
+        subscribers.forEach { it.emitter.complete() }
+        scope.cancel()
+    }
+
+    // Sends each subscriber the heights after its last sent one, in order, up to the first that isn't committed yet
+    private fun sendBlocks() {
+        val latest = head.get()
+        val floor = latest - MAX_POLL_CATCH_UP + 1
+        val from = maxOf(floor, (subscribers.minOfOrNull { it.lastSent.get() } ?: latest) + 1)
+        recentBlocks.headMap(from).clear()
+        if (from > latest) return
+        loadMissingBlocks(from, latest)
+
+        subscribers.forEach { subscriber ->
+            var height = maxOf(floor, subscriber.lastSent.get() + 1)
+            while (height <= latest) {
+                val block = recentBlocks[height] ?: break
+                publishBlock(subscriber, block)
+                height++
+            }
+            subscriber.lastSent.set(maxOf(subscriber.lastSent.get(), height - 1))
+        }
+    }
+
+    // Reads the heights in range not handed over by the ingester, ie committed by another instance or batch
+    private fun loadMissingBlocks(from: Int, to: Int) {
+        val missing = (from..to).filter { it !in recentBlocks }.ifEmpty { return }
+        val summaries = BlockSummaries.findByHeights(missing.first(), missing.last())
+        missing.forEach { height ->
+            val summary = summaries[height] ?: return@forEach
+            val txs = transaction { TxCacheRecord.findByHeight(height).map { it.txV2.toLiveFeedTx() } }
+            recentBlocks[height] = LiveFeedBlock(summary, txs)
+        }
+    }
+
+    // Filtered subscribers only get the blocks with matching txs, and only those txs
+    private fun publishBlock(subscriber: Subscriber, block: LiveFeedBlock) {
+        val filter = subscriber.filter
+        if (!filter.isFiltered()) {
+            offer(subscriber, FeedEvent(BLOCK_EVENT, block))
+        } else {
+            block.txs.filter { filter.matches(it) }
+                .takeIf { it.isNotEmpty() }
+                ?.let { offer(subscriber, FeedEvent(BLOCK_EVENT, block.copy(txs = it))) }
+        }
+    }
+
+    private fun offer(subscriber: Subscriber, event: FeedEvent) {
+        if (!subscriber.events.trySend(event).isSuccess) {
+            logger.info("Disconnecting live feed subscriber more than ${props.liveFeedBufferSize} events behind")
+            drop(subscriber)
+            subscriber.emitter.complete()
+        }
+    }
+
+    private fun drop(subscriber: Subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriber.events.close()
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package io.provenance.explorer.service
 
 import cosmos.tx.v1beta1.ServiceOuterClass
+import io.provenance.explorer.domain.entities.NavEvent
 import io.provenance.explorer.domain.entities.NavEventsRecord
 import io.provenance.explorer.domain.models.explorer.TxData
+import io.provenance.explorer.domain.models.explorer.TxEventIndex
 import io.provenance.explorer.domain.models.explorer.TxUpdate
 import io.provenance.explorer.grpc.extensions.denomAmountToPair
 import org.jetbrains.exposed.sql.transactions.transaction
@@ -11,36 +13,58 @@ import org.springframework.stereotype.Service
 @Service
 class NavService {
 
-    fun saveNavs(tx: ServiceOuterClass.GetTxResponse, txInfo: TxData, txUpdate: TxUpdate) = transaction {
-        tx.txResponse.eventsList.forEachIndexed { eventOrder, event ->
-            if (event.type.equals(io.provenance.marker.v1.EventSetNetAssetValue.getDescriptor().fullName) ||
-                event.type.equals(io.provenance.metadata.v1.EventSetNetAssetValue.getDescriptor().fullName)
-            ) {
-                val attributes = event.attributesList.associate { it.key to it.value.trim('"') }
+    companion object {
+        private val NAV_EVENT_TYPES = listOf(
+            io.provenance.marker.v1.EventSetNetAssetValue.getDescriptor().fullName,
+            io.provenance.metadata.v1.EventSetNetAssetValue.getDescriptor().fullName
+        )
+    }
+
+    fun saveNavs(
+        tx: ServiceOuterClass.GetTxResponse,
+        txInfo: TxData,
+        txUpdate: TxUpdate,
+        events: TxEventIndex = TxEventIndex(tx.txResponse)
+    ) = transaction {
+        events.rawIndexed(NAV_EVENT_TYPES).forEach { (eventOrder, event) ->
+            val attributes = event.attributesList.associate { it.key to it.value.trim('"') }
 
-                val denom = attributes["denom"]
-                val scopeId = attributes["scope_id"]
-                val priceStr = attributes["price"]
-                val volume = attributes["volume"]?.toLongOrNull() ?: 1L
-                val source = attributes["source"]
+            val denom = attributes["denom"]
+            val scopeId = attributes["scope_id"]
+            val priceStr = attributes["price"]
+            val volume = attributes["volume"]?.toLongOrNull() ?: 1L
+            val source = attributes["source"]
 
-                val (priceAmount, priceDenom) = priceStr?.denomAmountToPair() ?: Pair("", "")
+            val (priceAmount, priceDenom) = priceStr?.denomAmountToPair() ?: Pair("", "")
 
-                if ((denom != null || scopeId != null) && priceAmount.isNotEmpty()) {
-                    NavEventsRecord.insert(
-                        blockHeight = txInfo.blockHeight,
-                        blockTime = txInfo.txTimestamp,
-                        txHash = txInfo.txHash,
-                        eventOrder = eventOrder,
-                        eventType = event.type,
-                        scopeId = scopeId,
-                        denom = denom,
-                        priceAmount = priceAmount.toLongOrNull(),
-                        priceDenom = priceDenom,
-                        volume = volume,
-                        source = source ?: ""
-                    )
-                }
+            if ((denom != null || scopeId != null) && priceAmount.isNotEmpty()) {
+                val nav = NavEvent(
+                    blockHeight = txInfo.blockHeight,
+                    blockTime = txInfo.txTimestamp,
+                    txHash = txInfo.txHash,
+                    eventOrder = eventOrder,
+                    eventType = event.type,
+                    scopeId = scopeId,
+                    denom = denom,
+                    priceAmount = priceAmount.toLongOrNull(),
+                    priceDenom = priceDenom,
+                    volume = volume,
+                    source = source ?: ""
+                )
+                NavEventsRecord.insert(
+                    blockHeight = nav.blockHeight,
+                    blockTime = nav.blockTime,
+                    txHash = txInfo.txHash,
+                    eventOrder = nav.eventOrder,
+                    eventType = nav.eventType,
+                    scopeId = nav.scopeId,
+                    denom = nav.denom,
+                    priceAmount = nav.priceAmount,
+                    priceDenom = nav.priceDenom,
+                    volume = nav.volume,
+                    source = nav.source
+                )
+                txUpdate.navs.add(nav)
             }
         }
     }
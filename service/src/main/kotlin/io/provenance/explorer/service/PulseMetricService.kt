@@ -1,31 +1,38 @@
 package io.provenance.explorer.service
 
-import com.fasterxml.jackson.databind.JsonNode
 import com.fasterxml.jackson.module.kotlin.readValue
 import com.github.benmanes.caffeine.cache.Cache
 import com.github.benmanes.caffeine.cache.Caffeine
+import com.zaxxer.hikari.HikariDataSource
 import cosmos.bank.v1beta1.Bank
 import io.ktor.client.HttpClient
 import io.ktor.client.call.body
 import io.ktor.client.request.get
 import io.ktor.client.request.url
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.Timer
 import io.provenance.explorer.VANILLA_MAPPER
 import io.provenance.explorer.config.ExplorerProperties.Companion.UTILITY_TOKEN
 import io.provenance.explorer.config.ExplorerProperties.Companion.UTILITY_TOKEN_BASE_MULTIPLIER
 import io.provenance.explorer.config.ResourceNotFoundException
 import io.provenance.explorer.config.pulse.PulseProperties
+import io.provenance.explorer.config.readReplica
 import io.provenance.explorer.domain.core.logger
 import io.provenance.explorer.domain.entities.AccountRecord
+import io.provenance.explorer.domain.entities.BlockCacheDailyTxCountsRecord
 import io.provenance.explorer.domain.entities.BlockCacheRecord
 import io.provenance.explorer.domain.entities.EntityNavEvent
 import io.provenance.explorer.domain.entities.LedgerEntityRecord
 import io.provenance.explorer.domain.entities.LedgerEntitySpecRecord
 import io.provenance.explorer.domain.entities.MarkerCacheRecord
-import io.provenance.explorer.domain.entities.NavEvent
 import io.provenance.explorer.domain.entities.NavEventsRecord
 import io.provenance.explorer.domain.entities.NftScopeRecord
+import io.provenance.explorer.domain.entities.PulseBackfillItemRecord
+import io.provenance.explorer.domain.entities.PulseBackfillJobRecord
+import io.provenance.explorer.domain.entities.PulseBackfillWork
 import io.provenance.explorer.domain.entities.PulseCacheRecord
 import io.provenance.explorer.domain.entities.TxCacheRecord
+import io.provenance.explorer.domain.exceptions.InvalidArgumentException
 import io.provenance.explorer.domain.extensions.pageCountOfResults
 import io.provenance.explorer.domain.extensions.roundWhole
 import io.provenance.explorer.domain.extensions.startOfDay
@@ -40,8 +47,8 @@ import io.provenance.explorer.domain.models.explorer.pulse.MetricProgress
 import io.provenance.explorer.domain.models.explorer.pulse.MetricRangeType
 import io.provenance.explorer.domain.models.explorer.pulse.MetricSeries
 import io.provenance.explorer.domain.models.explorer.pulse.PulseAssetSummary
+import io.provenance.explorer.domain.models.explorer.pulse.PulseBackfillJob
 import io.provenance.explorer.domain.models.explorer.pulse.PulseCacheType
-import io.provenance.explorer.domain.models.explorer.pulse.PulseLoanLedger
 import io.provenance.explorer.domain.models.explorer.pulse.PulseMetric
 import io.provenance.explorer.domain.models.explorer.pulse.TransactionSummary
 import io.provenance.explorer.domain.models.explorer.pulse.UpbToken
@@ -53,11 +60,20 @@ import io.provenance.explorer.model.base.DateTruncGranularity
 import io.provenance.explorer.model.base.PagedResults
 import io.provenance.explorer.model.base.USD_LOWER
 import io.provenance.explorer.model.base.USD_UPPER
+import io.provenance.explorer.service.pulse.LoanLedgerClient
+import jakarta.annotation.PreDestroy
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.asCoroutineDispatcher
 import kotlinx.coroutines.async
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.isActive
+import kotlinx.coroutines.joinAll
+import kotlinx.coroutines.launch
 import kotlinx.coroutines.runBlocking
 import org.jetbrains.exposed.sql.SortOrder
 import org.jetbrains.exposed.sql.transactions.transaction
 import org.springframework.beans.factory.annotation.Qualifier
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory
 import org.springframework.stereotype.Service
 import java.math.BigDecimal
 import java.math.RoundingMode
@@ -67,8 +83,10 @@ import java.time.ZoneOffset
 import java.time.format.DateTimeFormatter
 import java.time.temporal.ChronoUnit
 import java.util.UUID
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.Executors
 import java.util.concurrent.TimeUnit
-import java.util.concurrent.atomic.AtomicBoolean
+import javax.sql.DataSource
 import kotlin.math.pow
 /**
  * Service handler for the Provenance Pulse application
@@ -85,9 +103,37 @@ class PulseMetricService(
     @Qualifier("pulseHttpClient") private val pulseHttpClient: HttpClient,
     private val pricingService: PricingService,
     private val metadataGrpcClient: MetadataGrpcClient,
+    private val meterRegistry: MeterRegistry,
+    private val loanLedgerClient: LoanLedgerClient,
+    dataSource: DataSource,
 ) {
     companion object {
-        private val isBackfillInProgress = AtomicBoolean(false)
+        const val REFRESH_TIMER = "explorer.pulse.refresh"
+        const val ASSET_SUMMARIES = "PULSE_ASSET_SUMMARIES"
+
+        // Tries per backfill item before it's left failed
+        const val BACKFILL_MAX_ATTEMPTS = 3
+
+        // A running backfill item whose worker hasn't sent a heartbeat for this long is taken to have lost it
+        const val BACKFILL_STALE_MINUTES = 5L
+        const val BACKFILL_HEARTBEAT_SECONDS = 60L
+
+        /*
+         * Metrics whose data source reads other metrics. During a refresh they wait for these and reuse the values
+         * built in that run; everything else is independent.
+         */
+        private val refreshDependencies = mapOf(
+            PulseCacheType.PULSE_TVL_METRIC to listOf(
+                PulseCacheType.PULSE_COMMITTED_ASSETS_VALUE_METRIC,
+                PulseCacheType.PULSE_TOTAL_NAV_METRIC
+            ),
+            PulseCacheType.PULSE_TRADING_TVL_METRIC to listOf(
+                PulseCacheType.PULSE_COMMITTED_ASSETS_VALUE_METRIC,
+                PulseCacheType.PULSE_TRADE_VALUE_SETTLED_METRIC
+            ),
+            PulseCacheType.ENTITY_TOTAL_BALANCE_METRIC to listOf(PulseCacheType.LOAN_LEDGER_TOTAL_BALANCE_METRIC),
+            PulseCacheType.ENTITY_TOTAL_ASSETS_METRIC to listOf(PulseCacheType.LOAN_LEDGER_TOTAL_COUNT_METRIC)
+        )
     }
 
     protected val logger = logger(PulseMetricService::class)
@@ -132,6 +178,25 @@ class PulseMetricService(
      */
     private val scopeNAVDecimal = inversePowerOfTen(3)
 
+    // Each refresh or backfill worker holds a connection while it runs, so together they take at most half the pool
+    private val poolShare = ((dataSource as? HikariDataSource)?.maximumPoolSize ?: Int.MAX_VALUE).div(4).coerceAtLeast(1)
+
+    private val refreshPool = Executors.newFixedThreadPool(
+        pulseProperties.refreshParallelism.coerceAtMost(poolShare),
+        CustomizableThreadFactory("pulse-refresh-").apply { isDaemon = true }
+    )
+    private val refreshDispatcher = refreshPool.asCoroutineDispatcher()
+
+    private val backfillPool = Executors.newFixedThreadPool(
+        pulseProperties.backfillParallelism.coerceAtMost(poolShare),
+        CustomizableThreadFactory("pulse-backfill-").apply { isDaemon = true }
+    )
+    private val backfillDispatcher = backfillPool.asCoroutineDispatcher()
+
+    // Cache keys already rebuilt by the refresh in progress, so metrics depending on them don't rebuild them again
+    @Volatile
+    private var refreshedThisRun: MutableSet<Triple<LocalDate, PulseCacheType, String?>>? = null
+
     val base = UTILITY_TOKEN
     val quote = USD_UPPER
 
@@ -212,20 +277,15 @@ class PulseMetricService(
         subtype: String? = null,
         range: MetricRangeType = MetricRangeType.DAY,
         atDateTime: LocalDateTime? = null,
+        bustCache: Boolean = false,
         dataSourceFn: (LocalDate?) -> PulseMetric
     ): PulseMetric = transaction {
         val today = atDateTime?.toLocalDate() ?: nowUTC().toLocalDate()
         val todayCache = fromPulseMetricCache(today, type, subtype)
-        // if this is a scheduled task, bust the cache
-        val bustCache = isScheduledTask()
-        val isBackFillAndMissing = isBackfillInProgress.get()
-                && PulseCacheRecord.findByDateAndType(
-            today,
-            type,
-            subtype
-        )?.data == null
-
-        if (todayCache == null || bustCache || isBackFillAndMissing) {
+        // a cache refresh rebuilds the metric unless the current refresh already rebuilt it
+        val rebuild = bustCache && refreshedThisRun?.contains(Triple(today, type, subtype)) != true
+
+        if (todayCache == null || rebuild) {
             // Pass the determined cache date to the data source function to ensure consistency when needed
             val metric = dataSourceFn(today)
             val previousMetricDate = if (atDateTime != null) {
@@ -263,7 +323,7 @@ class PulseMetricService(
                 series = metric.series,
                 progress = metric.progress,
                 subtype = subtype
-            )
+            ).also { refreshedThisRun?.add(Triple(today, type, subtype)) }
         } else todayCache
     }.let {
         if (range != MetricRangeType.DAY) {
@@ -325,13 +385,6 @@ class PulseMetricService(
         }
     }
 
-    /**
-     * Use the assumption that Spring scheduled task threads begin with "scheduling-"
-     * to determine if the current thread is a scheduled task
-     */
-    private fun isScheduledTask(): Boolean =
-        Thread.currentThread().name.startsWith("scheduling-")
-
     private fun denomSupplyCache(
         denom: String,
         atDateTime: LocalDateTime? = null
@@ -384,9 +437,11 @@ class PulseMetricService(
     private fun hashMarketCapMetric(
         range: MetricRangeType = MetricRangeType.DAY,
         atDateTime: LocalDateTime? = null,
-        type: PulseCacheType
+        type: PulseCacheType,
+        bustCache: Boolean = false
     ): PulseMetric =
         fetchOrBuildCacheFromDataSource(
+            bustCache = bustCache,
             type = type,
             atDateTime = atDateTime,
             range = range
@@ -423,9 +478,11 @@ class PulseMetricService(
 
     private fun hashTVL(
         range: MetricRangeType = MetricRangeType.DAY,
-        atDateTime: LocalDateTime? = null
+        atDateTime: LocalDateTime? = null,
+        bustCache: Boolean = false
     ): PulseMetric =
         fetchOrBuildCacheFromDataSource(
+            bustCache = bustCache,
             type = PulseCacheType.HASH_TVL_METRIC,
             range = range,
             atDateTime = atDateTime
@@ -440,20 +497,24 @@ class PulseMetricService(
 
     private fun pulseTVL(
         range: MetricRangeType = MetricRangeType.DAY,
-        atDateTime: LocalDateTime? = null
+        atDateTime: LocalDateTime? = null,
+        bustCache: Boolean = false
     ): PulseMetric =
         fetchOrBuildCacheFromDataSource(
+            bustCache = bustCache,
             type = PulseCacheType.PULSE_TVL_METRIC,
             range = range,
             atDateTime = atDateTime
         ) {
             val committedValue = this.exchangeCommittedAssetsValue(
                 range = range,
-                atDateTime = atDateTime
+                atDateTime = atDateTime,
+                bustCache = bustCache
             )
             val navValue = this.totalMetadataNavs(
                 range = range,
-                atDateTime = atDateTime
+                atDateTime = atDateTime,
+                bustCache = bustCache
             )
 
             val totalValue = committedValue.amount
@@ -473,20 +534,24 @@ class PulseMetricService(
 
     private fun pulseTradingTVL(
         range: MetricRangeType = MetricRangeType.DAY,
-        atDateTime: LocalDateTime? = null
+        atDateTime: LocalDateTime? = null,
+        bustCache: Boolean = false
     ): PulseMetric =
         fetchOrBuildCacheFromDataSource(
+            bustCache = bustCache,
             type = PulseCacheType.PULSE_TRADING_TVL_METRIC,
             range = range,
             atDateTime = atDateTime
         ) {
             val committedValue = this.exchangeCommittedAssetsValue(
                 range = range,
-                atDateTime = atDateTime
+                atDateTime = atDateTime,
+                bustCache = bustCache
             )
             val tradedValue = this.pulseTradeValueSettled(
                 range = range,
-                atDateTime = atDateTime
+                atDateTime = atDateTime,
+                bustCache = bustCache
             )
             PulseMetric.build(
                 base = USD_UPPER,
@@ -499,27 +564,20 @@ class PulseMetricService(
      */
     private fun pulseTradesSettled(
         range: MetricRangeType = MetricRangeType.DAY,
-        atDateTime: LocalDateTime? = null
+        atDateTime: LocalDateTime? = null,
+        bustCache: Boolean = false
     ): PulseMetric =
         fetchOrBuildCacheFromDataSource(
+            bustCache = bustCache,
             type = PulseCacheType.PULSE_TRADE_SETTLEMENT_METRIC,
             range = range,
             atDateTime = atDateTime
         ) {
-            if (atDateTime != null) {
-                NavEventsRecord.getNavEvents(
-                    fromDate = atDateTime.startOfDay(),
-                    toDate = endOfDay(atDateTime)
-                )
-            } else {
-                NavEventsRecord.getNavEvents(
-                    fromDate = nowUTC().startOfDay()
-                )
-            }.count { it.source.startsWith("x/exchange") } // gross
-                .toBigDecimal().let {
+            NavEventsRecord.dailyTradeTotals((atDateTime ?: nowUTC()).toLocalDate())
+                .let { (tradeCount, _) ->
                     PulseMetric.build(
                         base = count,
-                        amount = it
+                        amount = tradeCount.toBigDecimal()
                     )
                 }
         }
@@ -530,29 +588,20 @@ class PulseMetricService(
     private fun pulseTradeValueSettled(
         range: MetricRangeType = MetricRangeType.DAY,
         atDateTime: LocalDateTime? = null,
+        bustCache: Boolean = false,
     ): PulseMetric =
         fetchOrBuildCacheFromDataSource(
+            bustCache = bustCache,
             type = PulseCacheType.PULSE_TRADE_VALUE_SETTLED_METRIC,
             range = range,
             atDateTime = atDateTime
         ) {
-            if (atDateTime != null) {
-                NavEventsRecord.getNavEvents(
-                    fromDate = atDateTime.startOfDay(),
-                    toDate = endOfDay(atDateTime)
-                )
-            } else {
-                NavEventsRecord.getNavEvents(
-                    fromDate = nowUTC().startOfDay()
-                )
-            }.filter {
-                it.source.startsWith("x/exchange") &&
-                        (it.priceDenom?.startsWith("u$USD_LOWER") == true || it.priceDenom == "uylds.fcc")
-            } // gross, but all uusd is micro
-                .sumOf { it.priceAmount!! }.toBigDecimal().let {
+            // gross, but all uusd is micro
+            NavEventsRecord.dailyTradeTotals((atDateTime ?: nowUTC()).toLocalDate())
+                .let { (_, tradeValue) ->
                     PulseMetric.build(
                         base = USD_UPPER,
-                        amount = it.divide(1000000.toBigDecimal())
+                        amount = tradeValue.divide(1000000.toBigDecimal())
                     )
                 }
         }
@@ -563,45 +612,31 @@ class PulseMetricService(
      */
     private fun pulseTodaysNavs(
         range: MetricRangeType = MetricRangeType.DAY,
-        atDateTime: LocalDateTime? = null
+        atDateTime: LocalDateTime? = null,
+        bustCache: Boolean = false
     ): PulseMetric =
         fetchOrBuildCacheFromDataSource(
+            bustCache = bustCache,
             type = PulseCacheType.PULSE_TODAYS_NAV_METRIC,
             range = range,
             atDateTime = atDateTime
         ) { // TODO technically correct assuming only metadata nav events are receivables
-            if (atDateTime != null) {
-                NavEventsRecord.getNavEvents(
-                    fromDate = atDateTime.startOfDay(),
-                    toDate = endOfDay(atDateTime),
-                    source = "metadata",
-                    priceDenoms = listOf(USD_LOWER)
-                )
-            } else {
-                NavEventsRecord.getNavEvents(
-                    fromDate = nowUTC().startOfDay(),
-                    source = "metadata",
-                    priceDenoms = listOf(USD_LOWER)
+            // latest price per scope for the day
+            NavEventsRecord.dailyScopeNavTotal((atDateTime ?: nowUTC()).toLocalDate()).let {
+                PulseMetric.build(
+                    base = USD_UPPER,
+                    amount = it.times(scopeNAVDecimal)
                 )
             }
-                .sortedWith(compareBy<NavEvent> { it.scopeId }.thenByDescending { it.blockTime })
-                .distinctBy {
-                    // will keep the first occurrence which is the latest price event
-                    it.scopeId
-                }
-                .sumOf { it.priceAmount!! }.toBigDecimal().let {
-                    PulseMetric.build(
-                        base = USD_UPPER,
-                        amount = it.times(scopeNAVDecimal)
-                    )
-                }
         }
 
     private fun totalMetadataNavs(
         range: MetricRangeType = MetricRangeType.DAY,
-        atDateTime: LocalDateTime? = null
+        atDateTime: LocalDateTime? = null,
+        bustCache: Boolean = false
     ): PulseMetric =
         fetchOrBuildCacheFromDataSource(
+            bustCache = bustCache,
             type = PulseCacheType.PULSE_TOTAL_NAV_METRIC,
             range = range,
             atDateTime = atDateTime
@@ -627,16 +662,20 @@ class PulseMetricService(
      */
     private fun transactionVolume(
         range: MetricRangeType = MetricRangeType.DAY,
-        atDateTime: LocalDateTime? = null
+        atDateTime: LocalDateTime? = null,
+        bustCache: Boolean = false
     ): PulseMetric =
         fetchOrBuildCacheFromDataSource(
+            bustCache = bustCache,
             type = PulseCacheType.PULSE_TRANSACTION_VOLUME_METRIC,
             range = range,
             atDateTime = atDateTime
         ) {
-            val countForDates = TxCacheRecord.countForDates(
-                daysPrior = longest_range.toInt(),
-                atDateTime = atDateTime
+            // Completed days come from the daily rollup; only blocks not yet rolled up are counted live
+            val toDate = atDateTime?.toLocalDate() ?: LocalDate.now(ZoneOffset.UTC)
+            val countForDates = BlockCacheDailyTxCountsRecord.countsForDates(
+                fromDate = toDate.minusDays(longest_range),
+                toDate = toDate
             )
             val series = MetricSeries(
                 seriesData = countForDates.map { it.second.toBigDecimal() },
@@ -648,11 +687,7 @@ class PulseMetricService(
                     )
                 }
             )
-            val count = if (atDateTime != null) {
-                TxCacheRecord.getTotalTxCountToDate(atDateTime)
-            } else {
-                TxCacheRecord.getTotalTxCount()
-            }
+            val count = BlockCacheDailyTxCountsRecord.totalToDate(atDateTime?.toLocalDate())
 
             PulseMetric.build(
                 base = base,
@@ -669,11 +704,13 @@ class PulseMetricService(
     private fun transactionVolumeOverRange(
         range: MetricRangeType = MetricRangeType.DAY,
         type: PulseCacheType,
-        atDateTime: LocalDateTime? = null
-    ) = if (atDateTime != null || isScheduledTask()) {
+        atDateTime: LocalDateTime? = null,
+        bustCache: Boolean = false
+    ) = if (atDateTime != null || bustCache) {
         transactionVolume(
             range = range,
-            atDateTime = atDateTime
+            atDateTime = atDateTime,
+            bustCache = bustCache
         )
     } else {
         // populate current days metric if we haven't at this point
@@ -733,9 +770,11 @@ class PulseMetricService(
      */
     private fun totalParticipants(
         range: MetricRangeType = MetricRangeType.DAY,
-        atDateTime: LocalDateTime? = null
+        atDateTime: LocalDateTime? = null,
+        bustCache: Boolean = false
     ): PulseMetric =
         fetchOrBuildCacheFromDataSource(
+            bustCache = bustCache,
             type = PulseCacheType.PULSE_PARTICIPANTS_METRIC,
             range = range,
             atDateTime = atDateTime
@@ -759,9 +798,11 @@ class PulseMetricService(
      */
     private fun exchangeCommittedAssetCount(
         range: MetricRangeType = MetricRangeType.DAY,
-        atDateTime: LocalDateTime? = null
+        atDateTime: LocalDateTime? = null,
+        bustCache: Boolean = false
     ): PulseMetric =
         fetchOrBuildCacheFromDataSource(
+            bustCache = bustCache,
             type = PulseCacheType.PULSE_COMMITTED_ASSETS_METRIC,
             range = range,
             atDateTime = atDateTime
@@ -787,9 +828,11 @@ class PulseMetricService(
      */
     private fun exchangeCommittedAssetsValue(
         range: MetricRangeType = MetricRangeType.DAY,
-        atDateTime: LocalDateTime? = null
+        atDateTime: LocalDateTime? = null,
+        bustCache: Boolean = false
     ): PulseMetric =
         fetchOrBuildCacheFromDataSource(
+            bustCache = bustCache,
             type = PulseCacheType.PULSE_COMMITTED_ASSETS_VALUE_METRIC,
             range = range,
             atDateTime = atDateTime
@@ -960,9 +1003,11 @@ class PulseMetricService(
 
     private fun pulseChainFeesFromCache(
         range: MetricRangeType = MetricRangeType.DAY,
-        atDateTime: LocalDateTime? = null
+        atDateTime: LocalDateTime? = null,
+        bustCache: Boolean = false
     ): PulseMetric =
         fetchOrBuildCacheFromDataSource(
+            bustCache = bustCache,
             type = PulseCacheType.PULSE_CHAIN_FEES_VALUE_METRIC,
             range = range,
             atDateTime = atDateTime
@@ -992,10 +1037,11 @@ class PulseMetricService(
     private fun pulseChainFeesOverRange(
         range: MetricRangeType,
         type: PulseCacheType,
-        atDateTime: LocalDateTime?
+        atDateTime: LocalDateTime?,
+        bustCache: Boolean = false
     ) =
-        if (atDateTime != null || isScheduledTask() || range == MetricRangeType.DAY) {
-            pulseChainFeesFromCache(range, atDateTime)
+        if (atDateTime != null || bustCache || range == MetricRangeType.DAY) {
+            pulseChainFeesFromCache(range, atDateTime, bustCache = bustCache)
         } else {
             val spans = rangeOverRangeSpans(
                 range = range,
@@ -1018,35 +1064,16 @@ class PulseMetricService(
     /**
      * Loan-based Metrics
      */
-    private fun loanLedgerUrl(
-        endpoint: String,
-        atDateTime: LocalDateTime? = null
-    ) =
-        if (atDateTime != null) {
-            "${pulseProperties.loanLedgerDataUrl}/$endpoint?atDate=${
-                atDateTime.toLocalDate().format(
-                    DateTimeFormatter.ISO_LOCAL_DATE
-                )
-            }"
-        } else {
-            "${pulseProperties.loanLedgerDataUrl}/$endpoint"
-        }
-
     private fun getLoanLedger(
         endpoint: String,
-        atDateTime: LocalDateTime? = null
+        atDateTime: LocalDateTime? = null,
+        ledgerSnapshot: LoanLedgerClient.Snapshot? = null
     ) =
-        runBlocking {
-            try {
-                loanLedgerUrl(endpoint, atDateTime).let {
-                    pulseHttpClient.get {
-                        url(it)
-                    }.body<List<PulseLoanLedger>>()
-                }
-            } catch (e: Exception) {
-                logger.error("Failed to fetch loan ledger data: ${e.message}")
-                emptyList()
-            }
+        try {
+            loanLedgerClient.ledger(endpoint, atDateTime?.toLocalDate(), ledgerSnapshot)
+        } catch (e: Exception) {
+            logger.error("Failed to fetch loan ledger data: ${e.message}")
+            emptyList()
         }
 
     private fun loanLedgerEffectiveDateFilter(
@@ -1063,58 +1090,58 @@ class PulseMetricService(
 
     private fun loanLedgerTotalBalance(
         range: MetricRangeType = MetricRangeType.DAY,
-        atDateTime: LocalDateTime? = null
+        atDateTime: LocalDateTime? = null,
+        bustCache: Boolean = false,
+        ledgerSnapshot: LoanLedgerClient.Snapshot? = null
     ) =
         fetchOrBuildCacheFromDataSource(
+            bustCache = bustCache,
             type = PulseCacheType.LOAN_LEDGER_TOTAL_BALANCE_METRIC,
             range = range,
             atDateTime = atDateTime
         ) {
-            runBlocking {
-                pulseHttpClient.get {
-                    url(loanLedgerUrl("balances", atDateTime))
-                }.body<JsonNode>().let {
-                    PulseMetric.build(
-                        base = USD_UPPER,
-                        amount = it["TotalBalance"].asText().toBigDecimal()
-                    )
-                }
+            loanLedgerClient.balances(atDateTime?.toLocalDate(), ledgerSnapshot).let {
+                PulseMetric.build(
+                    base = USD_UPPER,
+                    amount = it["TotalBalance"].asText().toBigDecimal()
+                )
             }
         }
 
     private fun loanLedgerTotalCount(
         range: MetricRangeType = MetricRangeType.DAY,
-        atDateTime: LocalDateTime? = null
+        atDateTime: LocalDateTime? = null,
+        bustCache: Boolean = false,
+        ledgerSnapshot: LoanLedgerClient.Snapshot? = null
     ) =
         fetchOrBuildCacheFromDataSource(
+            bustCache = bustCache,
             type = PulseCacheType.LOAN_LEDGER_TOTAL_COUNT_METRIC,
             range = range,
             atDateTime = atDateTime
         ) {
-            runBlocking {
-                pulseHttpClient.get {
-                    url(loanLedgerUrl("balances", atDateTime))
-                }.body<JsonNode>().let {
-                    PulseMetric.build(
-                        base = count,
-                        amount = it["TotalCount"].asText().toBigDecimal()
-                    )
-                }
+            loanLedgerClient.balances(atDateTime?.toLocalDate(), ledgerSnapshot).let {
+                PulseMetric.build(
+                    base = count,
+                    amount = it["TotalCount"].asText().toBigDecimal()
+                )
             }
         }
 
     private fun loanLedgerPaymentsOverRange(
         range: MetricRangeType,
         type: PulseCacheType = PulseCacheType.LOAN_LEDGER_PAYMENTS_METRIC,
-        atDateTime: LocalDateTime? = null
+        atDateTime: LocalDateTime? = null,
+        bustCache: Boolean = false,
+        ledgerSnapshot: LoanLedgerClient.Snapshot? = null
     ) =
-        if (atDateTime != null || isScheduledTask() || range == MetricRangeType.DAY) {
-            // For specific dates, scheduled tasks, or daily range, use the original function
-            loanLedgerPayments(range, atDateTime)
+        if (atDateTime != null || bustCache || range == MetricRangeType.DAY) {
+            // For specific dates, cache refreshes, or daily range, use the original function
+            loanLedgerPayments(range, atDateTime, bustCache = bustCache, ledgerSnapshot = ledgerSnapshot)
         } else {
             // For range comparisons, populate current day's metric if missing
             if (fromPulseMetricCache(nowUTC().toLocalDate(), type) == null) {
-                loanLedgerPayments(range = range)
+                loanLedgerPayments(range = range, ledgerSnapshot = ledgerSnapshot)
             }
 
             val spans = rangeOverRangeSpans(range = range, type = type)
@@ -1136,14 +1163,17 @@ class PulseMetricService(
 
     private fun loanLedgerPayments(
         range: MetricRangeType = MetricRangeType.DAY,
-        atDateTime: LocalDateTime? = null
+        atDateTime: LocalDateTime? = null,
+        bustCache: Boolean = false,
+        ledgerSnapshot: LoanLedgerClient.Snapshot? = null
     ) =
         fetchOrBuildCacheFromDataSource(
+            bustCache = bustCache,
             type = PulseCacheType.LOAN_LEDGER_PAYMENTS_METRIC,
             range = range,
             atDateTime = atDateTime
         ) { cacheDate ->
-            getLoanLedger("payments", atDateTime)
+            getLoanLedger("payments", atDateTime, ledgerSnapshot = ledgerSnapshot)
                 .filter {
                     it.effectiveDate.startOfDay() == loanLedgerEffectiveDateFilter(
                         atDateTime,
@@ -1161,15 +1191,17 @@ class PulseMetricService(
     private fun loanLedgerTotalPaymentsOverRange(
         range: MetricRangeType,
         type: PulseCacheType = PulseCacheType.LOAN_LEDGER_TOTAL_PAYMENTS_METRIC,
-        atDateTime: LocalDateTime? = null
+        atDateTime: LocalDateTime? = null,
+        bustCache: Boolean = false,
+        ledgerSnapshot: LoanLedgerClient.Snapshot? = null
     ) =
-        if (atDateTime != null || isScheduledTask() || range == MetricRangeType.DAY) {
-            // For specific dates, scheduled tasks, or daily range, use the original function
-            loanLedgerTotalPayments(range, atDateTime)
+        if (atDateTime != null || bustCache || range == MetricRangeType.DAY) {
+            // For specific dates, cache refreshes, or daily range, use the original function
+            loanLedgerTotalPayments(range, atDateTime, bustCache = bustCache, ledgerSnapshot = ledgerSnapshot)
         } else {
             // For range comparisons, populate current day's metric if missing
             if (fromPulseMetricCache(nowUTC().toLocalDate(), type) == null) {
-                loanLedgerTotalPayments(range = range)
+                loanLedgerTotalPayments(range = range, ledgerSnapshot = ledgerSnapshot)
             }
 
             val spans = rangeOverRangeSpans(
@@ -1194,14 +1226,17 @@ class PulseMetricService(
 
     private fun loanLedgerTotalPayments(
         range: MetricRangeType = MetricRangeType.DAY,
-        atDateTime: LocalDateTime? = null
+        atDateTime: LocalDateTime? = null,
+        bustCache: Boolean = false,
+        ledgerSnapshot: LoanLedgerClient.Snapshot? = null
     ) =
         fetchOrBuildCacheFromDataSource(
+            bustCache = bustCache,
             type = PulseCacheType.LOAN_LEDGER_TOTAL_PAYMENTS_METRIC,
             range = range,
             atDateTime = atDateTime
         ) { cacheDate ->
-            getLoanLedger("payments", atDateTime).count {
+            getLoanLedger("payments", atDateTime, ledgerSnapshot = ledgerSnapshot).count {
                 it.effectiveDate.startOfDay() == loanLedgerEffectiveDateFilter(
                     atDateTime,
                     cacheDate
@@ -1217,15 +1252,17 @@ class PulseMetricService(
     private fun loanLedgerDisbursementsOverRange(
         range: MetricRangeType,
         type: PulseCacheType = PulseCacheType.LOAN_LEDGER_DISBURSEMENTS_METRIC,
-        atDateTime: LocalDateTime? = null
+        atDateTime: LocalDateTime? = null,
+        bustCache: Boolean = false,
+        ledgerSnapshot: LoanLedgerClient.Snapshot? = null
     ) =
-        if (atDateTime != null || isScheduledTask() || range == MetricRangeType.DAY) {
-            // For specific dates, scheduled tasks, or daily range, use the original function
-            loanLedgerDisbursements(range, atDateTime)
+        if (atDateTime != null || bustCache || range == MetricRangeType.DAY) {
+            // For specific dates, cache refreshes, or daily range, use the original function
+            loanLedgerDisbursements(range, atDateTime, bustCache = bustCache, ledgerSnapshot = ledgerSnapshot)
         } else {
             // For range comparisons, populate current day's metric if missing
             if (fromPulseMetricCache(nowUTC().toLocalDate(), type) == null) {
-                loanLedgerDisbursements(range = range)
+                loanLedgerDisbursements(range = range, ledgerSnapshot = ledgerSnapshot)
             }
 
             val spans = rangeOverRangeSpans(
@@ -1250,14 +1287,17 @@ class PulseMetricService(
 
     private fun loanLedgerDisbursements(
         range: MetricRangeType = MetricRangeType.DAY,
-        atDateTime: LocalDateTime? = null
+        atDateTime: LocalDateTime? = null,
+        bustCache: Boolean = false,
+        ledgerSnapshot: LoanLedgerClient.Snapshot? = null
     ) =
         fetchOrBuildCacheFromDataSource(
+            bustCache = bustCache,
             type = PulseCacheType.LOAN_LEDGER_DISBURSEMENTS_METRIC,
             range = range,
             atDateTime = atDateTime
         ) { cacheDate ->
-            getLoanLedger("disbursements", atDateTime)
+            getLoanLedger("disbursements", atDateTime, ledgerSnapshot = ledgerSnapshot)
                 .filter {
                     it.effectiveDate.startOfDay() == loanLedgerEffectiveDateFilter(
                         atDateTime,
@@ -1275,15 +1315,17 @@ class PulseMetricService(
     private fun loanLedgerDisbursementCountOverRange(
         range: MetricRangeType,
         type: PulseCacheType = PulseCacheType.LOAN_LEDGER_DISBURSEMENT_COUNT_METRIC,
-        atDateTime: LocalDateTime? = null
+        atDateTime: LocalDateTime? = null,
+        bustCache: Boolean = false,
+        ledgerSnapshot: LoanLedgerClient.Snapshot? = null
     ) =
-        if (atDateTime != null || isScheduledTask() || range == MetricRangeType.DAY) {
-            // For specific dates, scheduled tasks, or daily range, use the original function
-            loanLedgerDisbursementCount(range, atDateTime)
+        if (atDateTime != null || bustCache || range == MetricRangeType.DAY) {
+            // For specific dates, cache refreshes, or daily range, use the original function
+            loanLedgerDisbursementCount(range, atDateTime, bustCache = bustCache, ledgerSnapshot = ledgerSnapshot)
         } else {
             // For range comparisons, populate current day's metric if missing
             if (fromPulseMetricCache(nowUTC().toLocalDate(), type) == null) {
-                loanLedgerDisbursementCount(range = range)
+                loanLedgerDisbursementCount(range = range, ledgerSnapshot = ledgerSnapshot)
             }
 
             val spans = rangeOverRangeSpans(
@@ -1307,14 +1349,17 @@ class PulseMetricService(
         }
     private fun loanLedgerDisbursementCount(
         range: MetricRangeType = MetricRangeType.DAY,
-        atDateTime: LocalDateTime? = null
+        atDateTime: LocalDateTime? = null,
+        bustCache: Boolean = false,
+        ledgerSnapshot: LoanLedgerClient.Snapshot? = null
     ) =
         fetchOrBuildCacheFromDataSource(
+            bustCache = bustCache,
             type = PulseCacheType.LOAN_LEDGER_DISBURSEMENT_COUNT_METRIC,
             range = range,
             atDateTime = atDateTime
         ) { cacheDate ->
-            getLoanLedger("disbursements", atDateTime)
+            getLoanLedger("disbursements", atDateTime, ledgerSnapshot = ledgerSnapshot)
                 .count {
                     it.effectiveDate.startOfDay() == loanLedgerEffectiveDateFilter(
                         atDateTime,
@@ -1334,9 +1379,11 @@ class PulseMetricService(
     fun figureHelocTokenMetric(
         type: PulseCacheType,
         range: MetricRangeType = MetricRangeType.DAY,
-        atDateTime: LocalDateTime? = null
+        atDateTime: LocalDateTime? = null,
+        bustCache: Boolean = false
     ) =
         fetchOrBuildCacheFromDataSource(
+            bustCache = bustCache,
             type = type,
             range = range,
             atDateTime = atDateTime
@@ -1404,14 +1451,17 @@ class PulseMetricService(
     private fun entityTotalBalance(
         range: MetricRangeType = MetricRangeType.DAY,
         atDateTime: LocalDateTime? = null,
+        bustCache: Boolean = false,
+        ledgerSnapshot: LoanLedgerClient.Snapshot? = null,
     ) =
         fetchOrBuildCacheFromDataSource(
+            bustCache = bustCache,
             type = PulseCacheType.ENTITY_TOTAL_BALANCE_METRIC,
             range = range,
             atDateTime = atDateTime,
         ) {
             EntityType.entries.sumOf {
-                totalBalanceByEntityType(range, it, atDateTime).amount
+                totalBalanceByEntityType(range, it, atDateTime, bustCache, ledgerSnapshot).amount
             }.let {
                 PulseMetric.build(
                     base = USD_UPPER,
@@ -1423,14 +1473,17 @@ class PulseMetricService(
     private fun entityTotalAssets(
         range: MetricRangeType = MetricRangeType.DAY,
         atDateTime: LocalDateTime? = null,
+        bustCache: Boolean = false,
+        ledgerSnapshot: LoanLedgerClient.Snapshot? = null,
     ) =
         fetchOrBuildCacheFromDataSource(
+            bustCache = bustCache,
             type = PulseCacheType.ENTITY_TOTAL_ASSETS_METRIC,
             range = range,
             atDateTime = atDateTime,
         ) {
             EntityType.entries.sumOf {
-                totalAssetsByEntityType(range, it, atDateTime).amount
+                totalAssetsByEntityType(range, it, atDateTime, bustCache, ledgerSnapshot).amount
             }.let {
                 PulseMetric.build(
                     base = count,
@@ -1443,15 +1496,18 @@ class PulseMetricService(
         range: MetricRangeType = MetricRangeType.DAY,
         type: EntityType,
         atDateTime: LocalDateTime? = null,
+        bustCache: Boolean = false,
+        ledgerSnapshot: LoanLedgerClient.Snapshot? = null,
     ) =
         fetchOrBuildCacheFromDataSource(
+            bustCache = bustCache,
             type = PulseCacheType.ENTITY_TOTAL_BALANCE_METRIC,
             range = range,
             atDateTime = atDateTime,
             subtype = type.name,
         ) {
             LedgerEntityRecord.findByType(type).sumOf {
-                totalBalanceByEntity(range, it, atDateTime).amount
+                totalBalanceByEntity(range, it, atDateTime, bustCache, ledgerSnapshot).amount
             }.let {
                 PulseMetric.build(
                     base = USD_UPPER,
@@ -1464,15 +1520,18 @@ class PulseMetricService(
         range: MetricRangeType = MetricRangeType.DAY,
         type: EntityType,
         atDateTime: LocalDateTime? = null,
+        bustCache: Boolean = false,
+        ledgerSnapshot: LoanLedgerClient.Snapshot? = null,
     ) =
         fetchOrBuildCacheFromDataSource(
+            bustCache = bustCache,
             type = PulseCacheType.ENTITY_TOTAL_ASSETS_METRIC,
             range = range,
             atDateTime = atDateTime,
             subtype = type.name,
         ) {
             LedgerEntityRecord.findByType(type).sumOf {
-                totalAssetsByEntity(range, it, atDateTime).amount
+                totalAssetsByEntity(range, it, atDateTime, bustCache, ledgerSnapshot).amount
             }.let {
                 PulseMetric.build(
                     base = count,
@@ -1485,15 +1544,19 @@ class PulseMetricService(
         range: MetricRangeType = MetricRangeType.DAY,
         entity: LedgerEntityRecord,
         atDateTime: LocalDateTime? = null,
+        bustCache: Boolean = false,
+        ledgerSnapshot: LoanLedgerClient.Snapshot? = null,
     ) =
         fetchOrBuildCacheFromDataSource(
+            bustCache = bustCache,
             type = PulseCacheType.ENTITY_TOTAL_BALANCE_METRIC,
             range = range,
             atDateTime = atDateTime,
             subtype = entity.uuid,
         ) {
             when (entity.type) {
-                EntityType.LOANS -> loanLedgerTotalBalance(MetricRangeType.DAY)
+                EntityType.LOANS ->
+                    loanLedgerTotalBalance(MetricRangeType.DAY, bustCache = bustCache, ledgerSnapshot = ledgerSnapshot)
                 EntityType.INSURANCE_POLICIES -> getNavEventsForEntity(entity, atDateTime).sumOf {
                     it.calculatePrice(entity.usdPricingExponent)
                 }.let {
@@ -1510,15 +1573,19 @@ class PulseMetricService(
         range: MetricRangeType = MetricRangeType.DAY,
         entity: LedgerEntityRecord,
         atDateTime: LocalDateTime? = null,
+        bustCache: Boolean = false,
+        ledgerSnapshot: LoanLedgerClient.Snapshot? = null,
     ) =
         fetchOrBuildCacheFromDataSource(
+            bustCache = bustCache,
             type = PulseCacheType.ENTITY_TOTAL_ASSETS_METRIC,
             range = range,
             atDateTime = atDateTime,
             subtype = entity.uuid,
         ) {
             when (entity.type) {
-                EntityType.LOANS -> loanLedgerTotalCount(MetricRangeType.DAY)
+                EntityType.LOANS ->
+                    loanLedgerTotalCount(MetricRangeType.DAY, bustCache = bustCache, ledgerSnapshot = ledgerSnapshot)
                 EntityType.INSURANCE_POLICIES -> getNavEventsForEntity(entity, atDateTime).size.let {
                     PulseMetric.build(base = count, amount = it.toBigDecimal())
                 }
@@ -1652,28 +1719,66 @@ class PulseMetricService(
         } ?: BigDecimal.ZERO
 
     /**
-     * Periodically refreshes the pulse cache
+     * Periodically refreshes the pulse cache. Metrics are rebuilt on the refresh pool, each in its own transaction,
+     * so independent metrics run side by side and metrics listed in [refreshDependencies] start once their inputs
+     * are done. A failed metric is logged and recorded without stopping the others.
      */
-    fun refreshCache() = if (isBackfillInProgress.get()) {
-        logger.info("Skipping refreshing pulse cache because backfill is in progress.")
-    } else {
-        transaction {
-            val threadName = Thread.currentThread().name
-            logger.info("Refreshing pulse cache for thread $threadName")
-            PulseCacheType.entries.filter {
-                it != PulseCacheType.PULSE_ASSET_VOLUME_SUMMARY_METRIC &&
-                        it != PulseCacheType.PULSE_ASSET_PRICE_SUMMARY_METRIC
-            }
-                .forEach { type ->
-                    pulseMetric(type = type)
-                }
+    fun refreshCache() {
+        val threadName = Thread.currentThread().name
+        logger.info("Refreshing pulse cache for thread $threadName")
+        refreshedThisRun = ConcurrentHashMap.newKeySet()
+        try {
+            // Loan ledger data is read once for the whole refresh
+            loanLedgerClient.snapshot { ledgerSnapshot ->
+                runBlocking {
+                    val jobs = mutableMapOf<PulseCacheType, Job>()
+                    fun refreshJob(type: PulseCacheType): Job = jobs.getOrPut(type) {
+                        val dependencies = refreshDependencies[type].orEmpty().map { refreshJob(it) }
+                        launch(refreshDispatcher) {
+                            dependencies.joinAll()
+                            refreshTimed(type.name) {
+                                pulseMetric(type = type, bustCache = true, ledgerSnapshot = ledgerSnapshot)
+                            }
+                        }
+                    }
 
-            pulseAssetSummaries()
+                    PulseCacheType.entries.filter {
+                        it != PulseCacheType.PULSE_ASSET_VOLUME_SUMMARY_METRIC &&
+                                it != PulseCacheType.PULSE_ASSET_PRICE_SUMMARY_METRIC
+                    }
+                        .forEach { refreshJob(it) }
+                    launch(refreshDispatcher) { refreshTimed(ASSET_SUMMARIES) { pulseAssetSummaries(bustCache = true) } }
+                }
+            }
+        } finally {
+            refreshedThisRun = null
+        }
+        logger.info("Pulse cache refreshed for thread $threadName")
+    }
 
-            logger.info("Pulse cache refreshed for thread $threadName")
+    /**
+     * Rebuilds one refresh step in its own transaction, recording its duration and outcome under [REFRESH_TIMER]
+     */
+    private fun refreshTimed(name: String, block: () -> Any) {
+        val sample = Timer.start(meterRegistry)
+        var outcome = "error"
+        try {
+            transaction { block() }
+            outcome = "success"
+        } catch (e: Exception) {
+            logger.error("Failed to refresh pulse metric $name: ${e.message}", e)
+        } finally {
+            val nanos = sample.stop(meterRegistry.timer(REFRESH_TIMER, "metric", name, "outcome", outcome))
+            logger.debug("Refreshed pulse metric $name in ${TimeUnit.NANOSECONDS.toMillis(nanos)}ms ($outcome)")
         }
     }
 
+    @PreDestroy
+    fun shutdownPools() {
+        refreshPool.shutdownNow()
+        backfillPool.shutdownNow()
+    }
+
     /**
      * Returns the current hash metrics for the given type
      */
@@ -1683,6 +1788,7 @@ class PulseMetricService(
         atDateTime: LocalDateTime? = null
     ) =
         fetchOrBuildCacheFromDataSource(
+            bustCache = bustCache,
             type = type,
             range = range,
             atDateTime = atDateTime
@@ -1811,16 +1917,19 @@ class PulseMetricService(
         range: MetricRangeType = MetricRangeType.DAY,
         type: PulseCacheType,
         atDateTime: LocalDateTime? = null,
+        bustCache: Boolean = false,
+        ledgerSnapshot: LoanLedgerClient.Snapshot? = null,
     ): PulseMetric {
         return when (type) {
             PulseCacheType.HASH_MARKET_CAP_METRIC,
             PulseCacheType.HASH_FOUNDATION_MARKET_CAP_METRIC -> hashMarketCapMetric(
                 range,
                 atDateTime,
-                type
+                type,
+                bustCache = bustCache
             )
 
-            PulseCacheType.HASH_TVL_METRIC -> hashTVL(range, atDateTime)
+            PulseCacheType.HASH_TVL_METRIC -> hashTVL(range, atDateTime, bustCache = bustCache)
 
             PulseCacheType.HASH_STAKED_METRIC,
             PulseCacheType.HASH_CIRCULATING_METRIC,
@@ -1831,122 +1940,154 @@ class PulseMetricService(
             PulseCacheType.HASH_FDV_METRIC -> hashMetric(
                 range = range,
                 type = type,
-                atDateTime = atDateTime
+                atDateTime = atDateTime,
+                bustCache = bustCache
             )
 
-            PulseCacheType.PULSE_TVL_METRIC -> pulseTVL(range, atDateTime)
+            PulseCacheType.PULSE_TVL_METRIC -> pulseTVL(range, atDateTime, bustCache = bustCache)
             PulseCacheType.PULSE_CHAIN_FEES_VALUE_METRIC ->
-                pulseChainFeesOverRange(range, type, atDateTime)
+                pulseChainFeesOverRange(range, type, atDateTime, bustCache = bustCache)
 
             PulseCacheType.PULSE_TRANSACTION_VOLUME_METRIC ->
-                transactionVolumeOverRange(range, type, atDateTime)
+                transactionVolumeOverRange(range, type, atDateTime, bustCache = bustCache)
 
             PulseCacheType.PULSE_TODAYS_NAV_METRIC -> pulseTodaysNavs(
                 range,
-                atDateTime
+                atDateTime,
+                bustCache = bustCache
             )
 
             PulseCacheType.PULSE_TOTAL_NAV_METRIC -> totalMetadataNavs(
                 range,
-                atDateTime
+                atDateTime,
+                bustCache = bustCache
             )
 
             PulseCacheType.PULSE_TRADE_SETTLEMENT_METRIC -> pulseTradesSettled(
                 range,
-                atDateTime
+                atDateTime,
+                bustCache = bustCache
             )
 
             PulseCacheType.PULSE_TRADE_VALUE_SETTLED_METRIC -> pulseTradeValueSettled(
                 range,
-                atDateTime
+                atDateTime,
+                bustCache = bustCache
             )
 
             PulseCacheType.PULSE_PARTICIPANTS_METRIC -> totalParticipants(
                 range,
-                atDateTime
+                atDateTime,
+                bustCache = bustCache
             )
 
             PulseCacheType.PULSE_COMMITTED_ASSETS_METRIC -> exchangeCommittedAssetCount(
                 range,
-                atDateTime
+                atDateTime,
+                bustCache = bustCache
             )
 
             PulseCacheType.PULSE_COMMITTED_ASSETS_VALUE_METRIC -> exchangeCommittedAssetsValue(
                 range,
-                atDateTime
+                atDateTime,
+                bustCache = bustCache
             )
             /* Order of this kind of matters since it depends on
              * the committed assets value metric
              */
             PulseCacheType.PULSE_TRADING_TVL_METRIC -> pulseTradingTVL(
                 range,
-                atDateTime
+                atDateTime,
+                bustCache = bustCache
             )
 
             PulseCacheType.LOAN_LEDGER_PAYMENTS_METRIC -> loanLedgerPaymentsOverRange(
                 range,
                 type,
-                atDateTime
+                atDateTime,
+                bustCache = bustCache,
+                ledgerSnapshot = ledgerSnapshot
             )
 
             PulseCacheType.LOAN_LEDGER_TOTAL_PAYMENTS_METRIC -> loanLedgerTotalPaymentsOverRange(
                 range,
                 type,
-                atDateTime
+                atDateTime,
+                bustCache = bustCache,
+                ledgerSnapshot = ledgerSnapshot
             )
 
             PulseCacheType.LOAN_LEDGER_TOTAL_BALANCE_METRIC -> loanLedgerTotalBalance(
                 range,
-                atDateTime
+                atDateTime,
+                bustCache = bustCache,
+                ledgerSnapshot = ledgerSnapshot
             )
 
             PulseCacheType.LOAN_LEDGER_TOTAL_COUNT_METRIC -> loanLedgerTotalCount(
                 range,
-                atDateTime
+                atDateTime,
+                bustCache = bustCache,
+                ledgerSnapshot = ledgerSnapshot
             )
 
             PulseCacheType.LOAN_LEDGER_DISBURSEMENTS_METRIC -> loanLedgerDisbursementsOverRange(
                 range,
                 type,
-                atDateTime
+                atDateTime,
+                bustCache = bustCache,
+                ledgerSnapshot = ledgerSnapshot
             )
 
             PulseCacheType.LOAN_LEDGER_DISBURSEMENT_COUNT_METRIC -> loanLedgerDisbursementCountOverRange(
                 range,
                 type,
-                atDateTime
+                atDateTime,
+                bustCache = bustCache,
+                ledgerSnapshot = ledgerSnapshot
             )
 
             PulseCacheType.ENTITY_TOTAL_BALANCE_METRIC -> entityTotalBalance(
                 range = range,
                 atDateTime = atDateTime,
+                bustCache = bustCache,
+                ledgerSnapshot = ledgerSnapshot
             )
 
             PulseCacheType.ENTITY_TOTAL_ASSETS_METRIC -> entityTotalAssets(
                 range = range,
                 atDateTime = atDateTime,
+                bustCache = bustCache,
+                ledgerSnapshot = ledgerSnapshot
             )
 
-            PulseCacheType.FIGR_HELOC_CIRCULATING_METRIC -> figureHelocTokenMetric(type, range, atDateTime)
+            PulseCacheType.FIGR_HELOC_CIRCULATING_METRIC ->
+                figureHelocTokenMetric(type, range, atDateTime, bustCache = bustCache)
 
             else -> throw ResourceNotFoundException("Invalid pulse metric request for type $type")
         }
     }
 
-    fun pulseMetricHistory(type: PulseCacheType, fromDate: LocalDate, toDate: LocalDate) =
+    fun pulseMetricHistory(type: PulseCacheType, fromDate: LocalDate, toDate: LocalDate) = readReplica {
         PulseCacheRecord.findByDateSpanAndType(fromDate, toDate, type).associateBy({ it.cacheDate }, { it.data })
+    }
 
     /**
      * Builds the Figure Heloc asset summary
      */
-    private fun buildFigureHelocAssetSummary(atDateTime: LocalDateTime? = null): PulseAssetSummary {
+    private fun buildFigureHelocAssetSummary(
+        atDateTime: LocalDateTime? = null,
+        bustCache: Boolean = false
+    ): PulseAssetSummary {
         val figrHelocSupply = figureHelocTokenMetric(
             type = PulseCacheType.FIGR_HELOC_CIRCULATING_METRIC,
-            atDateTime = atDateTime
+            atDateTime = atDateTime,
+            bustCache = bustCache
         ).amount
 
         val figrHelocHftMarket = fetchHftMarket(figure_heloc_denom, USD_UPPER)
         val figrHelocPrice = fetchOrBuildCacheFromDataSource(
+            bustCache = bustCache,
             type = PulseCacheType.PULSE_ASSET_PRICE_SUMMARY_METRIC,
             subtype = figure_heloc_denom,
             atDateTime = atDateTime
@@ -1958,6 +2099,7 @@ class PulseMetricService(
         }
 
         val figrHelocVolume = fetchOrBuildCacheFromDataSource(
+            bustCache = bustCache,
             type = PulseCacheType.PULSE_ASSET_VOLUME_SUMMARY_METRIC,
             subtype = figure_heloc_denom,
             atDateTime = atDateTime
@@ -1989,7 +2131,8 @@ class PulseMetricService(
      */
     private fun buildAssetSummaryForDenom(
         denom: String,
-        atDateTime: LocalDateTime? = null
+        atDateTime: LocalDateTime? = null,
+        bustCache: Boolean = false
     ): PulseAssetSummary {
         val denomMetadata = pulseAssetDenomMetadata(denom)
         val denomExp = denomExponent(denomMetadata) ?: 1
@@ -2003,6 +2146,7 @@ class PulseMetricService(
         )
 
         val priceMetric = fetchOrBuildCacheFromDataSource(
+            bustCache = bustCache,
             type = PulseCacheType.PULSE_ASSET_PRICE_SUMMARY_METRIC,
             subtype = denom,
             atDateTime = atDateTime
@@ -2023,6 +2167,7 @@ class PulseMetricService(
             )
         }
         val volumeMetric = fetchOrBuildCacheFromDataSource(
+            bustCache = bustCache,
             type = PulseCacheType.PULSE_ASSET_VOLUME_SUMMARY_METRIC,
             subtype = denom,
             atDateTime = atDateTime
@@ -2100,16 +2245,16 @@ class PulseMetricService(
     /**
      * TODO - this is problematic because it assumes all assets are USD quoted
      */
-    fun pulseAssetSummaries(atDateTime: LocalDateTime? = null): List<PulseAssetSummary> {
+    fun pulseAssetSummaries(atDateTime: LocalDateTime? = null, bustCache: Boolean = false): List<PulseAssetSummary> {
         val ignoredDenoms = getIgnoredMarkers().values
         val committedTotals = committedAssetTotals(atDateTime)
         return committedTotals.keys.distinct()
             .filter { it !in ignoredDenoms }
             .map { denom ->
-                buildAssetSummaryForDenom(denom, atDateTime)
+                buildAssetSummaryForDenom(denom, atDateTime, bustCache = bustCache)
             }.toMutableList().also {
                 // add FIGR_HELOC supply/price/volume to pulse assets
-                it.add(buildFigureHelocAssetSummary(atDateTime))
+                it.add(buildFigureHelocAssetSummary(atDateTime, bustCache = bustCache))
             }
             .sortedWith(
                 compareBy(
@@ -2252,58 +2397,138 @@ class PulseMetricService(
     }
 
     /**
-     * Fill in the pulse cache for a date range for a list of cache types
+     * Queues a backfill of [types] for every day from [fromDate] to [toDate]. The work is persisted as one item per
+     * (date, type) and picked up by [processBackfill], so it survives restarts and can be followed through
+     * [backfillJob].
      */
     fun backFillAllMetrics(
         fromDate: LocalDate,
         toDate: LocalDate,
         types: List<PulseCacheType>,
         denom: String? = null
-    ) {
-        if (isBackfillInProgress.compareAndSet(false, true)) {
-            try {
-                val days = fromDate.until(toDate, ChronoUnit.DAYS)
-                for (i in 0..days) {
-                    /*
-                     Pulse works on the principal that the metric for a given
-                     is the aggregation of all events for that date. So we need to
-                     set the backfill date the end of the day to ensure that we
-                     capture all events for that date.
-                     */
-                    val d = endOfDay(fromDate.plusDays(i).atStartOfDay())
-                    for (type in types) {
-                        try {
-                            logger.info("Backfilling $type for $d")
-                            if (type == PulseCacheType.PULSE_ASSET_PRICE_SUMMARY_METRIC ||
-                                type == PulseCacheType.PULSE_ASSET_VOLUME_SUMMARY_METRIC
-                            ) {
-                                if (denom != null) {
-                                    // Backfill specific denom's price/volume metrics
-                                    pulseAssetSummary(denom, d)
-                                } else {
-                                    // Backfill all assets
-                                    pulseAssetSummaries(d)
-                                }
-                            } else {
-                                pulseMetric(
-                                    type = type,
-                                    atDateTime = d
-                                )
+    ): PulseBackfillJob {
+        if (toDate.isBefore(fromDate)) {
+            throw InvalidArgumentException("toDate must not be before fromDate")
+        }
+        return PulseBackfillJobRecord.create(fromDate, toDate, types, denom).toBackfillJob()
+    }
+
+    fun backfillJob(jobId: Int) =
+        transaction { PulseBackfillJobRecord.findById(jobId) }?.toBackfillJob()
+            ?: throw ResourceNotFoundException("Invalid backfill job: '$jobId'")
+
+    fun backfillJobs(limit: Int) = PulseBackfillJobRecord.findRecent(limit).map { it.toBackfillJob() }
+
+    // Puts the job's failed items back in the queue with a fresh set of attempts
+    fun retryBackfill(jobId: Int): PulseBackfillJob {
+        backfillJob(jobId)
+        PulseBackfillItemRecord.retryFailed(jobId)
+        PulseBackfillJobRecord.reopen(jobId)
+        return backfillJob(jobId)
+    }
+
+    /**
+     * Works through queued backfill items with `backfillParallelism` workers, each claiming one item at a time until
+     * none are left. Runs alongside the cache refresh, which only rebuilds today's metrics. Claimed items get a
+     * heartbeat while they run; items whose heartbeat stopped, e.g. across a restart, are requeued first, and that
+     * counts toward their [BACKFILL_MAX_ATTEMPTS] tries like a failure does.
+     */
+    fun processBackfill() {
+        PulseBackfillItemRecord.requeueStale(nowUTC().minusMinutes(BACKFILL_STALE_MINUTES), BACKFILL_MAX_ATTEMPTS)
+        if (!PulseBackfillItemRecord.hasPending()) return
+        val running = ConcurrentHashMap.newKeySet<Int>()
+        try {
+            runBlocking {
+                val workers = List(pulseProperties.backfillParallelism) {
+                    launch(backfillDispatcher) {
+                        while (isActive) {
+                            val work = PulseBackfillItemRecord.claim(1).firstOrNull() ?: break
+                            running.add(work.id)
+                            try {
+                                backfillItem(work)
+                            } finally {
+                                running.remove(work.id)
                             }
-                        } catch (e: Exception) {
-                            logger.warn(
-                                "Failed to backfill $type for $d: ${e.message}",
-                                e
-                            )
                         }
                     }
                 }
-            } finally {
-                isBackfillInProgress.set(false)
+                // Stays on this thread, which is otherwise just waiting, since the workers fill the backfill pool
+                val heartbeat = launch {
+                    while (isActive) {
+                        delay(TimeUnit.SECONDS.toMillis(BACKFILL_HEARTBEAT_SECONDS))
+                        PulseBackfillItemRecord.heartbeat(running.toList())
+                    }
+                }
+                workers.joinAll()
+                heartbeat.cancel()
             }
+        } finally {
+            PulseBackfillJobRecord.completeFinished()
+        }
+    }
+
+    private fun backfillItem(work: PulseBackfillWork) {
+        /*
+         Pulse works on the principal that the metric for a given
+         is the aggregation of all events for that date. So we need to
+         set the backfill date the end of the day to ensure that we
+         capture all events for that date.
+         */
+        val d = endOfDay(work.date.atStartOfDay())
+        try {
+            logger.info("Backfilling ${work.type} for $d")
+            if (work.type == PulseCacheType.PULSE_ASSET_PRICE_SUMMARY_METRIC ||
+                work.type == PulseCacheType.PULSE_ASSET_VOLUME_SUMMARY_METRIC
+            ) {
+                if (work.denom != null) {
+                    // Backfill specific denom's price/volume metrics
+                    pulseAssetSummary(work.denom, d)
+                } else {
+                    // Backfill all assets
+                    pulseAssetSummaries(d)
+                }
+            } else {
+                // Loan ledger data is read once for the item and dropped when it's done
+                loanLedgerClient.snapshot { ledgerSnapshot ->
+                    pulseMetric(
+                        type = work.type,
+                        atDateTime = d,
+                        ledgerSnapshot = ledgerSnapshot
+                    )
+                }
+            }
+            PulseBackfillItemRecord.complete(work.id)
+        } catch (e: Exception) {
+            logger.warn(
+                "Failed to backfill ${work.type} for $d (attempt ${work.attempts}): ${e.message}",
+                e
+            )
+            PulseBackfillItemRecord.fail(work, e.message, BACKFILL_MAX_ATTEMPTS)
+        }
+    }
+
+    private fun PulseBackfillJobRecord.toBackfillJob(): PulseBackfillJob {
+        val counts = PulseBackfillItemRecord.countsForJob(id.value)
+        val remaining = counts.pending + counts.running
+        val eta = if (remaining > 0 && counts.completed > 0 && counts.firstStarted != null && counts.lastCompleted != null) {
+            ChronoUnit.SECONDS.between(counts.firstStarted, counts.lastCompleted) * remaining / counts.completed
         } else {
-            logger.warn("Backfill already in progress, skipping")
+            null
         }
+        return PulseBackfillJob(
+            id.value,
+            fromDate,
+            toDate,
+            typeList(),
+            denom,
+            createdAt,
+            completedAt,
+            counts.completed,
+            counts.pending,
+            counts.running,
+            counts.failed,
+            eta
+        )
     }
 
     /* **********************
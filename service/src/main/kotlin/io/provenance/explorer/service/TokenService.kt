@@ -19,7 +19,7 @@ import io.provenance.explorer.domain.entities.TokenHistoricalDailyRecord
 import io.provenance.explorer.domain.entities.addressList
 import io.provenance.explorer.domain.entities.vestingAccountTypes
 import io.provenance.explorer.domain.exceptions.validate
-import io.provenance.explorer.domain.extensions.CsvData
+import io.provenance.explorer.domain.extensions.CsvStream
 import io.provenance.explorer.domain.extensions.pageCountOfResults
 import io.provenance.explorer.domain.extensions.percentChange
 import io.provenance.explorer.domain.extensions.roundWhole
@@ -28,6 +28,7 @@ import io.provenance.explorer.domain.extensions.toCoinStr
 import io.provenance.explorer.domain.extensions.toOffset
 import io.provenance.explorer.domain.extensions.toPercentage
 import io.provenance.explorer.domain.extensions.toThirdDecimal
+import io.provenance.explorer.domain.extensions.writeCsvZip
 import io.provenance.explorer.domain.models.HistoricalPrice
 import io.provenance.explorer.domain.models.explorer.TokenHistoricalDataRequest
 import io.provenance.explorer.domain.models.toCsv
@@ -64,7 +65,6 @@ import java.math.RoundingMode
 import java.time.Instant
 import java.time.LocalDateTime
 import java.time.ZoneOffset
-import java.util.zip.ZipEntry
 import java.util.zip.ZipOutputStream
 
 @Service
@@ -405,30 +405,11 @@ class TokenService(
 
     fun getHashPricingDataDownload(filters: TokenHistoricalDataRequest, resp: ServletOutputStream): ZipOutputStream {
         validate(filters.datesValidation())
-        val baseFileName = filters.getFileNameBase()
-
-        val fileList = runBlocking {
-            val data = fetchHistoricalPriceData(filters.fromDate)
-            listOf(
-                CsvData(
-                    "TokenHistoricalData",
-                    filters.tokenHistoricalCsvBaseHeaders,
-                    data.map { it.toCsv() }
-                )
-            )
-        }
-
-        val zos = ZipOutputStream(resp)
-        fileList.forEach { file ->
-            zos.putNextEntry(ZipEntry("$baseFileName - ${file.fileName}.csv"))
-            zos.write(file.writeCsvEntry())
-            zos.closeEntry()
+        val prices = fetchHistoricalPriceData(filters.fromDate)
+        val file = CsvStream("TokenHistoricalData", filters.tokenHistoricalCsvBaseHeaders) { write ->
+            prices.forEach { write(it.toCsv()) }
         }
-        zos.putNextEntry(ZipEntry("$baseFileName - FILTERS.txt"))
-        zos.write(filters.writeFilters())
-        zos.closeEntry()
-        zos.close()
-        return zos
+        return resp.writeCsvZip(filters.getFileNameBase(), listOf(file), filters.writeFilters())
     }
 }
 
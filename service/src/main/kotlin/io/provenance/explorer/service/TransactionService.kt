@@ -4,6 +4,7 @@ import com.google.protobuf.util.JsonFormat
 import cosmos.base.abci.v1beta1.Abci
 import io.provenance.explorer.config.ExplorerProperties.Companion.UTILITY_TOKEN
 import io.provenance.explorer.config.ResourceNotFoundException
+import io.provenance.explorer.config.readReplica
 import io.provenance.explorer.domain.core.logger
 import io.provenance.explorer.domain.entities.AccountRecord
 import io.provenance.explorer.domain.entities.BlockCacheHourlyTxCountsRecord
@@ -13,6 +14,8 @@ import io.provenance.explorer.domain.entities.SmContractRecord
 import io.provenance.explorer.domain.entities.TxAddressJoinRecord
 import io.provenance.explorer.domain.entities.TxAddressJoinType
 import io.provenance.explorer.domain.entities.TxCacheRecord
+import io.provenance.explorer.domain.entities.TxFeeRecord
+import io.provenance.explorer.domain.entities.TxFeepayerRecord
 import io.provenance.explorer.domain.entities.TxHistoryDataViews
 import io.provenance.explorer.domain.entities.TxMessageRecord
 import io.provenance.explorer.domain.entities.TxMessageTypeRecord
@@ -32,6 +35,8 @@ import io.provenance.explorer.domain.extensions.toFees
 import io.provenance.explorer.domain.extensions.toObjectNode
 import io.provenance.explorer.domain.extensions.toOffset
 import io.provenance.explorer.domain.extensions.txEventsToObjectNodePrint
+import io.provenance.explorer.domain.extensions.writeCsvZip
+import io.provenance.explorer.domain.models.explorer.TxCursor
 import io.provenance.explorer.domain.models.explorer.TxQueryParams
 import io.provenance.explorer.domain.models.explorer.download.TxHistoryDataRequest
 import io.provenance.explorer.domain.models.explorer.getValuesPlusAddtnl
@@ -58,13 +63,13 @@ import io.provenance.explorer.service.async.BlockAndTxProcessor
 import io.provenance.explorer.service.async.getAddressType
 import jakarta.servlet.ServletOutputStream
 import org.jetbrains.exposed.dao.id.EntityID
+import org.jetbrains.exposed.dao.with
 import org.jetbrains.exposed.sql.SizedIterable
 import org.jetbrains.exposed.sql.transactions.transaction
 import org.springframework.stereotype.Service
 import java.time.LocalDateTime
 import java.time.ZoneId
 import java.time.format.DateTimeFormatter
-import java.util.zip.ZipEntry
 import java.util.zip.ZipOutputStream
 
 @Service
@@ -73,7 +78,8 @@ class TransactionService(
     private val asyncV2: BlockAndTxProcessor,
     private val nftService: NftService,
     private val valService: ValidatorService,
-    private val ibcService: IbcService
+    private val ibcService: IbcService,
+    private val txCountService: TxCountService
 ) {
 
     protected val logger = logger(TransactionService::class)
@@ -111,9 +117,12 @@ class TransactionService(
         nftAddr: String? = null,
         ibcChain: String? = null,
         ibcSrcPort: String? = null,
-        ibcSrcChannel: String? = null
-    ): PagedResults<TxSummary> {
-        logger.info("Fetching transactions with address: $address, denom: $denom, module: $module, msgType: $msgType, txHeight: $txHeight, txStatus: $txStatus, count: $count, page: $page, fromDate: $fromDate, toDate: $toDate, nftAddr: $nftAddr, ibcChain: $ibcChain, ibcSrcPort: $ibcSrcPort, ibcSrcChannel: $ibcSrcChannel")
+        ibcSrcChannel: String? = null,
+        // Opaque position from a previous response's `nextCursor`; takes precedence over `page`
+        cursor: String? = null
+    ): PagedResults<TxSummary> = readReplica {
+        logger.info("Fetching transactions with address: $address, denom: $denom, module: $module, msgType: $msgType, txHeight: $txHeight, txStatus: $txStatus, count: $count, page: $page, fromDate: $fromDate, toDate: $toDate, nftAddr: $nftAddr, ibcChain: $ibcChain, ibcSrcPort: $ibcSrcPort, ibcSrcChannel: $ibcSrcChannel, cursor: $cursor")
+        val txCursor = cursor?.let { TxCursor.decode(it) }
         val msgTypes = if (msgType != null) listOf(msgType) else (module?.getValuesPlusAddtnl() ?: listOf())
         val msgTypeIds = transaction { TxMessageTypeRecord.findByType(msgTypes).map { it.id.value } }.toList()
         val addr = transaction { address?.getAddressType(valService.getActiveSet()) }
@@ -134,34 +143,38 @@ class TransactionService(
                 addressId = addr?.second, addressType = addr?.first, address = address, markerId = markerId,
                 denom = denom, msgTypes = msgTypeIds, txHeight = txHeight, txStatus = txStatus, count = count,
                 offset = page.toOffset(count), fromDate = fromDate, toDate = toDate, nftId = nft?.second,
-                nftType = nft?.first, nftUuid = nft?.third, ibcChannelIds = ibcChannelIds
+                nftType = nft?.first, nftUuid = nft?.third, ibcChannelIds = ibcChannelIds, cursor = txCursor
             )
 
         // Mimic the date pattern that was returned previously with Jodatime.
         val dateFormat = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'")
 
-        val total = TxCacheRecord.findByQueryParamsForCount(params)
-        TxCacheRecord.findByQueryForResults(params).map {
-            val rec = it
-            val displayMsgType = transaction {
-                if (msgTypes.isNotEmpty()) {
-                    rec.txMessages.flatMap { msg -> msg.txMessageType }.firstMatchLabel(msgTypes)
-                } else {
-                    rec.txMessages.first().txMessageType.firstMatchLabel()
-                }
+        // Cursor pages skip the count; clients keep the totals from the first page
+        val total = if (txCursor == null) txCountService.countTxs(params) else null
+        val records = TxCacheRecord.findByQueryForResults(params)
+        // Only hand out a cursor when there may be more rows after this page
+        val nextCursor = records.lastOrNull()?.takeIf { records.size == count }?.let { TxCursor(it.height, it.id.value).encode() }
+        transaction {
+            val rows = TxPageRows(records.map { it.id.value }, valService.getActiveSet())
+            records.map { rec ->
+                val txId = rec.id.value
+                // Types are ordered by message, so with no filter the first label comes from the first message
+                val displayMsgType = rows.msgTypes(txId).firstMatchLabel(msgTypes)
+                TxSummary(
+                    rec.hash,
+                    rec.height,
+                    MsgInfo(rows.msgCount(txId), displayMsgType),
+                    rows.monikers(txId),
+                    rec.txTimestamp.atZone(ZoneId.of("UTC")).format(dateFormat),
+                    rows.feePaid(txId),
+                    rows.signers(txId),
+                    if (rec.errorCode == null) "success" else "failed",
+                    rows.feepayer(txId)
+                )
             }
-            TxSummary(
-                rec.hash,
-                rec.height,
-                MsgInfo(transaction { rec.txMessages.count() }, displayMsgType),
-                getMonikers(rec.id),
-                rec.txTimestamp.atZone(ZoneId.of("UTC")).format(dateFormat),
-                transaction { rec.txFees.filter { fee -> fee.marker == UTILITY_TOKEN }.toFeePaid(UTILITY_TOKEN) },
-                getTxSignatures(rec.id.value),
-                if (rec.errorCode == null) "success" else "failed",
-                transaction { rec.txFeepayer.getFeepayer() }
-            )
-        }.let { return PagedResults(total.pageCountOfResults(count), it, total.toLong()) }
+        }.let {
+            PagedResults(total?.pageCountOfResults(count) ?: -1, it, total?.toLong() ?: -1L, nextCursor = nextCursor)
+        }
     }
 
     private fun getTxSignatures(txHashId: Int) = SignatureTxRecord.findByTxHashId(txHashId)
@@ -310,21 +323,24 @@ class TransactionService(
                 )
 
             val total = TxMessageRecord.findByQueryParamsForCount(params)
-            TxMessageRecord.findByQueryForResults(params).map { msg ->
+            val msgs = TxMessageRecord.findByQueryForResults(params).with(TxMessageRecord::txHashId)
+            val rows = TxPageRows(msgs.map { it.txHashId.id.value }.distinct(), valService.getActiveSet())
+            msgs.map { msg ->
+                val txId = msg.txHashId.id.value
                 val govDetail = msg.txMessage.getGovMsgDetail(msg.txHash)!!
                 TxGov(
                     msg.txHash,
-                    msg.txMessageType.firstMatchLabel(msgTypes),
+                    rows.msgTypes(txId, msg.id).firstMatchLabel(msgTypes),
                     govDetail.depositAmount,
                     govDetail.proposalType,
                     govDetail.proposalId,
                     govDetail.proposalTitle,
                     msg.blockHeight,
                     msg.txHashId.txTimestamp.toString(),
-                    transaction { msg.txHashId.txFees.filter { fee -> fee.marker == UTILITY_TOKEN }.toFeePaid(UTILITY_TOKEN) },
-                    getTxSignatures(msg.txHashId.id.value),
+                    rows.feePaid(txId),
+                    rows.signers(txId),
                     if (msg.txHashId.errorCode == null) "success" else "failed",
-                    transaction { msg.txHashId.txFeepayer.getFeepayer() }
+                    rows.feepayer(txId)
                 )
             }.let { PagedResults(total.pageCountOfResults(count), it, total.toLong()) }
         }
@@ -356,19 +372,22 @@ class TransactionService(
             )
 
         val total = TxMessageRecord.findByQueryParamsForCount(params)
-        TxMessageRecord.findByQueryForResults(params).map { msg ->
+        val msgs = TxMessageRecord.findByQueryForResults(params).with(TxMessageRecord::txHashId)
+        val rows = TxPageRows(msgs.map { it.txHashId.id.value }.distinct(), valService.getActiveSet())
+        msgs.map { msg ->
+            val txId = msg.txHashId.id.value
             val scDetail = msg.txMessage.getScMsgDetail(msg.msgIdx, msg.txHashId.txV2)!!
             TxSmartContract(
                 msg.txHash,
-                msg.txMessageType.firstMatchLabel(msgTypes),
+                rows.msgTypes(txId, msg.id).firstMatchLabel(msgTypes),
                 scDetail.first,
                 scDetail.second,
                 msg.blockHeight,
                 msg.txHashId.txTimestamp.toString(),
-                transaction { msg.txHashId.txFees.filter { fee -> fee.marker == UTILITY_TOKEN }.toFeePaid(UTILITY_TOKEN) },
-                getTxSignatures(msg.txHashId.id.value),
+                rows.feePaid(txId),
+                rows.signers(txId),
                 if (msg.txHashId.errorCode == null) "success" else "failed",
-                transaction { msg.txHashId.txFeepayer.getFeepayer() }
+                rows.feepayer(txId)
             )
         }.let { PagedResults(total.pageCountOfResults(count), it, total.toLong()) }
     }
@@ -378,7 +397,7 @@ class TransactionService(
             filters.granularityValidation(),
             filters.datesValidation()
         )
-        return TxHistoryDataViews.getTxHistoryChartData(filters.granularity, filters.fromDate, filters.toDate)
+        return readReplica { TxHistoryDataViews.getTxHistoryChartData(filters.granularity, filters.fromDate, filters.toDate) }
     }
 
     fun getTxHistoryChartDataDownload(filters: TxHistoryDataRequest, resp: ServletOutputStream): ZipOutputStream {
@@ -386,22 +405,47 @@ class TransactionService(
             filters.granularityValidation(),
             filters.datesValidation()
         )
-        val baseFileName = filters.getFileNameBase(null)
-        val fileList = filters.getFileList(null)
-
-        val zos = ZipOutputStream(resp)
-        fileList.forEach { file ->
-            zos.putNextEntry(ZipEntry("$baseFileName - ${file.fileName}.csv"))
-            zos.write(file.writeCsvEntry())
-            zos.closeEntry()
+        return readReplica {
+            resp.writeCsvZip(filters.getFileNameBase(null), filters.getFileList(null), filters.writeFilters(null))
+        }
+    }
+}
+
+/**
+ * The related rows behind a page of tx list entries. Each relation is loaded for every tx on the page with a single
+ * set-based query the first time it is used, then served from memory while the rows are assembled.
+ */
+private class TxPageRows(private val txIds: List<Int>, private val activeSet: Int) {
+
+    private val types by lazy { TxMsgTypeSubtypeRecord.findByTxHashIds(txIds) }
+    private val counts by lazy { TxMessageRecord.countByTxHashIds(txIds) }
+    private val fees by lazy { TxFeeRecord.findByTxHashIds(txIds, UTILITY_TOKEN) }
+    private val feepayers by lazy { TxFeepayerRecord.findByTxHashIds(txIds) }
+    private val signatures by lazy { SignatureTxRecord.findByTxHashIds(txIds) }
+    private val monikers by lazy {
+        val validators = TxAddressJoinRecord.findValidatorsByTxHashIds(activeSet, txIds)
+        val accounts = TxAddressJoinRecord.findAccountsByTxHashIds(txIds)
+        txIds.associateWith { txId ->
+            validators[txId].orEmpty().associate { v -> v.operatorAddress to v.moniker } +
+                accounts[txId].orEmpty()
+                    .filter { it.type == "ModuleAccount" }
+                    .associate { a -> a.accountAddress to a.data!!.getModuleAccName()!! }
         }
-        // Adding in a txt file with the applied filters
-        zos.putNextEntry(ZipEntry("$baseFileName - FILTERS.txt"))
-        zos.write(filters.writeFilters(null))
-        zos.closeEntry()
-        zos.close()
-        return zos
     }
+
+    fun msgTypes(txId: Int) = types[txId].orEmpty()
+
+    fun msgTypes(txId: Int, msgId: EntityID<Int>) = msgTypes(txId).filter { it.txMsgId == msgId }
+
+    fun msgCount(txId: Int) = counts[txId] ?: 0
+
+    fun monikers(txId: Int) = monikers[txId].orEmpty()
+
+    fun feePaid(txId: Int) = fees[txId].orEmpty().toFeePaid(UTILITY_TOKEN)
+
+    fun signers(txId: Int) = signatures[txId].orEmpty()
+
+    fun feepayer(txId: Int) = feepayers[txId].orEmpty().getFeepayer()
 }
 
 fun List<TxMessageTypeRecord>.mapToRes() =
@@ -0,0 +1,65 @@
+package io.provenance.explorer.service
+
+import com.github.benmanes.caffeine.cache.Cache
+import com.github.benmanes.caffeine.cache.Caffeine
+import io.provenance.explorer.config.ExplorerProperties
+import io.provenance.explorer.domain.core.logger
+import io.provenance.explorer.domain.entities.TX_COUNT_SCOPE_ALL
+import io.provenance.explorer.domain.entities.TxCacheRecord
+import io.provenance.explorer.domain.entities.TxCounts
+import io.provenance.explorer.domain.models.explorer.TxQueryParams
+import org.springframework.stereotype.Service
+import java.math.BigInteger
+import java.util.concurrent.TimeUnit
+
+/**
+ * Totals for paginated tx listings, picked from the cheapest source that fits the filters:
+ * - unfiltered and address-only listings read the counts maintained at ingest in `tx_count`
+ * - everything else is counted and cached briefly, keyed by the filters
+ * - when `txCountEstimateThreshold` is set, results the planner expects to be at least that large use its estimate
+ */
+@Service
+class TxCountService(private val props: ExplorerProperties) {
+
+    protected val logger = logger(TxCountService::class)
+
+    // Filters with paging stripped -> total
+    private val counts: Cache<TxQueryParams, BigInteger> =
+        Caffeine.newBuilder()
+            .maximumSize(props.txCountCacheSize)
+            .expireAfterWrite(props.txCountCacheTtlSeconds, TimeUnit.SECONDS)
+            .build()
+
+    fun countTxs(params: TxQueryParams): BigInteger =
+        maintainedCount(params)
+            ?: counts.get(params.copy(count = 0, offset = 0, cursor = null)) { key ->
+                estimatedCount(key) ?: TxCacheRecord.findByQueryParamsForCount(key)
+            }
+
+    fun compactCounts() {
+        logger.info("Compacting maintained tx counts")
+        TxCounts.compact()
+    }
+
+    private fun maintainedCount(params: TxQueryParams): BigInteger? {
+        val otherFilters = params.copy(addressId = null, addressType = null, address = null)
+        if (!otherFilters.onlyTxQuery() || params.txHeight != null || params.txStatus != null ||
+            params.fromDate != null || params.toDate != null
+        ) {
+            return null
+        }
+        return when {
+            params.addressId != null && params.addressType != null -> TxCounts.get(params.addressType, params.addressId)
+            params.address == null && params.addressId == null && params.addressType == null ->
+                TxCounts.get(TX_COUNT_SCOPE_ALL, 0)
+            else -> null
+        }?.toBigInteger()
+    }
+
+    private fun estimatedCount(params: TxQueryParams): BigInteger? {
+        if (props.txCountEstimateThreshold <= 0) return null
+        return TxCacheRecord.estimateByQueryParams(params)
+            .takeIf { it >= props.txCountEstimateThreshold }
+            ?.toBigInteger()
+    }
+}
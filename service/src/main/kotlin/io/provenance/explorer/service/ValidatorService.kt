@@ -11,15 +11,17 @@ import io.provenance.explorer.config.ExplorerProperties.Companion.PROV_VAL_CONS_
 import io.provenance.explorer.config.ExplorerProperties.Companion.PROV_VAL_OPER_PREFIX
 import io.provenance.explorer.config.ExplorerProperties.Companion.UTILITY_TOKEN
 import io.provenance.explorer.config.ResourceNotFoundException
+import io.provenance.explorer.config.readReplica
 import io.provenance.explorer.domain.core.logger
 import io.provenance.explorer.domain.entities.AddressImageRecord
+import io.provenance.explorer.domain.entities.HitCountAccumulator
 import io.provenance.explorer.domain.entities.MissedBlocksRecord
 import io.provenance.explorer.domain.entities.StakingValidatorCacheRecord
 import io.provenance.explorer.domain.entities.ValidatorMarketRateRecord
 import io.provenance.explorer.domain.entities.ValidatorMarketRateStatsRecord
 import io.provenance.explorer.domain.entities.ValidatorStateRecord
 import io.provenance.explorer.domain.entities.ValidatorsCacheRecord
-import io.provenance.explorer.domain.entities.updateHitCount
+import io.provenance.explorer.domain.entities.ValidatorsCacheTable
 import io.provenance.explorer.domain.exceptions.requireNotNullToMessage
 import io.provenance.explorer.domain.extensions.average
 import io.provenance.explorer.domain.extensions.avg
@@ -38,8 +40,8 @@ import io.provenance.explorer.domain.extensions.translateAddress
 import io.provenance.explorer.domain.extensions.translateByteArray
 import io.provenance.explorer.domain.extensions.validatorMissedBlocks
 import io.provenance.explorer.domain.extensions.validatorUptime
-import io.provenance.explorer.domain.models.explorer.BlockProposer
 import io.provenance.explorer.domain.models.explorer.CurrentValidatorState
+import io.provenance.explorer.domain.models.explorer.MissedBlock
 import io.provenance.explorer.domain.models.explorer.hourlyBlockCount
 import io.provenance.explorer.domain.models.explorer.zeroOutValidatorObj
 import io.provenance.explorer.grpc.v1.AttributeGrpcClient
@@ -68,10 +70,12 @@ import io.provenance.explorer.model.base.CountTotal
 import io.provenance.explorer.model.base.PagedResults
 import io.provenance.explorer.model.base.Timeframe
 import io.provenance.explorer.model.base.stringfy
+import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.async
 import kotlinx.coroutines.runBlocking
 import org.jetbrains.exposed.sql.transactions.transaction
 import org.json.JSONObject
+import org.springframework.scheduling.annotation.Scheduled
 import org.springframework.stereotype.Service
 import java.math.BigDecimal
 import java.math.BigInteger
@@ -99,15 +103,17 @@ class ValidatorService(
             atts.intersect(kycAtts).isNotEmpty()
         }
 
+    private val validatorSetHits = HitCountAccumulator(ValidatorsCacheTable)
+
     // Assumes that the returned validators are active at that height
     fun getValidatorsByHeight(blockHeight: Int) = transaction {
-        ValidatorsCacheRecord.findById(blockHeight)?.also {
-            ValidatorsCacheRecord.updateHitCount(blockHeight)
-        }?.validators
+        ValidatorsCacheRecord.findById(blockHeight)?.also { validatorSetHits.record(blockHeight) }?.validators
     } ?: throw ResourceNotFoundException("Invalid height: '$blockHeight'")
 
-    fun buildValidatorsAtHeight(blockHeight: Int) =
-        grpcClient.getValidatorsAtHeight(blockHeight).let { ValidatorsCacheRecord.buildInsert(blockHeight, it) }
+    @Scheduled(initialDelay = 5000L, fixedDelay = 5000L)
+    fun flushValidatorSetHitCounts() = validatorSetHits.flush()
+
+    fun getValidatorsAtHeightFromChain(blockHeight: Int) = grpcClient.getValidatorsAtHeight(blockHeight)
 
     // Gets a single staking validator from cache
     fun getStakingValidator(operatorAddress: String) =
@@ -141,39 +147,48 @@ class ValidatorService(
     // Returns a validator detail object for the validator
     fun getValidator(address: String) =
         getValidatorOperatorAddress(address)?.let { addr ->
-            val currentHeight = blockService.getLatestBlockHeight().toBigInteger()
-            val signingInfo = getSigningInfos().firstOrNull { it.address == addr.consensusAddr }
-            val validatorSet = grpcClient.getLatestValidators().validatorsList
-            val latestValidator = validatorSet.firstOrNull { it.address == addr.consensusAddr }
-            val votingPowerTotal = validatorSet.sumOf { it.votingPower.toBigInteger() }
-            val slashingParams = getSlashingParams()
-            validateStatus(addr, latestValidator, addr.operatorAddrId)
-            val stakingValidator = getStakingValidator(addr.operatorAddress)
-            ValidatorDetails(
-                if (latestValidator != null) {
-                    CountTotal(latestValidator.votingPower.toBigInteger(), votingPowerTotal)
-                } else {
-                    null
-                },
-                stakingValidator.json.description.moniker,
-                addr.operatorAddress,
-                addr.accountAddr,
-                grpcClient.getDelegatorWithdrawalAddress(addr.accountAddr),
-                addr.consensusAddr,
-                addr.consensusAddr.validatorMissedBlocks(slashingParams.signedBlocksWindow.toBigInteger(), currentHeight)
-                    .let { (mbCount, window) -> CountTotal(mbCount.toBigInteger(), window) },
-                signingInfo?.startHeight ?: currentHeight.toLong(),
-                addr.consensusAddr.validatorUptime(slashingParams.signedBlocksWindow.toBigInteger(), currentHeight),
-                stakingValidator.imageUrl,
-                stakingValidator.json.description.details,
-                stakingValidator.json.description.website,
-                stakingValidator.json.description.identity,
-                stakingValidator.currentState.toString().lowercase(),
-                if (stakingValidator.currentState != ACTIVE) stakingValidator.json.unbondingHeight else null,
-                if (stakingValidator.jailed) signingInfo?.jailedUntil?.toDateTime() else null,
-                stakingValidator.removed,
-                isVerified(addr.accountAddr)
-            )
+            runBlocking {
+                // The node calls don't depend on each other, so they go out together. Anything that reads the
+                // database stays on this thread so a request never holds more than one pool connection.
+                val signingInfos = async(Dispatchers.IO) { getSigningInfos() }
+                val latestValidators = async(Dispatchers.IO) { grpcClient.getLatestValidators().validatorsList }
+                val slashingParamsRes = async(Dispatchers.IO) { getSlashingParams() }
+                val withdrawalAddress = async(Dispatchers.IO) { grpcClient.getDelegatorWithdrawalAddress(addr.accountAddr) }
+
+                val currentHeight = blockService.getLatestBlockHeight().toBigInteger()
+                val signingInfo = signingInfos.await().firstOrNull { it.address == addr.consensusAddr }
+                val validatorSet = latestValidators.await()
+                val latestValidator = validatorSet.firstOrNull { it.address == addr.consensusAddr }
+                val votingPowerTotal = validatorSet.sumOf { it.votingPower.toBigInteger() }
+                val slashingParams = slashingParamsRes.await()
+                validateStatus(addr, latestValidator, addr.operatorAddrId)
+                val stakingValidator = getStakingValidator(addr.operatorAddress)
+                ValidatorDetails(
+                    if (latestValidator != null) {
+                        CountTotal(latestValidator.votingPower.toBigInteger(), votingPowerTotal)
+                    } else {
+                        null
+                    },
+                    stakingValidator.json.description.moniker,
+                    addr.operatorAddress,
+                    addr.accountAddr,
+                    withdrawalAddress.await(),
+                    addr.consensusAddr,
+                    addr.consensusAddr.validatorMissedBlocks(slashingParams.signedBlocksWindow.toBigInteger(), currentHeight)
+                        .let { (mbCount, window) -> CountTotal(mbCount.toBigInteger(), window) },
+                    signingInfo?.startHeight ?: currentHeight.toLong(),
+                    addr.consensusAddr.validatorUptime(slashingParams.signedBlocksWindow.toBigInteger(), currentHeight),
+                    stakingValidator.imageUrl,
+                    stakingValidator.json.description.details,
+                    stakingValidator.json.description.website,
+                    stakingValidator.json.description.identity,
+                    stakingValidator.currentState.toString().lowercase(),
+                    if (stakingValidator.currentState != ACTIVE) stakingValidator.json.unbondingHeight else null,
+                    if (stakingValidator.jailed) signingInfo?.jailedUntil?.toDateTime() else null,
+                    stakingValidator.removed,
+                    isVerified(addr.accountAddr)
+                )
+            }
         } ?: throw ResourceNotFoundException("Invalid validator address: '$address'")
 
     fun validateStatus(v: CurrentValidatorState, valSet: Query.Validator?, valId: Int): Boolean =
@@ -266,16 +281,18 @@ class ValidatorService(
     }
 
     // Abbreviated data used for specific cases
-    fun getAllValidatorsAbbrev() = transaction {
-        val recs = getStakingValidators(ValidatorState.ALL, null, null, null).map { currVal ->
-            ValidatorSummaryAbbrev(
-                currVal.json.description.moniker,
-                currVal.operatorAddress,
-                currVal.json.commission.commissionRates.rate.toDecimalStringOld(),
-                currVal.imageUrl
-            )
+    fun getAllValidatorsAbbrev() = readReplica {
+        transaction {
+            val recs = getStakingValidators(ValidatorState.ALL, null, null, null).map { currVal ->
+                ValidatorSummaryAbbrev(
+                    currVal.json.description.moniker,
+                    currVal.operatorAddress,
+                    currVal.json.commission.commissionRates.rate.toDecimalStringOld(),
+                    currVal.imageUrl
+                )
+            }
+            PagedResults(recs.size.toLong().pageCountOfResults(recs.size), recs, recs.size.toLong())
         }
-        PagedResults(recs.size.toLong().pageCountOfResults(recs.size), recs, recs.size.toLong())
     }
 
     // In point to get most recent validators
@@ -477,32 +494,33 @@ class ValidatorService(
     fun getProposerConsensusAddr(blockMeta: Query.GetBlockByHeightResponse) =
         blockMeta.block.header.proposerAddress.translateByteArray().consensusAccountAddr
 
-    fun buildProposerInsert(
-        blockMeta: Query.GetBlockByHeightResponse,
-        timestamp: LocalDateTime,
-        blockHeight: Int
-    ): BlockProposer {
-        val consAddr = getProposerConsensusAddr(blockMeta)
-        val proposer = findAddressByConsensus(consAddr)!!.operatorAddress
-        return BlockProposer(blockHeight, proposer, timestamp)
+    // Validator set the block's last commit was signed by, or null when there is no last commit
+    fun getLastCommitValidators(blockMeta: Query.GetBlockByHeightResponse) = transaction {
+        blockMeta.block.lastCommit.height.toInt().takeIf { it > 0 }?.let { height ->
+            ValidatorsCacheRecord.findById(height)?.validators ?: grpcClient.getValidatorsAtHeight(height)
+        }
     }
 
-    fun saveMissedBlocks(blockMeta: Query.GetBlockByHeightResponse) = transaction {
+    // Validators in the last commit's set that didn't sign it; written with the block in `commitBlocks`
+    fun findMissedBlocks(
+        blockMeta: Query.GetBlockByHeightResponse,
+        currentVals: Query.GetValidatorSetByHeightResponse?
+    ): List<MissedBlock> {
         val lastBlock = blockMeta.block.lastCommit
-        if (lastBlock.height.toInt() > 0) {
-            val signatures = lastBlock.signaturesList
-                .map { it.validatorAddress.translateByteArray().consensusAccountAddr }
-            val currentVals = ValidatorsCacheRecord.findById(lastBlock.height.toInt())?.validators
-                ?: grpcClient.getValidatorsAtHeight(lastBlock.height.toInt())
-
-            currentVals.validatorsList.forEach { vali ->
-                if (!signatures.contains(vali.address)) {
-                    MissedBlocksRecord.insert(lastBlock.height.toInt(), vali.address)
-                }
-            }
-        }
+        if (lastBlock.height.toInt() <= 0 || currentVals == null) return emptyList()
+        val signatures = lastBlock.signaturesList
+            .map { it.validatorAddress.translateByteArray().consensusAccountAddr }
+            .toSet()
+        return currentVals.validatorsList
+            .filter { it.address !in signatures }
+            .map { MissedBlock(lastBlock.height.toInt(), it.address) }
     }
 
+    fun saveMissedBlocks(
+        blockMeta: Query.GetBlockByHeightResponse,
+        currentVals: Query.GetValidatorSetByHeightResponse? = getLastCommitValidators(blockMeta)
+    ) = MissedBlocksRecord.insert(findMissedBlocks(blockMeta, currentVals))
+
     fun getImgUrl(identityStr: String) = runBlocking {
         if (identityStr.isNotBlank()) {
             val res = try {
@@ -604,7 +622,7 @@ class ValidatorService(
 
         val list = results.groupBy(
             { it.validator },
-            { MissedBlockSet(it.blocks.minOrNull()!!, it.blocks.maxOrNull()!!, it.blocks.size) }
+            { MissedBlockSet(it.firstHeight, it.lastHeight, it.count) }
         )
             .map { (k, v) -> ValidatorMissedBlocks(k, v) }
             .onEach { res ->
@@ -1,21 +1,29 @@
 package io.provenance.explorer.service.async
 
 import com.fasterxml.jackson.module.kotlin.jacksonObjectMapper
+import com.github.benmanes.caffeine.cache.Cache
+import com.github.benmanes.caffeine.cache.Caffeine
 import com.google.protobuf.Timestamp
 import cosmos.base.tendermint.v1beta1.Query
 import cosmos.tx.v1beta1.ServiceOuterClass
 import io.provenance.explorer.config.ExplorerProperties
+import io.provenance.explorer.config.ResponseCacheInvalidator
 import io.provenance.explorer.domain.core.logger
 import io.provenance.explorer.domain.core.sql.toArray
 import io.provenance.explorer.domain.core.sql.toObject
 import io.provenance.explorer.domain.entities.AccountRecord
 import io.provenance.explorer.domain.entities.BlockCacheRecord
+import io.provenance.explorer.domain.entities.BlockCacheTable
+import io.provenance.explorer.domain.entities.BlockSummaries
 import io.provenance.explorer.domain.entities.BlockTxRetryRecord
 import io.provenance.explorer.domain.entities.FeePayer
+import io.provenance.explorer.domain.entities.HitCountAccumulator
 import io.provenance.explorer.domain.entities.IbcAckType
 import io.provenance.explorer.domain.entities.IbcLedgerRecord
 import io.provenance.explorer.domain.entities.IbcRelayerRecord
+import io.provenance.explorer.domain.entities.MissedBlocksRecord
 import io.provenance.explorer.domain.entities.NameRecord
+import io.provenance.explorer.domain.entities.NavEventsRecord
 import io.provenance.explorer.domain.entities.ProcessQueueRecord
 import io.provenance.explorer.domain.entities.ProcessQueueType
 import io.provenance.explorer.domain.entities.SignatureRecord
@@ -41,8 +49,8 @@ import io.provenance.explorer.domain.entities.TxSmCodeRecord
 import io.provenance.explorer.domain.entities.TxSmContractRecord
 import io.provenance.explorer.domain.entities.ValidatorMarketRateRecord
 import io.provenance.explorer.domain.entities.ValidatorStateRecord
+import io.provenance.explorer.domain.entities.ValidatorsCacheRecord
 import io.provenance.explorer.domain.entities.buildInsert
-import io.provenance.explorer.domain.entities.updateHitCount
 import io.provenance.explorer.domain.exceptions.InvalidArgumentException
 import io.provenance.explorer.domain.extensions.TX_ACC_SEQ
 import io.provenance.explorer.domain.extensions.TX_EVENT
@@ -56,17 +64,12 @@ import io.provenance.explorer.domain.models.explorer.BlockUpdate
 import io.provenance.explorer.domain.models.explorer.Name
 import io.provenance.explorer.domain.models.explorer.ProvenanceEvent
 import io.provenance.explorer.domain.models.explorer.TxData
+import io.provenance.explorer.domain.models.explorer.TxEventIndex
 import io.provenance.explorer.domain.models.explorer.TxUpdate
-import io.provenance.explorer.domain.models.explorer.getProvenanceEvents
-import io.provenance.explorer.domain.models.explorer.getProvenanceEventsAll
-import io.provenance.explorer.grpc.extensions.AddressEvents
-import io.provenance.explorer.grpc.extensions.DenomEvents
 import io.provenance.explorer.grpc.extensions.GovMsgType
 import io.provenance.explorer.grpc.extensions.NameEvents
-import io.provenance.explorer.grpc.extensions.SmContractEventKeys
 import io.provenance.explorer.grpc.extensions.SmContractValue
 import io.provenance.explorer.grpc.extensions.denomEventRegexParse
-import io.provenance.explorer.grpc.extensions.findAllMatchingEvents
 import io.provenance.explorer.grpc.extensions.getAddressEventByEvent
 import io.provenance.explorer.grpc.extensions.getAssociatedAddresses
 import io.provenance.explorer.grpc.extensions.getAssociatedDenoms
@@ -81,6 +84,7 @@ import io.provenance.explorer.grpc.extensions.getMsgType
 import io.provenance.explorer.grpc.extensions.getNameEventTypes
 import io.provenance.explorer.grpc.extensions.getNameMsgs
 import io.provenance.explorer.grpc.extensions.getSmContractEventByEvent
+import io.provenance.explorer.grpc.extensions.getSmContractEventTypes
 import io.provenance.explorer.grpc.extensions.getTxIbcClientChannel
 import io.provenance.explorer.grpc.extensions.isIbcTransferMsg
 import io.provenance.explorer.grpc.extensions.isMetadataDeletionMsg
@@ -115,18 +119,26 @@ import io.provenance.explorer.service.BlockService
 import io.provenance.explorer.service.GovService
 import io.provenance.explorer.service.GroupService
 import io.provenance.explorer.service.IbcService
+import io.provenance.explorer.service.LiveFeedService
 import io.provenance.explorer.service.NavService
 import io.provenance.explorer.service.NftService
 import io.provenance.explorer.service.SmartContractService
 import io.provenance.explorer.service.ValidatorService
 import io.provenance.explorer.service.splitChildParent
+import io.provenance.explorer.service.toSummaryRow
 import io.provenance.explorer.service.toVoteMetadata
 import io.provenance.explorer.service.toWeightedVoteList
 import io.provenance.explorer.service.unchainDenom
+import kotlinx.coroutines.Deferred
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.async
 import kotlinx.coroutines.runBlocking
+import org.jetbrains.exposed.dao.id.EntityID
 import org.jetbrains.exposed.sql.transactions.transaction
+import org.springframework.scheduling.annotation.Scheduled
 import org.springframework.stereotype.Service
 import java.time.LocalDateTime
+import java.util.concurrent.atomic.AtomicInteger
 
 @Service
 class BlockAndTxProcessor(
@@ -142,7 +154,11 @@ class BlockAndTxProcessor(
     private val props: ExplorerProperties,
     private val msgFeeClient: MsgFeeGrpcClient,
     private val groupService: GroupService,
-    private val navService: NavService
+    private val navService: NavService,
+    private val ingestResolver: IngestResolver,
+    private val ingestMetrics: IngestMetrics,
+    private val responseCacheInvalidator: ResponseCacheInvalidator,
+    private val liveFeedService: LiveFeedService
 
 ) {
 
@@ -157,46 +173,185 @@ class BlockAndTxProcessor(
             this.chainId
         }
 
-    fun getBlock(blockHeight: Int) = transaction {
-        BlockCacheRecord.findById(blockHeight)?.also { BlockCacheRecord.updateHitCount(blockHeight) }?.block
-    } ?: saveBlockEtc(blockService.getBlockAtHeightFromChain(blockHeight))
+    // Decoded blocks, bounded by serialized size; block data never changes once saved
+    private val hotBlocks: Cache<Int, Query.GetBlockByHeightResponse> =
+        Caffeine.newBuilder().apply {
+            maximumWeight(props.hotBlockCacheMaxBytes)
+            weigher { _: Int, block: Query.GetBlockByHeightResponse -> block.serializedSize }
+        }.build()
+
+    // Highest committed height seen, so batches far below it (backfill) don't displace recent blocks in hotBlocks
+    private val committedHead = AtomicInteger(0)
+
+    private val blockHits = HitCountAccumulator(BlockCacheTable)
+
+    fun getBlock(blockHeight: Int): Query.GetBlockByHeightResponse? {
+        val block = hotBlocks.getIfPresent(blockHeight)
+            ?: transaction { BlockCacheRecord.findById(blockHeight)?.block }?.also { hotBlocks.put(blockHeight, it) }
+            ?: return saveBlockEtc(blockService.getBlockAtHeightFromChain(blockHeight))
+        blockHits.record(blockHeight)
+        return block
+    }
+
+    @Scheduled(initialDelay = 5000L, fixedDelay = 5000L)
+    fun flushBlockHitCounts() = blockHits.flush()
+
+    private fun cacheCommittedBlocks(blockUpdates: List<BlockUpdate>) {
+        if (committedHead.get() == 0) {
+            committedHead.compareAndSet(0, blockService.getBlockIndexFromCache()?.maxHeightRead ?: 0)
+        }
+        val head = committedHead.accumulateAndGet(blockUpdates.maxOf { it.height }, ::maxOf)
+        blockUpdates.filter { head - it.height < props.hotBlockHeadWindow }
+            .forEach { hotBlocks.put(it.height, it.blockPayload) }
+    }
+
+    data class PrefetchedBlock(
+        val height: Int,
+        val blockRes: Query.GetBlockByHeightResponse?,
+        // null when the block has no txs, or the tx fetch failed and should be retried inline
+        val txs: List<ServiceOuterClass.GetTxResponse>?
+    )
+
+    suspend fun prefetchBlock(height: Int): PrefetchedBlock {
+        val blockRes = ingestMetrics.time(IngestMetrics.BLOCK_FETCH) { blockService.fetchBlockAtHeightFromChain(height) }
+        val txs = blockRes?.block?.data?.txsCount?.takeIf { it > 0 }?.let { count ->
+            try {
+                ingestMetrics.time(IngestMetrics.TX_FETCH) { txClient.getTxsByHeight(height, count) }
+            } catch (e: Exception) {
+                logger.warn("Failed to prefetch transactions at block: $height error: ${e.message}")
+                null
+            }
+        }
+        return PrefetchedBlock(height, blockRes, txs)
+    }
+
+    /**
+     * Fetches blocks (and their txs) for the given heights concurrently, keeping up to `ingestFetchWindowSize`
+     * heights in flight, while handing them to [handler] strictly in the order of [heights]. Processing stops
+     * as soon as the handler returns false; any in-flight fetches are cancelled.
+     *
+     * Returns true if every height was handed to the handler.
+     */
+    fun pipelineBlocks(heights: IntProgression, handler: (PrefetchedBlock) -> Boolean): Boolean = runBlocking {
+        val window = ArrayDeque<Deferred<PrefetchedBlock>>()
+        val iterator = heights.iterator()
+        val windowSize = props.ingestFetchWindowSize.coerceAtLeast(1)
+
+        fun fillWindow() {
+            while (window.size < windowSize && iterator.hasNext()) {
+                val height = iterator.nextInt()
+                window.addLast(async(Dispatchers.IO) { prefetchBlock(height) })
+            }
+        }
+
+        fillWindow()
+        while (window.isNotEmpty()) {
+            val next = window.removeFirst().await()
+            fillWindow()
+            if (!handler(next)) {
+                window.forEach { it.cancel() }
+                return@runBlocking false
+            }
+        }
+        true
+    }
 
     fun saveBlockEtc(
         blockRes: Query.GetBlockByHeightResponse?,
         // rerun txs, pull from db
-        rerunTxs: Pair<Boolean, Boolean> = Pair(false, false)
+        rerunTxs: Pair<Boolean, Boolean> = Pair(false, false),
+        prefetchedTxs: List<ServiceOuterClass.GetTxResponse>? = null
     ): Query.GetBlockByHeightResponse? {
         if (blockRes == null) return null
+        commitBlocks(listOf(buildBlockUpdate(blockRes, rerunTxs, prefetchedTxs)))
+        return blockRes
+    }
+
+    // Processes the block and its txs, returning everything `add_block` needs without committing it
+    fun buildBlockUpdate(
+        blockRes: Query.GetBlockByHeightResponse,
+        // rerun txs, pull from db
+        rerunTxs: Pair<Boolean, Boolean> = Pair(false, false),
+        prefetchedTxs: List<ServiceOuterClass.GetTxResponse>? = null
+    ): BlockUpdate = ingestMetrics.time(IngestMetrics.BLOCK_BUILD) {
         logger.info("saving block ${blockRes.block.height()}")
+        ingestResolver.refreshActiveSet()
         val blockTimestamp = blockRes.block.header.time.toDateTime()
         val block =
             BlockCacheRecord.buildInsert(
                 blockRes.block.height(),
                 blockRes.block.data.txsCount,
-                blockTimestamp,
-                blockRes
+                blockTimestamp
             )
-        val proposerRec = validatorService.buildProposerInsert(blockRes, blockTimestamp, blockRes.block.height())
-        val valsAtHeight = validatorService.buildValidatorsAtHeight(blockRes.block.height())
-        validatorService.saveMissedBlocks(blockRes)
+        val proposerRec = BlockProposer(
+            blockRes.block.height(),
+            ingestResolver.proposerOperator(validatorService.getProposerConsensusAddr(blockRes)),
+            blockTimestamp
+        )
+        val valsAtHeight = validatorService.getValidatorsAtHeightFromChain(blockRes.block.height())
+        val lastCommitVals = validatorService.getLastCommitValidators(blockRes)
         val txs =
             if (blockRes.block.data.txsCount > 0) {
                 saveTxs(
                     blockRes,
                     proposerRec,
-                    rerunTxs
-                ).map { it.toProcedureObject() }
+                    rerunTxs,
+                    prefetchedTxs
+                )
             } else {
                 listOf()
             }
-        val blockUpdate = BlockUpdate(block, proposerRec.buildInsert(), valsAtHeight, txs)
+        BlockUpdate(
+            block,
+            proposerRec.buildInsert(),
+            ValidatorsCacheRecord.buildInsert(blockRes.block.height()),
+            txs,
+            blockRes,
+            valsAtHeight,
+            props.payloadStorageMode,
+            blockRes.toSummaryRow(proposerRec.proposerOperatorAddress, valsAtHeight, lastCommitVals),
+            validatorService.findMissedBlocks(blockRes, lastCommitVals)
+        )
+    }
+
+    /**
+     * Commits the given blocks in a single statement and transaction. If the batch fails, each block is committed
+     * on its own so that only the failing block lands in the retry table, matching the per-block behavior. The
+     * post-commit hooks run outside the retry path, so a failing hook never re-commits or retries a saved block.
+     */
+    fun commitBlocks(blockUpdates: List<BlockUpdate>) {
+        if (blockUpdates.isEmpty()) return
         try {
-            BlockCacheRecord.insertToProcedure(blockUpdate)
+            val calls = ingestMetrics.time(IngestMetrics.PROCEDURE_SERIALIZE) {
+                BlockCacheRecord.buildProcedureCalls(blockUpdates)
+            }
+            ingestMetrics.time(IngestMetrics.ADD_BLOCK) {
+                transaction {
+                    BlockCacheRecord.insertToProcedure(calls)
+                    BlockSummaries.upsert(blockUpdates.mapNotNull { it.summary })
+                    MissedBlocksRecord.insert(blockUpdates.flatMap { it.missedBlocks })
+                    // Last, so the shared latest_nav rows are locked only until the commit
+                    NavEventsRecord.upsertLatest(blockUpdates.flatMap { block -> block.txs.flatMap { it.navs } })
+                }
+            }
         } catch (e: Exception) {
-            logger.error("Failed to save block: ${blockRes.block.height()}", e)
-            BlockTxRetryRecord.insertOrUpdate(blockRes.block.height(), e)
+            if (blockUpdates.size == 1) {
+                val height = blockUpdates.first().height
+                logger.error("Failed to save block: $height", e)
+                BlockTxRetryRecord.insertOrUpdate(height, e)
+            } else {
+                logger.warn("Failed to save batch of ${blockUpdates.size} blocks, saving individually: ${e.message}")
+                blockUpdates.forEach { commitBlocks(listOf(it)) }
+            }
+            return
         }
-        return blockRes
+        val height = blockUpdates.maxOf { it.height }
+        runCatching { cacheCommittedBlocks(blockUpdates) }
+            .onFailure { logger.warn("Failed to cache committed blocks through $height: ${it.message}") }
+        runCatching { responseCacheInvalidator.heightCommitted(height) }
+            .onFailure { logger.warn("Failed to invalidate response caches at $height: ${it.message}") }
+        runCatching { liveFeedService.publishBlocks(blockUpdates) }
+            .onFailure { logger.warn("Failed to publish committed blocks through $height: ${it.message}") }
     }
 
     data class TxUpdatedItems(
@@ -209,7 +364,8 @@ class BlockAndTxProcessor(
         blockRes: Query.GetBlockByHeightResponse,
         proposerRec: BlockProposer,
         // rerun txs, pull from db
-        rerunTxs: Pair<Boolean, Boolean> = Pair(false, false)
+        rerunTxs: Pair<Boolean, Boolean> = Pair(false, false),
+        prefetchedTxs: List<ServiceOuterClass.GetTxResponse>? = null
     ): List<TxUpdate> {
         val toBeUpdated =
             addTxsToCache(
@@ -217,7 +373,8 @@ class BlockAndTxProcessor(
                 blockRes.block.data.txsCount,
                 blockRes.block.header.time,
                 proposerRec,
-                rerunTxs
+                rerunTxs,
+                prefetchedTxs
             )
         toBeUpdated.flatMap { it.markers }.toSet().let { assetService.updateAssets(it, blockRes.block.header.time) }
         toBeUpdated.flatMap { it.addresses.entries }
@@ -244,14 +401,15 @@ class BlockAndTxProcessor(
         blockTime: Timestamp,
         proposerRec: BlockProposer,
         // rerun txs, pull from db
-        rerunTxs: Pair<Boolean, Boolean> = Pair(false, false)
+        rerunTxs: Pair<Boolean, Boolean> = Pair(false, false),
+        prefetchedTxs: List<ServiceOuterClass.GetTxResponse>? = null
     ) =
         if (txCountForHeight(blockHeight).toInt() == expectedNumTxs && !rerunTxs.first) {
             logger.info("Cache hit for transaction at height $blockHeight with $expectedNumTxs transactions")
                 .let { listOf() }
         } else {
             logger.info("Searching for $expectedNumTxs transactions at height $blockHeight")
-            tryAddTxs(blockHeight, expectedNumTxs, blockTime, proposerRec, rerunTxs.second)
+            tryAddTxs(blockHeight, expectedNumTxs, blockTime, proposerRec, rerunTxs.second, prefetchedTxs)
         }
 
     private fun tryAddTxs(
@@ -259,7 +417,8 @@ class BlockAndTxProcessor(
         txCount: Int,
         blockTime: Timestamp,
         proposerRec: BlockProposer,
-        pullFromDb: Boolean = false
+        pullFromDb: Boolean = false,
+        prefetchedTxs: List<ServiceOuterClass.GetTxResponse>? = null
     ): List<TxUpdatedItems> = try {
         if (pullFromDb) {
             transaction {
@@ -267,8 +426,9 @@ class BlockAndTxProcessor(
                     .map { processAndSaveTransactionData(it.txV2, blockTime.toDateTime(), proposerRec) }
             }
         } else {
-            runBlocking { txClient.getTxsByHeight(blockHeight, txCount) }
-                .map { processAndSaveTransactionData(it, blockTime.toDateTime(), proposerRec) }
+            val txs = prefetchedTxs
+                ?: ingestMetrics.time(IngestMetrics.TX_FETCH) { runBlocking { txClient.getTxsByHeight(blockHeight, txCount) } }
+            txs.map { processAndSaveTransactionData(it, blockTime.toDateTime(), proposerRec) }
         }
     } catch (e: Exception) {
         logger.error("Failed to retrieve transactions at block: $blockHeight error: ${e.message}", e)
@@ -282,18 +442,20 @@ class BlockAndTxProcessor(
         proposerRec: BlockProposer
     ): TxUpdatedItems {
         val tx = TxCacheRecord.buildInsert(res, blockTime)
-        val txUpdate = TxUpdate(tx)
+        val txUpdate = TxUpdate(tx, txPayload = res, storage = props.payloadStorageMode)
         val txInfo = TxData(proposerRec.blockHeight, null, res.txResponse.txhash, blockTime)
+        // Decode the events once for all the save steps below
+        val events = TxEventIndex(res.txResponse)
 
         // TODO: See: https://github.com/provenance-io/explorer-service/issues/538
-        saveMessages(txInfo, res, txUpdate)
-        saveTxFees(res, txInfo, txUpdate, proposerRec)
-        val addrs = saveAddresses(txInfo, res, txUpdate)
-        val markers = saveMarkers(txInfo, res, txUpdate)
-        saveNftData(txInfo, res, txUpdate)
-        saveGovData(res, txInfo, txUpdate)
+        ingestMetrics.time(IngestMetrics.SAVE_MESSAGES) { saveMessages(txInfo, res, txUpdate, events) }
+        ingestMetrics.time(IngestMetrics.SAVE_TX_FEES) { saveTxFees(res, txInfo, txUpdate, proposerRec) }
+        val addrs = ingestMetrics.time(IngestMetrics.SAVE_ADDRESSES) { saveAddresses(txInfo, res, txUpdate, events) }
+        val markers = ingestMetrics.time(IngestMetrics.SAVE_MARKERS) { saveMarkers(txInfo, res, txUpdate, events) }
+        ingestMetrics.time(IngestMetrics.SAVE_NFT_DATA) { saveNftData(txInfo, res, txUpdate, events) }
+        ingestMetrics.time(IngestMetrics.SAVE_GOV_DATA) { saveGovData(res, txInfo, txUpdate, events) }
         try {
-            saveIbcChannelData(res, txInfo, txUpdate)
+            ingestMetrics.time(IngestMetrics.SAVE_IBC_DATA) { saveIbcChannelData(res, txInfo, txUpdate, events) }
         } catch (e: Exception) {
             logger.error("Failed to process IBC channel data for tx ${txInfo.txHash} at height ${txInfo.blockHeight}. Error: ${e.message}")
             TxProcessingFailureRecord.insertOrUpdate(
@@ -304,11 +466,11 @@ class BlockAndTxProcessor(
                 false
             )
         }
-        saveSmartContractData(res, txInfo, txUpdate)
-        saveNameData(res, txInfo)
-        groupService.saveGroups(res, txInfo, txUpdate)
-        navService.saveNavs(res, txInfo, txUpdate)
-        saveSignaturesTx(res, txInfo, txUpdate)
+        ingestMetrics.time(IngestMetrics.SAVE_SMART_CONTRACT_DATA) { saveSmartContractData(res, txInfo, txUpdate, events) }
+        ingestMetrics.time(IngestMetrics.SAVE_NAME_DATA) { saveNameData(res, txInfo, events) }
+        ingestMetrics.time(IngestMetrics.SAVE_GROUPS) { groupService.saveGroups(res, txInfo, txUpdate, events) }
+        ingestMetrics.time(IngestMetrics.SAVE_NAVS) { navService.saveNavs(res, txInfo, txUpdate, events) }
+        ingestMetrics.time(IngestMetrics.SAVE_SIGNATURES) { saveSignaturesTx(res, txInfo, txUpdate) }
 
         return TxUpdatedItems(addrs, markers, txUpdate)
     }
@@ -328,17 +490,27 @@ class BlockAndTxProcessor(
                 ValidatorMarketRateRecord.buildInsert(txInfo, proposerRec.proposerOperatorAddress, tx, totalBaseFees)
         }
 
-    fun saveMessages(txInfo: TxData, tx: ServiceOuterClass.GetTxResponse, txUpdate: TxUpdate) = transaction {
+    fun saveMessages(
+        txInfo: TxData,
+        tx: ServiceOuterClass.GetTxResponse,
+        txUpdate: TxUpdate,
+        events: TxEventIndex = TxEventIndex(tx.txResponse)
+    ) = transaction {
+        // The attribute inserts don't depend on the msg, so build them once for every msg
+        val eventAttrs = events.all.map { event ->
+            event.attributes.toList()
+                .mapIndexed { idx, attr -> TxEventAttrRecord.buildInsert(idx, attr.first, attr.second) }
+                .toArray(TxEventAttrTable.tableName)
+        }
         tx.tx.body.messagesList.forEachIndexed { idx, msg ->
             val primaryType = msg.typeUrl.getMsgType()
             val secondaryTypes = msg.getMsgSubTypes().filterNotNull().map { it.getMsgType() }
             val (primTypeId, subTypeRecs) = TxMsgTypeSubtypeRecord.buildInserts(primaryType, secondaryTypes, txInfo)
             val msgRec = TxMessageRecord.buildInsert(txInfo, msg, idx)
             var single: String? = null
-            var events = listOf<String>()
-            val eventList = tx.txResponse.getProvenanceEventsAll()
-            if (eventList.count() > 0) {
-                events = saveEvents(txInfo, tx, primTypeId.value, eventList)
+            var msgEvents = listOf<String>()
+            if (events.all.isNotEmpty()) {
+                msgEvents = saveEvents(txInfo, primTypeId.value, events.all, eventAttrs)
                 if (tx.tx.body.messagesCount == 1) {
                     single = TxSingleMessageCacheRecord.buildInsert(txInfo, tx.txResponse.gasUsed.toInt(), primaryType.type)
                 }
@@ -349,7 +521,7 @@ class BlockAndTxProcessor(
                     listOf(
                         msgRec,
                         subTypeRecs.toArray(TxMsgTypeSubtypeTable.tableName),
-                        events.toArray("tx_event")
+                        msgEvents.toArray("tx_event")
                     ).toObject()
                 )
             }
@@ -358,42 +530,50 @@ class BlockAndTxProcessor(
 
     private fun saveEvents(
         txInfo: TxData,
-        tx: ServiceOuterClass.GetTxResponse,
         msgTypeId: Int,
-        events: List<ProvenanceEvent>
+        events: List<ProvenanceEvent>,
+        eventAttrs: List<String>
     ) = transaction {
-        events.map { event ->
+        events.mapIndexed { idx, event ->
             val eventStr = TxEventRecord.buildInsert(
                 txInfo.blockHeight,
                 txInfo.txHash,
                 event.type,
                 msgTypeId
             )
-            val attrs = event.attributes.toList().mapIndexed { idx, attr -> TxEventAttrRecord.buildInsert(idx, attr.first, attr.second) }
-            listOf(eventStr, attrs.toArray(TxEventAttrTable.tableName)).toObject()
+            listOf(eventStr, eventAttrs[idx]).toObject()
         }
     }
 
-    private fun saveAddresses(txInfo: TxData, tx: ServiceOuterClass.GetTxResponse, txUpdate: TxUpdate) = transaction {
+    private fun saveAddresses(
+        txInfo: TxData,
+        tx: ServiceOuterClass.GetTxResponse,
+        txUpdate: TxUpdate,
+        events: TxEventIndex
+    ) = transaction {
         val msgAddrs = tx.tx.body.messagesList.flatMap { it.getAssociatedAddresses() }
-        val eventAddrs = tx.txResponse.getProvenanceEventsAll()
-            .filter { it.type in AddressEvents.values().map { addr -> addr.event } }
+        val eventAddrs = events.all
             .flatMap { e ->
-                getAddressEventByEvent(e.type)!!.let {
+                getAddressEventByEvent(e.type)?.let {
                     e.attributes
                         .filter { attr -> attr.key in it.idField }
                         .map { found -> found.value.scrubQuotes() }
-                }
+                }.orEmpty()
             }
 
-        (msgAddrs + eventAddrs).toSet()
-            .filter { it.isNotEmpty() }
-            .mapNotNull { saveAddr(it, txInfo, txUpdate) }
+        val addrs = (msgAddrs + eventAddrs).toSet().filter { it.isNotEmpty() }
+        val resolved = ingestResolver.resolveAddresses(addrs)
+        addrs.mapNotNull { saveAddr(it, resolved[it], txInfo, txUpdate) }
             .filter { it.second != null }.groupBy({ it.first }) { it.second!! }
     }
 
-    private fun saveAddr(addr: String, txInfo: TxData, txUpdate: TxUpdate): Pair<String, Int?>? {
-        val addrPair = addr.getAddressType(validatorService.getActiveSet()) ?: return null
+    private fun saveAddr(
+        addr: String,
+        resolved: Pair<String, Int?>?,
+        txInfo: TxData,
+        txUpdate: TxUpdate
+    ): Pair<String, Int?>? {
+        val addrPair = resolved ?: return null
         var pairCopy = addrPair.copy()
         try {
             when (addrPair.first) {
@@ -409,6 +589,7 @@ class BlockAndTxProcessor(
             BlockTxRetryRecord.insertNonRetry(txInfo.blockHeight, ex)
         }
         if (pairCopy.second != null) {
+            ingestResolver.rememberAddress(addr, pairCopy.first, pairCopy.second!!)
             txUpdate.apply { this.addressJoin.add(TxAddressJoinRecord.buildInsert(txInfo, pairCopy, addr)) }
             if (pairCopy.first == TxAddressJoinType.ACCOUNT.name) {
                 ProcessQueueRecord.insertIgnore(ProcessQueueType.ACCOUNT, addr)
@@ -417,15 +598,19 @@ class BlockAndTxProcessor(
         return pairCopy
     }
 
-    private fun saveMarkers(txInfo: TxData, tx: ServiceOuterClass.GetTxResponse, txUpdate: TxUpdate) = transaction {
+    private fun saveMarkers(
+        txInfo: TxData,
+        tx: ServiceOuterClass.GetTxResponse,
+        txUpdate: TxUpdate,
+        events: TxEventIndex
+    ) = transaction {
         val msgDenoms = tx.tx.body.messagesList.map { it.getAssociatedDenoms() to it.isIbcTransferMsg() }
         val denoms = msgDenoms.flatMap { it.first }
         // captures all events that have a denom
         val eventDenoms =
-            tx.txResponse.getProvenanceEventsAll()
-                .filter { it.type in DenomEvents.values().map { de -> de.event } }
+            events.all
                 .flatMap { e ->
-                    getDenomEventByEvent(e.type)!!.let {
+                    getDenomEventByEvent(e.type)?.let {
                         e.attributes
                             .filter { attr -> attr.key == it.idField }
                             .mapNotNull { found ->
@@ -435,22 +620,23 @@ class BlockAndTxProcessor(
                                     listOf(found.value.scrubQuotes())
                                 }
                             }.flatten()
-                    }
+                    }.orEmpty()
                 }
 
-        (denoms + eventDenoms).toSet().mapNotNull { de ->
+        val toSave = (denoms + eventDenoms).toSet().mapNotNull { de ->
             val denom = msgDenoms.firstOrNull { it.first.contains(de) }
-            if (denom != null && denom.second) if (tx.txResponse.code == 0) saveDenom(de, txInfo, txUpdate) else null
+            if (denom != null && denom.second) if (tx.txResponse.code == 0) de else null
             else {
-                saveDenom(de.unchainDenom(), txInfo, txUpdate)
+                de.unchainDenom()
             }
         }
+        val resolved = ingestResolver.resolveDenoms(toSave)
+        toSave.map { saveDenom(it, resolved[it], txInfo, txUpdate) }
     }
 
-    private fun saveDenom(denom: String, txInfo: TxData, txUpdate: TxUpdate): String {
-        assetService.getAssetRaw(denom).let { (id, _) ->
-            txUpdate.apply { this.markerJoin.add(TxMarkerJoinRecord.buildInsert(txInfo, id.value, denom)) }
-        }
+    private fun saveDenom(denom: String, resolvedId: EntityID<Int>?, txInfo: TxData, txUpdate: TxUpdate): String {
+        val id = resolvedId ?: assetService.getAssetRaw(denom).first.also { ingestResolver.rememberDenom(denom, it) }
+        txUpdate.apply { this.markerJoin.add(TxMarkerJoinRecord.buildInsert(txInfo, id.value, denom)) }
 
         val nftPrefix = "nft/"
         // update the scope data for this nft coin as its ownership could have changed in this Tx
@@ -460,14 +646,19 @@ class BlockAndTxProcessor(
         return denom
     }
 
-    private fun saveNftData(txInfo: TxData, tx: ServiceOuterClass.GetTxResponse, txUpdate: TxUpdate) = transaction {
+    private fun saveNftData(
+        txInfo: TxData,
+        tx: ServiceOuterClass.GetTxResponse,
+        txUpdate: TxUpdate,
+        events: TxEventIndex
+    ) = transaction {
         // Gather MetadataAddresses from the Msgs themselves
         val msgAddrPairs = tx.tx.body.messagesList.map { it.getAssociatedMetadata() to it.isMetadataDeletionMsg() }
         val msgAddrs = msgAddrPairs.flatMap { it.first }.filterNotNull()
 
         // Gather event-only MetadataAddresses from the events
         val me = tx.tx.body.messagesList.flatMap { it.getAssociatedMetadataEvents() }.toSet()
-        val meAddrs = tx.findAllMatchingEvents(me.map { m -> m.event })
+        val meAddrs = events.raw(me.map { m -> m.event })
             .flatMap { e ->
                 e.attributesList
                     .filter { a -> a.key in me.map { m -> m.idField } }
@@ -490,7 +681,12 @@ class BlockAndTxProcessor(
         txUpdate.apply { this.nftJoin.addAll(nfts.map { nft -> TxNftJoinRecord.buildInsert(txInfo, nft) }) }
     }
 
-    private fun saveGovData(tx: ServiceOuterClass.GetTxResponse, txInfo: TxData, txUpdate: TxUpdate) = transaction {
+    private fun saveGovData(
+        tx: ServiceOuterClass.GetTxResponse,
+        txInfo: TxData,
+        txUpdate: TxUpdate,
+        events: TxEventIndex
+    ) = transaction {
         if (tx.txResponse.code == 0) {
             tx.tx.body.messagesList.mapNotNull { it.getAssociatedGovMsgs() }
                 .forEachIndexed { logsIdx, list ->
@@ -498,7 +694,7 @@ class BlockAndTxProcessor(
                         when (pair.first) {
                             GovMsgType.PROPOSAL ->
                                 // Have to find the proposalId in the log events
-                                tx.txResponse.getProvenanceEvents(listIdx)
+                                events.forMsg(listIdx)
                                     .first { it.type == "submit_proposal" }
                                     .attributes["proposal_id"]!!.toLong()
                                     .let { id ->
@@ -586,7 +782,12 @@ class BlockAndTxProcessor(
         }
     }
 
-    private fun saveIbcChannelData(tx: ServiceOuterClass.GetTxResponse, txInfo: TxData, txUpdate: TxUpdate) =
+    private fun saveIbcChannelData(
+        tx: ServiceOuterClass.GetTxResponse,
+        txInfo: TxData,
+        txUpdate: TxUpdate,
+        events: TxEventIndex
+    ) =
         transaction {
             val scrapedObjs = tx.tx.body.messagesList.map { it.getTxIbcClientChannel() }
 
@@ -636,28 +837,28 @@ class BlockAndTxProcessor(
                         any.typeUrl.endsWith("MsgTransfer") -> {
                             if (!txSuccess) return@forEachIndexed
                             val msg = any.toMsgTransfer()
-                            ibcService.parseTransfer(msg, tx.txResponse.getProvenanceEvents(idx))
+                            ibcService.parseTransfer(msg, events.forMsg(idx))
                         }
                         any.typeUrl.endsWith("MsgIbcTransferRequest") -> {
                             if (!txSuccess) return@forEachIndexed
                             val msg = any.toMsgIbcTransferRequest()
-                            ibcService.parseTransfer(msg.transfer, tx.txResponse.getProvenanceEvents(idx))
+                            ibcService.parseTransfer(msg.transfer, events.forMsg(idx))
                         }
                         any.typeUrl.endsWith("MsgRecvPacket") -> {
                             val msg = any.toMsgRecvPacket()
-                            ibcService.parseRecv(txSuccess, msg, tx.txResponse.getProvenanceEvents(idx))
+                            ibcService.parseRecv(txSuccess, msg, events.forMsg(idx))
                         }
                         any.typeUrl.endsWith("MsgAcknowledgement") -> {
                             val msg = any.toMsgAcknowledgement()
-                            ibcService.parseAcknowledge(txSuccess, msg, tx.txResponse.getProvenanceEvents(idx))
+                            ibcService.parseAcknowledge(txSuccess, msg, events.forMsg(idx))
                         }
                         any.typeUrl.endsWith("MsgTimeout") -> {
                             val msg = any.toMsgTimeout()
-                            ibcService.parseTimeout(txSuccess, msg, tx.txResponse.getProvenanceEvents(idx))
+                            ibcService.parseTimeout(txSuccess, msg, events.forMsg(idx))
                         }
                         any.typeUrl.endsWith("MsgTimeoutOnClose") -> {
                             val msg = any.toMsgTimeoutOnClose()
-                            ibcService.parseTimeoutOnClose(txSuccess, msg, tx.txResponse.getProvenanceEvents(idx))
+                            ibcService.parseTimeoutOnClose(txSuccess, msg, events.forMsg(idx))
                         }
                         else -> logger.debug("This typeUrl is not yet supported in as an ibc ledger msg: ${any.typeUrl}")
                             .let { return@forEachIndexed }
@@ -711,7 +912,12 @@ class BlockAndTxProcessor(
                 }
         }
 
-    private fun saveSmartContractData(tx: ServiceOuterClass.GetTxResponse, txInfo: TxData, txUpdate: TxUpdate) =
+    private fun saveSmartContractData(
+        tx: ServiceOuterClass.GetTxResponse,
+        txInfo: TxData,
+        txUpdate: TxUpdate,
+        events: TxEventIndex
+    ) =
         transaction {
             val codesToBeSaved = mutableListOf<Long>()
             val contractsToBeSaved = mutableListOf<String>()
@@ -725,8 +931,7 @@ class BlockAndTxProcessor(
                     }
                 }
 
-            tx.txResponse.eventsList
-                .filter { it.type in SmContractEventKeys.values().map { sc -> sc.eventType } }
+            events.raw(getSmContractEventTypes())
                 .flatMap { e ->
                     getSmContractEventByEvent(e.type)!!.let {
                         e.attributesList
@@ -752,7 +957,7 @@ class BlockAndTxProcessor(
                 .let { txUpdate.apply { this.smContracts.addAll(it) } }
         }
 
-    private fun saveNameData(tx: ServiceOuterClass.GetTxResponse, txInfo: TxData) = transaction {
+    private fun saveNameData(tx: ServiceOuterClass.GetTxResponse, txInfo: TxData, events: TxEventIndex) = transaction {
         if (tx.txResponse.code == 0) {
             val insertList = mutableListOf<Name>()
             tx.tx.body.messagesList.mapNotNull { it.getNameMsgs() }
@@ -780,8 +985,7 @@ class BlockAndTxProcessor(
                     }
                 }
 
-            tx.txResponse.eventsList
-                .filter { getNameEventTypes().contains(it.type) }
+            events.raw(getNameEventTypes())
                 .map { e ->
                     when (e.type) {
                         NameEvents.NAME_BIND.event -> {
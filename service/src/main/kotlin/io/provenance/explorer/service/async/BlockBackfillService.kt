@@ -0,0 +1,116 @@
+package io.provenance.explorer.service.async
+
+import io.provenance.explorer.config.ExplorerProperties
+import io.provenance.explorer.domain.core.logger
+import io.provenance.explorer.domain.entities.BlockBackfillPartitionRecord
+import io.provenance.explorer.domain.extensions.toDateTime
+import io.provenance.explorer.domain.models.explorer.BlockUpdate
+import io.provenance.explorer.service.BlockService
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.runBlocking
+import org.springframework.stereotype.Service
+import java.time.LocalDateTime
+import java.time.temporal.ChronoUnit
+
+/**
+ * Backfills historical blocks by splitting the height range into partitions that are processed concurrently, each
+ * walking its own range from the top down. Progress is checkpointed per partition in `block_backfill_partition`, so
+ * a restart resumes every partition where it stopped.
+ */
+@Service
+class BlockBackfillService(
+    private val props: ExplorerProperties,
+    private val blockService: BlockService,
+    private val blockAndTxProcessor: BlockAndTxProcessor
+) {
+
+    protected val logger = logger(BlockBackfillService::class)
+
+    companion object {
+        // Number of recent blocks used to estimate the average block time
+        private const val BLOCK_TIME_SAMPLE_SIZE = 10000
+    }
+
+    fun hasPendingPartitions() = BlockBackfillPartitionRecord.getIncomplete().isNotEmpty()
+
+    /**
+     * Splits the heights from [topHeight] down to [endDate] into `backfillWorkerCount` partitions. The height at
+     * [endDate] is estimated from recent block times; the lowest partition runs down to height 1 so a low estimate
+     * never leaves a gap, and every partition stops early once it reaches blocks older than [endDate].
+     */
+    fun planPartitions(topHeight: Int, endDate: LocalDateTime) {
+        if (topHeight < 1) return
+        val workers = props.backfillWorkerCount.coerceAtLeast(1)
+        val floor = estimateHeightAt(topHeight, endDate)
+        val size = ((topHeight - floor + 1) / workers).coerceAtLeast(1)
+        val ranges = (0 until workers).mapNotNull { idx ->
+            val upper = topHeight - idx * size
+            val lower = if (idx == workers - 1) 1 else (upper - size + 1).coerceAtLeast(1)
+            if (upper < 1) null else lower..upper
+        }
+        logger.info("Planning historical backfill of heights ${ranges.last().first}..$topHeight in ${ranges.size} partitions")
+        BlockBackfillPartitionRecord.plan(ranges)
+    }
+
+    /**
+     * Runs every incomplete partition on its own worker until it either reaches its lower height or [endDate].
+     *
+     * Returns the lowest height saved once all partitions are complete, or null if any partition is still pending.
+     */
+    fun runPartitions(endDate: LocalDateTime): Int? {
+        val partitions = BlockBackfillPartitionRecord.getIncomplete()
+        runBlocking {
+            partitions.map { part ->
+                async(Dispatchers.IO) { runPartition(part.id.value, part.nextHeight, part.lowerHeight, endDate) }
+            }.awaitAll()
+        }
+        return BlockBackfillPartitionRecord.getAll()
+            .takeIf { all -> all.isNotEmpty() && all.all { it.completed } }
+            ?.minOf { it.nextHeight + 1 }
+    }
+
+    private fun runPartition(id: Int, fromHeight: Int, lowerHeight: Int, endDate: LocalDateTime) {
+        logger.info("Backfilling partition $id from $fromHeight down to $lowerHeight")
+        val pending = mutableListOf<BlockUpdate>()
+        var nextHeight = fromHeight
+        var reachedEndDate = false
+        val flush = {
+            blockAndTxProcessor.commitBlocks(pending)
+            pending.lastOrNull()?.let { nextHeight = it.height - 1 }
+            pending.clear()
+            BlockBackfillPartitionRecord.checkpoint(id, nextHeight, false)
+        }
+
+        val completed = fromHeight < lowerHeight ||
+            blockAndTxProcessor.pipelineBlocks(fromHeight downTo lowerHeight) { fetched ->
+                val blockRes = fetched.blockRes ?: blockService.getBlockAtHeightFromChain(fetched.height)
+                    ?: return@pipelineBlocks false
+                if (endDate >= blockRes.block.header.time.toDateTime()) {
+                    reachedEndDate = true
+                    return@pipelineBlocks false
+                }
+                pending.add(blockAndTxProcessor.buildBlockUpdate(blockRes, prefetchedTxs = fetched.txs))
+                if (pending.size >= props.ingestCommitBatchSize) flush()
+                true
+            }
+        flush()
+        if (completed || reachedEndDate) {
+            BlockBackfillPartitionRecord.checkpoint(id, nextHeight, true)
+            logger.info("Finished backfilling partition $id at height ${nextHeight + 1}")
+        }
+    }
+
+    private fun estimateHeightAt(topHeight: Int, date: LocalDateTime): Int {
+        val sample = minOf(BLOCK_TIME_SAMPLE_SIZE, topHeight - 1)
+        if (sample < 1) return 1
+        val topTime = blockService.getBlockAtHeightFromChain(topHeight)?.block?.header?.time?.toDateTime() ?: return 1
+        val sampleTime = blockService.getBlockAtHeightFromChain(topHeight - sample)?.block?.header?.time?.toDateTime()
+            ?: return 1
+        val secondsPerBlock = ChronoUnit.MILLIS.between(sampleTime, topTime) / 1000.0 / sample
+        if (secondsPerBlock <= 0) return 1
+        val blocksBack = ChronoUnit.SECONDS.between(date, topTime) / secondsPerBlock
+        return (topHeight - blocksBack).toInt().coerceAtLeast(1)
+    }
+}
@@ -0,0 +1,86 @@
+package io.provenance.explorer.service.async
+
+import io.micrometer.core.instrument.Gauge
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.Timer
+import io.provenance.explorer.domain.entities.BlockIndexRecord
+import io.provenance.explorer.domain.entities.BlockTxRetryRecord
+import io.provenance.explorer.domain.entities.ProcessQueueRecord
+import org.jetbrains.exposed.sql.transactions.transaction
+import org.springframework.stereotype.Component
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Micrometer meters for block and tx ingest, exposed through the actuator `metrics` and `prometheus` endpoints.
+ *
+ * Every ingest stage is recorded under the `explorer.ingest.stage` timer, tagged with the stage name and whether it
+ * succeeded, so each stage gets its own latency distribution and success/error counts.
+ */
+@Component
+class IngestMetrics(@PublishedApi internal val registry: MeterRegistry) {
+
+    companion object {
+        const val STAGE_TIMER = "explorer.ingest.stage"
+
+        const val BLOCK_FETCH = "block_fetch"
+        const val TX_FETCH = "tx_fetch"
+        const val BLOCK_BUILD = "block_build"
+        const val PROCEDURE_SERIALIZE = "procedure_serialize"
+        const val ADD_BLOCK = "add_block"
+        const val SAVE_MESSAGES = "save_messages"
+        const val SAVE_TX_FEES = "save_tx_fees"
+        const val SAVE_ADDRESSES = "save_addresses"
+        const val SAVE_MARKERS = "save_markers"
+        const val SAVE_NFT_DATA = "save_nft_data"
+        const val SAVE_GOV_DATA = "save_gov_data"
+        const val SAVE_IBC_DATA = "save_ibc_data"
+        const val SAVE_SMART_CONTRACT_DATA = "save_smart_contract_data"
+        const val SAVE_NAME_DATA = "save_name_data"
+        const val SAVE_GROUPS = "save_groups"
+        const val SAVE_NAVS = "save_navs"
+        const val SAVE_SIGNATURES = "save_signatures"
+    }
+
+    private val chainHead = AtomicLong()
+    private val maxHeightRead = AtomicLong()
+    private val retryQueueDepth = AtomicLong()
+    private val processQueueDepth = AtomicLong()
+
+    init {
+        Gauge.builder("explorer.ingest.lag") { (chainHead.get() - maxHeightRead.get()).coerceAtLeast(0L) }
+            .description("Blocks between the chain head and the highest block saved")
+            .baseUnit("blocks")
+            .register(registry)
+        Gauge.builder("explorer.ingest.retry.queue", retryQueueDepth) { it.get().toDouble() }
+            .description("Rows in block_tx_retry")
+            .register(registry)
+        Gauge.builder("explorer.ingest.process.queue", processQueueDepth) { it.get().toDouble() }
+            .description("Rows in process_queue")
+            .register(registry)
+    }
+
+    inline fun <T> time(stage: String, block: () -> T): T {
+        val sample = Timer.start(registry)
+        var outcome = "error"
+        try {
+            return block().also { outcome = "success" }
+        } finally {
+            sample.stop(registry.timer(STAGE_TIMER, "stage", stage, "outcome", outcome))
+        }
+    }
+
+    fun recordChainHead(height: Int) = chainHead.set(height.toLong())
+
+    // Called as the block index moves, so lag doesn't trail by the queue refresh interval
+    fun recordMaxHeightRead(height: Int) = maxHeightRead.set(height.toLong())
+
+    // The queue gauges are refreshed on a schedule rather than on every scrape to keep counts off the scrape path.
+    // The max height is only seeded here, for instances that haven't moved the index themselves.
+    fun refreshQueueGauges() = transaction {
+        if (maxHeightRead.get() == 0L) {
+            BlockIndexRecord.getIndex()?.maxHeightRead?.let { maxHeightRead.compareAndSet(0L, it.toLong()) }
+        }
+        retryQueueDepth.set(BlockTxRetryRecord.count())
+        processQueueDepth.set(ProcessQueueRecord.count())
+    }
+}
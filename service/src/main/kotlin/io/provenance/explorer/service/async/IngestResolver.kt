@@ -0,0 +1,89 @@
+package io.provenance.explorer.service.async
+
+import com.github.benmanes.caffeine.cache.Cache
+import com.github.benmanes.caffeine.cache.Caffeine
+import io.provenance.explorer.config.ExplorerProperties
+import io.provenance.explorer.domain.core.logger
+import io.provenance.explorer.domain.entities.AccountRecord
+import io.provenance.explorer.domain.entities.MarkerCacheRecord
+import io.provenance.explorer.domain.entities.TxAddressJoinType
+import io.provenance.explorer.domain.entities.ValidatorStateRecord
+import io.provenance.explorer.grpc.extensions.isStandardAddress
+import io.provenance.explorer.grpc.extensions.isValidatorAddress
+import io.provenance.explorer.service.ValidatorService
+import org.jetbrains.exposed.dao.id.EntityID
+import org.springframework.stereotype.Component
+
+/**
+ * Resolves the addresses, denoms and proposers seen during ingest to their database ids, keeping the results in
+ * bounded LRU caches shared across blocks. Cache misses for a tx are looked up together in one query per kind
+ * instead of one query per value. Only found ids are cached, as ids never change once assigned.
+ */
+@Component
+class IngestResolver(
+    props: ExplorerProperties,
+    private val validatorService: ValidatorService
+) {
+
+    protected val logger = logger(IngestResolver::class)
+
+    // address -> (TxAddressJoinType name, account or operator id)
+    private val addresses: Cache<String, Pair<String, Int>> =
+        Caffeine.newBuilder().maximumSize(props.ingestResolutionCacheSize).build()
+
+    // denom -> marker_cache id
+    private val denoms: Cache<String, EntityID<Int>> =
+        Caffeine.newBuilder().maximumSize(props.ingestResolutionCacheSize).build()
+
+    // consensus address -> operator address
+    private val proposers: Cache<String, String> =
+        Caffeine.newBuilder().maximumSize(props.ingestResolutionCacheSize).build()
+
+    @Volatile
+    private var activeSet: Int? = null
+
+    // Refreshed once per block so the staking params aren't queried for every address
+    fun refreshActiveSet() = validatorService.getActiveSet().also { activeSet = it }
+
+    fun activeSet() = activeSet ?: refreshActiveSet()
+
+    fun proposerOperator(consAddr: String): String =
+        proposers.get(consAddr) { validatorService.findAddressByConsensus(it)!!.operatorAddress }
+
+    /**
+     * Returns the join type and id of each supported address; the id is null for addresses not saved yet.
+     * Unsupported addresses are left out.
+     */
+    fun resolveAddresses(addrs: Collection<String>): Map<String, Pair<String, Int?>> {
+        val found: MutableMap<String, Pair<String, Int?>> = addresses.getAllPresent(addrs).toMutableMap()
+        val (operators, others) = addrs.filterNot { it in found }.partition { it.isValidatorAddress() }
+        val (accounts, unsupported) = others.partition { it.isStandardAddress() }
+        unsupported.forEach { logger.debug("Address type is not supported: Addr $it") }
+
+        if (operators.isNotEmpty()) {
+            val ids = ValidatorStateRecord.findByOperatorIn(activeSet(), operators)
+                .associate { it.operatorAddress to it.operatorAddrId }
+            operators.forEach { found[it] = Pair(TxAddressJoinType.OPERATOR.name, ids[it]) }
+        }
+        if (accounts.isNotEmpty()) {
+            val ids = AccountRecord.findIdsByAddresses(accounts)
+            accounts.forEach { found[it] = Pair(TxAddressJoinType.ACCOUNT.name, ids[it]) }
+        }
+        found.forEach { (addr, pair) -> if (pair.second != null) addresses.put(addr, Pair(pair.first, pair.second!!)) }
+        return found
+    }
+
+    fun rememberAddress(addr: String, type: String, id: Int) = addresses.put(addr, Pair(type, id))
+
+    // Returns the marker ids of the denoms already saved
+    fun resolveDenoms(values: Collection<String>): Map<String, EntityID<Int>> {
+        val found = denoms.getAllPresent(values).toMutableMap()
+        val misses = values.filterNot { it in found }
+        if (misses.isNotEmpty()) {
+            MarkerCacheRecord.findIdsByDenoms(misses).also { denoms.putAll(it) }.let { found.putAll(it) }
+        }
+        return found
+    }
+
+    fun rememberDenom(denom: String, id: EntityID<Int>) = denoms.put(denom, id)
+}
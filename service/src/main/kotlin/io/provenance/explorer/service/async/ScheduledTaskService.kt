@@ -34,6 +34,7 @@ import io.provenance.explorer.domain.extensions.height
 import io.provenance.explorer.domain.extensions.monthToQuarter
 import io.provenance.explorer.domain.extensions.startOfDay
 import io.provenance.explorer.domain.extensions.toDateTime
+import io.provenance.explorer.domain.models.explorer.BlockUpdate
 import io.provenance.explorer.grpc.extensions.getMsgSubTypes
 import io.provenance.explorer.grpc.extensions.getMsgType
 import io.provenance.explorer.service.AccountService
@@ -46,6 +47,7 @@ import io.provenance.explorer.service.MetricsService
 import io.provenance.explorer.service.NftService
 import io.provenance.explorer.service.PulseMetricService
 import io.provenance.explorer.service.TokenService
+import io.provenance.explorer.service.TxCountService
 import io.provenance.explorer.service.ValidatorService
 import io.provenance.explorer.service.getBlock
 import jakarta.annotation.PostConstruct
@@ -61,7 +63,6 @@ import org.jetbrains.exposed.sql.transactions.transaction
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty
 import org.springframework.scheduling.annotation.Scheduled
 import org.springframework.stereotype.Service
-import tendermint.types.BlockOuterClass
 import java.math.BigDecimal
 import java.time.LocalDate
 import java.time.LocalDateTime
@@ -74,6 +75,7 @@ class ScheduledTaskService(
     private val blockService: BlockService,
     private val govService: GovService,
     private val blockAndTxProcessor: BlockAndTxProcessor,
+    private val blockBackfillService: BlockBackfillService,
     private val explorerService: ExplorerService,
     private val cacheService: CacheService,
     private val tokenService: TokenService,
@@ -82,7 +84,9 @@ class ScheduledTaskService(
     private val metricsService: MetricsService,
     private val assetService: AssetService,
     private val pulseMetricService: PulseMetricService,
-    private val nftService: NftService
+    private val nftService: NftService,
+    private val ingestMetrics: IngestMetrics,
+    private val txCountService: TxCountService
 ) {
 
     protected val logger = logger(ScheduledTaskService::class)
@@ -102,40 +106,46 @@ class ScheduledTaskService(
 
     @Scheduled(initialDelay = 0L, fixedDelay = 5000L)
     fun updateLatestBlockHeightJob() {
-        val index = getBlockIndex()
         val startHeight = blockService.getLatestBlockHeight()
-        var indexHeight = startHeight
-        if (startCollectingHistoricalBlocks(index) ||
-            continueCollectingHistoricalBlocks(index!!.first!!, index.second!!)
-        ) {
-            val endDate = getEndDate()
-            var shouldContinue = true
-            indexHeight = index?.second?.minus(1) ?: indexHeight
-            while (shouldContinue && indexHeight > 0) {
-                blockService.getBlockAtHeightFromChain(indexHeight)?.let {
-                    if (endDate >= it.block.day()) {
-                        shouldContinue = false
-                        return
-                    }
-                    blockAndTxProcessor.saveBlockEtc(it)
-                    indexHeight = it.block.height() - 1
-                }
-                blockService.updateBlockMinHeightIndex(indexHeight + 1)
-            }
-            blockService.updateBlockMaxHeightIndex(startHeight)
-        } else {
-            while (indexHeight > index.first!!) {
-                blockService.getBlockAtHeightFromChain(indexHeight)?.let {
-                    blockAndTxProcessor.saveBlockEtc(it)
-                    indexHeight = it.block.height() - 1
-                }
+        ingestMetrics.recordChainHead(startHeight)
+        var index = getBlockIndex()
+        if (startCollectingHistoricalBlocks(index)) {
+            // Hand everything below the current head to the backfill workers and follow the head from here
+            blockBackfillService.planPartitions(startHeight - 1, getEndDate())
+            blockService.initBlockIndex(startHeight - 1, startHeight)
+            index = Pair(startHeight - 1, startHeight)
+        }
+
+        val pending = mutableListOf<BlockUpdate>()
+        val completed = blockAndTxProcessor.pipelineBlocks(startHeight downTo index!!.first!! + 1) { fetched ->
+            val blockRes = fetched.blockRes ?: blockService.getBlockAtHeightFromChain(fetched.height)
+                ?: return@pipelineBlocks false
+            pending.add(blockAndTxProcessor.buildBlockUpdate(blockRes, prefetchedTxs = fetched.txs))
+            if (pending.size >= props.ingestCommitBatchSize) {
+                blockAndTxProcessor.commitBlocks(pending)
+                pending.clear()
             }
-            blockService.updateBlockMaxHeightIndex(startHeight)
+            true
         }
+        blockAndTxProcessor.commitBlocks(pending)
+        // Only move the index forward once every height up to the head has been saved
+        if (!completed) return
+        blockService.updateBlockMaxHeightIndex(startHeight)
 
         BlockTxCountsCacheRecord.updateTxCounts()
     }
 
+    @Scheduled(initialDelay = 5000L, fixedDelay = 5000L)
+    fun backfillHistoricalBlocksJob() {
+        val index = getBlockIndex()
+        if (startCollectingHistoricalBlocks(index)) return
+        if (!blockBackfillService.hasPendingPartitions()) {
+            if (!continueCollectingHistoricalBlocks(index!!.first!!, index.second!!)) return
+            blockBackfillService.planPartitions(index.second!! - 1, getEndDate())
+        }
+        blockBackfillService.runPartitions(getEndDate())?.let { blockService.updateBlockMinHeightIndex(it) }
+    }
+
     fun getBlockIndex() = blockService.getBlockIndexFromCache()?.let {
         Pair(it.maxHeightRead, it.minHeightRead)
     }
@@ -153,8 +163,6 @@ class ScheduledTaskService(
 
     fun getEndDate() = LocalDateTime.now().startOfDay().minusDays((props.initialHistoricalDays() + 1).toLong())
 
-    fun BlockOuterClass.Block.day() = this.header.time.toDateTime()
-
     @Scheduled(cron = "0 0 1 * * ?") // Everyday at 1 am
     fun updateMarketRateStats() = transaction {
         logger.info("Updating market rate stats")
@@ -279,6 +287,9 @@ class ScheduledTaskService(
     @Scheduled(cron = "0 0/15 * * * ?") // Every 15 minutes
     fun updateReleaseVersions() = explorerService.getAllChainReleases()
 
+    @Scheduled(cron = "0 0/5 * * * ?") // Every 5 minutes
+    fun compactTxCounts() = txCountService.compactCounts()
+
     @Scheduled(cron = "0 0 0/1 * * ?") // Every hour
     fun saveChainAum() = explorerService.saveChainAum()
 
@@ -424,6 +435,59 @@ class ScheduledTaskService(
         pulseMetricService.refreshCache()
     }
 
+    @Scheduled(initialDelay = 1L, fixedDelay = 1L, timeUnit = TimeUnit.MINUTES)
+    fun processPulseBackfill() {
+        pulseMetricService.processBackfill()
+    }
+
+    @Scheduled(initialDelay = 0L, fixedDelay = 30000L)
+    fun refreshIngestGauges() = ingestMetrics.refreshQueueGauges()
+
+    // Converts json block and tx payloads to the configured proto encoding, newest rows first, a bounded amount per run
+    @Scheduled(initialDelay = 1L, fixedDelay = 10L, timeUnit = TimeUnit.MINUTES)
+    fun migratePayloadStorage() {
+        val mode = props.payloadStorageMode
+        if (!mode.isProto()) return
+        val batchSize = props.payloadMigrationBatchSize.coerceAtLeast(1)
+        val maxBatches = props.payloadMigrationBatchesPerRun.coerceAtLeast(1)
+        var blocks = 0
+        var txs = 0
+        var batches = 0
+        do {
+            val converted = BlockCacheRecord.migratePayloads(mode, batchSize)
+            blocks += converted
+        } while (converted == batchSize && ++batches < maxBatches)
+        batches = 0
+        do {
+            val converted = TxCacheRecord.migratePayloads(mode, batchSize)
+            txs += converted
+        } while (converted == batchSize && ++batches < maxBatches)
+        if (blocks > 0 || txs > 0) logger.info("Converted $blocks block and $txs tx payloads to $mode")
+    }
+
+    // Summarizes cached blocks that have no `block_summary` row, walking down from where the last run stopped. Ingest
+    // writes summaries for new blocks, so once the bottom is reached there's nothing left to scan.
+    @Scheduled(initialDelay = 1L, fixedDelay = 10L, timeUnit = TimeUnit.MINUTES)
+    fun backfillBlockSummaries() {
+        val done = "DONE"
+        val key = CacheKeys.BLOCK_SUMMARY_BACKFILL_BEFORE.key
+        val start = cacheService.getCacheValue(key)?.cacheValue
+        if (start == done) return
+        val batchSize = props.blockSummaryBackfillBatchSize.coerceAtLeast(1)
+        var before = start?.toIntOrNull() ?: Int.MAX_VALUE
+        var total = 0
+        do {
+            val (heights, written) = explorerService.backfillBlockSummaries(before, batchSize)
+            total += written
+            heights.lastOrNull()?.let {
+                before = it
+                cacheService.updateCacheValue(key, it.toString())
+            }
+        } while (heights.size == batchSize)
+        cacheService.updateCacheValue(key, done)
+        logger.info("Wrote $total block summaries; backfill complete")
+    }
+
     // hopefully a one time thing
     @Scheduled(initialDelay = 0L, fixedDelay = 7L, timeUnit = TimeUnit.DAYS)
     fun populateScopes() {
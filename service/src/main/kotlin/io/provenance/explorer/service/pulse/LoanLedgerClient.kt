@@ -0,0 +1,123 @@
+package io.provenance.explorer.service.pulse
+
+import com.fasterxml.jackson.databind.JsonNode
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule
+import com.fasterxml.jackson.module.kotlin.readValue
+import com.github.benmanes.caffeine.cache.Cache
+import com.github.benmanes.caffeine.cache.Caffeine
+import io.ktor.client.HttpClient
+import io.ktor.client.request.get
+import io.ktor.client.request.header
+import io.ktor.client.request.url
+import io.ktor.client.statement.bodyAsText
+import io.ktor.http.HttpHeaders
+import io.ktor.http.HttpStatusCode
+import io.ktor.http.isSuccess
+import io.provenance.explorer.config.pulse.PulseProperties
+import io.provenance.explorer.configureProvenance
+import io.provenance.explorer.domain.core.logger
+import io.provenance.explorer.domain.models.explorer.pulse.PulseLoanLedger
+import kotlinx.coroutines.runBlocking
+import org.springframework.beans.factory.annotation.Qualifier
+import org.springframework.stereotype.Component
+import java.net.URI
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.Paths
+import java.time.LocalDate
+import java.time.format.DateTimeFormatter
+
+/**
+ * Reads loan ledger data from `pulse.loan-ledger-data-url`.
+ *
+ * Reads given the same [LoanLedgerClient.Snapshot] fetch each (endpoint, date) once and share it. Over HTTP the
+ * last response for each url is kept and revalidated with `If-None-Match` / `If-Modified-Since`, so unchanged data
+ * isn't downloaded again. A `file:` url reads `<endpoint>-<date>.json`, falling back to `<endpoint>.json`, from that
+ * directory instead, for local runs and tests.
+ */
+@Component
+class LoanLedgerClient(
+    private val pulseProperties: PulseProperties,
+    @Qualifier("pulseHttpClient") private val pulseHttpClient: HttpClient
+) {
+
+    companion object {
+        // A refresh reads a few endpoints for a single date, so this is never reached in practice
+        const val SNAPSHOT_MAX_BODIES = 32L
+    }
+
+    protected val logger = logger(LoanLedgerClient::class)
+
+    private data class CachedResponse(val etag: String?, val lastModified: String?, val body: String)
+
+    private val mapper = ObjectMapper().registerModule(JavaTimeModule()).configureProvenance()
+
+    // Last validated response per url, for conditional requests
+    private val responses: Cache<String, CachedResponse> =
+        Caffeine.newBuilder().apply {
+            maximumSize(500)
+        }.build()
+
+    // Bodies read by one caller, e.g. a cache refresh or one backfill item; only reads passed it share them
+    class Snapshot internal constructor() {
+        internal val bodies: Cache<Pair<String, LocalDate?>, String> =
+            Caffeine.newBuilder().apply {
+                maximumSize(SNAPSHOT_MAX_BODIES)
+            }.build()
+    }
+
+    // Runs [block] with a new snapshot, dropped with everything read through it once [block] returns
+    fun <T> snapshot(block: (Snapshot) -> T): T = block(Snapshot())
+
+    fun ledger(endpoint: String, atDate: LocalDate? = null, snapshot: Snapshot? = null): List<PulseLoanLedger> =
+        mapper.readValue(fetch(endpoint, atDate, snapshot))
+
+    fun balances(atDate: LocalDate? = null, snapshot: Snapshot? = null): JsonNode =
+        mapper.readTree(fetch("balances", atDate, snapshot))
+
+    private fun fetch(endpoint: String, atDate: LocalDate?, snapshot: Snapshot?): String =
+        if (snapshot != null) {
+            snapshot.bodies.get(endpoint to atDate) { load(endpoint, atDate) }
+        } else {
+            load(endpoint, atDate)
+        }
+
+    private fun load(endpoint: String, atDate: LocalDate?): String {
+        val baseUrl = pulseProperties.loanLedgerDataUrl
+        return if (baseUrl.startsWith("file:")) {
+            readFile(Paths.get(URI(baseUrl)), endpoint, atDate)
+        } else {
+            val dateParam = atDate?.let { "?atDate=${it.format(DateTimeFormatter.ISO_LOCAL_DATE)}" } ?: ""
+            request("$baseUrl/$endpoint$dateParam")
+        }
+    }
+
+    private fun request(requestUrl: String): String = runBlocking {
+        val cached = responses.getIfPresent(requestUrl)
+        val response = pulseHttpClient.get {
+            url(requestUrl)
+            cached?.etag?.let { header(HttpHeaders.IfNoneMatch, it) }
+            cached?.lastModified?.let { header(HttpHeaders.IfModifiedSince, it) }
+        }
+        when {
+            response.status == HttpStatusCode.NotModified && cached != null -> {
+                logger.debug("Loan ledger data unchanged at $requestUrl")
+                cached.body
+            }
+            response.status.isSuccess() -> response.bodyAsText().also { body ->
+                val etag = response.headers[HttpHeaders.ETag]
+                val lastModified = response.headers[HttpHeaders.LastModified]
+                if (etag != null || lastModified != null) {
+                    responses.put(requestUrl, CachedResponse(etag, lastModified, body))
+                }
+            }
+            else -> throw IllegalStateException("Loan ledger request to $requestUrl failed: ${response.status}")
+        }
+    }
+
+    private fun readFile(dir: Path, endpoint: String, atDate: LocalDate?): String {
+        val dated = atDate?.let { dir.resolve("$endpoint-${it.format(DateTimeFormatter.ISO_LOCAL_DATE)}.json") }
+        return Files.readString(dated?.takeIf { Files.exists(it) } ?: dir.resolve("$endpoint.json"))
+    }
+}
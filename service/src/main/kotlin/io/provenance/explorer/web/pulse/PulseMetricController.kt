@@ -1,13 +1,18 @@
 package io.provenance.explorer.web.pulse
 
+import io.provenance.explorer.domain.annotation.ConditionalGet
 import io.provenance.explorer.domain.models.explorer.pulse.MetricRangeType
 import io.provenance.explorer.domain.models.explorer.pulse.MetricRangeTypeConverter
+import io.provenance.explorer.domain.models.explorer.pulse.PulseBackfillJob
 import io.provenance.explorer.domain.models.explorer.pulse.PulseCacheType
 import io.provenance.explorer.domain.models.explorer.pulse.PulseMetric
 import io.provenance.explorer.service.PulseMetricService
 import io.swagger.v3.oas.annotations.Operation
 import io.swagger.v3.oas.annotations.tags.Tag
+import jakarta.validation.constraints.Max
+import jakarta.validation.constraints.Min
 import org.springframework.http.MediaType
+import org.springframework.validation.annotation.Validated
 import org.springframework.web.bind.WebDataBinder
 import org.springframework.web.bind.annotation.GetMapping
 import org.springframework.web.bind.annotation.InitBinder
@@ -18,6 +23,7 @@ import org.springframework.web.bind.annotation.RequestParam
 import org.springframework.web.bind.annotation.RestController
 import java.time.LocalDate
 
+@Validated
 @RestController
 @RequestMapping(
     path = ["/api/pulse/metric"],
@@ -47,6 +53,7 @@ class PulseMetricController(private val pulseMetricService: PulseMetricService)
 
     @Operation(summary = "Historical metrics for the given type and date range")
     @GetMapping("/type/{type}/history")
+    @ConditionalGet(immutable = true, dateParam = "toDate")
     fun getPulseMetricHistoryByType(
         @PathVariable type: PulseCacheType,
         @RequestParam fromDate: LocalDate,
@@ -54,13 +61,33 @@ class PulseMetricController(private val pulseMetricService: PulseMetricService)
     ): Map<LocalDate, PulseMetric> =
         pulseMetricService.pulseMetricHistory(type = type, fromDate = fromDate, toDate = toDate)
 
-    @Operation(summary = "Back fill all metrics to range")
+    @Operation(
+        summary = "Back fill all metrics to range",
+        description = "Queues the backfill and returns its job; progress is reported by `/backfill/{jobId}`"
+    )
     @PostMapping("/backfill")
     fun backFillAllMetrics(
         @RequestParam fromDate: LocalDate,
                            @RequestParam toDate: LocalDate,
                            @RequestParam types: List<PulseCacheType>,
                            @RequestParam(required = false) denom: String?
-    ) =
+    ): PulseBackfillJob =
         pulseMetricService.backFillAllMetrics(fromDate, toDate, types, denom)
+
+    @Operation(summary = "Most recent backfill jobs with their progress")
+    @GetMapping("/backfill")
+    fun getBackfillJobs(
+        @RequestParam(defaultValue = "10") @Min(1) @Max(100) count: Int
+    ): List<PulseBackfillJob> =
+        pulseMetricService.backfillJobs(count)
+
+    @Operation(summary = "Completed, pending, running and failed item counts and the estimated time left for a backfill job")
+    @GetMapping("/backfill/{jobId}")
+    fun getBackfillJob(@PathVariable jobId: Int): PulseBackfillJob =
+        pulseMetricService.backfillJob(jobId)
+
+    @Operation(summary = "Requeues the failed items of a backfill job")
+    @PostMapping("/backfill/{jobId}/retry")
+    fun retryBackfillJob(@PathVariable jobId: Int): PulseBackfillJob =
+        pulseMetricService.retryBackfill(jobId)
 }
@@ -1,5 +1,7 @@
 package io.provenance.explorer.web.v2
 
+import io.provenance.explorer.config.CacheConfig
+import io.provenance.explorer.domain.annotation.ConditionalGet
 import io.provenance.explorer.service.ExplorerService
 import io.swagger.v3.oas.annotations.Operation
 import io.swagger.v3.oas.annotations.Parameter
@@ -27,15 +29,20 @@ class BlockController(private val explorerService: ExplorerService) {
 
     @Operation(summary = "Returns the block information at current height")
     @GetMapping("/height")
+    @Cacheable(cacheNames = [CacheConfig.BLOCKS], keyGenerator = CacheConfig.NORMALIZED_KEY)
+    @ConditionalGet
     fun blockHeight() = explorerService.getBlockAtHeight(null)
 
     @Operation(summary = "Return the block information at the specified height")
     @GetMapping("/height/{height}")
+    @Cacheable(cacheNames = [CacheConfig.BLOCKS], keyGenerator = CacheConfig.NORMALIZED_KEY)
+    @ConditionalGet(immutable = true, heightParam = "height")
     fun blockHeight(@PathVariable height: Int) = explorerService.getBlockAtHeight(height)
 
     @Operation(summary = "Returns X most recent blocks")
-    @Cacheable(value = ["responses"], key = "{#root.methodName, #count, #page}")
     @GetMapping("/recent")
+    @Cacheable(cacheNames = [CacheConfig.BLOCKS], keyGenerator = CacheConfig.NORMALIZED_KEY)
+    @ConditionalGet
     fun recentBlocks(
         @Parameter(
             description = "Record count between 1 and 200",
@@ -1,5 +1,6 @@
 package io.provenance.explorer.web.v2
 
+import io.provenance.explorer.config.CacheConfig
 import io.provenance.explorer.domain.annotation.HiddenApi
 import io.provenance.explorer.model.base.DateTruncGranularity
 import io.provenance.explorer.service.ExplorerService
@@ -9,6 +10,7 @@ import io.swagger.v3.oas.annotations.media.Schema
 import io.swagger.v3.oas.annotations.tags.Tag
 import jakarta.validation.constraints.Max
 import jakarta.validation.constraints.Min
+import org.springframework.cache.annotation.Cacheable
 import org.springframework.format.annotation.DateTimeFormat
 import org.springframework.http.MediaType
 import org.springframework.validation.annotation.Validated
@@ -29,6 +31,7 @@ class GeneralController(private val explorerService: ExplorerService) {
 
     @Operation(summary = "Returns parameters for all modules on chain")
     @GetMapping("/params")
+    @Cacheable(cacheNames = [CacheConfig.CHAIN], keyGenerator = CacheConfig.NORMALIZED_KEY)
     fun param() = explorerService.getParams()
 
     @Operation(summary = "Returns spotlight statistics")
@@ -126,14 +129,17 @@ class GeneralController(private val explorerService: ExplorerService) {
 
     @Operation(summary = "Returns a list of upgrades made against the chain")
     @GetMapping("/chain/upgrades")
+    @Cacheable(cacheNames = [CacheConfig.CHAIN], keyGenerator = CacheConfig.NORMALIZED_KEY)
     fun getChainUpgrades() = explorerService.getChainUpgrades()
 
     @Operation(summary = "Returns a list of chain address prefixes")
     @GetMapping("/chain/prefixes")
+    @Cacheable(cacheNames = [CacheConfig.CHAIN], keyGenerator = CacheConfig.NORMALIZED_KEY)
     fun getChainPrefixes() = explorerService.getChainPrefixes()
 
     @Operation(summary = "Returns a list of msg-based fees for the chain")
     @GetMapping("/chain/msg_based_fees")
+    @Cacheable(cacheNames = [CacheConfig.CHAIN], keyGenerator = CacheConfig.NORMALIZED_KEY)
     fun getChainMsgBasedFees() = explorerService.getMsgBasedFeeList()
 
     @Operation(summary = "Returns the hourly AUM for the chain for the given time period")
@@ -1,5 +1,7 @@
 package io.provenance.explorer.web.v2
 
+import io.provenance.explorer.config.CacheConfig
+import io.provenance.explorer.domain.annotation.ConditionalGet
 import io.provenance.explorer.model.MsgTypeSet
 import io.provenance.explorer.model.TxStatus
 import io.provenance.explorer.service.TransactionService
@@ -31,7 +33,8 @@ class TransactionControllerV2(private val transactionService: TransactionService
 
     @Operation(summary = "Return the latest transactions with query params")
     @GetMapping("/recent")
-    @Cacheable(value = ["responses"], key = "{#root.methodName, #count, #page, #msgType, #txStatus, #fromDate, #toDate}")
+    @Cacheable(cacheNames = [CacheConfig.TXS], keyGenerator = CacheConfig.NORMALIZED_KEY)
+    @ConditionalGet
     fun txsRecent(
         @Parameter(schema = Schema(defaultValue = "1"), required = false)
         @RequestParam(defaultValue = "1")
@@ -61,18 +64,27 @@ class TransactionControllerV2(private val transactionService: TransactionService
         )
         @RequestParam(required = false)
         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
-        toDate: LocalDate?
+        toDate: LocalDate?,
+        @Parameter(
+            description = "Opaque cursor from a previous response's `nextCursor`; when set, `page` is ignored",
+            required = false
+        )
+        @RequestParam(required = false)
+        cursor: String?
     ) = transactionService.getTxsByQuery(
         msgType = msgType,
         txStatus = txStatus,
         count = count,
         page = page,
         fromDate = fromDate?.atStartOfDay(),
-        toDate = toDate?.atStartOfDay()
+        toDate = toDate?.atStartOfDay(),
+        cursor = cursor
     )
 
     @Operation(summary = "Return transaction detail by hash value")
     @GetMapping("/{hash}")
+    @Cacheable(cacheNames = [CacheConfig.TX_DETAILS], keyGenerator = CacheConfig.NORMALIZED_KEY)
+    @ConditionalGet(immutable = true)
     fun txByHash(
         @PathVariable hash: String,
         @Parameter(required = false)
@@ -82,6 +94,7 @@ class TransactionControllerV2(private val transactionService: TransactionService
 
     @Operation(summary = "Return a transaction's messages by tx hash value")
     @GetMapping("/{hash}/msgs")
+    @ConditionalGet(immutable = true)
     fun txMsgsByHash(
         @PathVariable hash: String,
         @Parameter(required = false)
@@ -103,6 +116,7 @@ class TransactionControllerV2(private val transactionService: TransactionService
 
     @Operation(summary = "Returns a transaction object as JSON by tx hash value")
     @GetMapping("/{hash}/json")
+    @ConditionalGet(immutable = true)
     fun transactionJson(
         @PathVariable hash: String,
         @Parameter(required = false)
@@ -112,6 +126,7 @@ class TransactionControllerV2(private val transactionService: TransactionService
 
     @Operation(summary = "Returns transactions by block height")
     @GetMapping("/height/{height}")
+    @Cacheable(cacheNames = [CacheConfig.TXS], keyGenerator = CacheConfig.NORMALIZED_KEY)
     fun txByBlockHeight(
         @PathVariable height: Int,
         @Parameter(schema = Schema(defaultValue = "1"), required = false)
@@ -122,8 +137,14 @@ class TransactionControllerV2(private val transactionService: TransactionService
         @RequestParam(defaultValue = "10")
         @Min(1)
         @Max(200)
-        count: Int
-    ) = transactionService.getTxsByQuery(txHeight = height, count = count, page = page)
+        count: Int,
+        @Parameter(
+            description = "Opaque cursor from a previous response's `nextCursor`; when set, `page` is ignored",
+            required = false
+        )
+        @RequestParam(required = false)
+        cursor: String?
+    ) = transactionService.getTxsByQuery(txHeight = height, count = count, page = page, cursor = cursor)
 
     @Operation(summary = "Returns a heatmap of transaction activity on chain")
     @GetMapping("/heatmap")
@@ -133,10 +154,12 @@ class TransactionControllerV2(private val transactionService: TransactionService
 
     @Operation(summary = "Return list of transaction types")
     @GetMapping("/types")
+    @Cacheable(cacheNames = [CacheConfig.TX_TYPES], keyGenerator = CacheConfig.NORMALIZED_KEY)
     fun txTypes() = transactionService.getTxTypes(null)
 
     @Operation(summary = "Return list of transaction types by Module")
     @GetMapping("/types/{module}")
+    @Cacheable(cacheNames = [CacheConfig.TX_TYPES], keyGenerator = CacheConfig.NORMALIZED_KEY)
     fun txTypesByModule(@PathVariable module: MsgTypeSet) = transactionService.getTxTypes(module)
 
     @Operation(summary = "Return list of transaction types by tx hash")
@@ -152,6 +175,7 @@ class TransactionControllerV2(private val transactionService: TransactionService
 
     @Operation(summary = "Returns transactions by query params for a specific module of msg types")
     @GetMapping("/module/{module}")
+    @Cacheable(cacheNames = [CacheConfig.TXS], keyGenerator = CacheConfig.NORMALIZED_KEY)
     fun txsByModule(
         @PathVariable module: MsgTypeSet,
         @Parameter(schema = Schema(defaultValue = "1"), required = false)
@@ -200,14 +224,21 @@ class TransactionControllerV2(private val transactionService: TransactionService
         )
         @RequestParam(required = false)
         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
-        toDate: LocalDate?
+        toDate: LocalDate?,
+        @Parameter(
+            description = "Opaque cursor from a previous response's `nextCursor`; when set, `page` is ignored",
+            required = false
+        )
+        @RequestParam(required = false)
+        cursor: String?
     ) = transactionService.getTxsByQuery(
         address, denom, module, msgType, null, txStatus, count, page, fromDate?.atStartOfDay(), toDate?.atStartOfDay(), nftAddr,
-        ibcChain, ibcSrcPort, ibcSrcChannel
+        ibcChain, ibcSrcPort, ibcSrcChannel, cursor
     )
 
     @Operation(summary = "Returns transactions by query params for a specific address")
     @GetMapping("/address/{address}")
+    @Cacheable(cacheNames = [CacheConfig.TXS], keyGenerator = CacheConfig.NORMALIZED_KEY)
     fun txsByAddress(
         @Parameter(description = "Use either the standard address or a validator operator address")
         @PathVariable
@@ -240,7 +271,13 @@ class TransactionControllerV2(private val transactionService: TransactionService
         )
         @RequestParam(required = false)
         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
-        toDate: LocalDate?
+        toDate: LocalDate?,
+        @Parameter(
+            description = "Opaque cursor from a previous response's `nextCursor`; when set, `page` is ignored",
+            required = false
+        )
+        @RequestParam(required = false)
+        cursor: String?
     ) = transactionService.getTxsByQuery(
         address = address,
         msgType = msgType,
@@ -248,7 +285,8 @@ class TransactionControllerV2(private val transactionService: TransactionService
         count = count,
         page = page,
         fromDate = fromDate?.atStartOfDay(),
-        toDate = toDate?.atStartOfDay()
+        toDate = toDate?.atStartOfDay(),
+        cursor = cursor
     )
 
     @Operation(summary = "Returns transactions by query params for a specific nft address")
@@ -285,7 +323,13 @@ class TransactionControllerV2(private val transactionService: TransactionService
         )
         @RequestParam(required = false)
         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
-        toDate: LocalDate?
+        toDate: LocalDate?,
+        @Parameter(
+            description = "Opaque cursor from a previous response's `nextCursor`; when set, `page` is ignored",
+            required = false
+        )
+        @RequestParam(required = false)
+        cursor: String?
     ) = transactionService.getTxsByQuery(
         msgType = msgType,
         txStatus = txStatus,
@@ -293,7 +337,8 @@ class TransactionControllerV2(private val transactionService: TransactionService
         page = page,
         fromDate = fromDate?.atStartOfDay(),
         toDate = toDate?.atStartOfDay(),
-        nftAddr = nftAddr
+        nftAddr = nftAddr,
+        cursor = cursor
     )
 
     @Operation(summary = "Returns transactions for governance module with unique response type")
@@ -413,9 +458,16 @@ class TransactionControllerV2(private val transactionService: TransactionService
         )
         @RequestParam(required = false)
         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
-        toDate: LocalDate?
+        toDate: LocalDate?,
+        @Parameter(
+            description = "Opaque cursor from a previous response's `nextCursor`; when set, `page` is ignored",
+            required = false
+        )
+        @RequestParam(required = false)
+        cursor: String?
     ) = transactionService.getTxsByQuery(
         msgType = msgType, txStatus = txStatus, count = count, page = page, fromDate = fromDate?.atStartOfDay(),
-        toDate = toDate?.atStartOfDay(), ibcChain = ibcChain, ibcSrcPort = ibcSrcPort, ibcSrcChannel = ibcSrcChannel
+        toDate = toDate?.atStartOfDay(), ibcChain = ibcChain, ibcSrcPort = ibcSrcPort, ibcSrcChannel = ibcSrcChannel,
+        cursor = cursor
     )
 }
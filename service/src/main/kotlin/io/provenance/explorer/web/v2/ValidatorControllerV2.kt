@@ -1,5 +1,7 @@
 package io.provenance.explorer.web.v2
 
+import io.provenance.explorer.config.CacheConfig
+import io.provenance.explorer.domain.annotation.ConditionalGet
 import io.provenance.explorer.model.ValidatorState
 import io.provenance.explorer.model.base.Timeframe
 import io.provenance.explorer.service.ExplorerService
@@ -10,6 +12,7 @@ import io.swagger.v3.oas.annotations.media.Schema
 import io.swagger.v3.oas.annotations.tags.Tag
 import jakarta.validation.constraints.Max
 import jakarta.validation.constraints.Min
+import org.springframework.cache.annotation.Cacheable
 import org.springframework.format.annotation.DateTimeFormat
 import org.springframework.http.MediaType
 import org.springframework.validation.annotation.Validated
@@ -34,6 +37,7 @@ class ValidatorControllerV2(
 
     @Operation(summary = "Returns recent validators")
     @GetMapping("/recent")
+    @Cacheable(cacheNames = [CacheConfig.VALIDATORS], keyGenerator = CacheConfig.NORMALIZED_KEY)
     @Deprecated("Use /api/v3/validators/recent")
     @java.lang.Deprecated
     fun validators(
@@ -57,6 +61,7 @@ class ValidatorControllerV2(
 
     @Operation(summary = "Returns set of active validators at block height")
     @GetMapping("/height/{blockHeight}")
+    @ConditionalGet(immutable = true, heightParam = "blockHeight")
     fun validatorsAtHeight(
         @PathVariable blockHeight: Int,
         @Parameter(description = "Record count between 1 and 50", schema = Schema(defaultValue = "10"), required = false)
@@ -72,6 +77,7 @@ class ValidatorControllerV2(
 
     @Operation(summary = "Returns all validators with an abbreviated data object")
     @GetMapping("/recent/abbrev")
+    @Cacheable(cacheNames = [CacheConfig.VALIDATORS], keyGenerator = CacheConfig.NORMALIZED_KEY)
     fun validatorsAllAbbrev() = validatorService.getAllValidatorsAbbrev()
 
     @Operation(summary = "Returns validator by operator, owning account, or consensus address")
@@ -193,5 +199,6 @@ class ValidatorControllerV2(
 
     @Operation(summary = "Return uptime data for all active validators")
     @GetMapping("/uptime")
+    @Cacheable(cacheNames = [CacheConfig.VALIDATORS], keyGenerator = CacheConfig.NORMALIZED_KEY)
     fun uptimeData() = validatorService.activeValidatorUptimeStats()
 }
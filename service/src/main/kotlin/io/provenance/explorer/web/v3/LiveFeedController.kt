@@ -0,0 +1,45 @@
+package io.provenance.explorer.web.v3
+
+import io.provenance.explorer.domain.models.explorer.LiveFeedFilter
+import io.provenance.explorer.service.LiveFeedService
+import io.swagger.v3.oas.annotations.Operation
+import io.swagger.v3.oas.annotations.Parameter
+import io.swagger.v3.oas.annotations.media.Schema
+import io.swagger.v3.oas.annotations.tags.Tag
+import org.springframework.http.MediaType
+import org.springframework.validation.annotation.Validated
+import org.springframework.web.bind.annotation.GetMapping
+import org.springframework.web.bind.annotation.RequestMapping
+import org.springframework.web.bind.annotation.RequestParam
+import org.springframework.web.bind.annotation.RestController
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter
+
+@Validated
+@RestController
+@RequestMapping(path = ["/api/v3/live"], produces = [MediaType.TEXT_EVENT_STREAM_VALUE])
+@Tag(
+    name = "Live Feed",
+    description = "Server-sent events for new blocks, transactions and the spotlight"
+)
+class LiveFeedController(private val liveFeedService: LiveFeedService) {
+
+    @Operation(
+        summary = "Streams new blocks with their tx hashes, and spotlight refreshes, as server-sent events",
+        description = "Emits `block` events as blocks are committed and `spotlight` events as the spotlight is " +
+            "refreshed. With an address or msg type filter, only blocks with matching txs are sent, carrying only " +
+            "those txs. Clients that fall too far behind are disconnected and should reconnect."
+    )
+    @GetMapping("/feed")
+    fun feed(
+        @Parameter(description = "Only include txs involving this address", required = false)
+        @RequestParam(required = false)
+        address: String?,
+        @Parameter(description = "Only include txs with this msg type, e.g. `send`", required = false)
+        @RequestParam(required = false)
+        msgType: String?,
+        @Parameter(description = "Include spotlight events", schema = Schema(defaultValue = "true"), required = false)
+        @RequestParam(defaultValue = "true")
+        spotlight: Boolean
+    ): SseEmitter =
+        liveFeedService.subscribe(LiveFeedFilter(address?.ifBlank { null }, msgType?.ifBlank { null }, spotlight))
+}
@@ -1,5 +1,6 @@
 package io.provenance.explorer.web.v3
 
+import io.provenance.explorer.config.CacheConfig
 import io.provenance.explorer.domain.models.explorer.download.ValidatorMetricsRequest
 import io.provenance.explorer.model.ValidatorState
 import io.provenance.explorer.service.MetricsService
@@ -11,6 +12,7 @@ import io.swagger.v3.oas.annotations.tags.Tag
 import jakarta.servlet.http.HttpServletResponse
 import jakarta.validation.constraints.Max
 import jakarta.validation.constraints.Min
+import org.springframework.cache.annotation.Cacheable
 import org.springframework.http.MediaType
 import org.springframework.validation.annotation.Validated
 import org.springframework.web.bind.annotation.GetMapping
@@ -33,6 +35,7 @@ class ValidatorControllerV3(
 
     @Operation(summary = "Returns recent validators")
     @GetMapping("/recent")
+    @Cacheable(cacheNames = [CacheConfig.VALIDATORS], keyGenerator = CacheConfig.NORMALIZED_KEY)
     fun validators(
         @Parameter(description = "Record count between 1 and 50", schema = Schema(defaultValue = "10"), required = false)
         @RequestParam(defaultValue = "10")
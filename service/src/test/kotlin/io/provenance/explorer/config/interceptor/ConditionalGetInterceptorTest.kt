@@ -0,0 +1,62 @@
+package io.provenance.explorer.config.interceptor
+
+import io.provenance.explorer.domain.annotation.ConditionalGet
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertNotEquals
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import java.time.LocalDate
+
+class ConditionalGetInterceptorTest {
+
+    private val today = LocalDate.of(2026, 10, 18)
+    private val byHeight = ConditionalGet(immutable = true, heightParam = "height")
+    private val byDate = ConditionalGet(immutable = true, dateParam = "date")
+
+    private fun params(vararg values: Pair<String, String>): (String) -> String? = values.toMap()::get
+
+    @Test
+    fun `height is settled only once the next height is committed`() {
+        assertTrue(ConditionalGetInterceptor.isSettled(byHeight, params("height" to "99"), 100, today))
+        assertFalse(ConditionalGetInterceptor.isSettled(byHeight, params("height" to "100"), 100, today))
+        assertFalse(ConditionalGetInterceptor.isSettled(byHeight, params("height" to "101"), 100, today))
+    }
+
+    @Test
+    fun `missing or malformed height is volatile`() {
+        assertFalse(ConditionalGetInterceptor.isSettled(byHeight, params(), 100, today))
+        assertFalse(ConditionalGetInterceptor.isSettled(byHeight, params("height" to "latest"), 100, today))
+    }
+
+    @Test
+    fun `date is settled only once the day has passed`() {
+        assertTrue(ConditionalGetInterceptor.isSettled(byDate, params("date" to "2026-10-17"), 100, today))
+        assertFalse(ConditionalGetInterceptor.isSettled(byDate, params("date" to "2026-10-18"), 100, today))
+        assertFalse(ConditionalGetInterceptor.isSettled(byDate, params("date" to "2026-10-19"), 100, today))
+        assertFalse(ConditionalGetInterceptor.isSettled(byDate, params("date" to "10/17/2026"), 100, today))
+        assertFalse(ConditionalGetInterceptor.isSettled(byDate, params(), 100, today))
+    }
+
+    @Test
+    fun `height and date must both be settled`() {
+        val spec = ConditionalGet(immutable = true, heightParam = "height", dateParam = "date")
+        assertTrue(
+            ConditionalGetInterceptor.isSettled(spec, params("height" to "50", "date" to "2026-10-01"), 100, today)
+        )
+        assertFalse(
+            ConditionalGetInterceptor.isSettled(spec, params("height" to "100", "date" to "2026-10-01"), 100, today)
+        )
+        assertFalse(
+            ConditionalGetInterceptor.isSettled(spec, params("height" to "50", "date" to "2026-10-18"), 100, today)
+        )
+    }
+
+    @Test
+    fun `etag is a quoted hash of the content`() {
+        val etag = ConditionalGetInterceptor.etagOf("""{"height":99}""".toByteArray())
+        assertTrue(etag.startsWith("\"") && etag.endsWith("\""))
+        assertEquals(etag, ConditionalGetInterceptor.etagOf("""{"height":99}""".toByteArray()))
+        assertNotEquals(etag, ConditionalGetInterceptor.etagOf("""{"height":100}""".toByteArray()))
+    }
+}
@@ -0,0 +1,31 @@
+package io.provenance.explorer.domain.core.sql
+
+import cosmos.base.abci.v1beta1.Abci
+import cosmos.tx.v1beta1.ServiceOuterClass
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Test
+
+class ProtoPayloadCodecTest {
+
+    private val tx = ServiceOuterClass.GetTxResponse.newBuilder()
+        .setTxResponse(
+            Abci.TxResponse.newBuilder()
+                .setTxhash("A1B2C3D4")
+                .setHeight(1234)
+                .setRawLog("repeated log ".repeat(100))
+        )
+        .build()
+
+    @Test
+    fun `should round trip uncompressed payload`() {
+        val bytes = ProtoPayloadCodec.encode(tx, false)
+        assertEquals(tx, ProtoPayloadCodec.decode(bytes, ServiceOuterClass.GetTxResponse.parser()))
+    }
+
+    @Test
+    fun `should round trip compressed payload`() {
+        val bytes = ProtoPayloadCodec.encode(tx, true)
+        assert(bytes.size < tx.serializedSize)
+        assertEquals(tx, ProtoPayloadCodec.decode(bytes, ServiceOuterClass.GetTxResponse.parser()))
+    }
+}
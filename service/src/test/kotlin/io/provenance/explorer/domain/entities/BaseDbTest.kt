@@ -17,6 +17,14 @@ abstract class BaseDbTest {
                     .replace("TIMESTAMPTZ", "TIMESTAMP")
                     .replace("TEXT", "VARCHAR(255)")
                 exec(sql)
+                // Only the tables; the backfill inserts that follow them read from `nav_events`
+                listOf("V1_122__Add_latest_nav.sql", "V1_127__Add_nav_daily_rollups.sql").forEach { file ->
+                    this::class.java.getResource("/db/migration/$file")!!.readText()
+                        .split(";")
+                        .map { stmt -> stmt.lines().filterNot { it.trim().startsWith("--") }.joinToString("\n").trim() }
+                        .filter { it.startsWith("CREATE TABLE") }
+                        .forEach { exec(it.replace("TEXT", "VARCHAR(255)")) }
+                }
             }
         }
     }
@@ -13,6 +13,8 @@ import org.junit.jupiter.api.Disabled
 import org.junit.jupiter.api.Test
 import java.time.LocalDateTime
 
+ private const val LATEST_TEST_DENOM = "uusd.test"
+
  @Disabled
  class NavEventsRecordTest : BaseDbTest() {
 
@@ -29,6 +31,8 @@ import java.time.LocalDateTime
             NavEventsRecord.insert(
                 3, LocalDateTime.now(), "hash3", 0, "marker_nav", null, "hash", 300L, "usdt", 3000L, "market"
             )
+            // `latest_nav` is filled per committed batch, not by insert
+            NavEventsRecord.upsertLatest(NavEventsRecord.getNavEvents())
         }
     }
 
@@ -36,6 +40,7 @@ import java.time.LocalDateTime
     fun cleanup() {
         transaction {
             NavEventsTable.deleteAll()
+            exec("DELETE FROM latest_nav")
         }
     }
 
@@ -148,8 +153,60 @@ import java.time.LocalDateTime
         assertTrue(events.isEmpty())
     }
 
+    @Test
+    fun `upsertLatest - keeps the newest height and event order per key`() = transaction {
+        NavEventsRecord.upsertLatest(
+            listOf(
+                latestNav("denom1", 10, 0, 100L),
+                latestNav("denom1", 10, 1, 101L),
+                latestNav("denom1", 9, 5, 90L),
+                latestNav("denom2", 8, 0, 80L)
+            )
+        )
+        val events = NavEventsRecord.getLatestNavEvents(LATEST_TEST_DENOM, includeMarkers = true, includeScopes = false)
+            .associateBy { it.denom }
+        assertEquals(2, events.size)
+        assertEquals(10, events["denom1"]!!.blockHeight)
+        assertEquals(1, events["denom1"]!!.eventOrder)
+        assertEquals(101L, events["denom1"]!!.priceAmount)
+        assertEquals(80L, events["denom2"]!!.priceAmount)
+    }
+
+    @Test
+    fun `upsertLatest - an older height does not replace a newer one`() = transaction {
+        NavEventsRecord.upsertLatest(listOf(latestNav("denom1", 20, 0, 200L)))
+        NavEventsRecord.upsertLatest(listOf(latestNav("denom1", 15, 3, 150L)))
+        NavEventsRecord.upsertLatest(listOf(latestNav("denom1", 20, 0, 199L)))
+
+        val event = NavEventsRecord.getLatestNavEvents(LATEST_TEST_DENOM, includeMarkers = true, includeScopes = false)
+            .single()
+        assertEquals(20, event.blockHeight)
+        assertEquals(200L, event.priceAmount)
+
+        NavEventsRecord.upsertLatest(listOf(latestNav("denom1", 21, 0, 210L)))
+        assertEquals(
+            210L,
+            NavEventsRecord.getLatestNavEvents(LATEST_TEST_DENOM, includeMarkers = true, includeScopes = false)
+                .single().priceAmount
+        )
+    }
+
+    @Test
+    fun `upsertLatest - writes every key across batches when given out of key order`() = transaction {
+        val keyCount = LATEST_NAV_BATCH_SIZE * 2 + 1
+        NavEventsRecord.upsertLatest((keyCount downTo 1).map { latestNav("denom$it", it, 0, it.toLong()) })
+
+        val events = NavEventsRecord.getLatestNavEvents(LATEST_TEST_DENOM, includeMarkers = true, includeScopes = false)
+        assertEquals(keyCount, events.size)
+        assertEquals(events.map { it.denom }.sorted(), events.map { it.denom })
+        events.forEach { assertEquals("denom${it.priceAmount}", it.denom) }
+    }
+
     @Test
     fun `TODO test`() = transaction {
         executeSqlFile("src/test/resources/navs/marker-nav-inserts.sql")
     }
+
+    private fun latestNav(denom: String, height: Int, order: Int, amount: Long) =
+        NavEvent(height, LocalDateTime.now(), "hash$height", order, "marker_nav", null, denom, amount, LATEST_TEST_DENOM, 1L, "market")
  }
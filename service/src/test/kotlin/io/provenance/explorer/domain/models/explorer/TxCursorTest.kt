@@ -0,0 +1,36 @@
+package io.provenance.explorer.domain.models.explorer
+
+import io.provenance.explorer.domain.exceptions.InvalidArgumentException
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertThrows
+import org.junit.jupiter.api.Test
+import java.util.Base64
+
+class TxCursorTest {
+
+    @Test
+    fun `decode returns the encoded position`() {
+        val cursor = TxCursor(24_310_455, 987_654_321)
+        assertEquals(cursor, TxCursor.decode(cursor.encode()))
+    }
+
+    @Test
+    fun `encode is url safe and unpadded`() {
+        val encoded = TxCursor(1, 22).encode()
+        assertFalse(encoded.any { it == '=' || it == '+' || it == '/' })
+    }
+
+    @Test
+    fun `decode rejects tokens that are not a cursor`() {
+        listOf(
+            "",
+            "not a cursor!",
+            Base64.getUrlEncoder().encodeToString("12345".toByteArray()),
+            Base64.getUrlEncoder().encodeToString("height:id".toByteArray())
+        ).forEach { token ->
+            val ex = assertThrows(InvalidArgumentException::class.java) { TxCursor.decode(token) }
+            assertEquals("Invalid cursor: $token", ex.message)
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package io.provenance.explorer.grpc.v1
 
 import cosmos.tx.v1beta1.ServiceOuterClass
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import io.provenance.explorer.config.ExplorerProperties
 import io.provenance.explorer.domain.exceptions.TendermintApiException
 import kotlinx.coroutines.runBlocking
 import org.junit.jupiter.api.Disabled
 import org.junit.jupiter.api.Test
+import org.mockito.Mockito.mock
 import java.net.URI
 
 class TransactionGrpcClientTest {
@@ -13,7 +16,7 @@ class TransactionGrpcClientTest {
     @Disabled("Test was used to manually call the endpoint")
     fun `test getTxsByHeight success`() = runBlocking {
         val uri = URI("grpcs://grpc.test.provenance.io:443")
-        val transactionGrpcClient = TransactionGrpcClient(uri)
+        val transactionGrpcClient = TransactionGrpcClient(uri, mock(ExplorerProperties::class.java), SimpleMeterRegistry())
 
         try {
             val height = 23440770
@@ -0,0 +1,65 @@
+package io.provenance.explorer.service.pulse
+
+import io.ktor.client.HttpClient
+import io.ktor.client.engine.java.Java
+import io.provenance.explorer.config.pulse.PulseProperties
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.Paths
+import java.time.LocalDate
+
+class LoanLedgerClientTest {
+
+    private fun client(dir: Path) =
+        LoanLedgerClient(
+            PulseProperties(
+                loanLedgerDataUrl = dir.toUri().toString(),
+                hashHoldersExcludedFromCirculatingSupply = emptySet(),
+                privateEquityTvlDenoms = emptyList(),
+                hftExchangeApi = ""
+            ),
+            HttpClient(Java)
+        )
+
+    private val stubDir = Paths.get(this::class.java.getResource("/pulse/loan-ledger")!!.toURI())
+
+    @Test
+    fun `reads ledger entries from the file stub`() {
+        val payments = client(stubDir).ledger("payments")
+
+        assertEquals(1, payments.size)
+        assertEquals("Payment", payments.first().ledgerEntryType)
+        assertEquals(1250.50, payments.first().entryAmount)
+    }
+
+    @Test
+    fun `prefers the dated stub file and falls back to the undated one`() {
+        val client = client(stubDir)
+
+        assertEquals("118500000.00", client.balances(LocalDate.of(2024, 6, 1))["TotalBalance"].asText())
+        assertEquals("125000000.25", client.balances(LocalDate.of(2024, 6, 2))["TotalBalance"].asText())
+        assertEquals("4210", client.balances()["TotalCount"].asText())
+    }
+
+    @Test
+    fun `shares reads within a snapshot and not with reads outside it`(@TempDir dir: Path) {
+        val client = client(dir)
+        val balances = dir.resolve("balances.json")
+        Files.writeString(balances, """{"TotalBalance": "1", "TotalCount": "1"}""")
+
+        client.snapshot { snapshot ->
+            assertEquals("1", client.balances(snapshot = snapshot)["TotalBalance"].asText())
+            Files.writeString(balances, """{"TotalBalance": "2", "TotalCount": "2"}""")
+            assertEquals("1", client.balances(snapshot = snapshot)["TotalBalance"].asText())
+            assertEquals("1", client.balances(snapshot = snapshot)["TotalCount"].asText())
+            assertEquals("2", client.balances()["TotalBalance"].asText())
+        }
+
+        client.snapshot { snapshot ->
+            assertEquals("2", client.balances(snapshot = snapshot)["TotalBalance"].asText())
+        }
+    }
+}